@@ -14,10 +14,13 @@ package org.eclipse.gmf.runtime.common.core.command;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.ICompositeOperation;
@@ -34,6 +37,7 @@ import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.gmf.runtime.common.core.internal.CommonCoreDebugOptions;
 import org.eclipse.gmf.runtime.common.core.internal.CommonCorePlugin;
 import org.eclipse.gmf.runtime.common.core.internal.CommonCoreStatusCodes;
+import org.eclipse.gmf.runtime.common.core.internal.command.CommandMergers;
 import org.eclipse.gmf.runtime.common.core.internal.l10n.CommonCoreMessages;
 import org.eclipse.gmf.runtime.common.core.util.Log;
 import org.eclipse.gmf.runtime.common.core.util.Trace;
@@ -56,6 +60,10 @@ import org.eclipse.gmf.runtime.common.core.util.Trace;
  * If a child command returns a cancel or an error status during execution, undo
  * or redo, the remaining child commands are not processed and those that have
  * already been executed are rolled back.
+ * <P>
+ * Composites with many children are compacted before they are executed (see
+ * {@link #compact()}), so that executing, undoing and redoing large trees
+ * visits as few child operations as possible.
  * 
  * @author ldamus
  */
@@ -63,10 +71,29 @@ public class CompositeCommand
     extends AbstractCommand
     implements ICompositeCommand {
 
+    /**
+     * The number of operations from which I compact myself before I am
+     * executed, counting the children of the nested composites that
+     * {@link #compact()} would flatten rather than the composites themselves.
+     */
+    private static final int COMPACTION_THRESHOLD = 32;
+
     private final List children;
 
     private boolean executed;
 
+    /**
+     * The number of children that contributed each of my undo contexts, so
+     * that removing a child does not need to visit all of the others.
+     */
+    private final Map<IUndoContext, int[]> contextCounts = new HashMap<IUndoContext, int[]>();
+
+    /**
+     * The affected files of my children, computed once I have been executed
+     * and my children can no longer change.
+     */
+    private List affectedFiles;
+
     /**
      * Initializes me with a label.
      * 
@@ -163,6 +190,23 @@ public class CompositeCommand
             if (!hasContext(childContexts[i])) {
                 addContext(childContexts[i]);
             }
+            countContext(childContexts[i]);
+        }
+    }
+
+    /**
+     * Records that one more child has the specified context.
+     * 
+     * @param ctx
+     *            a context
+     */
+    private void countContext(IUndoContext ctx) {
+        int[] count = contextCounts.get(ctx);
+
+        if (count == null) {
+            contextCounts.put(ctx, new int[] {1});
+        } else {
+            count[0]++;
         }
     }
 
@@ -201,7 +245,16 @@ public class CompositeCommand
         IUndoContext[] childContexts = operation.getContexts();
 
         for (int i = 0; i < childContexts.length; i++) {
+            int[] count = contextCounts.get(childContexts[i]);
+
+            if (count != null && --count[0] > 0) {
+                // other children still have this context
+                continue;
+            }
+            contextCounts.remove(childContexts[i]);
 
+            // the child may have been given the context after it was added,
+            // or other children may have been added without being counted
             if (!anyChildHasContext(childContexts[i])) {
                 removeContext(childContexts[i]);
             }
@@ -342,6 +395,128 @@ public class CompositeCommand
 		return this;
 	}
 
+    /**
+     * Compacts my children. Nested children that are exactly
+     * <code>CompositeCommand</code>s and have not been executed are replaced by
+     * their own children, recursively, and each child for which a merger is
+     * registered with {@link CommandMergers} is given the chance to absorb the
+     * child that follows it. Executing, undoing and redoing the compacted
+     * composite has the same effect as before, but visits fewer child
+     * operations and keeps fewer of them in the operation history.
+     * <P>
+     * I compact myself when I am executed with many children, so clients
+     * only need to call this to compact a composite that they keep for
+     * themselves.
+     * 
+     * @throws IllegalStateException
+     *             if I have already been successfully executed
+     */
+    public void compact() {
+
+        assertNotExecuted();
+
+        List compacted = new ArrayList(size());
+        Map seen = new IdentityHashMap();
+
+        if (!collectCompacted(getChildren(), compacted, seen)
+            || compacted.size() == size()) {
+            // a shared child would be executed twice if it were flattened,
+            // and there is nothing to gain if no child was flattened or merged
+            return;
+        }
+
+        getChildren().clear();
+        getChildren().addAll(compacted);
+        affectedFiles = null;
+
+        // my contexts already include those of the nested children, but
+        // the counts need to match the new children
+        contextCounts.clear();
+        for (Iterator iter = compacted.iterator(); iter.hasNext();) {
+            IUndoContext[] childContexts = ((IUndoableOperation) iter.next())
+                .getContexts();
+
+            for (int i = 0; i < childContexts.length; i++) {
+                countContext(childContexts[i]);
+            }
+        }
+    }
+
+    /**
+     * Appends the compacted form of <code>operations</code> to
+     * <code>result</code>.
+     * 
+     * @param operations
+     *            the operations to compact
+     * @param result
+     *            the list of compacted operations
+     * @param seen
+     *            the operations visited so far
+     * @return <code>false</code> if an operation occurs more than once in the
+     *         tree, in which case the tree cannot be compacted,
+     *         <code>true</code> otherwise
+     */
+    private static boolean collectCompacted(List operations, List result,
+            Map seen) {
+
+        for (Iterator iter = operations.iterator(); iter.hasNext();) {
+            IUndoableOperation next = (IUndoableOperation) iter.next();
+
+            if (seen.put(next, next) != null) {
+                return false;
+            }
+
+            if (next.getClass() == CompositeCommand.class
+                && !((CompositeCommand) next).isExecuted()) {
+
+                if (!collectCompacted(((CompositeCommand) next).getChildren(),
+                    result, seen)) {
+                    return false;
+                }
+                continue;
+            }
+
+            if (!result.isEmpty()) {
+                Object previous = result.get(result.size() - 1);
+
+                if (CommandMergers.merge((IUndoableOperation) previous, next)) {
+                    continue;
+                }
+            }
+            result.add(next);
+        }
+        return true;
+    }
+
+    /**
+     * Counts <code>operations</code> as {@link #compact()} would flatten them,
+     * stopping as soon as <code>limit</code> is reached.
+     * 
+     * @param operations
+     *            the operations to count
+     * @param limit
+     *            the count beyond which there is no need to count
+     * @return the number of operations, at most <code>limit</code>
+     */
+    private static int countOperations(List operations, int limit) {
+
+        int count = 0;
+
+        for (Iterator iter = operations.iterator(); iter.hasNext()
+            && count < limit;) {
+            Object next = iter.next();
+
+            if (next.getClass() == CompositeCommand.class
+                && !((CompositeCommand) next).isExecuted()) {
+                count += countOperations(((CompositeCommand) next)
+                    .getChildren(), limit - count);
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
 	 * Returns a list containing all of the return values from
 	 * <code>ICommand</code> children.
@@ -391,6 +566,11 @@ public class CompositeCommand
             IProgressMonitor progressMonitor, IAdaptable info)
         throws ExecutionException {
 
+        if (!isExecuted()
+            && countOperations(getChildren(), COMPACTION_THRESHOLD) >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+
         List result = new ArrayList(size());
 
         progressMonitor.beginTask(getLabel(), size());
@@ -782,6 +962,10 @@ public class CompositeCommand
      */
     public List getAffectedFiles() {
 
+        if (affectedFiles != null) {
+            return new ArrayList(affectedFiles);
+        }
+
         HashSet result = new HashSet();
 
         for (Iterator i = iterator(); i.hasNext();) {
@@ -796,6 +980,11 @@ public class CompositeCommand
                 }
             }
         }
+
+        if (isExecuted()) {
+            // my children can no longer change
+            affectedFiles = new ArrayList(result);
+        }
         return new ArrayList(result);
     }
 
@@ -0,0 +1,70 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.common.core.internal.command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.commands.operations.IUndoableOperation;
+
+/**
+ * The {@link ICommandMerger}s, by the exact class of the commands that they
+ * merge. Subclasses of those commands are not merged, since they may do more
+ * than what the merger knows of. Command classes register their merger when
+ * they are initialized.
+ */
+public final class CommandMergers {
+
+    private static final Map<Class, ICommandMerger> mergers = new HashMap<Class, ICommandMerger>();
+
+    private CommandMergers() {
+        // not instantiable
+    }
+
+    /**
+     * Registers the merger of a command class.
+     *
+     * @param commandClass
+     *            the class of the commands
+     * @param merger
+     *            the merger
+     */
+    public static void register(Class commandClass, ICommandMerger merger) {
+        synchronized (mergers) {
+            mergers.put(commandClass, merger);
+        }
+    }
+
+    /**
+     * Merges <code>next</code> into <code>previous</code> if a merger is
+     * registered for the class of <code>previous</code> and accepts to.
+     *
+     * @param previous
+     *            the operation to merge into
+     * @param next
+     *            the operation that immediately follows it
+     * @return <code>true</code> if <code>next</code> was merged into
+     *         <code>previous</code> and can be discarded, <code>false</code>
+     *         otherwise
+     * @see ICommandMerger#merge(IUndoableOperation, IUndoableOperation)
+     */
+    public static boolean merge(IUndoableOperation previous,
+            IUndoableOperation next) {
+        ICommandMerger merger;
+
+        synchronized (mergers) {
+            merger = mergers.get(previous.getClass());
+        }
+        return merger != null && merger.merge(previous, next);
+    }
+}
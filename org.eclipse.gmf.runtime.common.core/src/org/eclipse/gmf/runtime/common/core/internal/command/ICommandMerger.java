@@ -0,0 +1,45 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.common.core.internal.command;
+
+import org.eclipse.core.commands.operations.IUndoableOperation;
+import org.eclipse.gmf.runtime.common.core.command.CompositeCommand;
+
+/**
+ * Internal interface designating an object that lets a command absorb the
+ * command that immediately follows it in a {@link CompositeCommand}. Used by
+ * {@link CompositeCommand#compact()} to fuse long runs of small commands
+ * before they are executed. Mergers are registered with
+ * {@link CommandMergers} for the class of the commands they merge, so that
+ * the commands themselves do not expose this contract.
+ */
+public interface ICommandMerger {
+
+    /**
+     * Merges <code>next</code> into <code>previous</code> if executing,
+     * undoing and redoing the merged command has exactly the same effect as
+     * executing, undoing and redoing <code>previous</code> followed by
+     * <code>next</code>. Neither command has been executed when this method
+     * is called.
+     *
+     * @param previous
+     *            the operation to merge into, an instance of the class the
+     *            merger is registered for
+     * @param next
+     *            the operation that immediately follows it
+     * @return <code>true</code> if <code>next</code> was merged into
+     *         <code>previous</code> and can be discarded, <code>false</code>
+     *         otherwise
+     */
+    public boolean merge(IUndoableOperation previous, IUndoableOperation next);
+}
@@ -17,6 +17,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -358,6 +359,18 @@ public abstract class Service
 	 */
 	private final boolean optimistic;
 
+	/**
+	 * The number of times the providers for an operation were found in the
+	 * cache.
+	 */
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	/**
+	 * The number of times the providers for an operation had to be looked up
+	 * and were then added to the cache.
+	 */
+	private final AtomicLong cacheMisses = new AtomicLong();
+
 	/**
 	 * Constructs a new service that is not optimized.
 	 */
@@ -443,12 +456,33 @@ public abstract class Service
 	 * {@link #createPriorityCache()}.
 	 * 
 	 * @param operation <code>IOperation</code> for which the key will be retrieved
-	 * @return the key into the service providers cache
+	 * @return the key into the service providers cache, or <code>null</code>
+	 *         if the providers for the operation must not be cached
 	 */
 	protected Object getCachingKey(IOperation operation) {
 		return operation;
 	}
 
+	/**
+	 * Answers whether or not this service trusts an empty list of providers
+	 * found in its cache. This value is only meaningful if the service is
+	 * optimized and not optimistic, as an optimistic service trusts all of
+	 * its cache.
+	 * <P>
+	 * By default, an empty list from the cache is looked up again, since
+	 * there is no cached provider to double-check. Services whose providers
+	 * provide alike for all the operations that share a caching key may
+	 * override this method to return <code>true</code>, so that the
+	 * operations for which no provider of a priority provides are not looked
+	 * up every time.
+	 * 
+	 * @return <code>true</code> if an empty list of providers is cached like
+	 *         any other, <code>false</code> otherwise
+	 */
+	protected boolean isEmptyResultCached() {
+		return false;
+	}
+
 	/**
 	 * Answers whether or not this service is optimized by caching its service
 	 * providers.
@@ -494,6 +528,29 @@ public abstract class Service
 		}
 	}
 
+	/**
+	 * Retrieves the number of times the providers for an operation were found
+	 * in the cache of this service, one count per provider priority.
+	 * 
+	 * @return the number of cache hits, always <code>0</code> if this service
+	 *         is not optimized
+	 */
+	public final long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Retrieves the number of times the providers for an operation could not
+	 * be found in the cache of this service and had to be looked up, one
+	 * count per provider priority.
+	 * 
+	 * @return the number of cache misses, always <code>0</code> if this
+	 *         service is not optimized
+	 */
+	public final long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
 	/**
 	 * Retrieves a complete list of all the providers registered with this
 	 * service that have the specified <code>priority</code>.
@@ -534,19 +591,27 @@ public abstract class Service
 
 		List providerList;
 
-		if (null == cache) {
+		Object cachingKey = null == cache ? null : getCachingKey(operation);
+
+		if (null == cachingKey) {
 			providerList = strategy.getUncachedProviders(this, priority, operation);
 		} else {
-			Object cachingKey = getCachingKey(operation);
 			Map map = cache[priority.getOrdinal()];
 			providerList = (List)map.get(cachingKey);
 
 			if (null != providerList) {
-				if (optimistic)
+				if (optimistic) {
+					cacheHits.incrementAndGet();
 					return providerList;
+				}
 
 				int n = providerList.size();
 
+				if (n == 0 && isEmptyResultCached()) {
+					cacheHits.incrementAndGet();
+					return providerList;
+				}
+
 				if (n != 0) {
 					for (int i = 0;;) {
 						IProvider provider = (IProvider)providerList.get(i);
@@ -554,12 +619,15 @@ public abstract class Service
 						if (!safeProvides(provider, operation))
 							break;
 
-						if (++i == n)
+						if (++i == n) {
+							cacheHits.incrementAndGet();
 							return providerList;
+						}
 					}
 				}
 			}
 
+			cacheMisses.incrementAndGet();
 			providerList = strategy.getUncachedProviders(this, priority, operation);
 			map.put(cachingKey, providerList);
 		}
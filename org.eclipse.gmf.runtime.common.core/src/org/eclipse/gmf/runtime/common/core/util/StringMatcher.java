@@ -19,6 +19,12 @@ import java.util.Vector;
  * 
  * This class is cloned from org.eclipse.ui.internal.misc.StringMatcher
  * 
+ * The pattern is compiled once, when the matcher is constructed: its segments
+ * are stored as character arrays, folded to both cases when case is ignored,
+ * and patterns without wildcards, or with a single trailing wildcard, are
+ * matched without searching the text. Matching does not allocate, so a
+ * matcher can be applied to long lists of names, for instance with
+ * {@link #match(String[], boolean[])}.
  */
 public class StringMatcher {
 
@@ -49,6 +55,36 @@ public class StringMatcher {
 	/** The single wildcard character */
 	protected static final char fSingleWildCard = '\u0000';
 
+	/** The kind of a pattern made of wildcards and segments */
+	private static final int GENERAL = 0;
+
+	/** The kind of a pattern made of a single segment */
+	private static final int EXACT = 1;
+
+	/** The kind of a pattern made of a single segment and a trailing wildcard */
+	private static final int PREFIX = 2;
+
+	/** The kind of this pattern */
+	private int fKind;
+
+	/** The characters of the segments */
+	private char[][] fSegmentChars;
+
+	/** The characters of the segments in lower case, when case is ignored */
+	private char[][] fLowerSegmentChars;
+
+	/** The characters of the segments in upper case, when case is ignored */
+	private char[][] fUpperSegmentChars;
+
+	/**
+	 * The characters of the segments converted to upper case then to lower
+	 * case, when case is ignored
+	 */
+	private char[][] fFoldedSegmentChars;
+
+	/** Whether each segment contains single wildcards */
+	private boolean[] fSegmentHasSingleWildCard;
+
 	/**
 	 * Keeps track of the internal position of the matcher.
 	 */
@@ -133,6 +169,7 @@ public class StringMatcher {
 		} else {
 			parseWildCards();
 		}
+		compile();
 	}
 
 	/**
@@ -201,6 +238,18 @@ public class StringMatcher {
 		return match(text, 0, text.length());
 	}
 
+	/**
+	 * match the given <code>text</code> with the pattern
+	 * 
+	 * @return true if matched eitherwise false
+	 * @param text
+	 *            a character sequence, such as a <code>StringBuffer</code>
+	 *            being edited
+	 */
+	public boolean match(CharSequence text) {
+		return match(text, 0, text.length());
+	}
+
 	/**
 	 * Given the starting (inclusive) and the ending (exclusive) positions in
 	 * the <code>text</code>, determine if the given substring matches with
@@ -218,6 +267,47 @@ public class StringMatcher {
 	 *            substring
 	 */
 	public boolean match(String text, int start, int end) {
+		return match((CharSequence) text, start, end);
+	}
+
+	/**
+	 * Matches each text of an array with the pattern.
+	 * 
+	 * @param texts
+	 *            the texts to match; <code>null</code> texts do not match
+	 * @param results
+	 *            receives, at the index of each text, whether the text
+	 *            matches; must be at least as long as <code>texts</code>
+	 * @return the number of texts that match
+	 */
+	public int match(String[] texts, boolean[] results) {
+		if (texts == null || results == null || results.length < texts.length)
+			throw new IllegalArgumentException();
+
+		int count = 0;
+		for (int i = 0; i < texts.length; i++) {
+			String text = texts[i];
+			results[i] = text != null && match(text, 0, text.length());
+			if (results[i])
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Given the starting (inclusive) and the ending (exclusive) positions in
+	 * the <code>text</code>, determine if the given subsequence matches with
+	 * aPattern
+	 * 
+	 * @return true if the specified portion of the text matches the pattern
+	 * @param text
+	 *            a character sequence that contains the subsequence to match
+	 * @param start
+	 *            marks the starting position (inclusive) of the subsequence
+	 * @param end
+	 *            marks the ending index (exclusive) of the subsequence
+	 */
+	public boolean match(CharSequence text, int start, int end) {
 		if (null == text)
 			throw new IllegalArgumentException();
 
@@ -225,9 +315,8 @@ public class StringMatcher {
 			return false;
 
 		if (fIgnoreWildCards)
-			return (end - start == fLength)
-				&& fPattern.regionMatches(fIgnoreCase, 0, text, start, fLength);
-		int segCount = fSegments.length;
+			return (end - start == fLength) && segmentMatches(text, start, 0);
+		int segCount = fSegmentChars.length;
 		if (segCount == 0 && (fHasLeadingStar || fHasTrailingStar)) // pattern
 			// contains
 			// only
@@ -244,54 +333,191 @@ public class StringMatcher {
 		if (end > tlen)
 			end = tlen;
 
-		int tCurPos = start;
 		int bound = end - fBound;
 		if (bound < 0)
 			return false;
+
+		switch (fKind) {
+			case EXACT:
+				return end - start == fSegmentChars[0].length
+					&& segmentMatches(text, start, 0);
+			case PREFIX:
+				return segmentMatches(text, start, 0);
+			default:
+				break;
+		}
+
+		int tCurPos = start;
 		int i = 0;
-		String current = fSegments[i];
-		int segLength = current.length();
+		int segLength = fSegmentChars[i].length;
 
 		/* process first segment */
 		if (!fHasLeadingStar) {
-			if (!regExpRegionMatches(text, start, current, 0, segLength)) {
+			if (!segmentMatches(text, start, i)) {
 				return false;
 			} else {
 				++i;
 				tCurPos = tCurPos + segLength;
 			}
 		}
-		if ((fSegments.length == 1) && (!fHasLeadingStar)
-			&& (!fHasTrailingStar)) {
-			// only one segment to match, no wildcards specified
-			return tCurPos == end;
-		}
 		/* process middle segments */
+		int current = 0;
 		while (i < segCount) {
-			current = fSegments[i];
-			int currentMatch;
-			int k = current.indexOf(fSingleWildCard);
-			if (k < 0) {
-				currentMatch = textPosIn(text, tCurPos, end, current);
-				if (currentMatch < 0)
-					return false;
-			} else {
-				currentMatch = regExpPosIn(text, tCurPos, end, current);
-				if (currentMatch < 0)
-					return false;
-			}
-			tCurPos = currentMatch + current.length();
+			current = i;
+			int currentMatch = segmentPosIn(text, tCurPos, end, current);
+			if (currentMatch < 0)
+				return false;
+			tCurPos = currentMatch + fSegmentChars[current].length;
 			i++;
 		}
 
 		/* process final segment */
 		if (!fHasTrailingStar && tCurPos != end) {
-			int clen = current.length();
-			return regExpRegionMatches(text, end - clen, current, 0, clen);
+			int clen = fSegmentChars[current].length;
+			return segmentMatches(text, end - clen, current);
 		}
 		return i == segCount;
 	}
 
+	/**
+	 * Compiles the segments of the pattern, once they have been parsed.
+	 */
+	private void compile() {
+		int segCount = fSegments.length;
+		fSegmentChars = new char[segCount][];
+		fSegmentHasSingleWildCard = new boolean[segCount];
+		if (fIgnoreCase) {
+			fLowerSegmentChars = new char[segCount][];
+			fUpperSegmentChars = new char[segCount][];
+			fFoldedSegmentChars = new char[segCount][];
+		}
+		for (int i = 0; i < segCount; i++) {
+			char[] chars = fSegments[i].toCharArray();
+			fSegmentChars[i] = chars;
+			fSegmentHasSingleWildCard[i] = !fIgnoreWildCards
+				&& fSegments[i].indexOf(fSingleWildCard) >= 0;
+			if (fIgnoreCase) {
+				char[] lower = new char[chars.length];
+				char[] upper = new char[chars.length];
+				char[] folded = new char[chars.length];
+				for (int k = 0; k < chars.length; k++) {
+					lower[k] = Character.toLowerCase(chars[k]);
+					upper[k] = Character.toUpperCase(chars[k]);
+					folded[k] = Character.toLowerCase(upper[k]);
+				}
+				fLowerSegmentChars[i] = lower;
+				fUpperSegmentChars[i] = upper;
+				fFoldedSegmentChars[i] = folded;
+			}
+		}
+
+		fKind = GENERAL;
+		if (segCount == 1 && !fHasLeadingStar)
+			fKind = fHasTrailingStar ? PREFIX
+				: EXACT;
+	}
+
+	/**
+	 * Determines if a compiled segment, which may contain single wildcards,
+	 * matches the text at the given position.
+	 * 
+	 * @param text
+	 *            the text
+	 * @param tStart
+	 *            the position in the text
+	 * @param segment
+	 *            the index of the segment
+	 * @return true if the segment matches, false otherwise
+	 */
+	private boolean segmentMatches(CharSequence text, int tStart, int segment) {
+		char[] chars = fSegmentChars[segment];
+		int plen = chars.length;
+		if (tStart < 0 || tStart + plen > text.length())
+			return false;
+
+		for (int k = 0; k < plen; k++) {
+			char pchar = chars[k];
+			char tchar = text.charAt(tStart + k);
+			if (pchar == tchar)
+				continue;
+			/* skip single wild cards */
+			if (pchar == fSingleWildCard && !fIgnoreWildCards)
+				continue;
+			if (fIgnoreCase && equalsIgnoreCase(tchar, segment, k))
+				continue;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Compares a character of the text with a character of a compiled segment,
+	 * ignoring case like <code>String.regionMatches(true, ...)</code> does.
+	 */
+	private boolean equalsIgnoreCase(char tchar, int segment, int index) {
+		char upper = fUpperSegmentChars[segment][index];
+		char lower = fLowerSegmentChars[segment][index];
+		char folded = fFoldedSegmentChars[segment][index];
+		if (tchar < 128) {
+			// fold ASCII characters without looking up the character tables
+			if (tchar >= 'a' && tchar <= 'z')
+				return (char) (tchar - 32) == upper || tchar == lower
+					|| tchar == folded;
+			if (tchar >= 'A' && tchar <= 'Z')
+				return tchar == upper || (char) (tchar + 32) == lower
+					|| (char) (tchar + 32) == folded;
+			return tchar == upper || tchar == lower || tchar == folded;
+		}
+		// comparing after converting to upper case doesn't handle all
+		// cases; also compare after converting to lower case
+		char tupper = Character.toUpperCase(tchar);
+		return tupper == upper || Character.toLowerCase(tchar) == lower
+			|| Character.toLowerCase(tupper) == folded;
+	}
+
+	/**
+	 * Finds the first position of a compiled segment in the text.
+	 * 
+	 * @param text
+	 *            the text
+	 * @param start
+	 *            the starting index in the text for search, inclusive
+	 * @param end
+	 *            the stopping point of search, exclusive
+	 * @param segment
+	 *            the index of the segment
+	 * @return the starting index in the text of the segment, or -1 if not
+	 *         found
+	 */
+	private int segmentPosIn(CharSequence text, int start, int end, int segment) {
+		char[] chars = fSegmentChars[segment];
+		int max = end - chars.length;
+		if (max < start)
+			return -1;
+		if (chars.length == 0)
+			return start;
+
+		if (!fIgnoreCase && !fSegmentHasSingleWildCard[segment]
+			&& text instanceof String) {
+			int i = ((String) text).indexOf(fSegments[segment], start);
+			if (i == -1 || i > max)
+				return -1;
+			return i;
+		}
+
+		// only test the whole segment where its first character matches
+		char first = chars[0];
+		boolean anyFirst = first == fSingleWildCard && !fIgnoreWildCards;
+		for (int i = start; i <= max; ++i) {
+			if (!anyFirst && text.charAt(i) != first
+				&& !(fIgnoreCase && equalsIgnoreCase(text.charAt(i), segment, 0)))
+				continue;
+			if (segmentMatches(text, i, segment))
+				return i;
+		}
+		return -1;
+	}
+
 	/**
 	 * This method parses the given pattern into segments seperated by wildcard
 	 * '*' characters. Since wildcards are not being used in this case, the
@@ -11,6 +11,8 @@
  ****************************************************************************/
 package org.eclipse.gmf.runtime.common.ui.services.elementselection;
 
+import java.util.Iterator;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.gmf.runtime.common.core.service.AbstractProvider;
@@ -37,6 +39,11 @@ public abstract class AbstractElementSelectionProvider
      */
     private IElementSelectionListener elementSelectionListener;
 
+    /**
+     * The result of the last search of the name index, refined when the user
+     * extends the pattern.
+     */
+    private ElementSelectionNameIndex.Result lastNameIndexResult;
 
     /**
      * {@inheritDoc}
@@ -84,8 +91,40 @@ public abstract class AbstractElementSelectionProvider
      */
     public void run(IProgressMonitor monitor) {
         /** 
-         * Extenders are expected to override.
+         * Extenders are expected to override, or to provide a name index.
          */
+        ElementSelectionNameIndex nameIndex = getNameIndex();
+        if (nameIndex == null) {
+            return;
+        }
+        ElementSelectionNameIndex.Result result = nameIndex.search(
+            getElementSelectionInput().getInput(), lastNameIndexResult,
+            monitor);
+        lastNameIndexResult = result;
+        for (Iterator i = result.getMatchingObjects().iterator(); i.hasNext();) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            IMatchingObject matchingObject = (IMatchingObject) i.next();
+            if (getElementSelectionInput().getFilter().select(matchingObject)) {
+                fireMatchingObjectEvent(matchingObject);
+            }
+        }
+        fireEndOfMatchesEvent();
+    }
+
+    /**
+     * Retrieve the index of the names of the elements this provider searches.
+     * When a provider returns an index, the default implementation of
+     * {@link #run(IProgressMonitor)} looks the user input up in the index
+     * instead of scanning the scope of the provider. The provider is
+     * responsible for keeping the index up to date.
+     * 
+     * @return the name index, or <code>null</code> if this provider does not
+     *         have one.
+     */
+    protected ElementSelectionNameIndex getNameIndex() {
+        return null;
     }
 
     /**
@@ -14,11 +14,10 @@ package org.eclipse.gmf.runtime.common.ui.services.elementselection;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.gmf.runtime.common.core.util.StringStatics;
+import org.eclipse.gmf.runtime.common.ui.services.internal.elementselection.NamePattern;
 import org.eclipse.gmf.runtime.common.ui.services.internal.l10n.CommonUIServicesMessages;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.resource.JFaceResources;
@@ -130,7 +129,7 @@ public abstract class ElementSelectionComposite
     /**
      * Pattern for the input filter.
      */
-    private Pattern pattern;
+    private NamePattern pattern;
 
     /**
      * Constructs a new instance that will create the new composite. I will use
@@ -298,8 +297,7 @@ public abstract class ElementSelectionComposite
             return;
         }
 
-        String filter = validatePattern(filterText.getText());
-        pattern = Pattern.compile(filter);
+        pattern = new NamePattern(filterText.getText());
         if (firstCharacter != filterText.getText().charAt(0) ||
                 this.input.getScope().intValue() != this.lastScopeSearchedFor ||
                 !filterText.getText().startsWith(lastSearchedFor)) {
@@ -320,9 +318,7 @@ public abstract class ElementSelectionComposite
             tableViewer.getTable().removeAll();
             for (Iterator i = matchingObjects.iterator(); i.hasNext();) {
                 IMatchingObject matchingObject = (IMatchingObject) i.next();
-                Matcher matcher = pattern.matcher(matchingObject.getName()
-                    .toLowerCase());
-                if (matcher.matches()) {
+                if (pattern.matches(matchingObject.getName())) {
                     tableViewer.add(matchingObject);
                     setSelection();
                 }
@@ -414,9 +410,7 @@ public abstract class ElementSelectionComposite
                 progressBar.worked(1);
                 progressBar.subTask(matchingObject.getName());
                 matchingObjects.add(matchingObject);
-                Matcher matcher = pattern.matcher(matchingObject.getName()
-                    .toLowerCase());
-                if (matcher.matches()) {
+                if (pattern.matches(matchingObject.getName())) {
                     tableViewer.add(matchingObject);
                     setSelection();
                 }
@@ -436,33 +430,6 @@ public abstract class ElementSelectionComposite
         }
     }
 
-    /**
-     * Convert the UNIX style pattern entered by the user to a Java regex
-     * pattern (? = any character, * = any string).
-     * 
-     * @param string
-     *            the UNIX style pattern.
-     * @return a Java regex pattern.
-     */
-    private String validatePattern(String string) {
-        if (string.equals(StringStatics.BLANK)) {
-            return string;
-        }
-        StringBuffer result = new StringBuffer();
-        for (int i = 0; i < string.length(); i++) {
-            char c = Character.toLowerCase(string.charAt(i));
-            if (c == '?') {
-                result.append('.');
-            } else if (c == '*') {
-                result.append(".*"); //$NON-NLS-1$
-            } else {
-                result.append(c);
-            }
-        }
-        result.append(".*"); //$NON-NLS-1$
-        return result.toString();
-    }
-
     /**
      * If there is no selection in the composite, set the selection to the
      * provided MatchingObject.
@@ -0,0 +1,364 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+package org.eclipse.gmf.runtime.common.ui.services.elementselection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.gmf.runtime.common.ui.services.internal.elementselection.NamePattern;
+
+/**
+ * An index of the names of the elements an element selection provider
+ * searches. Instead of scanning its whole scope for every pattern typed by
+ * the user, a provider builds the index once, keeps it up to date as its
+ * elements are added, renamed and removed, for instance from the
+ * notifications of its model, and looks the pattern up in the index.
+ * <p>
+ * The elements are grouped by owner, typically the resource containing them,
+ * so that all the elements of a resource can be replaced or removed at once
+ * when the resource is loaded or unloaded.
+ * <p>
+ * The names are kept sorted, as are the initials of their camel case humps,
+ * so that the names starting with the literal prefix of a pattern, and the
+ * names whose initials start with the initials of a camel case pattern, are
+ * found by a binary search. When the user appends characters to the pattern,
+ * the previous result is refined instead of searching the index again.
+ * <p>
+ * The index is thread safe: it may be updated while a search runs in an
+ * element selection service job.
+ */
+public class ElementSelectionNameIndex {
+
+    /**
+     * The result of a search, which can be refined by a search for an
+     * extended pattern.
+     */
+    public static final class Result {
+
+        private final NamePattern pattern;
+
+        private final List entries;
+
+        private final int modificationCount;
+
+        private final boolean complete;
+
+        private Result(NamePattern pattern, List entries,
+                int modificationCount, boolean complete) {
+            this.pattern = pattern;
+            this.entries = entries;
+            this.modificationCount = modificationCount;
+            this.complete = complete;
+        }
+
+        /**
+         * Retrieve the pattern that was searched for.
+         *
+         * @return the pattern entered by the user.
+         */
+        public String getPattern() {
+            return pattern.getText();
+        }
+
+        /**
+         * Retrieve the matching objects whose name matches the pattern, in
+         * the order of their names.
+         *
+         * @return the list of <code>IMatchingObject</code>.
+         */
+        public List getMatchingObjects() {
+            List result = new ArrayList(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                result.add(((Entry) entries.get(i)).matchingObject);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An indexed element.
+     */
+    private static final class Entry {
+
+        final Object owner;
+
+        final IMatchingObject matchingObject;
+
+        final String name;
+
+        final String initials;
+
+        Entry(Object owner, IMatchingObject matchingObject) {
+            this.owner = owner;
+            this.matchingObject = matchingObject;
+            String text = matchingObject.getName();
+            this.name = text != null ? text.toLowerCase()
+                : ""; //$NON-NLS-1$
+            this.initials = text != null ? NamePattern.getInitials(text)
+                : ""; //$NON-NLS-1$
+        }
+    }
+
+    private static final Comparator NAME_COMPARATOR = new Comparator() {
+
+        public int compare(Object o1, Object o2) {
+            return ((Entry) o1).name.compareTo(((Entry) o2).name);
+        }
+    };
+
+    private static final Comparator INITIALS_COMPARATOR = new Comparator() {
+
+        public int compare(Object o1, Object o2) {
+            return ((Entry) o1).initials.compareTo(((Entry) o2).initials);
+        }
+    };
+
+    /**
+     * The entries, keyed by element.
+     */
+    private final Map entries = new HashMap();
+
+    /**
+     * The elements of each owner.
+     */
+    private final Map elementsByOwner = new HashMap();
+
+    /**
+     * The entries sorted by name, <code>null</code> until the next search
+     * after a modification.
+     */
+    private Entry[] byName;
+
+    /**
+     * The entries sorted by initials, <code>null</code> until the next search
+     * after a modification.
+     */
+    private Entry[] byInitials;
+
+    /**
+     * Incremented whenever the index is modified; the results of previous
+     * searches cannot be refined once the index has been modified.
+     */
+    private int modificationCount;
+
+    /**
+     * Adds an element to the index, or replaces it if its name has changed.
+     *
+     * @param owner
+     *            the owner of the element, such as its resource.
+     * @param element
+     *            the element.
+     * @param matchingObject
+     *            the matching object reported for the element.
+     */
+    public synchronized void put(Object owner, Object element,
+            IMatchingObject matchingObject) {
+        Entry old = (Entry) entries.put(element, new Entry(owner,
+            matchingObject));
+        if (old != null && old.owner != owner) {
+            removeFromOwner(old.owner, element);
+        }
+        Set elements = (Set) elementsByOwner.get(owner);
+        if (elements == null) {
+            elements = new HashSet();
+            elementsByOwner.put(owner, elements);
+        }
+        elements.add(element);
+        modified();
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param element
+     *            the element.
+     */
+    public synchronized void remove(Object element) {
+        Entry old = (Entry) entries.remove(element);
+        if (old != null) {
+            removeFromOwner(old.owner, element);
+            modified();
+        }
+    }
+
+    /**
+     * Removes all the elements of an owner from the index, for instance when
+     * the owning resource is unloaded.
+     *
+     * @param owner
+     *            the owner.
+     */
+    public synchronized void removeAll(Object owner) {
+        Set elements = (Set) elementsByOwner.remove(owner);
+        if (elements != null) {
+            entries.keySet().removeAll(elements);
+            modified();
+        }
+    }
+
+    /**
+     * Removes all the elements from the index.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        elementsByOwner.clear();
+        modified();
+    }
+
+    /**
+     * Retrieve the number of elements in the index.
+     *
+     * @return the number of elements.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Searches the index for the names matching a pattern. The pattern is
+     * matched like the filter of the {@link ElementSelectionComposite}:
+     * ignoring case, <code>?</code> stands for any character,
+     * <code>*</code> for any string, and names starting with the pattern
+     * match. A pattern starting with an upper case letter also matches by
+     * camel case humps.
+     *
+     * @param pattern
+     *            the pattern entered by the user.
+     * @param previous
+     *            the result of the previous search, refined if the pattern
+     *            extends its pattern and the index has not been modified
+     *            since, or <code>null</code>.
+     * @param monitor
+     *            the progress monitor, or <code>null</code>.
+     * @return the result of the search.
+     */
+    public synchronized Result search(String pattern, Result previous,
+            IProgressMonitor monitor) {
+        NamePattern namePattern = new NamePattern(pattern);
+
+        List candidates;
+        if (previous != null && previous.complete
+            && previous.modificationCount == modificationCount
+            && namePattern.isExtensionOf(previous.pattern)) {
+            candidates = previous.entries;
+        } else {
+            candidates = findCandidates(namePattern);
+        }
+
+        List result = new ArrayList();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (monitor != null && monitor.isCanceled()) {
+                // a partial result cannot be refined
+                return new Result(namePattern, result, modificationCount,
+                    false);
+            }
+            Entry entry = (Entry) candidates.get(i);
+            if (namePattern.matches(entry.matchingObject.getName())) {
+                result.add(entry);
+            }
+        }
+        return new Result(namePattern, result, modificationCount, true);
+    }
+
+    /**
+     * Finds the entries that may match a pattern, in the order of their
+     * names: those starting with its literal prefix, and for a camel case
+     * pattern those whose initials start with its initials.
+     */
+    private List findCandidates(NamePattern pattern) {
+        sort();
+        List result = range(byName, pattern.getPrefix(), true);
+        String initials = pattern.getInitials();
+        if (initials != null && initials.length() > 1) {
+            List byHumps = range(byInitials, initials, false);
+            if (!byHumps.isEmpty()) {
+                Set found = new HashSet(result);
+                for (Iterator i = byHumps.iterator(); i.hasNext();) {
+                    Object entry = i.next();
+                    if (found.add(entry)) {
+                        result.add(entry);
+                    }
+                }
+                Collections.sort(result, NAME_COMPARATOR);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the entries whose name, or initials, start with a prefix in the
+     * sorted entries.
+     */
+    private static List range(Entry[] sorted, String prefix, boolean byName) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            String key = byName ? sorted[middle].name
+                : sorted[middle].initials;
+            if (key.compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        List result = new ArrayList();
+        for (int i = low; i < sorted.length; i++) {
+            String key = byName ? sorted[i].name
+                : sorted[i].initials;
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            result.add(sorted[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the entries if the index has been modified since the last
+     * search.
+     */
+    private void sort() {
+        if (byName != null) {
+            return;
+        }
+        byName = (Entry[]) entries.values().toArray(new Entry[entries.size()]);
+        Arrays.sort(byName, NAME_COMPARATOR);
+        byInitials = (Entry[]) byName.clone();
+        Arrays.sort(byInitials, INITIALS_COMPARATOR);
+    }
+
+    private void removeFromOwner(Object owner, Object element) {
+        Set elements = (Set) elementsByOwner.get(owner);
+        if (elements != null) {
+            elements.remove(element);
+            if (elements.isEmpty()) {
+                elementsByOwner.remove(owner);
+            }
+        }
+    }
+
+    private void modified() {
+        modificationCount++;
+        byName = null;
+        byInitials = null;
+    }
+}
@@ -14,6 +14,7 @@ package org.eclipse.gmf.runtime.common.ui.services.icon;
 
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.gmf.runtime.common.core.service.IProvider;
+import org.eclipse.gmf.runtime.common.ui.services.internal.HintCachingKey;
 
 /**
  * The operation used with the <code>IconService</code>.  GetIconOperation
@@ -26,6 +27,8 @@ import org.eclipse.gmf.runtime.common.core.service.IProvider;
 public class GetIconOperation extends IconOperation {
 	final private int flags;
 
+	private Object cachingKey;
+
     /**
      * Constructor for GetIconOperation.
      * @param hint argument adaptable to IElement
@@ -42,4 +45,18 @@ public class GetIconOperation extends IconOperation {
     public Object execute(IProvider provider) {
         return ((IIconProvider) provider).getIcon(getHint(), flags);
     }
+
+    /**
+     * Gets the key under which the icon service caches the providers that
+     * provide for this operation.
+     * 
+     * @return the caching key, or <code>null</code> if the providers for
+     *         this operation must not be cached
+     */
+    public Object getCachingKey() {
+        if (cachingKey == null) {
+            cachingKey = HintCachingKey.create(getHint(), flags);
+        }
+        return cachingKey;
+    }
 }
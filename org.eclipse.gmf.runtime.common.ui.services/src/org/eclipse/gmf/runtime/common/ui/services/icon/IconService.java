@@ -12,11 +12,17 @@
 
 package org.eclipse.gmf.runtime.common.ui.services.icon;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.gmf.runtime.common.core.service.ExecutionStrategy;
 import org.eclipse.gmf.runtime.common.core.service.IOperation;
 import org.eclipse.gmf.runtime.common.core.service.IProvider;
+import org.eclipse.gmf.runtime.common.core.service.IProviderChangeListener;
+import org.eclipse.gmf.runtime.common.core.service.ProviderChangeEvent;
 import org.eclipse.gmf.runtime.common.core.service.Service;
 import org.eclipse.gmf.runtime.common.ui.services.internal.CommonUIServicesPlugin;
 import org.eclipse.gmf.runtime.common.ui.services.internal.icon.IconServiceProviderConfiguration;
@@ -24,6 +30,11 @@ import org.eclipse.swt.graphics.Image;
 
 /**
  * Service which handles icon operations.
+ * <P>
+ * The providers that provide for a hint are cached by the kind of hint,
+ * its semantic hint string, the type of its element and the icon flags. The
+ * cache is cleared whenever a provider changes, for instance when it
+ * signals a {@link LabelChangedEvent}.
  * 
  * @author Michael Yee
  */
@@ -99,8 +110,14 @@ public class IconService extends Service implements IIconProvider {
      * The IconService constructor
      */
     private IconService() {
-		super();
+		super(true, false);
 		configureProviders(CommonUIServicesPlugin.getPluginId(), "iconProviders"); //$NON-NLS-1$
+		addProviderChangeListener(new IProviderChangeListener() {
+
+			public void providerChanged(ProviderChangeEvent event) {
+				clearCache();
+			}
+		});
     }
 
     /**
@@ -135,4 +152,30 @@ public class IconService extends Service implements IIconProvider {
 	protected Service.ProviderDescriptor newProviderDescriptor(IConfigurationElement element) {
 		return new ProviderDescriptor(element);
 	}
+
+	/**
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#createPriorityCache()
+	 */
+	protected Map createPriorityCache() {
+		return Collections.synchronizedMap(new HashMap());
+	}
+
+	/**
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#getCachingKey(org.eclipse.gmf.runtime.common.core.service.IOperation)
+	 */
+	protected Object getCachingKey(IOperation operation) {
+		return operation instanceof GetIconOperation ? ((GetIconOperation) operation)
+			.getCachingKey()
+			: null;
+	}
+
+	/**
+	 * Trusts the cached absence of providers too, as the providers provide
+	 * alike for the hints that share a caching key.
+	 * 
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#isEmptyResultCached()
+	 */
+	protected boolean isEmptyResultCached() {
+		return true;
+	}
 }
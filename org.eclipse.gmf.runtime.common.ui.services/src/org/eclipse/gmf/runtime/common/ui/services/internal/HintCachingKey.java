@@ -0,0 +1,149 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.common.ui.services.internal;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.core.runtime.IAdaptable;
+
+/**
+ * The key under which a service caches the providers that provide for an
+ * operation on an adaptable hint. Hints of the same kind, with the same
+ * semantic hint string, for elements of the same types and with the same
+ * flags share their providers.
+ * <P>
+ * The class of an element does not tell its type: dynamic model elements and
+ * the specializations of an element type share their classes. The types of
+ * the elements of the hints are determined by the installed
+ * {@link IHintTypeResolver}; no key is created as long as there is none, nor
+ * for the hints whose types it cannot determine. The key does not keep the
+ * types from being garbage collected.
+ */
+public final class HintCachingKey {
+
+	private static volatile IHintTypeResolver typeResolver;
+
+	private final Class hintClass;
+
+	private final String semanticHint;
+
+	private final WeakReference[] types;
+
+	private final int flags;
+
+	private final int hashCode;
+
+	private HintCachingKey(Class hintClass, String semanticHint,
+			Object[] types, int flags) {
+		this.hintClass = hintClass;
+		this.semanticHint = semanticHint;
+		this.types = new WeakReference[types.length];
+		this.flags = flags;
+
+		int result = hintClass.hashCode();
+		result = 31 * result
+			+ (semanticHint != null ? semanticHint.hashCode()
+				: 0);
+		for (int i = 0; i < types.length; i++) {
+			this.types[i] = types[i] != null ? new WeakReference(types[i])
+				: null;
+			result = 31 * result + System.identityHashCode(types[i]);
+		}
+		this.hashCode = 31 * result + flags;
+	}
+
+	/**
+	 * Installs the resolver that determines the types of the elements of the
+	 * hints.
+	 *
+	 * @param resolver
+	 *            the resolver, or <code>null</code> to stop creating keys
+	 */
+	public static void setTypeResolver(IHintTypeResolver resolver) {
+		typeResolver = resolver;
+	}
+
+	/**
+	 * Creates the caching key of a hint.
+	 *
+	 * @param hint
+	 *            the hint of the operation
+	 * @param flags
+	 *            the flags of the operation
+	 * @return the key, or <code>null</code> if the hint carries neither a
+	 *         semantic hint string nor an element to go by, or if the types
+	 *         of its elements cannot be determined
+	 */
+	public static HintCachingKey create(IAdaptable hint, int flags) {
+		IHintTypeResolver resolver = typeResolver;
+		if (hint == null || resolver == null) {
+			return null;
+		}
+		Object[] types = resolver.getTypes(hint);
+		if (types == null) {
+			return null;
+		}
+		Object semanticHint = hint.getAdapter(String.class);
+		if (!(semanticHint instanceof String) && types.length == 0) {
+			return null;
+		}
+		return new HintCachingKey(hint.getClass(),
+			semanticHint instanceof String ? (String) semanticHint
+				: null, types, flags);
+	}
+
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof HintCachingKey)) {
+			return false;
+		}
+		HintCachingKey other = (HintCachingKey) obj;
+		if (hashCode != other.hashCode || flags != other.flags
+			|| hintClass != other.hintClass
+			|| types.length != other.types.length
+			|| !(semanticHint == null ? other.semanticHint == null
+				: semanticHint.equals(other.semanticHint))) {
+			return false;
+		}
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == null ? other.types[i] != null
+				: other.types[i] == null) {
+				return false;
+			}
+			if (types[i] != null) {
+				Object type = types[i].get();
+				// collected types no longer match, not even themselves
+				if (type == null || type != other.types[i].get()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public int hashCode() {
+		return hashCode;
+	}
+
+	public String toString() {
+		StringBuffer buffer = new StringBuffer(hintClass.getName());
+		buffer.append('[').append(semanticHint);
+		for (int i = 0; i < types.length; i++) {
+			buffer.append(", ").append(types[i] != null ? types[i].get() //$NON-NLS-1$
+				: null);
+		}
+		return buffer.append(", ").append(flags).append(']').toString(); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,35 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.common.ui.services.internal;
+
+import org.eclipse.core.runtime.IAdaptable;
+
+/**
+ * Determines the types of the elements that the hints of service operations
+ * stand for, for the {@link HintCachingKey}. Providers that are given hints
+ * with elements of the same types are expected to provide alike.
+ */
+public interface IHintTypeResolver {
+
+	/**
+	 * Determines the types of the elements of a hint, such as the metaclass
+	 * of its model element and its element type.
+	 *
+	 * @param hint
+	 *            the hint
+	 * @return the types, compared by identity, an empty array if the hint
+	 *         carries no element, or <code>null</code> if the type of an
+	 *         element of the hint cannot be determined
+	 */
+	Object[] getTypes(IAdaptable hint);
+}
@@ -0,0 +1,221 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+package org.eclipse.gmf.runtime.common.ui.services.internal.elementselection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.gmf.runtime.common.core.util.StringMatcher;
+
+/**
+ * The pattern entered by the user in the element selection composite. A name
+ * matches the pattern if it starts with the pattern, ignoring case, where
+ * <code>?</code> stands for any character and <code>*</code> for any string.
+ * <p>
+ * A pattern that starts with an upper case letter and has no wildcard also
+ * matches the names whose camel case humps start with the humps of the
+ * pattern: <code>FBa</code> matches <code>FooBar</code> and
+ * <code>FooBarBaz</code>.
+ * <p>
+ * Appending characters to a pattern never matches more names, so the names
+ * matching an extended pattern can be searched among the names matching the
+ * shorter pattern.
+ */
+public class NamePattern {
+
+    /**
+     * The text entered by the user.
+     */
+    private final String text;
+
+    /**
+     * The matcher for the text and the trailing wildcard.
+     */
+    private final StringMatcher matcher;
+
+    /**
+     * The lower case characters before the first wildcard.
+     */
+    private final String prefix;
+
+    /**
+     * The lower case humps of a camel case pattern, <code>null</code> if the
+     * pattern is not a camel case pattern.
+     */
+    private final String[] humps;
+
+    /**
+     * Constructs a pattern.
+     *
+     * @param text
+     *            the text entered by the user.
+     */
+    public NamePattern(String text) {
+        super();
+        this.text = text;
+
+        StringBuffer buffer = new StringBuffer(text.length() + 2);
+        int wildcard = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                // the user types backslashes literally
+                buffer.append('\\');
+            } else if ((c == '*' || c == '?') && wildcard < 0) {
+                wildcard = i;
+            }
+            buffer.append(c);
+        }
+        buffer.append('*');
+        matcher = new StringMatcher(buffer.toString(), true, false);
+        prefix = (wildcard < 0 ? text
+            : text.substring(0, wildcard)).toLowerCase();
+
+        if (wildcard < 0 && text.length() > 0
+            && Character.isUpperCase(text.charAt(0))) {
+            List result = new ArrayList();
+            int start = 0;
+            for (int i = 1; i <= text.length(); i++) {
+                if (i == text.length() || Character.isUpperCase(text.charAt(i))) {
+                    result.add(text.substring(start, i).toLowerCase());
+                    start = i;
+                }
+            }
+            humps = (String[]) result.toArray(new String[result.size()]);
+        } else {
+            humps = null;
+        }
+    }
+
+    /**
+     * Retrieve the text entered by the user.
+     *
+     * @return the text of the pattern.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Retrieve the lower case characters before the first wildcard. Every
+     * name matching the pattern other than by its camel case humps starts
+     * with this prefix, ignoring case.
+     *
+     * @return the literal prefix of the pattern.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Retrieve the lower case initials of the humps of a camel case pattern.
+     * The initials of every name matching the pattern by its camel case humps
+     * start with these initials.
+     *
+     * @return the initials, or <code>null</code> if the pattern is not a
+     *         camel case pattern.
+     */
+    public String getInitials() {
+        if (humps == null) {
+            return null;
+        }
+        StringBuffer result = new StringBuffer(humps.length);
+        for (int i = 0; i < humps.length; i++) {
+            result.append(humps[i].charAt(0));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Determines if this pattern is the given pattern with characters
+     * appended, so that it only matches names that the given pattern matches.
+     *
+     * @param pattern
+     *            the shorter pattern.
+     * @return <code>true</code> if this pattern extends the given pattern.
+     */
+    public boolean isExtensionOf(NamePattern pattern) {
+        return text.startsWith(pattern.getText());
+    }
+
+    /**
+     * Determines if a name matches the pattern.
+     *
+     * @param name
+     *            the name.
+     * @return <code>true</code> if the name matches.
+     */
+    public boolean matches(String name) {
+        if (name == null) {
+            return false;
+        }
+        return matcher.match(name) || (humps != null && matchesHumps(name));
+    }
+
+    /**
+     * Matches the humps of the pattern against the consecutive humps of the
+     * name, starting with the first.
+     */
+    private boolean matchesHumps(String name) {
+        int start = 0;
+        for (int i = 0; i < humps.length; i++) {
+            if (start >= name.length()) {
+                return false;
+            }
+            int end = nextHump(name, start);
+            String hump = humps[i];
+            if (end - start < hump.length()
+                || !name.regionMatches(true, start, hump, 0, hump.length())) {
+                return false;
+            }
+            start = end;
+        }
+        return true;
+    }
+
+    /**
+     * Computes the lower case initials of the camel case humps of a name.
+     *
+     * @param name
+     *            the name.
+     * @return the initials of the name.
+     */
+    public static String getInitials(String name) {
+        StringBuffer result = new StringBuffer();
+        for (int start = 0; start < name.length(); start = nextHump(name,
+            start)) {
+            result.append(Character.toLowerCase(name.charAt(start)));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Finds where the hump after the one starting at the given index starts:
+     * at the next upper case letter that follows a character other than an
+     * upper case letter, or at the next letter or digit following a
+     * separator.
+     */
+    private static int nextHump(String name, int start) {
+        for (int i = start + 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char previous = name.charAt(i - 1);
+            if (Character.isUpperCase(c) && !Character.isUpperCase(previous)) {
+                return i;
+            }
+            if (Character.isLetterOrDigit(c)
+                && !Character.isLetterOrDigit(previous)) {
+                return i;
+            }
+        }
+        return name.length();
+    }
+}
@@ -16,6 +16,7 @@ import org.eclipse.core.runtime.IAdaptable;
 
 import org.eclipse.gmf.runtime.common.core.service.IOperation;
 import org.eclipse.gmf.runtime.common.core.service.IProvider;
+import org.eclipse.gmf.runtime.common.ui.services.internal.HintCachingKey;
 
 /**
  * Operation to get a parser using an IAdaptable hint for the parser to be used 
@@ -28,6 +29,8 @@ public class GetParserOperation
 	 */
 	private final IAdaptable hint;
 
+	private Object cachingKey;
+
 	/**
 	 * Method GetParserOperation.
 	 * 
@@ -53,4 +56,18 @@ public class GetParserOperation
 	public final IAdaptable getHint() {
 		return hint;
 	}
+
+	/**
+	 * Gets the key under which the parser service caches the providers that
+	 * provide for this operation.
+	 * 
+	 * @return the caching key, or <code>null</code> if the providers for
+	 *         this operation must not be cached
+	 */
+	public Object getCachingKey() {
+		if (cachingKey == null) {
+			cachingKey = HintCachingKey.create(hint, 0);
+		}
+		return cachingKey;
+	}
 }
@@ -12,8 +12,15 @@
 
 package org.eclipse.gmf.runtime.common.ui.services.parser;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.gmf.runtime.common.core.service.ExecutionStrategy;
+import org.eclipse.gmf.runtime.common.core.service.IOperation;
+import org.eclipse.gmf.runtime.common.core.service.IProviderChangeListener;
+import org.eclipse.gmf.runtime.common.core.service.ProviderChangeEvent;
 import org.eclipse.gmf.runtime.common.core.service.Service;
 import org.eclipse.gmf.runtime.common.core.util.StringStatics;
 import org.eclipse.gmf.runtime.common.ui.services.internal.CommonUIServicesPlugin;
@@ -22,6 +29,10 @@ import org.eclipse.gmf.runtime.common.ui.services.internal.CommonUIServicesPlugi
  * The parser service which returns a parser for an IAdaptable.
  * Also includes methods to obtain the strings for the IAdaptable and to
  * determine whether editing is possible. 
+ * <P>
+ * The providers that provide for a hint are cached by the kind of hint,
+ * its semantic hint string and the type of its element, and the cache is
+ * cleared whenever a provider changes.
  */
 public class ParserService
 	extends Service
@@ -45,6 +56,45 @@ public class ParserService
 		return service;
 	}
 
+	/**
+	 * Creates a parser service that caches its providers.
+	 */
+	public ParserService() {
+		super(true, false);
+		addProviderChangeListener(new IProviderChangeListener() {
+
+			public void providerChanged(ProviderChangeEvent event) {
+				clearCache();
+			}
+		});
+	}
+
+	/**
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#createPriorityCache()
+	 */
+	protected Map createPriorityCache() {
+		return Collections.synchronizedMap(new HashMap());
+	}
+
+	/**
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#getCachingKey(org.eclipse.gmf.runtime.common.core.service.IOperation)
+	 */
+	protected Object getCachingKey(IOperation operation) {
+		return operation instanceof GetParserOperation ? ((GetParserOperation) operation)
+			.getCachingKey()
+			: null;
+	}
+
+	/**
+	 * Trusts the cached absence of providers too, as the providers provide
+	 * alike for the hints that share a caching key.
+	 * 
+	 * @see org.eclipse.gmf.runtime.common.core.service.Service#isEmptyResultCached()
+	 */
+	protected boolean isEmptyResultCached() {
+		return true;
+	}
+
     /**
      * @see org.eclipse.gmf.runtime.common.ui.services.parser.IParserProvider#getParser(IAdaptable)
      */
@@ -63,6 +63,13 @@ import org.eclipse.ui.IWorkbenchPart;
  * the <code>init()</code> method to initialize the action, and the
  * <code>dispose()</code> method when the action is no longer needed.
  * 
+ * Refreshes triggered by selection changes and operation history events are
+ * coalesced by the {@link ActionRefreshScheduler}: they are performed once per
+ * display tick, or earlier if the enablement of the action is queried. The
+ * refresh of an action handler that is not contributed to its workbench part,
+ * or whose part is not visible, is deferred until its enablement is queried
+ * or its part is activated.
+ * 
  * @author khussey
  */
 public abstract class AbstractActionHandler
@@ -130,6 +137,16 @@ public abstract class AbstractActionHandler
 					dispose();
 				}
 			}
+
+			/**
+			 * when the part is activated, perform a deferred refresh.
+			 */
+			public void partActivated(IWorkbenchPart part) {
+				if (getWorkbenchPart() == part) {
+					ActionRefreshScheduler.getInstance().refreshNow(
+						AbstractActionHandler.this);
+				}
+			}
 		};
 		workbenchPage.addPartListener(partListener);
 	}
@@ -198,6 +215,7 @@ public abstract class AbstractActionHandler
 	 * <code>super.dispose()</code>.
 	 */
 	public void dispose() {
+		ActionRefreshScheduler.getInstance().cancel(this);
 		setWorkbenchPart(null);
 
 		if (partListener != null && workbenchPage != null) {
@@ -385,7 +403,44 @@ public abstract class AbstractActionHandler
 	 *            Event object describing the change.
 	 */
 	public final void selectionChanged(SelectionChangedEvent event) {
-		refresh();
+		scheduleRefresh();
+	}
+
+	/**
+	 * Schedules a refresh of this action handler. Several requests made before
+	 * the next display tick result in a single refresh.
+	 */
+	protected void scheduleRefresh() {
+		ActionRefreshScheduler.getInstance().schedule(this);
+	}
+
+	/**
+	 * Performs a scheduled refresh first, so that the enablement returned is
+	 * always up to date.
+	 */
+	public boolean isEnabled() {
+		ActionRefreshScheduler scheduler = ActionRefreshScheduler.getInstance();
+		if (scheduler.isScheduled(this) && Display.getCurrent() != null) {
+			scheduler.refreshNow(this);
+		}
+		return super.isEnabled();
+	}
+
+	/**
+	 * Answers whether a scheduled refresh of this action handler is to be
+	 * performed at the next display tick, that is, whether it is contributed
+	 * to its workbench part and that part is visible.
+	 * 
+	 * @return <code>true</code> to refresh at the next display tick,
+	 *         <code>false</code> to defer the refresh
+	 */
+	boolean isRefreshVisible() {
+		IWorkbenchPart part = getWorkbenchPart();
+		if (part == null || !contributedToPart(part)) {
+			return false;
+		}
+		IWorkbenchPage page = part.getSite().getPage();
+		return page == null || page.isPartVisible(part);
 	}
 
 	/**
@@ -406,7 +461,10 @@ public abstract class AbstractActionHandler
 	}
 
 	/**
-	 * Retrieves the current selection.
+	 * Retrieves the current selection. While the
+	 * {@link ActionRefreshScheduler} refreshes a batch of action handlers, the
+	 * selection is only retrieved once per selection service, so that all of
+	 * the action handlers of the batch see the same selection instance.
 	 * 
 	 * @return The current selection.
 	 */
@@ -419,7 +477,14 @@ public abstract class AbstractActionHandler
         }
 
         if (selectionService != null) {
-            selection = selectionService.getSelection();
+            ActionRefreshScheduler scheduler = ActionRefreshScheduler.getInstance();
+            selection = (ISelection) scheduler.getSharedResult(selectionService);
+            if (selection == null) {
+                selection = selectionService.getSelection();
+                if (selection != null) {
+                    scheduler.putSharedResult(selectionService, selection);
+                }
+            }
         }
 
         return (selection != null) ? selection
@@ -600,7 +665,7 @@ public abstract class AbstractActionHandler
 	            IUndoContext partContext = getUndoContext();
 	
 	            if (partContext != null && operation.hasContext(partContext)) {
-	                refresh();
+	                scheduleRefresh();
 	            }
 	        }
     	}
@@ -0,0 +1,366 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.common.ui.action;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.gmf.runtime.common.core.util.Log;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.common.ui.internal.CommonUIDebugOptions;
+import org.eclipse.gmf.runtime.common.ui.internal.CommonUIPlugin;
+import org.eclipse.gmf.runtime.common.ui.internal.CommonUIStatusCodes;
+import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Coalesces the refresh requests of action handlers. Selection changes and
+ * operation history notifications only mark an action handler as pending; all
+ * pending action handlers are refreshed once per display tick, no matter how
+ * many events arrived in between. An action handler whose enablement is
+ * queried before the tick is refreshed on demand. Action handlers that are
+ * not contributed to their workbench part, or whose part is not visible, are
+ * left pending at the tick: they are refreshed when their enablement is
+ * queried or their part is activated.
+ * <P>
+ * While a batch of action handlers is refreshed, the selection is retrieved
+ * once per selection service, and actions can share the results of expensive
+ * enablement computations through
+ * {@link #getSharedResult(Object)} and
+ * {@link #putSharedResult(Object, Object)}. The shared results are discarded
+ * at the end of the batch.
+ * <P>
+ * The time spent refreshing each kind of action handler is recorded and can
+ * be retrieved with {@link #getEnablementCosts()}.
+ */
+public final class ActionRefreshScheduler {
+
+	/**
+	 * The accumulated refresh cost of one kind of action handler.
+	 */
+	public static final class EnablementCost {
+
+		private int count;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		private EnablementCost() {
+			super();
+		}
+
+		private EnablementCost(EnablementCost other) {
+			this.count = other.count;
+			this.totalNanos = other.totalNanos;
+			this.maxNanos = other.maxNanos;
+		}
+
+		private void add(long nanos) {
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+
+		/**
+		 * @return the number of refreshes
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the total time spent refreshing, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * @return the longest refresh, in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+	}
+
+	/**
+	 * The singleton instance.
+	 */
+	private static final ActionRefreshScheduler INSTANCE = new ActionRefreshScheduler();
+
+	/**
+	 * The action handlers waiting to be refreshed, in the order they were
+	 * scheduled.
+	 */
+	private final Set<AbstractActionHandler> pending = new LinkedHashSet<AbstractActionHandler>();
+
+	/**
+	 * Whether a flush has been posted to the display.
+	 */
+	private boolean flushPosted = false;
+
+	/**
+	 * Whether a batch of action handlers is being refreshed.
+	 */
+	private boolean flushing = false;
+
+	/**
+	 * The results shared during the current batch.
+	 */
+	private final Map<Object, Object> sharedResults = new HashMap<Object, Object>();
+
+	/**
+	 * The refresh cost per action handler class name.
+	 */
+	private final Map<String, EnablementCost> costs = new HashMap<String, EnablementCost>();
+
+	private final Runnable flushRunnable = new Runnable() {
+
+		public void run() {
+			flush();
+		}
+	};
+
+	/**
+	 * Retrieves the singleton instance.
+	 *
+	 * @return the action refresh scheduler
+	 */
+	public static ActionRefreshScheduler getInstance() {
+		return INSTANCE;
+	}
+
+	private ActionRefreshScheduler() {
+		super();
+	}
+
+	/**
+	 * Schedules a refresh of the action handler for the next display tick.
+	 *
+	 * @param handler
+	 *            the action handler to refresh
+	 */
+	public void schedule(AbstractActionHandler handler) {
+		synchronized (pending) {
+			if (!pending.add(handler) || flushPosted) {
+				return;
+			}
+			flushPosted = true;
+		}
+
+		Display display = DisplayUtils.getDisplay();
+		if (display == null || display.isDisposed()) {
+			synchronized (pending) {
+				pending.clear();
+				flushPosted = false;
+			}
+			return;
+		}
+		display.asyncExec(flushRunnable);
+	}
+
+	/**
+	 * Removes the action handler from the pending action handlers.
+	 *
+	 * @param handler
+	 *            the action handler
+	 */
+	public void cancel(AbstractActionHandler handler) {
+		synchronized (pending) {
+			pending.remove(handler);
+		}
+	}
+
+	/**
+	 * Answers whether the action handler is waiting to be refreshed.
+	 *
+	 * @param handler
+	 *            the action handler
+	 * @return <code>true</code> if a refresh is pending, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean isScheduled(AbstractActionHandler handler) {
+		synchronized (pending) {
+			return pending.contains(handler);
+		}
+	}
+
+	/**
+	 * Refreshes the action handler right away if it is waiting to be
+	 * refreshed. Must be called on the UI thread.
+	 *
+	 * @param handler
+	 *            the action handler
+	 */
+	public void refreshNow(AbstractActionHandler handler) {
+		boolean wasPending;
+		synchronized (pending) {
+			wasPending = pending.remove(handler);
+		}
+		if (wasPending && !handler.isDisposed()) {
+			refresh(handler);
+		}
+	}
+
+	/**
+	 * Refreshes the pending action handlers that are contributed to a visible
+	 * workbench part. The others are left pending. Must be called on the UI
+	 * thread.
+	 */
+	public void flush() {
+		List<AbstractActionHandler> batch;
+		synchronized (pending) {
+			flushPosted = false;
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = new ArrayList<AbstractActionHandler>(pending);
+		}
+
+		int deferred = 0;
+		for (Iterator<AbstractActionHandler> i = batch.iterator(); i.hasNext();) {
+			AbstractActionHandler handler = i.next();
+			if (!handler.isDisposed() && !handler.isRefreshVisible()) {
+				// refreshed when queried or when its part is activated
+				i.remove();
+				deferred++;
+			}
+		}
+		synchronized (pending) {
+			pending.removeAll(batch);
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean nested = flushing;
+		flushing = true;
+		try {
+			for (Iterator<AbstractActionHandler> i = batch.iterator(); i
+				.hasNext();) {
+				AbstractActionHandler handler = i.next();
+				if (!handler.isDisposed()) {
+					refresh(handler);
+				}
+			}
+		} finally {
+			if (!nested) {
+				flushing = false;
+				sharedResults.clear();
+			}
+		}
+
+		if (Trace.shouldTrace(CommonUIPlugin.getDefault(),
+			CommonUIDebugOptions.ACTIONS_ENABLEMENT)) {
+			Trace.trace(CommonUIPlugin.getDefault(),
+				CommonUIDebugOptions.ACTIONS_ENABLEMENT, "Refreshed " //$NON-NLS-1$
+					+ batch.size() + " action handlers in " //$NON-NLS-1$
+					+ (System.nanoTime() - start) / 1000 + " us, deferred " //$NON-NLS-1$
+					+ deferred);
+		}
+	}
+
+	/**
+	 * Answers whether a batch of action handlers is being refreshed.
+	 *
+	 * @return <code>true</code> if a batch is being refreshed,
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isFlushing() {
+		return flushing;
+	}
+
+	/**
+	 * Retrieves a result shared by another action handler of the current
+	 * batch.
+	 *
+	 * @param key
+	 *            identifies the result, typically built from the selection
+	 *            and the request
+	 * @return the shared result, or <code>null</code> if there is none or no
+	 *         batch is being refreshed
+	 */
+	public Object getSharedResult(Object key) {
+		return flushing ? sharedResults.get(key)
+			: null;
+	}
+
+	/**
+	 * Shares a result with the other action handlers of the current batch.
+	 * Does nothing if no batch is being refreshed.
+	 *
+	 * @param key
+	 *            identifies the result, typically built from the selection
+	 *            and the request
+	 * @param result
+	 *            the result
+	 */
+	public void putSharedResult(Object key, Object result) {
+		if (flushing) {
+			sharedResults.put(key, result);
+		}
+	}
+
+	/**
+	 * Retrieves a snapshot of the refresh costs recorded so far, keyed by the
+	 * class name of the action handlers.
+	 *
+	 * @return the refresh costs
+	 */
+	public Map<String, EnablementCost> getEnablementCosts() {
+		Map<String, EnablementCost> snapshot = new HashMap<String, EnablementCost>();
+		for (Iterator<Map.Entry<String, EnablementCost>> i = costs.entrySet()
+			.iterator(); i.hasNext();) {
+			Map.Entry<String, EnablementCost> entry = i.next();
+			snapshot.put(entry.getKey(), new EnablementCost(entry.getValue()));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Clears the recorded refresh costs.
+	 */
+	public void resetEnablementCosts() {
+		costs.clear();
+	}
+
+	private void refresh(AbstractActionHandler handler) {
+		long start = System.nanoTime();
+		try {
+			handler.refresh();
+		} catch (RuntimeException e) {
+			// do not let one action prevent the others from being refreshed
+			Trace.catching(CommonUIPlugin.getDefault(),
+				CommonUIDebugOptions.EXCEPTIONS_CATCHING, getClass(),
+				"refresh", e); //$NON-NLS-1$
+			Log.error(CommonUIPlugin.getDefault(),
+				CommonUIStatusCodes.ACTION_FAILURE, String.valueOf(e
+					.getMessage()), e);
+		} finally {
+			String name = handler.getClass().getName();
+			EnablementCost cost = costs.get(name);
+			if (cost == null) {
+				cost = new EnablementCost();
+				costs.put(name, cost);
+			}
+			cost.add(System.nanoTime() - start);
+		}
+	}
+}
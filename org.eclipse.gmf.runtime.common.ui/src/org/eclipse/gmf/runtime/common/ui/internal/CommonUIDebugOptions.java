@@ -52,6 +52,9 @@ public final class CommonUIDebugOptions {
     
     /** Debug option used to trace action repeat. */
     public static final String ACTIONS_REPEAT = DEBUG + "/actions/repeat"; //$NON-NLS-1$
+
+    /** Debug option used to trace the cost of action enablement. */
+    public static final String ACTIONS_ENABLEMENT = DEBUG + "/actions/enablement"; //$NON-NLS-1$
     
     /** Debug option used to trace resources. */
 	public static final String RESOURCE = DEBUG + "/resource/tracing"; //$NON-NLS-1$	
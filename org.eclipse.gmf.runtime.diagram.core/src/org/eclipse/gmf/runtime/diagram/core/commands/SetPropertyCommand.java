@@ -16,12 +16,16 @@ package org.eclipse.gmf.runtime.diagram.core.commands;
 import java.util.List;
 
 import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.commands.operations.IUndoableOperation;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.emf.ecore.ENamedElement;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.gmf.runtime.common.core.command.CommandResult;
+import org.eclipse.gmf.runtime.common.core.internal.command.CommandMergers;
+import org.eclipse.gmf.runtime.common.core.internal.command.ICommandMerger;
 import org.eclipse.gmf.runtime.common.core.util.StringStatics;
 import org.eclipse.gmf.runtime.diagram.core.internal.l10n.DiagramCoreMessages;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
@@ -32,6 +36,9 @@ import org.eclipse.osgi.util.NLS;
 
 /**
  * A command to a set a property of a view
+ * <P>
+ * Consecutive commands that set the same property of the same view in a
+ * composite command are merged into one before the composite is executed.
  *  
  * @author melaasar
  */
@@ -44,6 +51,14 @@ public class SetPropertyCommand extends AbstractTransactionalCommand {
 	private String propertyId;
 	private Object newValue;
 
+	static {
+		CommandMergers.register(SetPropertyCommand.class, new ICommandMerger() {
+			public boolean merge(IUndoableOperation previous, IUndoableOperation next) {
+				return ((SetPropertyCommand) previous).merge(next);
+			}
+		});
+	}
+
 	/**
 	 * Creates a set property command with a given label
      * @param editingDomain the editing domain
@@ -105,6 +120,50 @@ public class SetPropertyCommand extends AbstractTransactionalCommand {
 		return CommandResult.newOKCommandResult();
 	}
 
+	/**
+	 * Absorbs a following <code>SetPropertyCommand</code> that sets the same
+	 * property of the same view: the value that it sets replaces mine.
+	 */
+	private boolean merge(IUndoableOperation next) {
+		if (getClass() != SetPropertyCommand.class
+			|| next.getClass() != SetPropertyCommand.class) {
+			// subclasses may compute the value when they are executed
+			return false;
+		}
+		SetPropertyCommand other = (SetPropertyCommand) next;
+		if (other.getEditingDomain() != getEditingDomain()
+			|| !other.getOptions().equals(getOptions())
+			|| propertyId == null || !propertyId.equals(other.propertyId)
+			|| !isSameView(other.viewAdapter)) {
+			return false;
+		}
+		IUndoContext[] otherContexts = other.getContexts();
+		for (int i = 0; i < otherContexts.length; i++) {
+			if (!hasContext(otherContexts[i])) {
+				return false;
+			}
+		}
+
+		newValue = other.newValue;
+		return true;
+	}
+
+	/**
+	 * Answers whether the other adapter is known to designate my view. An
+	 * adapter that does not resolve yet, such as that of a view which is
+	 * still to be created, only designates my view if it is my own adapter.
+	 */
+	private boolean isSameView(IAdaptable otherAdapter) {
+		if (otherAdapter == viewAdapter) {
+			return true;
+		}
+		if (viewAdapter == null || otherAdapter == null) {
+			return false;
+		}
+		Object view = viewAdapter.getAdapter(View.class);
+		return view != null && view == otherAdapter.getAdapter(View.class);
+	}
+
 	/**
 	 * Returns the new value of the property.
 	 * @return the new value
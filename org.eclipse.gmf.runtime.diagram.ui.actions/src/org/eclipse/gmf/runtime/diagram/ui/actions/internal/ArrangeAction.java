@@ -269,6 +269,10 @@ public class ArrangeAction extends DiagramAction {
     }
     
     protected void doRun(IProgressMonitor progressMonitor) {
+        if (isArrangeAll()) {
+            // arrange the edit parts that are not in view too
+            getDiagramEditPart().materializeAll();
+        }
         IPreferenceStore preferenceStore = (IPreferenceStore) getDiagramEditPart().getDiagramPreferencesHint().getPreferenceStore();
         boolean animatedLayout = preferenceStore.getBoolean(
             IPreferenceConstants.PREF_ENABLE_ANIMATED_LAYOUT);
@@ -254,6 +254,12 @@ public class SelectAllAction extends DiagramAction {
 	}
 
 	protected void doRun(IProgressMonitor progressMonitor) {
+		DiagramEditPart diagramEditPart = getDiagramEditPart();
+		if (diagramEditPart != null) {
+			// select the edit parts that are not in view too
+			diagramEditPart.materializeAll();
+			refresh();
+		}
 		getDiagramGraphicalViewer().setSelection(
 			new StructuredSelection(getOperationSet()));
 	}
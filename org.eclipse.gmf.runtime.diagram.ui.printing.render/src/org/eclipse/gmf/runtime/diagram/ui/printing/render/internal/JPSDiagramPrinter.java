@@ -155,6 +155,8 @@ public class JPSDiagramPrinter extends DiagramPrinter implements java.awt.print.
 				Diagram diagram = it.next();
 				DiagramEditor openedDiagramEditor = DiagramEditorUtil.findOpenedDiagramEditorForID(ViewUtil.getIdStr(diagram));
 				DiagramEditPart dgrmEP = openedDiagramEditor == null ? PrintHelperUtil.createDiagramEditPart(diagram, preferencesHint, shell) : openedDiagramEditor.getDiagramEditPart();
+				// print the edit parts that are not in view too
+				dgrmEP.materializeAll();
 
 				boolean loadedPreferences = openedDiagramEditor != null || PrintHelperUtil.initializePreferences(dgrmEP, preferencesHint);
 
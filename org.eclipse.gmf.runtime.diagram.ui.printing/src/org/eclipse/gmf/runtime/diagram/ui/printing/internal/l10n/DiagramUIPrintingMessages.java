@@ -42,6 +42,7 @@ public final class DiagramUIPrintingMessages extends NLS {
 	public static String PrintPreview_NoPrinterInstalled;
 	public static String PrintPreview_FitToPage_DialogTitle;
 	public static String PrintPreview_FitToPage_ButtonText;
+	public static String PrintPreview_RenderPagesJob;
 	public static String Print_MessageDialogTitle;
 	public static String Print_MessageDialogMessage;
 	public static String DiagramPrinterUtil_DLLErrorTitle;
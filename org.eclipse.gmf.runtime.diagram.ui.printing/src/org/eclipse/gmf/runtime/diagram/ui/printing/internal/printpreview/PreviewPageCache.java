@@ -0,0 +1,237 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.printing.internal.printpreview;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.gmf.runtime.diagram.ui.internal.pagesetup.PageInfoHelper.PageMargins;
+import org.eclipse.swt.graphics.Image;
+
+/**
+ * Bounded cache of the rendered print preview pages. Pages are keyed by their
+ * position in the diagram and by everything that influences how they are
+ * drawn, so that a page rendered at one zoom level is reused when the user
+ * pages back to it or returns to that zoom level. The least recently used
+ * images are disposed once the cache is full.
+ *
+ * The cache is only accessed from the UI thread.
+ */
+public class PreviewPageCache {
+
+	/**
+	 * Default number of page images kept by the cache.
+	 */
+	public static final int DEFAULT_CAPACITY = 32;
+
+	/**
+	 * Identifies one rendered page image.
+	 */
+	public static final class PageKey {
+
+		private final int row;
+
+		private final int column;
+
+		private final int width;
+
+		private final int height;
+
+		private final float scale;
+
+		private final double userScale;
+
+		private final int marginLeft;
+
+		private final int marginRight;
+
+		private final int marginTop;
+
+		private final int marginBottom;
+
+		private final boolean fitToPage;
+
+		private final int pagesWide;
+
+		private final int pagesTall;
+
+		/**
+		 * @param row
+		 *            the row of the page in the diagram, starting at 0
+		 * @param column
+		 *            the column of the page in the diagram, starting at 0
+		 * @param width
+		 *            the width of the image in pixels
+		 * @param height
+		 *            the height of the image in pixels
+		 * @param scale
+		 *            the scale used to fit the page into the image
+		 * @param userScale
+		 *            the zoom chosen by the user
+		 * @param margins
+		 *            the page margins the page is drawn with
+		 * @param fitToPage
+		 *            whether the diagram is fit to the pages
+		 * @param pagesWide
+		 *            the number of pages the diagram is fit to horizontally
+		 * @param pagesTall
+		 *            the number of pages the diagram is fit to vertically
+		 */
+		public PageKey(int row, int column, int width, int height,
+				float scale, double userScale, PageMargins margins,
+				boolean fitToPage, int pagesWide, int pagesTall) {
+			this.row = row;
+			this.column = column;
+			this.width = width;
+			this.height = height;
+			this.scale = scale;
+			this.userScale = userScale;
+			this.marginLeft = margins.left;
+			this.marginRight = margins.right;
+			this.marginTop = margins.top;
+			this.marginBottom = margins.bottom;
+			this.fitToPage = fitToPage;
+			this.pagesWide = fitToPage ? pagesWide
+				: 0;
+			this.pagesTall = fitToPage ? pagesTall
+				: 0;
+		}
+
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PageKey)) {
+				return false;
+			}
+			PageKey other = (PageKey) obj;
+			return row == other.row && column == other.column
+				&& width == other.width && height == other.height
+				&& Float.floatToIntBits(scale) == Float
+					.floatToIntBits(other.scale)
+				&& Double.doubleToLongBits(userScale) == Double
+					.doubleToLongBits(other.userScale)
+				&& marginLeft == other.marginLeft
+				&& marginRight == other.marginRight
+				&& marginTop == other.marginTop
+				&& marginBottom == other.marginBottom
+				&& fitToPage == other.fitToPage
+				&& pagesWide == other.pagesWide
+				&& pagesTall == other.pagesTall;
+		}
+
+		public int hashCode() {
+			int result = row;
+			result = 31 * result + column;
+			result = 31 * result + width;
+			result = 31 * result + height;
+			result = 31 * result + Float.floatToIntBits(scale);
+			long bits = Double.doubleToLongBits(userScale);
+			result = 31 * result + (int) (bits ^ (bits >>> 32));
+			result = 31 * result + marginLeft;
+			result = 31 * result + marginRight;
+			result = 31 * result + marginTop;
+			result = 31 * result + marginBottom;
+			result = 31 * result + (fitToPage ? 1 : 0);
+			result = 31 * result + pagesWide;
+			result = 31 * result + pagesTall;
+			return result;
+		}
+	}
+
+	private int capacity;
+
+	private final LinkedHashMap<PageKey, Image> images = new LinkedHashMap<PageKey, Image>(
+		16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<PageKey, Image> eldest) {
+			if (size() > capacity) {
+				safeDispose(eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Creates a cache keeping at most <code>capacity</code> images.
+	 *
+	 * @param capacity
+	 *            the maximum number of images
+	 */
+	public PreviewPageCache(int capacity) {
+		this.capacity = Math.max(1, capacity);
+	}
+
+	/**
+	 * Makes sure that the given number of pages can be shown at once without
+	 * disposing an image that is still displayed. The cache keeps twice as
+	 * many pages so that the previously shown pages survive a page switch.
+	 *
+	 * @param visiblePages
+	 *            the number of pages shown at once
+	 */
+	public void ensureCapacity(int visiblePages) {
+		capacity = Math.max(capacity, visiblePages * 2);
+	}
+
+	/**
+	 * @param key
+	 *            the page key
+	 * @return the cached image or <code>null</code> if the page has not been
+	 *         rendered yet
+	 */
+	public Image get(PageKey key) {
+		Image image = images.get(key);
+		if (image != null && image.isDisposed()) {
+			images.remove(key);
+			return null;
+		}
+		return image;
+	}
+
+	/**
+	 * Adds a rendered page, replacing and disposing any previous image of the
+	 * same page.
+	 *
+	 * @param key
+	 *            the page key
+	 * @param image
+	 *            the rendered image, owned by the cache from now on
+	 */
+	public void put(PageKey key, Image image) {
+		Image previous = images.put(key, image);
+		if (previous != null && previous != image) {
+			safeDispose(previous);
+		}
+	}
+
+	/**
+	 * Disposes all cached images.
+	 */
+	public void clear() {
+		for (Iterator<Image> i = images.values().iterator(); i.hasNext();) {
+			safeDispose(i.next());
+		}
+		images.clear();
+	}
+
+	private static void safeDispose(Image image) {
+		if (image != null && !image.isDisposed()) {
+			image.dispose();
+		}
+	}
+}
@@ -15,12 +15,16 @@ package org.eclipse.gmf.runtime.diagram.ui.printing.internal.printpreview;
 
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 
 import javax.print.PrintService;
 import javax.print.PrintServiceLookup;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.draw2d.Graphics;
 import org.eclipse.draw2d.SWTGraphics;
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -86,6 +90,7 @@ import org.eclipse.swt.widgets.ToolBar;
 import org.eclipse.swt.widgets.ToolItem;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.progress.UIJob;
 
 /**
  * Print Preview Action to display the Print Preview dialog. There are no static
@@ -219,6 +224,23 @@ public class PrintPreviewHelper{
 	 */
 	private List imageList = new ArrayList();
 
+	/**
+	 * Rendered pages, kept across zoom and page changes
+	 */
+	private PreviewPageCache pageCache = new PreviewPageCache(
+		PreviewPageCache.DEFAULT_CAPACITY);
+
+	/**
+	 * Pages that are displayed with a placeholder and still need to be
+	 * rendered
+	 */
+	private LinkedList<PendingPage> pendingPages = new LinkedList<PendingPage>();
+
+	/**
+	 * Job rendering the pending pages
+	 */
+	private PageRenderJob pageRenderJob;
+
 	/**
 	 * Border size
 	 */
@@ -941,6 +963,10 @@ public class PrintPreviewHelper{
 	protected DiagramEditPart getDiagramEditPart() {
 		if (diagramEditPart == null) {
 			diagramEditPart = getDiagramEditorPart().getDiagramEditPart();
+			if (diagramEditPart != null) {
+				// preview the edit parts that are not in view too
+				diagramEditPart.materializeAll();
+			}
 		}
 		if (diagramEditPart == null) {
 			Diagram diagram = getDiagramEditorPart().getDiagram(); //do not getDiagramEditPart
@@ -1065,6 +1091,7 @@ public class PrintPreviewHelper{
 		Assert.isNotNull(shell);
 		Assert.isNotNull(composite);
 
+		pendingPages.clear();
 		WindowUtil.disposeChildren(composite);
 		disposeImages();
 
@@ -1121,16 +1148,40 @@ public class PrintPreviewHelper{
 			margins.right /= userScale;
 			margins.bottom /= userScale;
 			margins.top /= userScale;
-									
+
+			pageCache.ensureCapacity(numberOfRows * numberOfColumns);
+			Image placeholder = null;
+
 			for (int i = 0; i < numberOfRows; i++) {
 				for (int j = 0; j < numberOfColumns; j++) {
 					Label label = new Label(composite, SWT.NULL);
-					Image pageImg = makeImage(imageWidth, imageHeight, i, j,
-						scale, margins);
+					PreviewPageCache.PageKey key = new PreviewPageCache.PageKey(
+						i + userY, j + userX, imageWidth, imageHeight, scale,
+						userScale, margins, fitToPage, PrintHelperUtil
+							.getScaleToWidth(), PrintHelperUtil
+							.getScaleToHeight());
+					Image pageImg = pageCache.get(key);
+					if (pageImg == null) {
+						// render it later, show a placeholder meanwhile
+						if (placeholder == null) {
+							placeholder = makePlaceholderImage(imageWidth,
+								imageHeight);
+							imageList.add(placeholder);
+						}
+						pageImg = placeholder;
+						pendingPages.add(new PendingPage(label, key,
+							imageWidth, imageHeight, i, j, scale, margins));
+					}
 					label.setImage(pageImg);
-					imageList.add(pageImg);
 				}
 			}
+
+			if (!pendingPages.isEmpty()) {
+				if (pageRenderJob == null) {
+					pageRenderJob = new PageRenderJob();
+				}
+				pageRenderJob.schedule();
+			}
 		}
 
 		composite.pack();
@@ -1147,6 +1198,105 @@ public class PrintPreviewHelper{
 		composite.setBounds(compositeBounds);
 	}
 
+	/**
+	 * Makes the image shown for a page until the page is rendered.
+	 * 
+	 * @param imageWidth
+	 *            int of pixels of width of image
+	 * @param imageHeight
+	 *            int of pixels of height of image
+	 * @return Image of size imageWidth * imageHeight
+	 */
+	private Image makePlaceholderImage(int imageWidth, int imageHeight) {
+		Image image = new Image(shell.getDisplay(), imageWidth, imageHeight);
+		GC gc = new GC(image);
+		gc.setBackground(shell.getDisplay().getSystemColor(SWT.COLOR_WHITE));
+		gc.fillRectangle(0, 0, imageWidth, imageHeight);
+		gc.setForeground(shell.getDisplay().getSystemColor(SWT.COLOR_GRAY));
+		gc.drawRectangle(0, 0, imageWidth - 1, imageHeight - 1);
+		gc.dispose();
+		return image;
+	}
+
+	/**
+	 * A page displayed with a placeholder image
+	 */
+	private static class PendingPage {
+
+		final Label label;
+
+		final PreviewPageCache.PageKey key;
+
+		final int imageWidth;
+
+		final int imageHeight;
+
+		final int row;
+
+		final int col;
+
+		final float scale;
+
+		final PageMargins margins;
+
+		PendingPage(Label label, PreviewPageCache.PageKey key, int imageWidth,
+				int imageHeight, int row, int col, float scale,
+				PageMargins margins) {
+			this.label = label;
+			this.key = key;
+			this.imageWidth = imageWidth;
+			this.imageHeight = imageHeight;
+			this.row = row;
+			this.col = col;
+			this.scale = scale;
+			this.margins = margins;
+		}
+	}
+
+	/**
+	 * Renders the pending pages one at a time. Painting the diagram has to
+	 * happen on the UI thread, so the job renders a single page per run and
+	 * reschedules itself, which keeps the preview responsive while the pages
+	 * are filled in.
+	 */
+	private class PageRenderJob
+		extends UIJob {
+
+		PageRenderJob() {
+			super(shell.getDisplay(),
+				DiagramUIPrintingMessages.PrintPreview_RenderPagesJob);
+			setSystem(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.ui.progress.UIJob#runInUIThread(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		public IStatus runInUIThread(IProgressMonitor monitor) {
+			if (shell == null || shell.isDisposed()) {
+				pendingPages.clear();
+				return Status.CANCEL_STATUS;
+			}
+
+			PendingPage page = pendingPages.poll();
+			if (page != null && !page.label.isDisposed()) {
+				Image pageImg = pageCache.get(page.key);
+				if (pageImg == null) {
+					pageImg = makeImage(page.imageWidth, page.imageHeight,
+						page.row, page.col, page.scale, page.margins);
+					pageCache.put(page.key, pageImg);
+				}
+				page.label.setImage(pageImg);
+			}
+
+			if (!pendingPages.isEmpty() && !monitor.isCanceled()) {
+				schedule();
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	/**
 	 * Update the enabled and disabled states for the toolbar
 	 */
@@ -1350,7 +1500,13 @@ public class PrintPreviewHelper{
 	 * Dispose resources.
 	 */
 	protected void dispose() {
+		pendingPages.clear();
+		if (pageRenderJob != null) {
+			pageRenderJob.cancel();
+			pageRenderJob = null;
+		}
 		disposeImages();
+		pageCache.clear();
 		safeDisposeImage(printImage);
 		safeDisposeImage(disabledPrintImage);
 		safeDisposeImage(pageImage);
@@ -130,6 +130,8 @@ public class SWTDiagramPrinter extends DiagramPrinter
 				DiagramEditPart dgrmEP = openedDiagramEditor == null ? PrintHelperUtil
 						.createDiagramEditPart(diagram, preferencesHint, shell)
 						: openedDiagramEditor.getDiagramEditPart();
+				// print the edit parts that are not in view too
+				dgrmEP.materializeAll();
                 
                 boolean loadedPreferences = openedDiagramEditor != null || PrintHelperUtil.initializePreferences(dgrmEP, preferencesHint);
 
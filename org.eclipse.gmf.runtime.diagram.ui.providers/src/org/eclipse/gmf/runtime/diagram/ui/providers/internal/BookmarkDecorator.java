@@ -15,9 +15,11 @@ package org.eclipse.gmf.runtime.diagram.ui.providers.internal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -36,13 +38,12 @@ import org.eclipse.gmf.runtime.common.core.util.StringStatics;
 import org.eclipse.gmf.runtime.common.core.util.Trace;
 import org.eclipse.gmf.runtime.common.ui.resources.FileChangeManager;
 import org.eclipse.gmf.runtime.common.ui.resources.IFileObserver;
-import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.IPrimaryEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.ShapeEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator.DecorationRefreshScheduler;
 import org.eclipse.gmf.runtime.diagram.ui.providers.internal.l10n.DiagramUIProvidersPluginImages;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.AbstractDecorator;
-import org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecorator;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecoratorTarget;
 import org.eclipse.gmf.runtime.draw2d.ui.mapmode.IMapMode;
 import org.eclipse.gmf.runtime.draw2d.ui.mapmode.MapModeUtil;
@@ -231,40 +232,27 @@ public class BookmarkDecorator
 		}
         
         /**
-         * Refreshes decorators asynchronously on the UI thread (required
-         * because GEF can only be used on the UI thread) so that getting a read
-         * transaction won't contribute to deadlock while the workspace is
-         * locked.
+         * Schedules the decorators for refresh. They are refreshed
+         * asynchronously on the UI thread (required because GEF can only be
+         * used on the UI thread) so that getting a read transaction won't
+         * contribute to deadlock while the workspace is locked.
          * 
          * @param decorators
          *            the decorators to be refreshed
          */
         private void refreshDecorators(final List decorators) {
-            DisplayUtils.getDisplay().asyncExec(new Runnable() {
-                public void run() {
-                    try {
-                        TransactionUtil.getEditingDomain(
-                            getDecoratorTarget().getAdapter(View.class)).runExclusive(
-                            new Runnable() {
-    
-                            public void run() {
-                                Iterator iter = decorators.iterator();
-                                while (iter.hasNext()) {
-                                    IDecorator decorator = (IDecorator)iter.next();
-                                    if ( decorator != null ) {
-                                        decorator.refresh();
-                                    }
-                                }
-                            }
-                        });
-                    } catch (Exception e) {
-                        Trace.catching(DiagramProvidersPlugin.getInstance(),
-                            DiagramProvidersDebugOptions.EXCEPTIONS_CATCHING, getClass(),
-                            "refreshDecorators()", //$NON-NLS-1$
-                            e);
-                    }
+            DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+                .getInstance();
+            // the bookmarks looked up before the change are stale
+            scheduler.clearSharedResults();
+            Iterator iter = decorators.iterator();
+            while (iter.hasNext()) {
+                BookmarkDecorator decorator = (BookmarkDecorator) iter.next();
+                if ( decorator != null ) {
+                    scheduler.schedule(decorator, decorator
+                        .getDecoratorTarget());
                 }
-            });
+            }
         }
 		
 		/**
@@ -332,39 +320,13 @@ public class BookmarkDecorator
 			return;
 		}
 
-		// query for all the bookmarks of the current resource
-		IMarker[] bookmarks = null;
-		try {
-			bookmarks = resource.findMarkers(IBookmark.TYPE, true,
-				IResource.DEPTH_INFINITE);
-		} catch (CoreException e) {
-			Trace.catching(DiagramProvidersPlugin.getInstance(),
-				DiagramProvidersDebugOptions.EXCEPTIONS_CATCHING, getClass(),
-				"getDecorations", e); //$NON-NLS-1$
-			Log.error(DiagramProvidersPlugin.getInstance(), IStatus.ERROR, e
-				.getMessage());
-		}
-		if (bookmarks == null) {
-			return;
-		}
-
 		// find the bookmark containing the element's GUID
-		IMarker foundMarker = null;
 		String elementId = ((XMLResource) view.eResource()).getID(view);
 		if (elementId == null) {
 			return;
 		}
-		
-		for (Iterator i = Arrays.asList(bookmarks).iterator(); i.hasNext();) {
-			IMarker marker = (IMarker) i.next();
-			String attribute = marker.getAttribute(IBookmark.ELEMENT_ID,
-				StringStatics.BLANK);
-			if (attribute.equals(elementId)) {
-				foundMarker = marker;
-				break;
-			}
-		}
-		if (foundMarker == null) {
+		Set bookmarkedIds = getBookmarkedIds(resource);
+		if (bookmarkedIds == null || !bookmarkedIds.contains(elementId)) {
 			return;
 		}
 
@@ -380,6 +342,52 @@ public class BookmarkDecorator
 		}
 	}
 
+	/**
+	 * Gets the ids of the elements bookmarked in the given resource. The ids
+	 * are shared with the other bookmark decorators until the next display
+	 * tick, so that the bookmarks of a resource are queried once for all the
+	 * views refreshed together.
+	 * 
+	 * @param resource
+	 *            the resource
+	 * @return the ids, or <code>null</code> if the bookmarks could not be
+	 *         queried
+	 */
+	private static Set getBookmarkedIds(IResource resource) {
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+		List key = Arrays.asList(new Object[] {BookmarkDecorator.class,
+			resource});
+		Set bookmarkedIds = (Set) scheduler.getSharedResult(key);
+		if (bookmarkedIds != null) {
+			return bookmarkedIds;
+		}
+
+		// query for all the bookmarks of the current resource
+		IMarker[] bookmarks = null;
+		try {
+			bookmarks = resource.findMarkers(IBookmark.TYPE, true,
+				IResource.DEPTH_INFINITE);
+		} catch (CoreException e) {
+			Trace.catching(DiagramProvidersPlugin.getInstance(),
+				DiagramProvidersDebugOptions.EXCEPTIONS_CATCHING,
+				BookmarkDecorator.class, "getDecorations", e); //$NON-NLS-1$
+			Log.error(DiagramProvidersPlugin.getInstance(), IStatus.ERROR, e
+				.getMessage());
+		}
+		if (bookmarks == null) {
+			return null;
+		}
+
+		bookmarkedIds = new HashSet();
+		for (int i = 0; i < bookmarks.length; i++) {
+			bookmarkedIds.add(bookmarks[i].getAttribute(IBookmark.ELEMENT_ID,
+				StringStatics.BLANK));
+		}
+		scheduler.putSharedResult(key, bookmarkedIds);
+		return bookmarkedIds;
+	}
+
 	/**
 	 * Gets the underlying resource of the given view
 	 * @param view the given view
@@ -419,6 +427,7 @@ public class BookmarkDecorator
 	 * @see org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecorator#deactivate()
 	 */
 	public void deactivate() {
+		DecorationRefreshScheduler.getInstance().cancel(this);
 		if ( fileObserver != null ) {
 			fileObserver.unregisterDecorator(this);
 			if (!fileObserver.isRegistered()) {
@@ -13,15 +13,15 @@
 package org.eclipse.gmf.runtime.diagram.ui.render.clipboard;
 
 import java.awt.Image;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.draw2d.Graphics;
@@ -137,6 +137,7 @@ abstract public class DiagramGenerator {
 	 * @return an image in AWT format
 	 */
 	final public Image createAWTImageForDiagram() {
+		getDiagramEditPart().materializeAll();
 		List editparts = getDiagramEditPart().getPrimaryEditParts();
 
 		return createAWTImageForParts(editparts);
@@ -161,6 +162,7 @@ abstract public class DiagramGenerator {
 	 * @return an image descriptor for an SWT image
 	 */
 	final public ImageDescriptor createSWTImageDescriptorForDiagram() {
+		getDiagramEditPart().materializeAll();
 		List editparts = getDiagramEditPart().getPrimaryEditParts();
 
 		return createSWTImageDescriptorForParts(editparts);
@@ -204,41 +206,119 @@ abstract public class DiagramGenerator {
 	 */
 	protected void renderToGraphics(Graphics graphics,
 			Point translateOffset, List editparts) {
+		renderToGraphics(graphics, translateOffset, editparts, null);
+	}
+
+	/**
+	 * Renders the part of the list of editparts that lies within a region to
+	 * the graphics object. Only the figures whose bounds intersect the region
+	 * are painted; the decorations are always painted. The graphics object is
+	 * expected to be clipped to the region.
+	 * 
+	 * @param graphics
+	 *            the graphics object on which to draw
+	 * @param translateOffset
+	 *            a <code>Point</code> that the value the
+	 *            <code>graphics</code> object will be translated by in
+	 *            relative coordinates.
+	 * @param editparts
+	 *            the list of <code>IGraphicalEditParts</code> that will be
+	 *            rendered to the graphics object
+	 * @param region
+	 *            the region to render, in the coordinates of the printable
+	 *            layers, or <code>null</code> to render all the editparts
+	 */
+	protected void renderToGraphics(Graphics graphics,
+			Point translateOffset, List editparts, Rectangle region) {
 
 //		List sortedEditparts = sortSelection(editparts);
 
 		graphics.translate((-translateOffset.x), (-translateOffset.y));
 		graphics.pushState();
 
-		List<GraphicalEditPart> connectionsToPaint = new LinkedList<GraphicalEditPart>();
+		/*
+		 * The selected connections and the connections contained within the
+		 * selected shapes, each painted once in the order they are found
+		 */
+		Set<GraphicalEditPart> connectionsToPaint = new LinkedHashSet<GraphicalEditPart>();
+		for (Iterator editPartsItr = editparts.iterator(); editPartsItr.hasNext();) {
+			IGraphicalEditPart editPart = (IGraphicalEditPart) editPartsItr.next();
+			if (editPart instanceof ConnectionEditPart) {
+				connectionsToPaint.add(editPart);
+			} else {
+				connectionsToPaint.addAll(findConnectionsToPaint(editPart));
+			}
+		}
 
-		Map decorations = findDecorations(editparts);
+		/*
+		 * Find the decorations of the shapes and of the connections in a
+		 * single pass over the decoration layer
+		 */
+		List<GraphicalEditPart> decorated = new ArrayList<GraphicalEditPart>(
+				editparts.size() + connectionsToPaint.size());
+		decorated.addAll(editparts);
+		decorated.addAll(connectionsToPaint);
+		Map decorations = findDecorations(decorated);
 
-		for (Iterator editPartsItr = editparts.listIterator(); editPartsItr.hasNext();) {
+		for (Iterator editPartsItr = editparts.iterator(); editPartsItr.hasNext();) {
 			IGraphicalEditPart editPart = (IGraphicalEditPart) editPartsItr.next();
 
 			// do not paint selected connection part
-			if (editPart instanceof ConnectionEditPart) {
-				connectionsToPaint.add(editPart);
-			} else {				
-				connectionsToPaint.addAll(findConnectionsToPaint(editPart));
+			if (!(editPart instanceof ConnectionEditPart)) {
 				// paint shape figure
 				IFigure figure = editPart.getFigure();
-				paintFigure(graphics, figure);
+				if (intersects(figure, region)) {
+					paintFigure(graphics, figure);
+				}
 
 				paintDecorations(graphics, figure, decorations);
 			}
 		}
 		
 		// paint the connection parts after shape parts paint
-		decorations = findDecorations(connectionsToPaint);
-
 		for (Iterator<GraphicalEditPart> connItr = connectionsToPaint.iterator(); connItr.hasNext();) {
 			IFigure figure = connItr.next().getFigure();
-			paintFigure(graphics, figure);
+			if (intersects(figure, region)) {
+				paintFigure(graphics, figure);
+			}
 			paintDecorations(graphics, figure, decorations);
 		}
 	}
+
+	/**
+	 * Determines whether the area painted by a figure intersects a region.
+	 * 
+	 * @param figure
+	 *            the figure
+	 * @param region
+	 *            the region, in the coordinates of the printable layers, or
+	 *            <code>null</code> for the whole diagram
+	 * @return <code>true</code> if the figure has to be painted to render
+	 *         the region
+	 */
+	private boolean intersects(IFigure figure, Rectangle region) {
+		if (region == null) {
+			return true;
+		}
+		return getPaintedBounds(figure).intersects(region);
+	}
+
+	/**
+	 * Computes the area painted by a figure, in the coordinates of the
+	 * printable layers.
+	 * 
+	 * @param figure
+	 *            the figure
+	 * @return the bounds of the figure, extended if the figure paints beyond
+	 *         its bounds
+	 */
+	public Rectangle getPaintedBounds(IFigure figure) {
+		Rectangle bounds = figure instanceof IExpandableFigure ? ((IExpandableFigure) figure)
+				.getExtendedBounds().getCopy()
+				: figure.getBounds().getCopy();
+		DiagramImageUtils.translateTo(bounds, figure, printableLayer);
+		return bounds;
+	}
 	
 	/**
 	 * Collects all connections contained within the given edit part
@@ -252,91 +332,88 @@ abstract public class DiagramGenerator {
 		 */
 		HashSet<GraphicalEditPart> editParts = new HashSet<GraphicalEditPart>();
 		
-		/*
-		 * All connection editparts that have a source contained within the given editpart
-		 */
-		HashSet<ConnectionEditPart> connectionEPs = new HashSet<ConnectionEditPart>();
-		
-		/*
-		 * Connections contained within the given editpart (or just the connections to paint
-		 */
-		HashSet<ConnectionEditPart> connectionsToPaint = new HashSet<ConnectionEditPart>();
-		
 		/*
 		 * Populate the set of node editparts
 		 */
 		getNestedEditParts(editPart, editParts);
 		
 		/*
-		 * Populate the set of connections whose source is within the given editpart
+		 * All connection editparts that have a source contained within the
+		 * given editpart, directly or through other connections. Each source
+		 * is visited once, connections included.
 		 */
-		for (Iterator<GraphicalEditPart> editPartsItr = editParts.iterator(); editPartsItr.hasNext();) {
-			connectionEPs.addAll(getAllConnectionsFrom(editPartsItr.next()));
+		Set<ConnectionEditPart> connectionEPs = new LinkedHashSet<ConnectionEditPart>();
+		List<GraphicalEditPart> sources = new ArrayList<GraphicalEditPart>(editParts);
+		for (int i = 0; i < sources.size(); i++) {
+			for (Iterator itr = sources.get(i).getSourceConnections().iterator(); itr.hasNext();) {
+				ConnectionEditPart sourceConn = (ConnectionEditPart) itr.next();
+				if (connectionEPs.add(sourceConn)) {
+					sources.add(sourceConn);
+				}
+			}
 		}
 		
 		/*
-		 * Create a set of connections constained within the given editpart
+		 * Keep the connections whose target is contained within the given
+		 * editpart, directly or through other contained connections
 		 */
-		while (!connectionEPs.isEmpty()) {
-			/*
-			 * Take the first connection and check whethe there is a path
-			 * through that connection that leads to the target contained within
-			 * the given editpart
-			 */
-			Stack<ConnectionEditPart> connectionsPath = new Stack<ConnectionEditPart>();
-			ConnectionEditPart conn = connectionEPs.iterator().next();
-			connectionEPs.remove(conn);
-			connectionsPath.add(conn);
-			
-			/*
-			 * Initialize the target for the current path
-			 */
-			EditPart target = conn.getTarget();
-			while(connectionEPs.contains(target)) {
-				/*
-				 * If the target end is a connection, check if it's one of the
-				 * connection's whose target is a connection and within the
-				 * given editpart. Append it to the path if it is. Otherwise
-				 * check if the target is within the actual connections or nodes
-				 * contained within the given editpart
-				 */
-				ConnectionEditPart targetConn = (ConnectionEditPart) target;
-				connectionEPs.remove(targetConn);
-				connectionsPath.add(targetConn);
-				
-				/*
-				 * Update the target for the new path
-				 */
-				target = targetConn.getTarget();
-			}
-			
-			/*
-			 * The path is built, check if it's target is a node or a connection
-			 * contained within the given editpart
-			 */
-			if (editParts.contains(target) || connectionsToPaint.contains(target)) {
-				connectionsToPaint.addAll(connectionsPath);
+		Map<ConnectionEditPart, Boolean> contained = new HashMap<ConnectionEditPart, Boolean>();
+		HashSet<ConnectionEditPart> connectionsToPaint = new HashSet<ConnectionEditPart>();
+		for (Iterator<ConnectionEditPart> connItr = connectionEPs.iterator(); connItr.hasNext();) {
+			ConnectionEditPart conn = connItr.next();
+			if (isTargetContained(conn, editParts, connectionEPs, contained)) {
+				connectionsToPaint.add(conn);
 			}
 		}
 		return connectionsToPaint;
 	}
 	
 	/**
-	 * Returns all connections orginating from a given editpart. All means that
-	 * connections originating from connections that have a source given
-	 * editpart will be included
+	 * Determines whether a connection leads to a node contained within an
+	 * editpart, following the connections whose target is a connection. The
+	 * answer is remembered for every connection on the path, so that each
+	 * connection is followed once.
 	 * 
-	 * @param ep the editpart 
-	 * @return all source connections
+	 * @param conn
+	 *            the connection
+	 * @param nodes
+	 *            the node editparts contained within the editpart
+	 * @param connections
+	 *            the connections whose source is contained within the
+	 *            editpart
+	 * @param contained
+	 *            the answers computed so far
+	 * @return <code>true</code> if the connection is contained within the
+	 *         editpart
 	 */
-	private List<ConnectionEditPart> getAllConnectionsFrom(GraphicalEditPart ep) {
-		LinkedList<ConnectionEditPart> connections = new LinkedList<ConnectionEditPart>();
-		for (Iterator itr = ep.getSourceConnections().iterator(); itr.hasNext();) {
-			ConnectionEditPart sourceConn = (ConnectionEditPart) itr.next();
-			connections.add(sourceConn);
-			connections.addAll(getAllConnectionsFrom(sourceConn));
+	private boolean isTargetContained(ConnectionEditPart conn,
+			Set<GraphicalEditPart> nodes, Set<ConnectionEditPart> connections,
+			Map<ConnectionEditPart, Boolean> contained) {
+		List<ConnectionEditPart> path = new ArrayList<ConnectionEditPart>();
+		Boolean result = null;
+		ConnectionEditPart current = conn;
+		while (result == null) {
+			result = contained.get(current);
+			if (result != null) {
+				break;
+			}
+			// a path that loops back on itself does not lead to a node
+			contained.put(current, Boolean.FALSE);
+			path.add(current);
+
+			EditPart target = current.getTarget();
+			if (nodes.contains(target)) {
+				result = Boolean.TRUE;
+			} else if (connections.contains(target)) {
+				current = (ConnectionEditPart) target;
+			} else {
+				result = Boolean.FALSE;
+			}
+		}
+		for (int i = 0; i < path.size(); i++) {
+			contained.put(path.get(i), result);
 		}
-		return connections;
+		return result.booleanValue();
 	}
 
 	/**
@@ -399,12 +476,6 @@ abstract public class DiagramGenerator {
 					DiagramRootEditPart.DECORATION_PRINTABLE_LAYER);
 
 			if (decorationLayer != null) {
-				// compute the figures of the shapes
-				List figures = new java.util.ArrayList(editparts);
-				for (ListIterator iter = figures.listIterator(); iter.hasNext();) {
-					iter.set(((IGraphicalEditPart) iter.next()).getFigure());
-				}
-
 				// find the decorations on figures that were selected
 				for (Iterator iter = decorationLayer.getChildren().iterator(); iter
 						.hasNext();) {
@@ -602,6 +673,7 @@ abstract public class DiagramGenerator {
 	 *         diagram.
 	 */
 	public List getDiagramPartInfo(DiagramEditPart diagramEditPart) {
+		diagramEditPart.materializeAll();
 		Map<String, Object> options = new HashMap<String, Object>();
 		Point origin = DiagramImageUtils.calculateImageRectangle(
 				diagramEditPart.getPrimaryEditParts(), getImageMargin(),
@@ -622,6 +694,7 @@ abstract public class DiagramGenerator {
 	public List<PartPositionInfo> getConstrainedDiagramPartInfo(
 			DiagramEditPart diagramEditPart, int maxWidth, int maxHeight,
 			boolean useMargins) {
+		diagramEditPart.materializeAll();
 		List<IGraphicalEditPart> children = (List<IGraphicalEditPart>) diagramEditPart
 				.getPrimaryEditParts();
 		IMapMode mm = getMapMode();
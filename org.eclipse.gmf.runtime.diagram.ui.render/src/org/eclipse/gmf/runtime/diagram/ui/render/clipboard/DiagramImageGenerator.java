@@ -12,6 +12,7 @@
 
 package org.eclipse.gmf.runtime.diagram.ui.render.clipboard;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
@@ -151,18 +152,7 @@ public class DiagramImageGenerator
 		g2d.setColor(Color.white);
 		g2d.fillRect(0, 0, awtImage.getWidth(), awtImage.getHeight());
 
-		// Check anti-aliasing preference
-		IPreferenceStore preferenceStore = (IPreferenceStore) getDiagramEditPart()
-				.getDiagramPreferencesHint().getPreferenceStore();
-
-		if (preferenceStore
-				.getBoolean(IPreferenceConstants.PREF_ENABLE_ANTIALIAS)) {
-			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_ON);
-		} else {
-			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_OFF);
-		}
+		setRenderingHints(g2d);
 
 		g2d.clip(new java.awt.Rectangle(0, 0, awtImage.getWidth(), awtImage
 				.getHeight()));
@@ -197,18 +187,7 @@ public class DiagramImageGenerator
 		g2d.setColor(Color.white);
 		g2d.fillRect(0, 0, awtImage.getWidth(), awtImage.getHeight());
 
-		// Check anti-aliasing preference
-		IPreferenceStore preferenceStore = (IPreferenceStore) getDiagramEditPart()
-				.getDiagramPreferencesHint().getPreferenceStore();
-
-		if (preferenceStore
-				.getBoolean(IPreferenceConstants.PREF_ENABLE_ANTIALIAS)) {
-			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_ON);
-		} else {
-			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-					RenderingHints.VALUE_ANTIALIAS_OFF);
-		}
+		setRenderingHints(g2d);
 
 		g2d.clip(new java.awt.Rectangle(0, 0, awtImage.getWidth(), awtImage
 				.getHeight()));
@@ -235,4 +214,98 @@ public class DiagramImageGenerator
 		return awtImage;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Repaints a region of an image created by
+	 * {@link #createAWTImageForParts(List, org.eclipse.swt.graphics.Rectangle)}
+	 * for the same editparts and source rectangle, after the figures within
+	 * the region have changed. Only the figures that intersect the region are
+	 * painted again.
+	 * 
+	 * @param image
+	 *            the image to update
+	 * @param editparts
+	 *            the list of <code>IGraphicalEditParts</code> rendered to the
+	 *            image
+	 * @param sourceRect
+	 *            the source rectangle the image was created for
+	 * @param region
+	 *            the region to repaint, in the same coordinates as the source
+	 *            rectangle
+	 */
+	public void repaintAWTImageForParts(BufferedImage image, List editparts,
+			org.eclipse.swt.graphics.Rectangle sourceRect,
+			org.eclipse.swt.graphics.Rectangle region) {
+		IMapMode mm = getMapMode();
+
+		// the pixels of the region, with a pixel of margin for antialiasing
+		PrecisionRectangle deviceRect = new PrecisionRectangle(new Rectangle(
+				region.x - sourceRect.x, region.y - sourceRect.y,
+				region.width, region.height));
+		mm.LPtoDP(deviceRect);
+		Rectangle pixels = new Rectangle(
+				(int) Math.floor(deviceRect.preciseX) - 1,
+				(int) Math.floor(deviceRect.preciseY) - 1,
+				(int) Math.ceil(deviceRect.preciseWidth) + 3,
+				(int) Math.ceil(deviceRect.preciseHeight) + 3);
+		pixels.intersect(new Rectangle(0, 0, image.getWidth(), image
+				.getHeight()));
+		if (pixels.isEmpty()) {
+			return;
+		}
+
+		// the region actually repainted, in logical coordinates
+		PrecisionRectangle logicalRect = new PrecisionRectangle(pixels);
+		mm.DPtoLP(logicalRect);
+		Rectangle clip = new Rectangle(
+				(int) Math.floor(logicalRect.preciseX) + sourceRect.x,
+				(int) Math.floor(logicalRect.preciseY) + sourceRect.y,
+				(int) Math.ceil(logicalRect.preciseWidth) + 1,
+				(int) Math.ceil(logicalRect.preciseHeight) + 1);
+
+		BufferedImage regionImage = new BufferedImage(pixels.width,
+				pixels.height, BufferedImage.TYPE_4BYTE_ABGR_PRE);
+		Graphics2D g2d = regionImage.createGraphics();
+		g2d.setColor(Color.white);
+		g2d.fillRect(0, 0, pixels.width, pixels.height);
+		setRenderingHints(g2d);
+		g2d.clip(new java.awt.Rectangle(0, 0, pixels.width, pixels.height));
+
+		Graphics graphics = new GraphicsToGraphics2DAdaptor(g2d,
+				new Rectangle(0, 0, pixels.width, pixels.height));
+
+		// paint as the whole image would be painted, shifted to the region;
+		// translating the draw2d graphics keeps its clip in the coordinates
+		// of the figures
+		graphics.translate(-pixels.x, -pixels.y);
+		RenderedMapModeGraphics mapModeGraphics = new RenderedMapModeGraphics(
+				graphics, mm);
+
+		renderToGraphics(mapModeGraphics,
+				new Point(sourceRect.x, sourceRect.y), editparts, clip);
+
+		graphics.dispose();
+		g2d.dispose();
+
+		Graphics2D target = image.createGraphics();
+		target.setComposite(AlphaComposite.Src);
+		target.drawImage(regionImage, pixels.x, pixels.y, null);
+		target.dispose();
+	}
+
+	/**
+	 * Applies the anti-aliasing preference of the diagram.
+	 */
+	private void setRenderingHints(Graphics2D g2d) {
+		IPreferenceStore preferenceStore = (IPreferenceStore) getDiagramEditPart()
+				.getDiagramPreferencesHint().getPreferenceStore();
+
+		if (preferenceStore
+				.getBoolean(IPreferenceConstants.PREF_ENABLE_ANTIALIAS)) {
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+					RenderingHints.VALUE_ANTIALIAS_ON);
+		} else {
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+					RenderingHints.VALUE_ANTIALIAS_OFF);
+		}
+	}
+}
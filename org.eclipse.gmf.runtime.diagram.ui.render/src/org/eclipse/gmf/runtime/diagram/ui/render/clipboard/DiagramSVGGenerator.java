@@ -37,6 +37,7 @@ import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderPlugin;
 import org.eclipse.gmf.runtime.draw2d.ui.render.RenderedImage;
 import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image.ImageConverter;
 import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.export.GraphicsSVG;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.export.StreamingGraphicsSVG;
 import org.eclipse.gmf.runtime.draw2d.ui.render.factory.RenderedImageFactory;
 import org.eclipse.gmf.runtime.draw2d.ui.render.internal.RenderedImageDescriptor;
 import org.eclipse.jface.resource.ImageDescriptor;
@@ -51,8 +52,18 @@ import org.w3c.dom.Element;
 public class DiagramSVGGenerator
 	extends DiagramGenerator {
 
+	/**
+	 * Area in square pixels above which {@link #shouldStream(org.eclipse.swt.graphics.Rectangle)}
+	 * recommends to write the SVG document directly to the output stream.
+	 */
+	public static final long STREAMING_AREA_THRESHOLD = 4000L * 4000L;
+
 	private RenderedImage renderedImage = null;
 
+	private OutputStream streamTarget = null;
+
+	private IOException streamFailure = null;
+
 	private Element svgRoot = null;
 
 	private Rectangle viewBox = null;
@@ -72,6 +83,9 @@ public class DiagramSVGGenerator
 	 */
 	protected Graphics setUpGraphics(int width, int height) {
 		viewBox = new Rectangle(0, 0, width, height);
+		if (streamTarget != null) {
+			return StreamingGraphicsSVG.getInstance(viewBox, streamTarget);
+		}
 		return GraphicsSVG.getInstance(viewBox);
 	}
 
@@ -79,6 +93,19 @@ public class DiagramSVGGenerator
 	 * @see org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramGenerator#getImageDescriptor(org.eclipse.draw2d.Graphics)
 	 */
 	protected ImageDescriptor getImageDescriptor(Graphics g) {
+		if (g instanceof StreamingGraphicsSVG) {
+			try {
+				((StreamingGraphicsSVG) g).finish();
+			} catch (IOException ex) {
+				// reported by streamSVGForParts
+				streamFailure = ex;
+			}
+			// the document has been written, there is nothing to hold on to
+			svgRoot = null;
+			setRenderedImage(null);
+			return null;
+		}
+
 		try {
 			GraphicsSVG svgG = (GraphicsSVG) g;
 			// Get the root element (the svg element)
@@ -133,6 +160,57 @@ public class DiagramSVGGenerator
 		}
 	}
 
+	/**
+	 * Writes the SVG document for the list of editparts directly to the
+	 * output stream while the editparts are painted. No SVG DOM is built for
+	 * the whole diagram, so the heap used does not depend on the size of the
+	 * document. As a consequence {@link #getRenderedImage()} and
+	 * {@link #stream(OutputStream)} are not available after this call.
+	 * 
+	 * @param editparts
+	 *            the list of <code>IGraphicalEditParts</code> that will be
+	 *            rendered
+	 * @param sourceRect
+	 *            the clipping rectangle of the document
+	 * @param outputStream
+	 *            output stream to store the SVG document. It is not closed by
+	 *            this method.
+	 * @throws IOException
+	 *             if the document could not be written completely to the
+	 *             output stream
+	 */
+	public void streamSVGForParts(List editparts,
+			org.eclipse.swt.graphics.Rectangle sourceRect,
+			OutputStream outputStream) throws IOException {
+		streamTarget = outputStream;
+		streamFailure = null;
+		try {
+			createSWTImageDescriptorForParts(editparts, sourceRect);
+			if (streamFailure != null) {
+				throw streamFailure;
+			}
+		} finally {
+			streamTarget = null;
+			streamFailure = null;
+		}
+	}
+
+	/**
+	 * Determines whether a document of the given size should be written with
+	 * {@link #streamSVGForParts(List, org.eclipse.swt.graphics.Rectangle, OutputStream)}
+	 * rather than built in memory. Smaller documents keep using the DOM so
+	 * that their output is unchanged.
+	 * 
+	 * @param sourceRect
+	 *            the clipping rectangle of the document in logical units
+	 * @return <code>true</code> if the document should be streamed
+	 */
+	public boolean shouldStream(org.eclipse.swt.graphics.Rectangle sourceRect) {
+		Rectangle rect = new Rectangle(0, 0, sourceRect.width, sourceRect.height);
+		getMapMode().LPtoDP(rect);
+		return (long) rect.width * rect.height > STREAMING_AREA_THRESHOLD;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -55,7 +55,6 @@ import org.eclipse.gmf.runtime.draw2d.ui.geometry.LineSeg;
 import org.eclipse.gmf.runtime.draw2d.ui.mapmode.IMapMode;
 import org.eclipse.gmf.runtime.draw2d.ui.mapmode.MapModeUtil;
 import org.eclipse.gmf.runtime.notation.Diagram;
-import org.eclipse.swt.widgets.Shell;
 
 /**
  * Implementation of a utility class able to export specified editparts to
@@ -122,8 +121,7 @@ public class CopyToHTMLImageUtil extends CopyToImageUtil {
 			IPath destination, ImageFileFormat format, IProgressMonitor monitor)
 			throws CoreException {
 
-		ExportInfo exportInfo = copyToImageAndReturnInfo(diagramEP, diagramEP
-				.getPrimaryEditParts(), destination, format, monitor);
+		ExportInfo exportInfo = copyToImageAndReturnInfo(diagramEP, getAllPrimaryEditParts(diagramEP), destination, format, monitor);
 
 		/*
 		 * Create the HTML file
@@ -172,19 +170,17 @@ public class CopyToHTMLImageUtil extends CopyToImageUtil {
 			DiagramEditPart diagramEditPart = openedDiagramEditor
 					.getDiagramEditPart();
 			exportInfo = copyToImageAndReturnInfo(diagramEditPart,
-					diagramEditPart.getPrimaryEditParts(), destination, format,
+					getAllPrimaryEditParts(diagramEditPart), destination, format,
 					monitor);
 		} else {
-			Shell shell = new Shell();
+			DiagramEditPart diagramEditPart = openDiagramEditPart(diagram,
+					null);
 			try {
-				DiagramEditPart diagramEditPart = createDiagramEditPart(
-						diagram, shell, null);
-				Assert.isNotNull(diagramEditPart);
 				exportInfo = copyToImageAndReturnInfo(diagramEditPart,
-						diagramEditPart.getPrimaryEditParts(), destination,
+						getAllPrimaryEditParts(diagramEditPart), destination,
 						format, monitor);
 			} finally {
-				shell.dispose();
+				closeDiagramEditPart(diagramEditPart);
 			}
 		}
 		return createHTMLString(exportInfo);
@@ -484,19 +480,17 @@ public class CopyToHTMLImageUtil extends CopyToImageUtil {
 			DiagramEditPart diagramEditPart = openedDiagramEditor
 					.getDiagramEditPart();
 			exportInfo = copyToImageAndReturnInfo(diagramEditPart,
-					diagramEditPart.getPrimaryEditParts(), destination, format,
+					getAllPrimaryEditParts(diagramEditPart), destination, format,
 					monitor);
 		} else {
-			Shell shell = new Shell();
+			DiagramEditPart diagramEditPart = openDiagramEditPart(diagram,
+					preferencesHint);
 			try {
-				DiagramEditPart diagramEditPart = createDiagramEditPart(
-						diagram, shell, preferencesHint);
-				Assert.isNotNull(diagramEditPart);
 				exportInfo = copyToImageAndReturnInfo(diagramEditPart,
-						diagramEditPart.getPrimaryEditParts(), destination,
+						getAllPrimaryEditParts(diagramEditPart), destination,
 						format, monitor);
 			} finally {
-				shell.dispose();
+				closeDiagramEditPart(diagramEditPart);
 			}
 		}
 
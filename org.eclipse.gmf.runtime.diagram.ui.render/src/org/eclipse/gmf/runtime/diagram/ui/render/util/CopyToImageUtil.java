@@ -13,6 +13,7 @@
 package org.eclipse.gmf.runtime.diagram.ui.render.util;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -42,6 +43,7 @@ import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
 import org.eclipse.gmf.runtime.diagram.ui.image.PartPositionInfo;
 import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramEditor;
+import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramGraphicalViewer;
 import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramGenerator;
 import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramImageGenerator;
 import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramSVGGenerator;
@@ -66,9 +68,108 @@ import org.eclipse.swt.widgets.Shell;
  */
 public class CopyToImageUtil {
 
+    /**
+     * The session whose offscreen viewers are used, if any.
+     */
+    private DiagramExportSession exportSession;
+
+    /**
+     * The cache of exported images, if any.
+     */
+    private DiagramExportCache exportCache;
+
+    /**
+     * Sets the session whose pooled offscreen viewers are used to render
+     * diagrams that are not open in an editor. The diagrams are still
+     * shown with {@link #createDiagramEditPart(Diagram, Shell, PreferencesHint)},
+     * in a shell of the session rather than in a new shell.
+     * 
+     * @param session
+     *            the export session, or <code>null</code>
+     */
+    public void setExportSession(DiagramExportSession session) {
+        this.exportSession = session;
+    }
+
+    /**
+     * Obtains the session whose offscreen viewers are used.
+     * 
+     * @return the export session, or <code>null</code>
+     */
+    public DiagramExportSession getExportSession() {
+        return exportSession;
+    }
+
+    /**
+     * Sets the cache in which the images of diagrams are remembered, so that
+     * exporting a diagram that has not changed since it was last exported
+     * copies the image generated then instead of rendering the diagram
+     * again.
+     * 
+     * @param cache
+     *            the export cache, or <code>null</code>
+     */
+    public void setExportCache(DiagramExportCache cache) {
+        this.exportCache = cache;
+    }
+
+    /**
+     * Obtains the cache in which the images of diagrams are remembered.
+     * 
+     * @return the export cache, or <code>null</code>
+     */
+    public DiagramExportCache getExportCache() {
+        return exportCache;
+    }
+
+    /**
+     * The encoder of the images rendered with AWT, if any.
+     */
+    private ImageEncoder imageEncoder;
+
+    /**
+     * Sets the encoder that writes the raster images, in the formats it
+     * supports, directly from the AWT images the diagrams are rendered to.
+     * Without an encoder, PNG images are written with <code>ImageIO</code>
+     * and the images in the other formats are rendered to SWT images and
+     * written with an SWT <code>ImageLoader</code>.
+     * 
+     * @param encoder
+     *            the image encoder, or <code>null</code>
+     */
+    public void setImageEncoder(ImageEncoder encoder) {
+        this.imageEncoder = encoder;
+    }
+
+    /**
+     * Obtains the encoder that writes the raster images.
+     * 
+     * @return the image encoder, or <code>null</code>
+     */
+    public ImageEncoder getImageEncoder() {
+        return imageEncoder;
+    }
+
+    /**
+     * Computes the fingerprint under which an export is cached.
+     * 
+     * @return the fingerprint, or <code>null</code> if there is no export
+     *         cache
+     */
+    private String getExportFingerprint(Diagram diagram,
+            ImageFileFormat format, PreferencesHint preferencesHint,
+            String parameters) {
+        if (exportCache == null) {
+            return null;
+        }
+        return exportCache.fingerprint(diagram, format, preferencesHint,
+            getClass().getName() + ' ' + parameters);
+    }
+
     /**
      * Creates a <code>DiagramEditPart</code> given the <code>Diagram</code>
-     * without opening an editor.
+     * without opening an editor. In a shell of the export session, the
+     * diagram is shown in the pooled viewer of the shell.
      * 
      * @param diagram
      *            the <code>Diagram</code>
@@ -84,10 +185,31 @@ public class CopyToImageUtil {
      */
     public DiagramEditPart createDiagramEditPart(Diagram diagram, Shell shell,
             PreferencesHint preferencesHint) {
+        DiagramGraphicalViewer pooledViewer = exportSession != null ? exportSession
+            .getViewer(shell)
+            : null;
+        if (pooledViewer != null) {
+            return OffscreenEditPartFactory.getInstance().setDiagram(
+                pooledViewer, diagram, preferencesHint);
+        }
     	return OffscreenEditPartFactory.getInstance().createDiagramEditPart(
                 diagram, shell, preferencesHint);
     }
 
+    /**
+     * Gets the primary edit parts of the whole diagram, creating those that
+     * a virtualizing viewer left out because they were not in view.
+     * 
+     * @param diagramEP
+     *            the diagram edit part
+     * @return the primary edit parts of the diagram
+     * @see DiagramEditPart#materializeAll()
+     */
+    protected static List getAllPrimaryEditParts(DiagramEditPart diagramEP) {
+        diagramEP.materializeAll();
+        return diagramEP.getPrimaryEditParts();
+    }
+
     /**
      * Copies the diagram to an image file in the specified format.
      * 
@@ -117,6 +239,21 @@ public class CopyToImageUtil {
         Trace.trace(DiagramUIRenderPlugin.getInstance(),
             "Copy diagram to Image " + destination + " as " + format); //$NON-NLS-1$ //$NON-NLS-2$
         
+        String fingerprint = getExportFingerprint(diagram, format,
+            preferencesHint, "file"); //$NON-NLS-1$
+        List cachedPartInfo = fingerprint != null ? exportCache.lookup(
+            fingerprint, diagram)
+            : null;
+        // the image can only be restored or cached if the export is allowed
+        // to write it
+        boolean cacheable = fingerprint != null
+            && createFile(destination).isOK();
+        if (cacheable && cachedPartInfo != null
+            && exportCache.restore(fingerprint, destination.toFile())) {
+            refreshLocal(destination);
+            return cachedPartInfo;
+        }
+        
         List partInfo = Collections.EMPTY_LIST;
         
         DiagramEditor openedDiagramEditor = DiagramEditorUtil.findOpenedDiagramEditorForID(ViewUtil.getIdStr(diagram));
@@ -126,22 +263,192 @@ public class CopyToImageUtil {
                 partInfo = generator.getDiagramPartInfo(openedDiagramEditor.getDiagramEditPart());
         } else {
 	
-	        Shell shell = new Shell();
+	        DiagramEditPart diagramEditPart = openDiagramEditPart(diagram,
+	            preferencesHint);
 	        try {
-	            DiagramEditPart diagramEditPart = createDiagramEditPart(diagram,
-	                shell, preferencesHint);
-	            Assert.isNotNull(diagramEditPart);
 	            DiagramGenerator generator = copyToImage(diagramEditPart,
 	                destination, format, monitor);
 	            partInfo = generator.getDiagramPartInfo(diagramEditPart);
 	        } finally {
-	            shell.dispose();
+	            closeDiagramEditPart(diagramEditPart);
 	        }
         }
 
+        // a failed export has thrown by now, so the file holds the new image
+        if (cacheable && destination.toFile().isFile()) {
+            exportCache.store(fingerprint, destination.toFile(), partInfo);
+        }
         return partInfo;
     }
     
+    /**
+     * Copies the diagram to a stream in the specified image format.
+     * 
+     * @param diagram
+     *            the diagram to be copied
+     * @param stream
+     *            the stream to write the image to; it is not closed
+     * @param format
+     *            the image file format
+     * @param monitor
+     *            progress monitor.
+     * @param preferencesHint
+     *            The preference hint that is to be used to find the appropriate
+     *            preference store from which to retrieve diagram preference
+     *            values.
+     * @exception CoreException
+     *                if this method fails
+     */
+    public void copyToImage(Diagram diagram, OutputStream stream,
+            ImageFileFormat format, IProgressMonitor monitor,
+            PreferencesHint preferencesHint)
+        throws CoreException {
+        String fingerprint = getExportFingerprint(diagram, format,
+            preferencesHint, "stream"); //$NON-NLS-1$
+        if (fingerprint != null) {
+            byte[] image = exportCache.get(fingerprint);
+            if (image == null) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                renderToStream(diagram, buffer, format, monitor, preferencesHint);
+                image = buffer.toByteArray();
+                exportCache.put(fingerprint, image);
+            }
+            try {
+                stream.write(image);
+            } catch (IOException e) {
+                Log.error(DiagramUIRenderPlugin.getInstance(), IStatus.ERROR, e
+                    .getMessage(), e);
+                throw new CoreException(new Status(IStatus.ERROR,
+                    "exportToStream", IStatus.OK, //$NON-NLS-1$
+                    e.getMessage(), null));
+            }
+        } else {
+            renderToStream(diagram, stream, format, monitor, preferencesHint);
+        }
+    }
+
+    private void renderToStream(Diagram diagram, OutputStream stream,
+            ImageFileFormat format, IProgressMonitor monitor,
+            PreferencesHint preferencesHint)
+        throws CoreException {
+        DiagramEditor openedDiagramEditor = DiagramEditorUtil.findOpenedDiagramEditorForID(ViewUtil.getIdStr(diagram));
+        if (openedDiagramEditor != null) {
+            copyToImage(openedDiagramEditor.getDiagramEditPart(), stream, format, monitor);
+        } else {
+	        DiagramEditPart diagramEditPart = openDiagramEditPart(diagram,
+	            preferencesHint);
+	        try {
+	            copyToImage(diagramEditPart, stream, format, monitor);
+	        } finally {
+	            closeDiagramEditPart(diagramEditPart);
+	        }
+        }
+    }
+
+    /**
+     * Copies the diagram to a stream in the specified image format.
+     * 
+     * @param diagramEP
+     *            the diagram editpart
+     * @param stream
+     *            the stream to write the image to; it is not closed
+     * @param format
+     *            the image format to create.
+     * @param monitor
+     *            progress monitor.
+     * @return The diagram generator used to copy the image.
+     * @exception CoreException
+     *                if this method fails
+     */
+    public DiagramGenerator copyToImage(DiagramEditPart diagramEP,
+            OutputStream stream, ImageFileFormat format, IProgressMonitor monitor)
+        throws CoreException {
+        DiagramGenerator gen = getDiagramGenerator(diagramEP, format);
+        List editParts = getAllPrimaryEditParts(diagramEP);
+        org.eclipse.swt.graphics.Rectangle imageRect = gen.calculateImageRectangle(editParts);
+        if (format.equals(ImageFileFormat.SVG)
+                || format.equals(ImageFileFormat.PDF)) {
+            gen.createSWTImageDescriptorForParts(editParts, imageRect);
+            monitor.worked(1);
+            saveToOutputStream(stream, (DiagramSVGGenerator) gen, format, monitor);
+        } else if (isEncodedFromRaster(gen, format)) {
+            long start = System.currentTimeMillis();
+            java.awt.Image image = gen.createAWTImageForParts(editParts,
+                imageRect);
+            traceTime("Rendered", start); //$NON-NLS-1$
+            monitor.worked(1);
+            encodeToOutputStream(stream, (BufferedImage) image, format, monitor);
+        } else {
+            long start = System.currentTimeMillis();
+            Image image = gen.createSWTImageDescriptorForParts(editParts,
+                imageRect).createImage();
+            traceTime("Rendered", start); //$NON-NLS-1$
+            monitor.worked(1);
+            try {
+                saveToOutputStream(stream, image, format == ImageFileFormat.JPEG ? ImageFileFormat.JPG : format, monitor);
+            } finally {
+                image.dispose();
+            }
+        }
+        monitor.worked(1);
+        return gen;
+    }
+
+    /**
+     * Creates a <code>DiagramEditPart</code> for a diagram that is not open
+     * in an editor, in a viewer of the export session if there is one.
+     * 
+     * @param diagram
+     *            the <code>Diagram</code>
+     * @param preferencesHint
+     *            the preferences hint of the diagram
+     * @return the new populated <code>DiagramEditPart</code>, to be passed
+     *         to {@link #closeDiagramEditPart(DiagramEditPart)} when done
+     */
+    protected DiagramEditPart openDiagramEditPart(Diagram diagram,
+            PreferencesHint preferencesHint) {
+        if (exportSession != null) {
+            DiagramExportSession session = exportSession;
+            Shell shell = session.acquireShell();
+            try {
+                DiagramEditPart diagramEditPart = createDiagramEditPart(
+                    diagram, shell, preferencesHint);
+                Assert.isNotNull(diagramEditPart);
+                session.attach(diagramEditPart, shell);
+                return diagramEditPart;
+            } catch (RuntimeException e) {
+                session.releaseShell(shell);
+                throw e;
+            }
+        }
+        Shell shell = new Shell();
+        try {
+            DiagramEditPart diagramEditPart = createDiagramEditPart(diagram,
+                shell, preferencesHint);
+            Assert.isNotNull(diagramEditPart);
+            return diagramEditPart;
+        } catch (RuntimeException e) {
+            shell.dispose();
+            throw e;
+        }
+    }
+
+    /**
+     * Disposes a <code>DiagramEditPart</code> created by
+     * {@link #openDiagramEditPart(Diagram, PreferencesHint)}, or returns its
+     * viewer to the export session.
+     * 
+     * @param diagramEP
+     *            the diagram editpart
+     */
+    protected void closeDiagramEditPart(DiagramEditPart diagramEP) {
+        if (exportSession != null) {
+            exportSession.release(diagramEP);
+        } else {
+            diagramEP.getViewer().getControl().getShell().dispose();
+        }
+    }
+
     /**
      * Creates an image of the diagram in the specified image file format. The diagram image is scaled to fit in
      * the maxWidth, maxHeight window. The image is returned as a byte array
@@ -157,18 +464,30 @@ public class CopyToImageUtil {
      * @throws CoreException
      */
     public byte [] copyToImageByteArray(Diagram diagram, int maxWidth, int maxHeight, ImageFileFormat format, IProgressMonitor monitor, PreferencesHint preferencesHint, boolean useMargins) throws CoreException {
+        String fingerprint = getExportFingerprint(diagram, format,
+            preferencesHint, "bytes " + maxWidth + 'x' + maxHeight + ' ' + useMargins); //$NON-NLS-1$
+        if (fingerprint == null) {
+            return renderToImageByteArray(diagram, maxWidth, maxHeight, format, monitor, preferencesHint, useMargins);
+        }
+        byte[] image = exportCache.get(fingerprint);
+        if (image == null) {
+            image = renderToImageByteArray(diagram, maxWidth, maxHeight, format, monitor, preferencesHint, useMargins);
+            exportCache.put(fingerprint, image);
+        }
+        return image;
+    }
+
+    private byte [] renderToImageByteArray(Diagram diagram, int maxWidth, int maxHeight, ImageFileFormat format, IProgressMonitor monitor, PreferencesHint preferencesHint, boolean useMargins) throws CoreException {
         DiagramEditor openedDiagramEditor = DiagramEditorUtil.findOpenedDiagramEditorForID(ViewUtil.getIdStr(diagram));
         if (openedDiagramEditor != null) {
             return copyToImageByteArray(openedDiagramEditor.getDiagramEditPart(), null, maxWidth, maxHeight, format, monitor, useMargins);
         } else {
-	        Shell shell = new Shell();
+	        DiagramEditPart diagramEditPart = openDiagramEditPart(diagram,
+	            preferencesHint);
 	        try {
-	            DiagramEditPart diagramEditPart = createDiagramEditPart(diagram,
-	                shell, preferencesHint);
-	            Assert.isNotNull(diagramEditPart);
 	            return copyToImageByteArray(diagramEditPart, null, maxWidth, maxHeight, format, monitor, useMargins);
 	        } finally {
-	            shell.dispose();
+	            closeDiagramEditPart(diagramEditPart);
 	        }
         }
     }
@@ -192,15 +511,23 @@ public class CopyToImageUtil {
     	ByteArrayOutputStream stream = new ByteArrayOutputStream();
         DiagramGenerator gen = getDiagramGenerator(diagramEP, format);
         if (editParts == null || editParts.isEmpty()) {
-        	editParts = diagramEP.getPrimaryEditParts() ;
+        	editParts = getAllPrimaryEditParts(diagramEP) ;
         }
 		if (format.equals(ImageFileFormat.SVG)
 				|| format.equals(ImageFileFormat.PDF)) {
 			gen.createConstrainedSWTImageDecriptorForParts(editParts, maxWidth, maxHeight, useMargins);
 			monitor.worked(1);
 			saveToOutputStream(stream, (DiagramSVGGenerator)gen, format, monitor);
+		} else if (isEncodedFromRaster(gen, format)) {
+			long start = System.currentTimeMillis();
+			java.awt.Image image = gen.createConstrainedAWTImageForParts(editParts, maxWidth, maxHeight, useMargins);
+			traceTime("Rendered", start); //$NON-NLS-1$
+			monitor.worked(1);
+			encodeToOutputStream(stream, (BufferedImage) image, format, monitor);
 		} else {
+			long start = System.currentTimeMillis();
 			Image image = gen.createConstrainedSWTImageDecriptorForParts(editParts, maxWidth, maxHeight, useMargins).createImage();
+			traceTime("Rendered", start); //$NON-NLS-1$
 			monitor.worked(1);
 			saveToOutputStream(stream, image, format, monitor);;
 			image.dispose();
@@ -220,20 +547,18 @@ public class CopyToImageUtil {
         if (openedDiagramEditor != null) {
         	DiagramEditPart diagramEP = openedDiagramEditor.getDiagramEditPart();
             DiagramGenerator generator = copyToConstrainedImage(diagramEP,
-                    destination, diagramEP.getPrimaryEditParts(), format, maxWidth, maxHeight, monitor, useMargins);
+                    destination, getAllPrimaryEditParts(diagramEP), format, maxWidth, maxHeight, monitor, useMargins);
             partInfo = generator.getConstrainedDiagramPartInfo(openedDiagramEditor.getDiagramEditPart(), maxWidth, maxHeight, useMargins);
         } else {
 	
-	        Shell shell = new Shell();
+	        DiagramEditPart diagramEP = openDiagramEditPart(diagram,
+	            preferencesHint);
 	        try {
-	            DiagramEditPart diagramEP = createDiagramEditPart(diagram,
-	                shell, preferencesHint);
-	            Assert.isNotNull(diagramEP);
 	            DiagramGenerator generator = copyToConstrainedImage(diagramEP,
-	                destination, diagramEP.getPrimaryEditParts(), format, maxWidth, maxHeight, monitor, useMargins);
+	                destination, getAllPrimaryEditParts(diagramEP), format, maxWidth, maxHeight, monitor, useMargins);
 	            partInfo = generator.getConstrainedDiagramPartInfo(diagramEP, maxWidth, maxHeight, useMargins);
 	        } finally {
-	            shell.dispose();
+	            closeDiagramEditPart(diagramEP);
 	        }
         }
 
@@ -258,20 +583,33 @@ public class CopyToImageUtil {
 			monitor.worked(1);
 			saveToFile(destination, (DiagramSVGGenerator) gen, format, monitor);
 			found = true;
+		} else if (isEncodedFromRaster(gen, format)) {
+			long start = System.currentTimeMillis();
+			java.awt.Image image = gen.createConstrainedAWTImageForParts(editParts, maxWidth, maxHeight, useMargins);
+			traceTime("Rendered", start); //$NON-NLS-1$
+			monitor.worked(1);
+			saveToFile(destination, (BufferedImage) image, format, monitor);
+			found = true;
 		} else if (format.equals(ImageFileFormat.PNG)) {
 			String exportFormat = ImageExporter.PNG_FILE;
+			long start = System.currentTimeMillis();
 			java.awt.Image image = gen.createConstrainedAWTImageForParts(editParts, maxWidth, maxHeight, useMargins);
+			traceTime("Rendered", start); //$NON-NLS-1$
 			monitor.worked(1);
 			if (image instanceof BufferedImage) {
+				start = System.currentTimeMillis();
 				ImageExporter.exportToFile(destination, (BufferedImage) image,
 						exportFormat, monitor, format.getQuality());
+				traceTime("Encoded", start); //$NON-NLS-1$
 				found = true;
 			}
 		}
 
 		if (!found) {
+			long start = System.currentTimeMillis();
 			Image image = gen.createConstrainedSWTImageDecriptorForParts(editParts,
 					maxWidth, maxHeight, useMargins).createImage();
+			traceTime("Rendered", start); //$NON-NLS-1$
 			monitor.worked(1);
 			saveToFile(destination, image, format, monitor);
 			image.dispose();
@@ -297,7 +635,7 @@ public class CopyToImageUtil {
             IPath destination, ImageFileFormat format, IProgressMonitor monitor)
         throws CoreException {
         DiagramGenerator gen = getDiagramGenerator(diagramEP, format);
-        List editParts = diagramEP.getPrimaryEditParts();
+        List editParts = getAllPrimaryEditParts(diagramEP);
         copyToImage(gen, editParts, gen.calculateImageRectangle(editParts), destination, format, monitor);
         monitor.worked(1);
         return gen;
@@ -368,26 +706,45 @@ public class CopyToImageUtil {
 			throws CoreException {
 		boolean found = false;
 		if (format.equals(ImageFileFormat.SVG)
+				&& ((DiagramSVGGenerator) gen).shouldStream(imageRect)) {
+			streamSVGToFile(destination, (DiagramSVGGenerator) gen,
+					editParts, imageRect, monitor);
+			found = true;
+		} else if (format.equals(ImageFileFormat.SVG)
 				|| format.equals(ImageFileFormat.PDF)) {
 			gen.createSWTImageDescriptorForParts(editParts, imageRect);
 			monitor.worked(1);
 			saveToFile(destination, (DiagramSVGGenerator) gen, format, monitor);
 			found = true;
+		} else if (isEncodedFromRaster(gen, format)) {
+			long start = System.currentTimeMillis();
+			java.awt.Image image = gen.createAWTImageForParts(editParts,
+					imageRect);
+			traceTime("Rendered", start); //$NON-NLS-1$
+			monitor.worked(1);
+			saveToFile(destination, (BufferedImage) image, format, monitor);
+			found = true;
 		} else if (format.equals(ImageFileFormat.PNG)) {
 			String exportFormat = ImageExporter.PNG_FILE;
+			long start = System.currentTimeMillis();
 			java.awt.Image image = gen.createAWTImageForParts(editParts,
 					imageRect);
+			traceTime("Rendered", start); //$NON-NLS-1$
 			monitor.worked(1);
 			if (image instanceof BufferedImage) {
+				start = System.currentTimeMillis();
 				ImageExporter.exportToFile(destination, (BufferedImage) image,
 						exportFormat, monitor, format.getQuality());
+				traceTime("Encoded", start); //$NON-NLS-1$
 				found = true;
 			}
 		}
 
 		if (!found) {
+			long start = System.currentTimeMillis();
 			Image image = gen.createSWTImageDescriptorForParts(editParts,
 					imageRect).createImage();
+			traceTime("Rendered", start); //$NON-NLS-1$
 			monitor.worked(1);
 			saveToFile(destination, image, format, monitor);
 			image.dispose();
@@ -437,22 +794,98 @@ public class CopyToImageUtil {
     private void saveToOutputStream(OutputStream stream, Image image, ImageFileFormat imageFormat, IProgressMonitor monitor) {
         monitor.worked(1);
         
+        long start = System.currentTimeMillis();
         ImageData imageData = image.getImageData();
         
         if (imageFormat.equals(ImageFileFormat.GIF) ||
                 imageFormat.equals(ImageFileFormat.BMP))
             imageData = createImageData(image); 
+        traceTime("Converted", start); //$NON-NLS-1$
 
         monitor.worked(1);
+        start = System.currentTimeMillis();
         ImageLoader imageLoader = new ImageLoader();
         imageLoader.data = new ImageData[] {imageData};
         imageLoader.logicalScreenHeight = image.getBounds().width;
         imageLoader.logicalScreenHeight = image.getBounds().height;
         imageLoader.save(stream, imageFormat.getOrdinal());
+        traceTime("Encoded", start); //$NON-NLS-1$
         
         monitor.worked(1);
     }
 
+    /**
+     * Saves an AWT image to a file with the image encoder.
+     * 
+     * @param destination
+     *            the destination file, including path and file name
+     * @param image
+     *            the AWT image
+     * @param imageFormat
+     *            an image format supported by the image encoder
+     * @param monitor
+     *            progress monitor
+     * @exception CoreException
+     *                if this method fails
+     */
+    protected void saveToFile(IPath destination, BufferedImage image,
+            ImageFileFormat imageFormat, IProgressMonitor monitor)
+        throws CoreException {
+
+        IStatus fileModificationStatus = createFile(destination);
+        if (!fileModificationStatus.isOK()) {
+            // can't write to the file
+            return;
+        }
+
+        try {
+            OutputStream stream = new BufferedOutputStream(
+                new FileOutputStream(destination.toOSString()));
+            try {
+                encodeToOutputStream(stream, image, imageFormat, monitor);
+            } finally {
+                stream.close();
+            }
+        } catch (IOException e) {
+            Log.error(DiagramUIRenderPlugin.getInstance(), IStatus.ERROR, e
+                .getMessage(), e);
+            IStatus status = new Status(IStatus.ERROR, "exportToFile", //$NON-NLS-1$
+                IStatus.OK, e.getMessage(), null);
+            throw new CoreException(status);
+        }
+
+        refreshLocal(destination);
+    }
+
+    /**
+     * Determines if the image of a generator is encoded from its AWT raster
+     * by the image encoder.
+     */
+    private boolean isEncodedFromRaster(DiagramGenerator gen,
+            ImageFileFormat format) {
+        return imageEncoder != null && gen instanceof DiagramImageGenerator
+            && imageEncoder.canEncode(format);
+    }
+
+    private void encodeToOutputStream(OutputStream stream,
+            BufferedImage image, ImageFileFormat format,
+            IProgressMonitor monitor)
+        throws CoreException {
+        long start = System.currentTimeMillis();
+        imageEncoder.encode(image, format, stream);
+        traceTime("Encoded", start); //$NON-NLS-1$
+        monitor.worked(1);
+    }
+
+    /**
+     * Traces the time spent in a stage of an export, so that rendering,
+     * conversion and encoding can be measured separately.
+     */
+    private static void traceTime(String stage, long start) {
+        Trace.trace(DiagramUIRenderPlugin.getInstance(), stage
+            + " image in " + (System.currentTimeMillis() - start) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
     
     /**
      * Saves an SVG DOM to a file.
@@ -515,6 +948,62 @@ public class CopyToImageUtil {
 		}
 	}
         
+    /**
+	 * Writes the SVG document for the editparts directly to a file while they
+	 * are painted, without building the SVG DOM in memory first.
+	 * 
+	 * @param destination
+	 *            the destination file, including path and file name
+	 * @param generator
+	 *            the svg generator for a diagram, used to write
+	 * @param editParts
+	 *            editparts to be present on the image
+	 * @param imageRect
+	 *            clipping rectangle for the image
+	 * @param monitor
+	 *            the progress monitor
+	 * @exception CoreException
+	 *                if this method fails
+	 */
+    protected void streamSVGToFile(IPath destination,
+			DiagramSVGGenerator generator, List editParts,
+			org.eclipse.swt.graphics.Rectangle imageRect,
+			IProgressMonitor monitor) throws CoreException {
+
+		IStatus fileModificationStatus = createFile(destination);
+		if (!fileModificationStatus.isOK()) {
+			// can't write to the file
+			return;
+		}
+		monitor.worked(1);
+
+		boolean written = false;
+		try {
+			OutputStream os = new BufferedOutputStream(new FileOutputStream(
+					destination.toOSString()));
+			try {
+				generator.streamSVGForParts(editParts, imageRect, os);
+			} finally {
+				os.close();
+			}
+			written = true;
+			monitor.worked(1);
+		} catch (IOException ex) {
+			Log.error(DiagramUIRenderPlugin.getInstance(), IStatus.ERROR, ex
+					.getMessage(), ex);
+			IStatus status = new Status(IStatus.ERROR,
+					"exportToFile", IStatus.OK, //$NON-NLS-1$
+					ex.getMessage(), ex);
+			throw new CoreException(status);
+		} finally {
+			if (!written) {
+				// do not leave a truncated document behind
+				new File(destination.toOSString()).delete();
+			}
+			refreshLocal(destination);
+		}
+	}
+
     private void saveToOutputStream(OutputStream stream, DiagramSVGGenerator generator, ImageFileFormat format, IProgressMonitor monitor) throws CoreException {
 		if (format == ImageFileFormat.PDF) {
 			SVGImageConverter.exportToPDF((SVGImage) generator.getRenderedImage(), stream);
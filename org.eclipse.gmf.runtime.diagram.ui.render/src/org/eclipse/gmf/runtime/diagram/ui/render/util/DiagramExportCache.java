@@ -0,0 +1,672 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.render.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.diagram.core.preferences.PreferencesHint;
+import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
+import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
+import org.eclipse.gmf.runtime.diagram.ui.image.PartPositionInfo;
+import org.eclipse.gmf.runtime.diagram.ui.preferences.IPreferenceConstants;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderDebugOptions;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderPlugin;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.NotationPackage;
+import org.eclipse.gmf.runtime.notation.View;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+/**
+ * Remembers exported diagram images in a local directory, so that exporting
+ * a diagram that has not changed since it was last exported copies the
+ * image generated then instead of rendering the diagram again.
+ * <P>
+ * An image is identified by a fingerprint of everything that shows in it:
+ * the notation of the diagram, the features of the semantic elements that
+ * its views reference and of the elements that those directly reference or
+ * are directly contained in, the appearance preferences of its preferences hint
+ * and the parameters of the export such as the image format. The images
+ * are stored under their fingerprint; when the directory grows beyond its
+ * size limit, the images used least recently are removed.
+ * <P>
+ * A cache is given to a {@link CopyToImageUtil} with
+ * {@link CopyToImageUtil#setExportCache(DiagramExportCache)}.
+ */
+public class DiagramExportCache {
+
+    /**
+     * The extension of the files holding images.
+     */
+    private static final String IMAGE_EXTENSION = ".img"; //$NON-NLS-1$
+
+    /**
+     * The extension of the files holding the positions of the parts of an
+     * image.
+     */
+    private static final String PARTS_EXTENSION = ".parts"; //$NON-NLS-1$
+
+    /**
+     * The appearance preferences that show in images.
+     */
+    private static final String[] APPEARANCE_PREFERENCES = {
+        IPreferenceConstants.PREF_DEFAULT_FONT,
+        IPreferenceConstants.PREF_FONT_COLOR,
+        IPreferenceConstants.PREF_FILL_COLOR,
+        IPreferenceConstants.PREF_LINE_COLOR,
+        IPreferenceConstants.PREF_NOTE_FILL_COLOR,
+        IPreferenceConstants.PREF_NOTE_LINE_COLOR,
+        IPreferenceConstants.PREF_LINE_STYLE,
+        IPreferenceConstants.PREF_ENABLE_ANTIALIAS};
+
+    private static final Comparator<File> LEAST_RECENTLY_USED = new Comparator<File>() {
+
+        public int compare(File f1, File f2) {
+            long m1 = f1.lastModified();
+            long m2 = f2.lastModified();
+            return m1 < m2 ? -1
+                : (m1 == m2 ? 0
+                    : 1);
+        }
+    };
+
+    /**
+     * Discards what is written to it; fingerprints are computed by a digest
+     * stream writing to it.
+     */
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+
+        public void write(int b) {
+            // the digest is all that matters
+        }
+
+        public void write(byte[] b, int off, int len) {
+            // the digest is all that matters
+        }
+    };
+
+    private final File directory;
+
+    private final long maxSize;
+
+    private int hits;
+
+    private int misses;
+
+    /**
+     * Creates a cache stored in a directory.
+     *
+     * @param directory
+     *            the directory, created if it does not exist
+     * @param maxSize
+     *            the maximum size of the stored images, in bytes
+     */
+    public DiagramExportCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        directory.mkdirs();
+    }
+
+    /**
+     * Computes the fingerprint of an export.
+     *
+     * @param diagram
+     *            the exported diagram
+     * @param format
+     *            the image format
+     * @param preferencesHint
+     *            the preferences hint of the diagram, or <code>null</code>
+     * @param parameters
+     *            the other parameters of the export that change the image,
+     *            or <code>null</code>
+     * @return the fingerprint
+     */
+    public String fingerprint(Diagram diagram, ImageFileFormat format,
+            PreferencesHint preferencesHint, String parameters) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        DataOutputStream out = new DataOutputStream(new DigestOutputStream(
+            NULL_OUTPUT, digest));
+        try {
+            writeString(out, format.getName());
+            writeString(out, String.valueOf(parameters));
+            writePreferences(out, preferencesHint);
+
+            Set<EObject> semanticElements = new HashSet<EObject>();
+            Set<EObject> written = new HashSet<EObject>();
+            writeObject(out, diagram);
+            writeSemanticElement(out, diagram, semanticElements, written);
+            for (TreeIterator<EObject> i = diagram.eAllContents(); i.hasNext();) {
+                EObject next = i.next();
+                writeObject(out, next);
+                writeSemanticElement(out, next, semanticElements, written);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // the digest stream does not fail
+            throw new IllegalStateException(e);
+        }
+
+        byte[] hash = digest.digest();
+        StringBuffer result = new StringBuffer(hash.length * 2);
+        for (int i = 0; i < hash.length; i++) {
+            result.append(Character.forDigit((hash[i] >> 4) & 0xF, 16));
+            result.append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes a string of any length, which
+     * {@link DataOutputStream#writeUTF(String)} does not.
+     */
+    private void writeString(DataOutputStream out, String string)
+        throws IOException {
+        byte[] bytes = string.getBytes("UTF-8"); //$NON-NLS-1$
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writePreferences(DataOutputStream out,
+            PreferencesHint preferencesHint)
+        throws IOException {
+        Object store = preferencesHint != null ? preferencesHint
+            .getPreferenceStore()
+            : null;
+        out.writeBoolean(store instanceof IPreferenceStore);
+        if (store instanceof IPreferenceStore) {
+            for (int i = 0; i < APPEARANCE_PREFERENCES.length; i++) {
+                writeString(out, ((IPreferenceStore) store)
+                    .getString(APPEARANCE_PREFERENCES[i]));
+            }
+        }
+    }
+
+    /**
+     * Writes the persistent features of an object. Contained objects are
+     * written on their own; referenced objects are written as their URI.
+     */
+    private void writeObject(DataOutputStream out, EObject eObject)
+        throws IOException {
+        EClass eClass = eObject.eClass();
+        writeString(out, String.valueOf(eClass.getEPackage().getNsURI()));
+        writeString(out, eClass.getName());
+
+        for (Iterator<EStructuralFeature> i = eClass
+            .getEAllStructuralFeatures().iterator(); i.hasNext();) {
+            EStructuralFeature feature = i.next();
+            if (feature.isTransient() || feature.isDerived()
+                || !eObject.eIsSet(feature)) {
+                continue;
+            }
+            writeString(out, feature.getName());
+
+            if (feature instanceof EReference
+                && ((EReference) feature).isContainment()) {
+                // contained objects follow in the tree
+                out.writeInt(feature.isMany() ? ((List) eObject.eGet(feature,
+                    false)).size()
+                    : 1);
+                continue;
+            }
+
+            Object value = eObject.eGet(feature, false);
+            if (feature.isMany()) {
+                List values = (List) value;
+                out.writeInt(values.size());
+                for (int j = 0; j < values.size(); j++) {
+                    writeValue(out, feature, values.get(j));
+                }
+            } else {
+                writeValue(out, feature, value);
+            }
+        }
+    }
+
+    private void writeValue(DataOutputStream out, EStructuralFeature feature,
+            Object value)
+        throws IOException {
+        if (value == null) {
+            writeString(out, ""); //$NON-NLS-1$
+        } else if (feature instanceof EAttribute) {
+            EDataType type = ((EAttribute) feature).getEAttributeType();
+            writeString(out, String.valueOf(EcoreUtil.convertToString(type, value)));
+        } else {
+            EObject target = (EObject) value;
+            writeString(out, target.eIsProxy() ? ((InternalEObject) target)
+                .eProxyURI().toString()
+                : EcoreUtil.getURI(target).toString());
+        }
+    }
+
+    /**
+     * Writes the semantic element of a view, its container and the elements
+     * that it directly references, since labels may show them. The elements
+     * that those reference in turn are only written as their URI, so that
+     * the cost of a fingerprint does not grow with the size of the model.
+     * Each element is written the first time it is met. Proxies are not
+     * resolved: the references to them are written as their URI.
+     */
+    private void writeSemanticElement(DataOutputStream out, EObject eObject,
+            Set<EObject> semanticElements, Set<EObject> written)
+        throws IOException {
+        if (!(eObject instanceof View)
+            || !eObject.eIsSet(NotationPackage.eINSTANCE.getView_Element())) {
+            return;
+        }
+        EObject element = ViewUtil.resolveSemanticElement((View) eObject);
+        if (element == null || !semanticElements.add(element)) {
+            return;
+        }
+        writeReferencedObject(out, element, written);
+
+        if (element.eContainer() != null) {
+            writeReferencedObject(out, element.eContainer(), written);
+        }
+        for (Iterator<EReference> i = element.eClass().getEAllReferences()
+            .iterator(); i.hasNext();) {
+            EReference reference = i.next();
+            if (reference.isContainment() || reference.isContainer()
+                || reference.isTransient() || reference.isDerived()
+                || !element.eIsSet(reference)) {
+                continue;
+            }
+            Object value = element.eGet(reference, false);
+            if (reference.isMany()) {
+                List<EObject> values = (List<EObject>) value;
+                for (int j = 0; j < values.size(); j++) {
+                    writeReferencedObject(out, values.get(j), written);
+                }
+            } else if (value != null) {
+                writeReferencedObject(out, (EObject) value, written);
+            }
+        }
+    }
+
+    /**
+     * Writes an element of the semantic model the first time it is met,
+     * unless it is a proxy.
+     */
+    private void writeReferencedObject(DataOutputStream out, EObject eObject,
+            Set<EObject> written)
+        throws IOException {
+        if (!eObject.eIsProxy() && written.add(eObject)) {
+            writeObject(out, eObject);
+        }
+    }
+
+    /**
+     * Finds a stored image.
+     *
+     * @param fingerprint
+     *            the fingerprint of the export
+     * @return the image, or <code>null</code> if it is not stored
+     */
+    public synchronized byte[] get(String fingerprint) {
+        File file = getImageFile(fingerprint);
+        if (!file.isFile()) {
+            misses++;
+            return null;
+        }
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                byte[] result = new byte[(int) file.length()];
+                new DataInputStream(in).readFully(result);
+                touch(file);
+                hits++;
+                return result;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            catching("get", e); //$NON-NLS-1$
+            misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Finds the positions of the parts of a stored image file. The image
+     * itself is copied with {@link #restore(String, File)}.
+     *
+     * @param fingerprint
+     *            the fingerprint of the export
+     * @param diagram
+     *            the exported diagram, used to find the views of the parts
+     * @return the positions of the parts of the image, or <code>null</code>
+     *         if the image is not stored
+     */
+    synchronized List<PartPositionInfo> lookup(String fingerprint,
+            Diagram diagram) {
+        File file = getImageFile(fingerprint);
+        File partsFile = getPartsFile(fingerprint);
+        if (!file.isFile() || !partsFile.isFile()) {
+            misses++;
+            return null;
+        }
+        try {
+            List<PartPositionInfo> partInfo = readPartInfo(partsFile, diagram);
+            if (partInfo == null) {
+                misses++;
+            }
+            return partInfo;
+        } catch (IOException e) {
+            catching("lookup", e); //$NON-NLS-1$
+            misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Copies a stored image file found with {@link #lookup(String, Diagram)}
+     * to a file.
+     *
+     * @param fingerprint
+     *            the fingerprint of the export
+     * @param destination
+     *            the file to copy the image to
+     * @return <code>true</code> if the image was copied, <code>false</code>
+     *         if it is no longer stored
+     */
+    synchronized boolean restore(String fingerprint, File destination) {
+        File file = getImageFile(fingerprint);
+        File partsFile = getPartsFile(fingerprint);
+        try {
+            copy(file, destination);
+        } catch (IOException e) {
+            catching("restore", e); //$NON-NLS-1$
+            misses++;
+            return false;
+        }
+        touch(file);
+        touch(partsFile);
+        hits++;
+        return true;
+    }
+
+    /**
+     * Stores an image.
+     *
+     * @param fingerprint
+     *            the fingerprint of the export
+     * @param image
+     *            the image
+     */
+    public synchronized void put(String fingerprint, byte[] image) {
+        File file = getImageFile(fingerprint);
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                out.write(image);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            catching("put", e); //$NON-NLS-1$
+            file.delete();
+            return;
+        }
+        trim();
+    }
+
+    /**
+     * Stores an image file and the positions of its parts.
+     *
+     * @param fingerprint
+     *            the fingerprint of the export
+     * @param image
+     *            the image file
+     * @param partInfo
+     *            the positions of the parts of the image
+     */
+    synchronized void store(String fingerprint, File image,
+            List<PartPositionInfo> partInfo) {
+        File file = getImageFile(fingerprint);
+        File partsFile = getPartsFile(fingerprint);
+        try {
+            copy(image, file);
+            writePartInfo(partsFile, partInfo);
+        } catch (IOException e) {
+            catching("store", e); //$NON-NLS-1$
+            file.delete();
+            partsFile.delete();
+            return;
+        }
+        trim();
+    }
+
+    /**
+     * Removes all of the stored images.
+     */
+    public synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                if (isCacheFile(files[i])) {
+                    files[i].delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of exports that were found in this cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Obtains the number of exports that were not found in this cache.
+     *
+     * @return the number of misses
+     */
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Removes the images used least recently until the stored images fit in
+     * the size limit.
+     */
+    private void trim() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long size = 0;
+        List<File> cacheFiles = new ArrayList<File>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            if (isCacheFile(files[i])) {
+                cacheFiles.add(files[i]);
+                size += files[i].length();
+            }
+        }
+        if (size <= maxSize) {
+            return;
+        }
+
+        File[] sorted = cacheFiles.toArray(new File[cacheFiles.size()]);
+        Arrays.sort(sorted, LEAST_RECENTLY_USED);
+        for (int i = 0; i < sorted.length && size > maxSize; i++) {
+            long length = sorted[i].length();
+            if (sorted[i].delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private void writePartInfo(File file, List<PartPositionInfo> partInfo)
+        throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(file)));
+        try {
+            out.writeInt(partInfo.size());
+            for (int i = 0; i < partInfo.size(); i++) {
+                PartPositionInfo info = partInfo.get(i);
+                View view = info.getView();
+                Resource resource = view != null ? view.eResource()
+                    : null;
+                out.writeUTF(resource != null ? resource.getURIFragment(view)
+                    : ""); //$NON-NLS-1$
+                out.writeInt(info.getPartX());
+                out.writeInt(info.getPartY());
+                out.writeInt(info.getPartWidth());
+                out.writeInt(info.getPartHeight());
+
+                List<Point> polyline = info.getPolyline();
+                out.writeInt(polyline != null ? polyline.size()
+                    : -1);
+                if (polyline != null) {
+                    for (int j = 0; j < polyline.size(); j++) {
+                        out.writeInt(polyline.get(j).x);
+                        out.writeInt(polyline.get(j).y);
+                    }
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the positions of the parts of an image.
+     *
+     * @return the positions, or <code>null</code> if a view of a part no
+     *         longer exists
+     */
+    private List<PartPositionInfo> readPartInfo(File file, Diagram diagram)
+        throws IOException {
+        Resource resource = diagram.eResource();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new FileInputStream(file)));
+        try {
+            int count = in.readInt();
+            List<PartPositionInfo> result = new ArrayList<PartPositionInfo>(
+                count);
+            for (int i = 0; i < count; i++) {
+                PartPositionInfo info = new PartPositionInfo();
+                String fragment = in.readUTF();
+                if (fragment.length() > 0) {
+                    EObject view = resource != null ? resource
+                        .getEObject(fragment)
+                        : null;
+                    if (!(view instanceof View)) {
+                        return null;
+                    }
+                    info.setView((View) view);
+                    info.setSemanticElement(ViewUtil
+                        .resolveSemanticElement((View) view));
+                }
+                info.setPartX(in.readInt());
+                info.setPartY(in.readInt());
+                info.setPartWidth(in.readInt());
+                info.setPartHeight(in.readInt());
+
+                int points = in.readInt();
+                if (points >= 0) {
+                    List<Point> polyline = new ArrayList<Point>(points);
+                    for (int j = 0; j < points; j++) {
+                        polyline.add(new Point(in.readInt(), in.readInt()));
+                    }
+                    info.setPolyline(polyline);
+                }
+                result.add(info);
+            }
+            return result;
+        } finally {
+            in.close();
+        }
+    }
+
+    private File getImageFile(String fingerprint) {
+        return new File(directory, fingerprint + IMAGE_EXTENSION);
+    }
+
+    private File getPartsFile(String fingerprint) {
+        return new File(directory, fingerprint + PARTS_EXTENSION);
+    }
+
+    private static boolean isCacheFile(File file) {
+        String name = file.getName();
+        return file.isFile()
+            && (name.endsWith(IMAGE_EXTENSION) || name
+                .endsWith(PARTS_EXTENSION));
+    }
+
+    private static void touch(File file) {
+        file.setLastModified(System.currentTimeMillis());
+    }
+
+    private static void copy(File source, File destination)
+        throws IOException {
+        InputStream in = new FileInputStream(source);
+        try {
+            OutputStream out = new FileOutputStream(destination);
+            try {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void catching(String methodName, IOException e) {
+        Trace.catching(DiagramUIRenderPlugin.getInstance(),
+            DiagramUIRenderDebugOptions.EXCEPTIONS_CATCHING,
+            DiagramExportCache.class, methodName, e);
+    }
+}
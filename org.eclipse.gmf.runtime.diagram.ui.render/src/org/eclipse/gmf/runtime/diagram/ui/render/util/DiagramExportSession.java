@@ -0,0 +1,321 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.render.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.gmf.runtime.diagram.core.preferences.PreferencesHint;
+import org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramGraphicalViewer;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderPlugin;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Keeps a pool of offscreen viewers for exporting many diagrams in a row.
+ * Creating the shell and the viewer for each exported diagram costs more
+ * than exporting a small diagram; a session creates them once and shows
+ * each diagram in a viewer of its pool.
+ * <P>
+ * A session is used by a {@link CopyToImageUtil} that has been given the
+ * session with {@link CopyToImageUtil#setExportSession(DiagramExportSession)}:
+ *
+ * <pre>
+ * DiagramExportSession session = new DiagramExportSession();
+ * CopyToImageUtil util = new CopyToImageUtil();
+ * util.setExportSession(session);
+ * try {
+ *     for (Diagram diagram : diagrams) {
+ *         util.copyToImage(diagram, destination(diagram), format, monitor, hint);
+ *     }
+ * } finally {
+ *     session.dispose();
+ * }
+ * </pre>
+ *
+ * The utility still creates each <code>DiagramEditPart</code> with
+ * {@link CopyToImageUtil#createDiagramEditPart(Diagram, Shell, PreferencesHint)},
+ * in a shell of the pool; the default implementation shows the diagram in
+ * the pooled viewer of that shell. A subclass that creates its own viewer
+ * gets its shell reused, and its viewer is disposed when the diagram is
+ * released.
+ * <P>
+ * A session belongs to the display it was created on and must be used from
+ * the thread of that display. Sessions created on different displays, where
+ * the platform supports more than one display, can export at the same time.
+ */
+public class DiagramExportSession {
+
+    /**
+     * A pooled shell and the viewer created in it, if any.
+     */
+    private static final class OffscreenViewer {
+
+        final Shell shell;
+
+        private DiagramGraphicalViewer viewer;
+
+        /**
+         * When the viewer was acquired.
+         */
+        long acquired;
+
+        OffscreenViewer(Display display) {
+            shell = new Shell(display);
+        }
+
+        /**
+         * Obtains the pooled viewer, creating it the first time.
+         */
+        DiagramGraphicalViewer getViewer() {
+            if (viewer == null) {
+                viewer = OffscreenEditPartFactory.getInstance()
+                    .createOffscreenViewer(shell);
+            }
+            return viewer;
+        }
+
+        /**
+         * Removes the diagram an export showed in this shell, so that the
+         * next export starts from an empty viewer.
+         */
+        void clear(DiagramEditPart diagramEP) {
+            EditPartViewer diagramViewer = diagramEP.getViewer();
+            if (viewer != null && diagramViewer == viewer) {
+                OffscreenEditPartFactory.getInstance().clearDiagram(viewer);
+                return;
+            }
+            // a viewer created by an override of createDiagramEditPart
+            Control control = diagramViewer != null ? diagramViewer
+                .getControl()
+                : null;
+            if (control != null && !control.isDisposed()) {
+                if (control.getShell() == shell) {
+                    control.dispose();
+                } else {
+                    control.getShell().dispose();
+                }
+            }
+        }
+    }
+
+    private final Display display;
+
+    private final int poolSize;
+
+    private final List<OffscreenViewer> idle = new ArrayList<OffscreenViewer>();
+
+    private final Map<Shell, OffscreenViewer> lent = new IdentityHashMap<Shell, OffscreenViewer>();
+
+    private final Map<DiagramEditPart, OffscreenViewer> busy = new IdentityHashMap<DiagramEditPart, OffscreenViewer>();
+
+    private boolean disposed;
+
+    private int diagramCount;
+
+    private long exportTime;
+
+    /**
+     * Creates a session on the current display that keeps one idle viewer.
+     */
+    public DiagramExportSession() {
+        this(1);
+    }
+
+    /**
+     * Creates a session on the current display.
+     *
+     * @param poolSize
+     *            the number of idle viewers kept for reuse
+     */
+    public DiagramExportSession(int poolSize) {
+        Display current = Display.getCurrent();
+        this.display = current != null ? current
+            : DisplayUtils.getDisplay();
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    /**
+     * Shows a diagram in a viewer of the pool. The viewer is returned to the
+     * pool by {@link #release(DiagramEditPart)}.
+     *
+     * @param diagram
+     *            the diagram
+     * @param preferencesHint
+     *            the preferences hint of the diagram, or <code>null</code>
+     * @return the populated <code>DiagramEditPart</code>
+     */
+    public DiagramEditPart acquire(Diagram diagram,
+            PreferencesHint preferencesHint) {
+        Shell shell = acquireShell();
+        try {
+            DiagramEditPart diagramEP = OffscreenEditPartFactory.getInstance()
+                .setDiagram(getViewer(shell), diagram, preferencesHint);
+            attach(diagramEP, shell);
+            return diagramEP;
+        } catch (RuntimeException e) {
+            releaseShell(shell);
+            throw e;
+        }
+    }
+
+    /**
+     * Lends a shell of the pool, in which a diagram is to be shown and then
+     * {@link #attach(DiagramEditPart, Shell) attached} to the shell.
+     *
+     * @return the shell
+     */
+    Shell acquireShell() {
+        Assert.isTrue(!disposed);
+
+        long start = System.currentTimeMillis();
+        OffscreenViewer offscreen = idle.isEmpty() ? new OffscreenViewer(
+            display)
+            : idle.remove(idle.size() - 1);
+        offscreen.acquired = start;
+        lent.put(offscreen.shell, offscreen);
+        return offscreen.shell;
+    }
+
+    /**
+     * Obtains the pooled viewer of a shell lent by {@link #acquireShell()}.
+     *
+     * @param shell
+     *            the shell
+     * @return the viewer, or <code>null</code> if the shell is not lent by
+     *         this session
+     */
+    DiagramGraphicalViewer getViewer(Shell shell) {
+        OffscreenViewer offscreen = lent.get(shell);
+        return offscreen != null ? offscreen.getViewer()
+            : null;
+    }
+
+    /**
+     * Records that a diagram is shown in a shell lent by
+     * {@link #acquireShell()}, to be released with
+     * {@link #release(DiagramEditPart)}.
+     *
+     * @param diagramEP
+     *            the editpart of the diagram
+     * @param shell
+     *            the shell
+     */
+    void attach(DiagramEditPart diagramEP, Shell shell) {
+        OffscreenViewer offscreen = lent.remove(shell);
+        Assert.isNotNull(offscreen);
+        busy.put(diagramEP, offscreen);
+    }
+
+    /**
+     * Disposes a shell lent by {@link #acquireShell()} in which no diagram
+     * could be shown.
+     *
+     * @param shell
+     *            the shell
+     */
+    void releaseShell(Shell shell) {
+        lent.remove(shell);
+        shell.dispose();
+    }
+
+    /**
+     * Returns the viewer showing a diagram to the pool.
+     *
+     * @param diagramEP
+     *            an editpart obtained from
+     *            {@link #acquire(Diagram, PreferencesHint)}
+     */
+    public void release(DiagramEditPart diagramEP) {
+        OffscreenViewer offscreen = busy.remove(diagramEP);
+        if (offscreen == null) {
+            return;
+        }
+        diagramCount++;
+        exportTime += System.currentTimeMillis() - offscreen.acquired;
+
+        if (disposed || idle.size() >= poolSize) {
+            offscreen.clear(diagramEP);
+            offscreen.shell.dispose();
+            return;
+        }
+        try {
+            offscreen.clear(diagramEP);
+            idle.add(offscreen);
+        } catch (RuntimeException e) {
+            offscreen.shell.dispose();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtains the display of this session.
+     *
+     * @return the display
+     */
+    public Display getDisplay() {
+        return display;
+    }
+
+    /**
+     * Obtains the number of diagrams exported in this session.
+     *
+     * @return the number of diagrams
+     */
+    public int getDiagramCount() {
+        return diagramCount;
+    }
+
+    /**
+     * Obtains the throughput of this session: the number of diagrams exported
+     * per second spent exporting them.
+     *
+     * @return the number of diagrams per second, or <code>0</code> if no
+     *         diagram has been exported yet
+     */
+    public double getDiagramsPerSecond() {
+        if (diagramCount == 0) {
+            return 0;
+        }
+        return diagramCount * 1000.0 / Math.max(1, exportTime);
+    }
+
+    /**
+     * Disposes the viewers of this session. Viewers that are still in use are
+     * disposed when they are released.
+     */
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        for (int i = 0; i < idle.size(); i++) {
+            idle.get(i).shell.dispose();
+        }
+        idle.clear();
+
+        Trace.trace(DiagramUIRenderPlugin.getInstance(),
+            "Exported " + diagramCount + " diagrams, " //$NON-NLS-1$ //$NON-NLS-2$
+                + getDiagramsPerSecond() + " diagrams per second"); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,223 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.render.util;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.gmf.runtime.common.core.util.Log;
+import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderPlugin;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image.ImageExporter;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image.PNGEncoder;
+
+/**
+ * Encodes the AWT images rendered by {@link CopyToImageUtil} directly from
+ * their raster, without converting them to SWT image data first.
+ * <p>
+ * PNG images are written with a configurable compression level and row
+ * filter, and may be compressed by several threads. JPEG images are written
+ * with the quality set on their {@link ImageFileFormat}, or else with the
+ * JPEG quality of the encoder. Subclasses may encode
+ * other formats by overriding {@link #canEncode(ImageFileFormat)} and
+ * {@link #encode(BufferedImage, ImageFileFormat, OutputStream)}.
+ *
+ * @see CopyToImageUtil#setImageEncoder(ImageEncoder)
+ */
+public class ImageEncoder {
+
+    /**
+     * The rows of PNG images are not filtered.
+     */
+    public static final int FILTER_NONE = PNGEncoder.FILTER_NONE;
+
+    /**
+     * The rows of PNG images are filtered with the difference with the pixel
+     * on the left.
+     */
+    public static final int FILTER_SUB = PNGEncoder.FILTER_SUB;
+
+    /**
+     * The rows of PNG images are filtered with the difference with the pixel
+     * above.
+     */
+    public static final int FILTER_UP = PNGEncoder.FILTER_UP;
+
+    /**
+     * The rows of PNG images are filtered with the difference with the
+     * average of the pixels on the left and above.
+     */
+    public static final int FILTER_AVERAGE = PNGEncoder.FILTER_AVERAGE;
+
+    /**
+     * The rows of PNG images are filtered with the Paeth predictor.
+     */
+    public static final int FILTER_PAETH = PNGEncoder.FILTER_PAETH;
+
+    /**
+     * Each row of PNG images is filtered with the filter that is likely to
+     * compress the most.
+     */
+    public static final int FILTER_ADAPTIVE = PNGEncoder.FILTER_ADAPTIVE;
+
+    /**
+     * The default quality of JPEG images: the quality the SWT image loader
+     * writes them with when {@link CopyToImageUtil} has no encoder.
+     */
+    public static final float DEFAULT_JPEG_QUALITY = 0.75f;
+
+    private final PNGEncoder pngEncoder = new PNGEncoder();
+
+    private float jpegQuality = DEFAULT_JPEG_QUALITY;
+
+    /**
+     * Sets the compression level of PNG images: 1 is the fastest, 9
+     * compresses the most and -1 is the default level of the compressor.
+     *
+     * @param level
+     *            the compression level, from -1 to 9
+     */
+    public void setCompressionLevel(int level) {
+        pngEncoder.setCompressionLevel(level);
+    }
+
+    /**
+     * Gets the compression level of PNG images.
+     *
+     * @return the compression level, from -1 to 9
+     */
+    public int getCompressionLevel() {
+        return pngEncoder.getCompressionLevel();
+    }
+
+    /**
+     * Sets the filter applied to the rows of PNG images before they are
+     * compressed. {@link #FILTER_ADAPTIVE}, the default, usually compresses
+     * the most; {@link #FILTER_UP} is much faster and compresses diagrams
+     * almost as well.
+     *
+     * @param filter
+     *            one of the <code>FILTER_*</code> constants
+     */
+    public void setFilter(int filter) {
+        pngEncoder.setFilter(filter);
+    }
+
+    /**
+     * Gets the filter applied to the rows of PNG images.
+     *
+     * @return one of the <code>FILTER_*</code> constants
+     */
+    public int getFilter() {
+        return pngEncoder.getFilter();
+    }
+
+    /**
+     * Sets the number of threads compressing a PNG image. Small images are
+     * always compressed by the calling thread.
+     *
+     * @param threadCount
+     *            the number of threads, 1 to compress on the calling thread
+     */
+    public void setThreadCount(int threadCount) {
+        pngEncoder.setThreadCount(threadCount);
+    }
+
+    /**
+     * Gets the number of threads compressing a PNG image.
+     *
+     * @return the number of threads
+     */
+    public int getThreadCount() {
+        return pngEncoder.getThreadCount();
+    }
+
+    /**
+     * Sets the quality of the JPEG images whose {@link ImageFileFormat} has
+     * the {@link ImageFileFormat#DEFAULT_QUALITY default quality}, which is
+     * the best quality and makes much larger files.
+     *
+     * @param quality
+     *            the quality, from 0 to 1
+     */
+    public void setJPEGQuality(float quality) {
+        this.jpegQuality = quality;
+    }
+
+    /**
+     * Gets the quality of the JPEG images whose {@link ImageFileFormat} has
+     * the default quality.
+     *
+     * @return the quality, from 0 to 1
+     */
+    public float getJPEGQuality() {
+        return jpegQuality;
+    }
+
+    /**
+     * Determines if images are encoded in a format by this encoder.
+     *
+     * @param format
+     *            the image file format
+     * @return <code>true</code> for PNG, JPEG and JPG
+     */
+    public boolean canEncode(ImageFileFormat format) {
+        return format.equals(ImageFileFormat.PNG)
+            || format.equals(ImageFileFormat.JPEG)
+            || format.equals(ImageFileFormat.JPG);
+    }
+
+    /**
+     * Encodes an image.
+     *
+     * @param image
+     *            the image
+     * @param format
+     *            a format for which {@link #canEncode(ImageFileFormat)} is
+     *            <code>true</code>
+     * @param stream
+     *            the stream to write the image to; it is not closed
+     * @throws CoreException
+     *             if the image cannot be written
+     */
+    public void encode(BufferedImage image, ImageFileFormat format,
+            OutputStream stream)
+        throws CoreException {
+        try {
+            if (format.equals(ImageFileFormat.PNG)) {
+                pngEncoder.encode(image, stream);
+            } else if (format.equals(ImageFileFormat.JPEG)
+                || format.equals(ImageFileFormat.JPG)) {
+                ImageExporter.exportToOutputStream(stream, image,
+                    ImageExporter.JPEG_FILE, new NullProgressMonitor(),
+                    format.getQuality() != ImageFileFormat.DEFAULT_QUALITY ? format
+                        .getQuality()
+                        : jpegQuality);
+            } else {
+                throw new IllegalArgumentException(
+                    "Unexpected format: " + format.getName()); //$NON-NLS-1$
+            }
+        } catch (IOException e) {
+            Log.error(DiagramUIRenderPlugin.getInstance(), IStatus.ERROR, e
+                .getMessage(), e);
+            throw new CoreException(new Status(IStatus.ERROR,
+                "exportToStream", IStatus.OK, //$NON-NLS-1$
+                e.getMessage(), null));
+        }
+    }
+}
@@ -0,0 +1,457 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.render.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gef.editparts.LayerManager;
+import org.eclipse.gmf.runtime.common.core.util.Log;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramRootEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.IGraphicalEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
+import org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramGraphicalViewer;
+import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramImageGenerator;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderDebugOptions;
+import org.eclipse.gmf.runtime.diagram.ui.render.internal.DiagramUIRenderPlugin;
+import org.eclipse.gmf.runtime.diagram.ui.services.decorator.Decoration;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image.ImageExporter;
+import org.eclipse.gmf.runtime.emf.core.util.EMFCoreUtil;
+import org.eclipse.gmf.runtime.notation.View;
+
+/**
+ * Exports a diagram that is shown in a viewer, typically an offscreen viewer,
+ * again and again, repainting only what changed since the previous export.
+ * <P>
+ * The session keeps the image of the previous export. Between two exports it
+ * records the views and semantic elements that changed in the editing domain
+ * of the diagram. When exporting, it compares the bounds of the top level
+ * shapes, of the connections and of the decorations with their bounds at the
+ * previous export. The regions covered by a changed part, before and after
+ * the change, are repainted in the previous image; the rest of the image is
+ * kept. The whole image is repainted when the area of the diagram changes or
+ * when most of it is damaged.
+ * <P>
+ * Changes made to the figures without changing the model are not seen by the
+ * session; they are reported with {@link #invalidate(IGraphicalEditPart)} or
+ * {@link #invalidate()}.
+ * <P>
+ * A session must be used from the UI thread and disposed when no longer
+ * needed.
+ */
+public class IncrementalImageExportSession {
+
+    /**
+     * The proportion of the image above which the whole image is repainted
+     * instead of the damaged regions.
+     */
+    private static final double FULL_REPAINT_RATIO = 0.5;
+
+    private final DiagramEditPart diagramEP;
+
+    private final DiagramImageGenerator generator;
+
+    private final TransactionalEditingDomain domain;
+
+    /**
+     * The model elements changed since the previous export.
+     */
+    private final Set<EObject> changedElements = new HashSet<EObject>();
+
+    private final ResourceSetListener listener = new ResourceSetListenerImpl() {
+
+        public boolean isPostcommitOnly() {
+            return true;
+        }
+
+        public void resourceSetChanged(ResourceSetChangeEvent event) {
+            synchronized (changedElements) {
+                for (Iterator i = event.getNotifications().iterator(); i
+                    .hasNext();) {
+                    Object notifier = ((Notification) i.next()).getNotifier();
+                    if (notifier instanceof EObject) {
+                        changedElements.add((EObject) notifier);
+                    }
+                }
+            }
+        }
+    };
+
+    /**
+     * The parts invalidated by the caller since the previous export.
+     */
+    private final Set<EditPart> invalidParts = new HashSet<EditPart>();
+
+    private boolean invalid = true;
+
+    private BufferedImage image;
+
+    private org.eclipse.swt.graphics.Rectangle imageRect;
+
+    /**
+     * The bounds of the top level parts and of the decorations at the
+     * previous export.
+     */
+    private Map<IFigure, Rectangle> paintedBounds = new IdentityHashMap<IFigure, Rectangle>();
+
+    private boolean disposed;
+
+    private int exportCount;
+
+    private int repaintCount;
+
+    /**
+     * Creates a session for a diagram.
+     *
+     * @param diagramEP
+     *            the diagram editpart, which must stay in its viewer for the
+     *            life of the session
+     */
+    public IncrementalImageExportSession(DiagramEditPart diagramEP) {
+        this.diagramEP = diagramEP;
+        this.generator = new DiagramImageGenerator(diagramEP);
+        this.domain = diagramEP.getEditingDomain();
+        if (domain != null) {
+            domain.addResourceSetListener(listener);
+        }
+    }
+
+    /**
+     * Exports the diagram, repainting the regions of the previous image that
+     * changed since the previous export.
+     *
+     * @return the image of the diagram; the image is updated in place by the
+     *         next export, and must be copied to be kept
+     */
+    public BufferedImage exportImage() {
+        Assert.isTrue(!disposed);
+
+        // lay out the figures that changed
+        diagramEP.getFigure().getUpdateManager().performValidation();
+
+        diagramEP.materializeAll();
+        List editParts = diagramEP.getPrimaryEditParts();
+        org.eclipse.swt.graphics.Rectangle rect = generator
+            .calculateImageRectangle(editParts);
+        Map<IFigure, Rectangle> bounds = computePaintedBounds(editParts);
+
+        if (image == null || invalid || !rect.equals(imageRect)) {
+            repaintAll(editParts, rect);
+        } else {
+            List<Rectangle> damage = computeDamage(editParts, bounds);
+            int area = 0;
+            for (int i = 0; i < damage.size(); i++) {
+                Rectangle region = damage.get(i);
+                area += region.width * region.height;
+            }
+            if (area > FULL_REPAINT_RATIO * rect.width * rect.height) {
+                repaintAll(editParts, rect);
+            } else {
+                for (int i = 0; i < damage.size(); i++) {
+                    Rectangle region = damage.get(i);
+                    generator.repaintAWTImageForParts(image, editParts, rect,
+                        new org.eclipse.swt.graphics.Rectangle(region.x,
+                            region.y, region.width, region.height));
+                }
+                repaintCount++;
+            }
+        }
+
+        paintedBounds = bounds;
+        imageRect = rect;
+        invalid = false;
+        invalidParts.clear();
+        synchronized (changedElements) {
+            changedElements.clear();
+        }
+        exportCount++;
+        return image;
+    }
+
+    /**
+     * Exports the diagram to a stream.
+     *
+     * @param stream
+     *            the stream to write the image to
+     * @param format
+     *            {@link ImageFileFormat#PNG}, {@link ImageFileFormat#JPEG} or
+     *            {@link ImageFileFormat#JPG}
+     * @param monitor
+     *            the progress monitor
+     * @throws CoreException
+     *             if the image cannot be written
+     */
+    public void exportImage(OutputStream stream, ImageFileFormat format,
+            IProgressMonitor monitor)
+        throws CoreException {
+        BufferedImage result = exportImage();
+        if (format.equals(ImageFileFormat.PNG)) {
+            ImageExporter.exportToOutputStream(stream, result,
+                ImageExporter.PNG_FILE, monitor, format.getQuality());
+        } else if (format.equals(ImageFileFormat.JPEG)
+            || format.equals(ImageFileFormat.JPG)) {
+            // JPEG has no alpha channel
+            BufferedImage rgb = new BufferedImage(result.getWidth(), result
+                .getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = rgb.createGraphics();
+            g2d.drawImage(result, 0, 0, null);
+            g2d.dispose();
+            try {
+                ImageIO.write(rgb, "jpg", stream); //$NON-NLS-1$
+            } catch (IOException e) {
+                Log.error(DiagramUIRenderPlugin.getInstance(), IStatus.ERROR, e
+                    .getMessage(), e);
+                throw new CoreException(new Status(IStatus.ERROR,
+                    "exportImage", IStatus.OK, //$NON-NLS-1$
+                    e.getMessage(), null));
+            }
+        } else {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Repaints the figure of an editpart at the next export, for a change
+     * made to the figure without changing the model.
+     *
+     * @param editPart
+     *            the editpart
+     */
+    public void invalidate(IGraphicalEditPart editPart) {
+        invalidParts.add(editPart);
+    }
+
+    /**
+     * Repaints the whole image at the next export.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Obtains the number of exports that repainted only the damaged regions
+     * of the previous image.
+     *
+     * @return the number of incremental exports
+     */
+    public int getIncrementalExportCount() {
+        return repaintCount;
+    }
+
+    /**
+     * Obtains the number of exports done by this session.
+     *
+     * @return the number of exports
+     */
+    public int getExportCount() {
+        return exportCount;
+    }
+
+    /**
+     * Stops recording the changes of the diagram and releases the image.
+     */
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        if (domain != null) {
+            domain.removeResourceSetListener(listener);
+        }
+        image = null;
+        paintedBounds = null;
+
+        Trace.trace(DiagramUIRenderPlugin.getInstance(),
+            DiagramUIRenderDebugOptions.DEBUG, "Exported " + exportCount //$NON-NLS-1$
+                + " images, " + repaintCount + " incrementally"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private void repaintAll(List editParts,
+            org.eclipse.swt.graphics.Rectangle rect) {
+        image = (BufferedImage) generator.createAWTImageForParts(editParts,
+            rect);
+    }
+
+    /**
+     * Computes the bounds of the top level parts and of the decorations.
+     */
+    private Map<IFigure, Rectangle> computePaintedBounds(List editParts) {
+        Map<IFigure, Rectangle> result = new IdentityHashMap<IFigure, Rectangle>();
+        for (Iterator i = editParts.iterator(); i.hasNext();) {
+            IFigure figure = ((IGraphicalEditPart) i.next()).getFigure();
+            result.put(figure, generator.getPaintedBounds(figure));
+        }
+        IFigure decorationLayer = LayerManager.Helper.find(diagramEP)
+            .getLayer(DiagramRootEditPart.DECORATION_PRINTABLE_LAYER);
+        if (decorationLayer != null) {
+            for (Iterator i = decorationLayer.getChildren().iterator(); i
+                .hasNext();) {
+                Object next = i.next();
+                if (next instanceof Decoration) {
+                    IFigure figure = (IFigure) next;
+                    result.put(figure, generator.getPaintedBounds(figure));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects the regions to repaint: the old and new bounds of the parts
+     * that moved, appeared, disappeared or changed.
+     */
+    private List<Rectangle> computeDamage(List editParts,
+            Map<IFigure, Rectangle> bounds) {
+        List<Rectangle> damage = new ArrayList<Rectangle>();
+
+        // the parts that moved or appeared
+        for (Iterator<Map.Entry<IFigure, Rectangle>> i = bounds.entrySet()
+            .iterator(); i.hasNext();) {
+            Map.Entry<IFigure, Rectangle> entry = i.next();
+            Rectangle old = paintedBounds.get(entry.getKey());
+            if (old == null) {
+                damage.add(entry.getValue());
+            } else if (!old.equals(entry.getValue())) {
+                damage.add(old);
+                damage.add(entry.getValue());
+            }
+        }
+        // the parts that disappeared
+        for (Iterator<Map.Entry<IFigure, Rectangle>> i = paintedBounds
+            .entrySet().iterator(); i.hasNext();) {
+            Map.Entry<IFigure, Rectangle> entry = i.next();
+            if (!bounds.containsKey(entry.getKey())) {
+                damage.add(entry.getValue());
+            }
+        }
+        // the parts whose model or figure changed
+        for (Iterator<EditPart> i = getChangedParts(editParts).iterator(); i
+            .hasNext();) {
+            Rectangle rect = bounds.get(((IGraphicalEditPart) i.next())
+                .getFigure());
+            if (rect != null) {
+                damage.add(rect);
+            }
+        }
+        return merge(damage);
+    }
+
+    /**
+     * Finds the top level parts showing the changed model elements and the
+     * invalidated parts.
+     */
+    private Set<EditPart> getChangedParts(List editParts) {
+        Set<EditPart> topLevel = new HashSet<EditPart>(editParts);
+        Set<EditPart> result = new HashSet<EditPart>();
+        EditPartViewer viewer = diagramEP.getViewer();
+        Map registry = viewer.getEditPartRegistry();
+        Map<EObject, Boolean> visited = new HashMap<EObject, Boolean>();
+
+        List<EObject> elements;
+        synchronized (changedElements) {
+            elements = new ArrayList<EObject>(changedElements);
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            EObject element = elements.get(i);
+            // a style or a layout constraint changes the view owning it
+            EObject view = element;
+            while (view != null && !(view instanceof View)) {
+                view = view.eContainer();
+            }
+            if (view != null) {
+                if (visited.put(view, Boolean.TRUE) == null) {
+                    addTopLevel((EditPart) registry.get(view), topLevel,
+                        result);
+                }
+            } else if (viewer instanceof IDiagramGraphicalViewer
+                && visited.put(element, Boolean.TRUE) == null) {
+                List parts = ((IDiagramGraphicalViewer) viewer)
+                    .findEditPartsForElement(EMFCoreUtil.getProxyID(element),
+                        IGraphicalEditPart.class);
+                for (Iterator j = parts.iterator(); j.hasNext();) {
+                    addTopLevel((EditPart) j.next(), topLevel, result);
+                }
+            }
+        }
+        for (Iterator<EditPart> i = invalidParts.iterator(); i.hasNext();) {
+            addTopLevel(i.next(), topLevel, result);
+        }
+        return result;
+    }
+
+    private static void addTopLevel(EditPart editPart, Set<EditPart> topLevel,
+            Set<EditPart> result) {
+        for (EditPart walker = editPart; walker != null; walker = walker
+            .getParent()) {
+            if (topLevel.contains(walker)) {
+                result.add(walker);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merges the overlapping regions, so that no area is repainted twice.
+     */
+    private static List<Rectangle> merge(List<Rectangle> regions) {
+        List<Rectangle> result = new ArrayList<Rectangle>(regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            Rectangle region = regions.get(i).getCopy();
+            if (region.isEmpty()) {
+                continue;
+            }
+            boolean merged = true;
+            while (merged) {
+                merged = false;
+                for (int j = 0; j < result.size(); j++) {
+                    if (result.get(j).intersects(region)) {
+                        region.union(result.remove(j));
+                        merged = true;
+                        break;
+                    }
+                }
+            }
+            result.add(region);
+        }
+        return result;
+    }
+}
@@ -84,6 +84,7 @@ public final class PartPositionInfoGenerator {
 		List<PartPositionInfo> result = new ArrayList<PartPositionInfo>();
 		List<IGraphicalEditPart> editParts = new ArrayList<IGraphicalEditPart>();
 
+		diagramEditPart.materializeAll();
 		List<IGraphicalEditPart> children = (List<IGraphicalEditPart>) diagramEditPart.getPrimaryEditParts();
 		IMapMode mm = MapModeUtil.getMapMode(diagramEditPart.getFigure());
 		
@@ -82,6 +82,8 @@ final public class EditorMessages extends NLS {
 	
 	public static String Diagram_UNABLE_TO_LOAD_RESOURCE;
 	public static String Diagram_NO_DIAGRAM_IN_RESOURCE;
+	public static String ResourcePrefetcher_task;
+	public static String ResourcePrefetcher_subtask;
 
 
 	static {
@@ -86,6 +86,7 @@ public class DiagramIOUtil {
                 	resource.unload();
                 	throw e;
                 }
+                ResourcePrefetcher.prefetch(domain, resource, monitor);
 			}
 			
 			logResourceErrorsAndWarnings(resource);
@@ -125,6 +126,7 @@ public class DiagramIOUtil {
             }
             if (!resource.isLoaded()) {
                 resource.load(fStorage.getContents(), loadOptions);
+                ResourcePrefetcher.prefetch(editingDomain, resource, monitor);
             }
 			logResourceErrorsAndWarnings(resource);
 			return resource;
@@ -0,0 +1,287 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.resources.editor.internal.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.diagram.ui.resources.editor.internal.EditorDebugOptions;
+import org.eclipse.gmf.runtime.diagram.ui.resources.editor.internal.EditorPlugin;
+import org.eclipse.gmf.runtime.diagram.ui.resources.editor.internal.l10n.EditorMessages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Loads the resources referenced by a newly loaded diagram resource ahead of
+ * time, so that opening a diagram whose model is split into many resources
+ * does not resolve the cross-resource references one resource at a time.
+ * <p>
+ * The references are followed breadth first: the resources referenced by
+ * the proxies of the root resource are parsed concurrently, each into a
+ * detached resource set that shares the URI converter (and hence the
+ * <code>pathmap</code> mappings) and the load options of the resource set
+ * of the editing domain, as if they were loaded on demand, then, if more than
+ * one level of references is prefetched, the resources they reference, and
+ * so on. Once all of them are parsed, they are attached to the resource set
+ * of the editing domain together. A resource that cannot be parsed is left
+ * out, to be resolved and reported on demand as before.
+ * <p>
+ * Prefetching is off unless it is enabled with system properties:
+ * <ul>
+ * <li><code>org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchThreads</code>
+ * ({@link #PARALLELISM_PROPERTY}): the number of resources parsed
+ * concurrently. A value less than 2, the default, disables prefetching.</li>
+ * <li><code>org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchDepth</code>
+ * ({@link #DEPTH_PROPERTY}): the number of levels of references followed
+ * from the diagram resource. The default, 1, only loads the resources that
+ * the diagram resource references directly, so that a model referencing
+ * a large closure of resources is not loaded all at once.</li>
+ * </ul>
+ */
+final class ResourcePrefetcher {
+
+	/**
+	 * The system property giving the number of resources parsed
+	 * concurrently.
+	 */
+	static final String PARALLELISM_PROPERTY = "org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchThreads"; //$NON-NLS-1$
+
+	/**
+	 * The system property giving the number of levels of references
+	 * followed.
+	 */
+	static final String DEPTH_PROPERTY = "org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchDepth"; //$NON-NLS-1$
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Diagram resource prefetch"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	/**
+	 * Parses one referenced resource into a detached resource set, with the
+	 * load options of the resource set.
+	 */
+	private static final class Fetch
+		implements Callable<Resource> {
+
+		private final URI uri;
+
+		private final Resource.Factory factory;
+
+		private final ResourceSet template;
+
+		Fetch(URI uri, Resource.Factory factory, ResourceSet template) {
+			this.uri = uri;
+			this.factory = factory;
+			this.template = template;
+		}
+
+		public Resource call() {
+			ResourceSet detached = new ResourceSetImpl();
+			detached.setURIConverter(template.getURIConverter());
+			detached.setResourceFactoryRegistry(template
+				.getResourceFactoryRegistry());
+			detached.setPackageRegistry(new EPackageRegistryImpl(template
+				.getPackageRegistry()));
+			detached.getLoadOptions().putAll(template.getLoadOptions());
+
+			Resource resource = factory.createResource(uri);
+			detached.getResources().add(resource);
+			try {
+				resource.load(detached.getLoadOptions());
+				return resource;
+			} catch (Exception e) {
+				Trace.catching(EditorPlugin.getInstance(),
+					EditorDebugOptions.EXCEPTIONS_CATCHING,
+					ResourcePrefetcher.class, "call", e); //$NON-NLS-1$
+				resource.unload();
+				return null;
+			}
+		}
+	}
+
+	private ResourcePrefetcher() {
+		// not instantiable
+	}
+
+	/**
+	 * Loads the resources referenced by a resource, up to the configured
+	 * depth, and attaches them to the resource set of the editing domain.
+	 *
+	 * @param domain
+	 *            the editing domain of the resource
+	 * @param root
+	 *            the resource that was just loaded
+	 * @param monitor
+	 *            the progress monitor, or <code>null</code>
+	 */
+	static void prefetch(TransactionalEditingDomain domain, Resource root,
+			IProgressMonitor monitor) {
+		int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, 1)
+			.intValue();
+		int depth = Integer.getInteger(DEPTH_PROPERTY, 1).intValue();
+		if (parallelism < 2 || depth < 1 || root.getURI() == null) {
+			return;
+		}
+		ResourceSet resourceSet = domain.getResourceSet();
+		Set<URI> seen = new HashSet<URI>();
+		seen.add(resourceSet.getURIConverter().normalize(root.getURI()));
+
+		List<URI> wave = collectReferences(root, resourceSet, seen);
+		if (wave.isEmpty()) {
+			return;
+		}
+
+		// the template is only read while the detached resources are parsed
+		ResourceSet template = new ResourceSetImpl();
+		template.setURIConverter(resourceSet.getURIConverter());
+		template.setResourceFactoryRegistry(resourceSet
+			.getResourceFactoryRegistry());
+		template.setPackageRegistry(resourceSet.getPackageRegistry());
+		template.getLoadOptions().putAll(resourceSet.getLoadOptions());
+
+		IProgressMonitor progress = new SubProgressMonitor(
+			monitor != null ? monitor
+				: new NullProgressMonitor(), 0);
+		progress.beginTask(EditorMessages.ResourcePrefetcher_task,
+			IProgressMonitor.UNKNOWN);
+
+		List<Resource> fetched = new ArrayList<Resource>();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+			THREAD_FACTORY);
+		try {
+			for (int level = 1; !wave.isEmpty()
+				&& !progress.isCanceled(); level++) {
+				List<Future<Resource>> futures = new ArrayList<Future<Resource>>(
+					wave.size());
+				List<URI> uris = new ArrayList<URI>(wave.size());
+				for (int i = 0; i < wave.size(); i++) {
+					URI uri = wave.get(i);
+					Resource.Factory factory = resourceSet
+						.getResourceFactoryRegistry().getFactory(uri);
+					if (factory != null) {
+						futures.add(executor.submit(new Fetch(uri, factory,
+							template)));
+						uris.add(uri);
+					}
+				}
+
+				List<URI> next = new ArrayList<URI>();
+				for (int i = 0; i < futures.size()
+					&& !progress.isCanceled(); i++) {
+					progress.subTask(NLS.bind(
+						EditorMessages.ResourcePrefetcher_subtask, uris.get(i)
+							.lastSegment()));
+					Resource resource = getResult(futures.get(i));
+					progress.worked(1);
+					if (resource != null) {
+						fetched.add(resource);
+						if (level < depth) {
+							next.addAll(collectReferences(resource,
+								resourceSet, seen));
+						}
+					}
+				}
+				wave = next;
+			}
+		} finally {
+			executor.shutdownNow();
+			progress.done();
+		}
+
+		attach(resourceSet, fetched);
+	}
+
+	/**
+	 * Finds the resources referenced by the proxies of a resource that the
+	 * resource set does not know yet.
+	 */
+	private static List<URI> collectReferences(Resource resource,
+			ResourceSet resourceSet, Set<URI> seen) {
+		List<URI> result = new ArrayList<URI>();
+		URIConverter converter = resourceSet.getURIConverter();
+
+		// the proxy cross referencer does not resolve the proxies it finds
+		for (Iterator i = EcoreUtil.ProxyCrossReferencer.find(resource)
+			.keySet().iterator(); i.hasNext();) {
+			URI proxyURI = ((InternalEObject) i.next()).eProxyURI();
+			if (proxyURI == null) {
+				continue;
+			}
+			URI uri = proxyURI.trimFragment();
+			if (uri.isRelative() || !seen.add(converter.normalize(uri))) {
+				continue;
+			}
+			if (resourceSet.getResource(uri, false) == null) {
+				result.add(uri);
+			}
+		}
+		return result;
+	}
+
+	private static Resource getResult(Future<Resource> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Trace.catching(EditorPlugin.getInstance(),
+				EditorDebugOptions.EXCEPTIONS_CATCHING,
+				ResourcePrefetcher.class, "getResult", e); //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	/**
+	 * Moves the fetched resources into the resource set, except those that it
+	 * has acquired in the meantime.
+	 */
+	private static void attach(ResourceSet resourceSet, List<Resource> fetched) {
+		List<Resource> resources = new ArrayList<Resource>(fetched.size());
+		for (int i = 0; i < fetched.size(); i++) {
+			Resource resource = fetched.get(i);
+			if (resourceSet.getResource(resource.getURI(), false) == null) {
+				resources.add(resource);
+			}
+		}
+		if (!resources.isEmpty()) {
+			// adding a resource removes it from its detached resource set
+			resourceSet.getResources().addAll(resources);
+		}
+	}
+}
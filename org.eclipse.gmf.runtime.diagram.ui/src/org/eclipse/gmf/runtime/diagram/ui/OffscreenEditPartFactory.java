@@ -25,6 +25,7 @@ import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramGraphicalViewer;
 import org.eclipse.gmf.runtime.diagram.ui.services.editpart.EditPartService;
 import org.eclipse.gmf.runtime.notation.Diagram;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 
 
@@ -95,6 +96,23 @@ public class OffscreenEditPartFactory {
      public DiagramEditPart createDiagramEditPart(
         Diagram diagram, Shell shell, PreferencesHint preferencesHint) {     
         
+        return setDiagram(createOffscreenViewer(shell), diagram,
+            preferencesHint);
+    }
+
+    /**
+     * Creates an offscreen viewer in which diagrams can be shown one after
+     * the other with
+     * {@link #setDiagram(DiagramGraphicalViewer, Diagram, PreferencesHint)},
+     * so that exporting many diagrams does not build a new viewer for each
+     * of them.
+     * 
+     * @param shell
+     *            the shell, to be disposed by the caller when the viewer is
+     *            no longer needed
+     * @return the new viewer, without contents
+     */
+    public DiagramGraphicalViewer createOffscreenViewer(Shell shell) {
         DiagramGraphicalViewer customViewer = new DiagramGraphicalViewer();
         customViewer.createControl(shell);
 
@@ -103,6 +121,28 @@ public class OffscreenEditPartFactory {
             new DiagramCommandStack(editDomain));
 
         customViewer.setEditDomain(editDomain);
+        customViewer.setEditPartFactory(EditPartService.getInstance());
+        return customViewer;
+    }
+
+    /**
+     * Shows a diagram in an offscreen viewer, replacing the diagram it
+     * showed before.
+     * 
+     * @param customViewer
+     *            a viewer created by {@link #createOffscreenViewer(Shell)}
+     * @param diagram
+     *            the <code>Diagram</code>
+     * @param preferencesHint
+     *            the preferences hint to be used when creating the diagram; if
+     *            null, the preferences hint from the root editpart will be
+     *            used.
+     * @return the new populated <code>DiagramEditPart</code>
+     */
+    public DiagramEditPart setDiagram(DiagramGraphicalViewer customViewer,
+        Diagram diagram, PreferencesHint preferencesHint) {
+        
+        clearDiagram(customViewer);
 
         // hook in preferences
         RootEditPart rootEP = EditPartService.getInstance().createRootEditPart(
@@ -122,8 +162,6 @@ public class OffscreenEditPartFactory {
         
         customViewer.setRootEditPart(rootEP);
 
-        customViewer.setEditPartFactory(EditPartService.getInstance());
-
         DiagramEventBroker.startListening(TransactionUtil.getEditingDomain(diagram));
         
         customViewer.setContents(diagram);
@@ -134,12 +172,30 @@ public class OffscreenEditPartFactory {
     	/*
     	 * We need to flush all the deferred updates. 
     	 */
-   		while (shell.getDisplay().readAndDispatch()) {
+        Display display = customViewer.getControl().getDisplay();
+   		while (display.readAndDispatch()) {
    			// nothing
    		}
         
         return (DiagramEditPart) customViewer.getContents();
+    }
 
+    /**
+     * Removes the diagram shown in an offscreen viewer, so that its
+     * editparts stop listening to the model, and discards the commands
+     * executed in the viewer, which refer to the diagram.
+     * 
+     * @param customViewer
+     *            a viewer created by {@link #createOffscreenViewer(Shell)}
+     */
+    public void clearDiagram(DiagramGraphicalViewer customViewer) {
+        RootEditPart rootEP = customViewer.getRootEditPart();
+        if (rootEP != null && rootEP.getContents() != null) {
+            rootEP.setContents(null);
+        }
+        if (customViewer.getEditDomain() != null) {
+            customViewer.getEditDomain().getCommandStack().flush();
+        }
     }
 
 }
@@ -16,6 +16,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.draw2d.geometry.Point;
@@ -29,6 +31,7 @@ import org.eclipse.gef.commands.CompoundCommand;
 import org.eclipse.gef.commands.UnexecutableCommand;
 import org.eclipse.gmf.runtime.common.core.util.StringStatics;
 import org.eclipse.gmf.runtime.common.ui.action.AbstractActionHandler;
+import org.eclipse.gmf.runtime.common.ui.action.ActionRefreshScheduler;
 import org.eclipse.gmf.runtime.diagram.core.preferences.PreferencesHint;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.IGraphicalEditPart;
@@ -36,6 +39,7 @@ import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramCommandStack;
 import org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramEditDomain;
 import org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramGraphicalViewer;
 import org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramWorkbenchPart;
+import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchPart;
@@ -60,6 +64,42 @@ public abstract class DiagramAction
 	/** the cached operation set */
 	private List _operationSet = Collections.EMPTY_LIST;
 
+	/**
+	 * Whether each action class builds its command from the selection the
+	 * default way. Only accessed on the UI thread.
+	 */
+	private static final Map<Class<?>, Boolean> defaultCommandClasses = new WeakHashMap<Class<?>, Boolean>();
+
+	/**
+	 * Identifies a shared enablement by the identity of the selection and by
+	 * the other inputs of the enablement.
+	 */
+	private static final class SharedEnablementKey {
+
+		private final ISelection selection;
+
+		private final Object enablementKey;
+
+		SharedEnablementKey(ISelection selection, Object enablementKey) {
+			this.selection = selection;
+			this.enablementKey = enablementKey;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SharedEnablementKey)) {
+				return false;
+			}
+			SharedEnablementKey other = (SharedEnablementKey) obj;
+			return selection == other.selection
+				&& enablementKey.equals(other.enablementKey);
+		}
+
+		public int hashCode() {
+			return System.identityHashCode(selection) * 31
+				+ enablementKey.hashCode();
+		}
+	}
+
 	/**
 	 * Constructs a new diagram action
 	 * 
@@ -135,13 +175,96 @@ public abstract class DiagramAction
 
 	/**
 	 * Calculates the enblement state of the action
+	 * <p>
+	 * When the action is refreshed together with other actions, the result is
+	 * shared with the other actions that see the same selection and return an
+	 * equal {@link #getEnablementKey() enablement key}, so that the command is
+	 * only built once per batch.
 	 * 
 	 * @return <code>true</code> if action should be enabled,
 	 *         <code>false</code> otherwise
 	 */
 	protected boolean calculateEnabled() {
+		ActionRefreshScheduler scheduler = ActionRefreshScheduler.getInstance();
+		Object key = null;
+		if (scheduler.isFlushing()) {
+			Object enablementKey = getEnablementKey();
+			if (enablementKey != null) {
+				key = new SharedEnablementKey(getSelection(), enablementKey);
+				Boolean shared = (Boolean) scheduler.getSharedResult(key);
+				if (shared != null) {
+					return shared.booleanValue();
+				}
+			}
+		}
+
 		Command command = getCommand();
-		return command != null && command.canExecute();
+		boolean enabled = command != null && command.canExecute();
+
+		if (key != null) {
+			scheduler.putSharedResult(key, Boolean.valueOf(enabled));
+		}
+		return enabled;
+	}
+
+	/**
+	 * Obtains the inputs, other than the selection, that determine the
+	 * enablement of this action. While action handlers are refreshed in a
+	 * batch, the actions that see the same selection and return equal keys
+	 * share the result of {@link #calculateEnabled()}, whatever their class.
+	 * <p>
+	 * By default, only the actions that send a plain {@link Request} without
+	 * extended data, and that build their command from the selection the
+	 * default way, return a key: the request type. Subclasses whose enablement
+	 * depends on other inputs may return a key that includes them, or
+	 * <code>null</code> to not share their enablement.
+	 * 
+	 * @return the enablement key, or <code>null</code> if the enablement is
+	 *         not shared
+	 */
+	protected Object getEnablementKey() {
+		Request request = getTargetRequest();
+		if (request == null || request.getClass() != Request.class
+			|| !request.getExtendedData().isEmpty()
+			|| request.getType() == null || !hasDefaultCommand(getClass())) {
+			return null;
+		}
+		return request.getType();
+	}
+
+	/**
+	 * Answers whether the action class builds its command from the selection
+	 * the default way, that is, does not override any of the methods involved.
+	 */
+	private static boolean hasDefaultCommand(Class<?> actionClass) {
+		Boolean result = defaultCommandClasses.get(actionClass);
+		if (result == null) {
+			result = Boolean.TRUE;
+			for (Class<?> c = actionClass; c != DiagramAction.class
+				&& result.booleanValue(); c = c.getSuperclass()) {
+				if (declares(c, "getCommand", new Class<?>[0]) //$NON-NLS-1$
+					|| declares(c, "getCommand", new Class<?>[] {Request.class}) //$NON-NLS-1$
+					|| declares(c, "createOperationSet", new Class<?>[0]) //$NON-NLS-1$
+					|| declares(c, "getTargetEditParts", new Class<?>[] {EditPart.class}) //$NON-NLS-1$
+					|| declares(c, "getSelectedObjects", new Class<?>[0]) //$NON-NLS-1$
+					|| declares(c, "getStructuredSelection", new Class<?>[0]) //$NON-NLS-1$
+					|| declares(c, "getSelection", new Class<?>[0])) { //$NON-NLS-1$
+					result = Boolean.FALSE;
+				}
+			}
+			defaultCommandClasses.put(actionClass, result);
+		}
+		return result.booleanValue();
+	}
+
+	private static boolean declares(Class<?> c, String name,
+			Class<?>[] parameterTypes) {
+		try {
+			c.getDeclaredMethod(name, parameterTypes);
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
 	}
 
 	/**
@@ -15,6 +15,8 @@ package org.eclipse.gmf.runtime.diagram.ui.commands;
 import java.util.List;
 
 import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.commands.operations.IUndoableOperation;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -23,6 +25,8 @@ import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.gmf.runtime.common.core.command.CommandResult;
+import org.eclipse.gmf.runtime.common.core.internal.command.CommandMergers;
+import org.eclipse.gmf.runtime.common.core.internal.command.ICommandMerger;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
 import org.eclipse.gmf.runtime.emf.commands.core.command.AbstractTransactionalCommand;
 import org.eclipse.gmf.runtime.notation.NotationPackage;
@@ -31,6 +35,9 @@ import org.eclipse.gmf.runtime.notation.View;
 
 /**
  * A command to set the bounds (location/size) of a <code>View</code>
+ * <P>
+ * Consecutive commands that set the bounds of the same view in a composite
+ * command are merged into one before the composite is executed.
  * 
  * @author melaasar
  */
@@ -39,6 +46,14 @@ public class SetBoundsCommand extends AbstractTransactionalCommand {
 	private IAdaptable  adapter;
 	private Point location;
 	private Dimension size;
+
+	static {
+		CommandMergers.register(SetBoundsCommand.class, new ICommandMerger() {
+			public boolean merge(IUndoableOperation previous, IUndoableOperation next) {
+				return ((SetBoundsCommand) previous).merge(next);
+			}
+		});
+	}
 	
 	/**
 	 * Creates a <code>SetBoundsCommand</code> for the given view adapter with a given bounds.
@@ -111,6 +126,54 @@ public class SetBoundsCommand extends AbstractTransactionalCommand {
 		return CommandResult.newOKCommandResult();
 	}
     
+    /**
+     * Absorbs a following <code>SetBoundsCommand</code> on the same view: the
+     * location and size that it sets replace mine.
+     */
+    private boolean merge(IUndoableOperation next) {
+        if (getClass() != SetBoundsCommand.class
+            || next.getClass() != SetBoundsCommand.class) {
+            // subclasses may do more than set the bounds
+            return false;
+        }
+        SetBoundsCommand other = (SetBoundsCommand) next;
+        if (other.getEditingDomain() != getEditingDomain()
+            || !other.getOptions().equals(getOptions())
+            || !isSameView(other.adapter)) {
+            return false;
+        }
+        IUndoContext[] otherContexts = other.getContexts();
+        for (int i = 0; i < otherContexts.length; i++) {
+            if (!hasContext(otherContexts[i])) {
+                return false;
+            }
+        }
+
+        if (other.location != null) {
+            location = other.location;
+        }
+        if (other.size != null) {
+            size = other.size;
+        }
+        return true;
+    }
+
+    /**
+     * Answers whether the other adapter is known to designate my view. An
+     * adapter that does not resolve yet, such as that of a view which is
+     * still to be created, only designates my view if it is my own adapter.
+     */
+    private boolean isSameView(IAdaptable otherAdapter) {
+        if (otherAdapter == adapter) {
+            return true;
+        }
+        if (adapter == null || otherAdapter == null) {
+            return false;
+        }
+        Object view = adapter.getAdapter(View.class);
+        return view != null && view == otherAdapter.getAdapter(View.class);
+    }
+
     public List getAffectedFiles() {
         if (adapter != null) {
             View view = (View) adapter.getAdapter(View.class);
@@ -0,0 +1,268 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.editparts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.Edge;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Combines the connection refreshes requested by the shape compartments of a
+ * viewer. The compartments that asked for a refresh before the next display
+ * tick are refreshed together at that tick.
+ * <p>
+ * While a batch is refreshed, the edges of a diagram are resolved to their
+ * edit parts once for the batch. The connections of a compartment using the
+ * default {@link ShapeCompartmentEditPart.ConnectionRefreshMgr} are looked up
+ * in an index built from these edges, instead of testing every edge against
+ * the compartment; a manager of another class is asked for each edge through
+ * its {@link ShapeCompartmentEditPart.ConnectionRefreshMgr#isChildOf}.
+ * <p>
+ * A connection whose ends lie in several of the refreshed compartments is
+ * only tested once per connection refresh manager, so that the compartments
+ * sharing a manager do not repeat its work, while a compartment with its own
+ * manager still gets to test all its connections.
+ * <p>
+ * The batch is only accessed from the UI thread.
+ */
+final class ConnectionRefreshBatch
+	implements Runnable {
+
+	private static final String KEY = ConnectionRefreshBatch.class.getName();
+
+	private final EditPartViewer viewer;
+
+	/**
+	 * The compartments waiting for their connections to be refreshed.
+	 */
+	private final Set<ShapeCompartmentEditPart> pending = new LinkedHashSet<ShapeCompartmentEditPart>();
+
+	private boolean flushPosted;
+
+	private boolean flushing;
+
+	/**
+	 * The connection, source and target edit parts of the edges of each
+	 * diagram, resolved on demand while flushing.
+	 */
+	private final Map<Diagram, List<EditPart[]>> edges = new HashMap<Diagram, List<EditPart[]>>();
+
+	/**
+	 * The connections of each shape compartment, per diagram, built on
+	 * demand while flushing.
+	 */
+	private final Map<Diagram, Map<EditPart, Set<EditPart>>> indexes = new HashMap<Diagram, Map<EditPart, Set<EditPart>>>();
+
+	/**
+	 * The connections tested by each connection refresh manager during the
+	 * current flush.
+	 */
+	private final Map<ShapeCompartmentEditPart.ConnectionRefreshMgr, Set<EditPart>> refreshed = new IdentityHashMap<ShapeCompartmentEditPart.ConnectionRefreshMgr, Set<EditPart>>();
+
+	private ConnectionRefreshBatch(EditPartViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Schedules the refresh of the connections of a shape compartment.
+	 *
+	 * @param compartment
+	 *            the shape compartment
+	 * @return <code>false</code> if the compartment is not in a viewer, or the
+	 *         display is gone
+	 */
+	static boolean schedule(ShapeCompartmentEditPart compartment) {
+		EditPartViewer viewer = compartment.getViewer();
+		if (viewer == null) {
+			return false;
+		}
+		ConnectionRefreshBatch batch = (ConnectionRefreshBatch) viewer
+			.getProperty(KEY);
+		if (batch == null) {
+			batch = new ConnectionRefreshBatch(viewer);
+			viewer.setProperty(KEY, batch);
+		}
+		return batch.add(compartment);
+	}
+
+	/**
+	 * @return the batch of the viewer being flushed, or <code>null</code> if
+	 *         the connections of the viewer are not being refreshed in a
+	 *         batch
+	 */
+	static ConnectionRefreshBatch getFlushing(EditPartViewer viewer) {
+		ConnectionRefreshBatch batch = viewer != null ? (ConnectionRefreshBatch) viewer
+			.getProperty(KEY)
+			: null;
+		return batch != null && batch.flushing ? batch
+			: null;
+	}
+
+	private boolean add(ShapeCompartmentEditPart compartment) {
+		pending.add(compartment);
+		if (!flushPosted) {
+			Display display = DisplayUtils.getDisplay();
+			if (display == null || display.isDisposed()) {
+				pending.clear();
+				return false;
+			}
+			flushPosted = true;
+			display.asyncExec(this);
+		}
+		return true;
+	}
+
+	public void run() {
+		flushPosted = false;
+		List<ShapeCompartmentEditPart> batch = new ArrayList<ShapeCompartmentEditPart>(
+			pending);
+		pending.clear();
+
+		flushing = true;
+		try {
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).forceRefreshConnections();
+			}
+		} finally {
+			flushing = false;
+			edges.clear();
+			indexes.clear();
+			refreshed.clear();
+		}
+	}
+
+	/**
+	 * Records that a connection is being tested by a connection refresh
+	 * manager.
+	 *
+	 * @param manager
+	 *            the connection refresh manager
+	 * @param connection
+	 *            the connection edit part
+	 * @return <code>false</code> if the connection has already been tested by
+	 *         this manager in this batch
+	 */
+	boolean markRefreshed(ShapeCompartmentEditPart.ConnectionRefreshMgr manager,
+			EditPart connection) {
+		Set<EditPart> connections = refreshed.get(manager);
+		if (connections == null) {
+			connections = new HashSet<EditPart>();
+			refreshed.put(manager, connections);
+		}
+		return connections.add(connection);
+	}
+
+	/**
+	 * Finds the connections with an end inside a shape compartment.
+	 *
+	 * @param compartment
+	 *            the shape compartment
+	 * @param diagram
+	 *            the diagram of the shape compartment
+	 * @param manager
+	 *            the connection refresh manager deciding whether an end is
+	 *            inside the compartment
+	 * @return the connection edit parts
+	 */
+	Set getConnectionNodes(ShapeCompartmentEditPart compartment,
+			Diagram diagram, ShapeCompartmentEditPart.ConnectionRefreshMgr manager) {
+		if (manager.getClass() != ShapeCompartmentEditPart.ConnectionRefreshMgr.class) {
+			// the manager may have its own idea of isChildOf()
+			Set<EditPart> connections = new HashSet<EditPart>();
+			List<EditPart[]> resolved = getEdges(diagram);
+			for (int i = 0; i < resolved.size(); i++) {
+				EditPart[] edge = resolved.get(i);
+				if (manager.isChildOf(compartment, edge[1])
+					|| manager.isChildOf(compartment, edge[2])) {
+					connections.add(edge[0]);
+				}
+			}
+			return connections;
+		}
+		Map<EditPart, Set<EditPart>> index = indexes.get(diagram);
+		if (index == null) {
+			index = buildIndex(diagram);
+			indexes.put(diagram, index);
+		}
+		Set<EditPart> connections = index.get(compartment);
+		return connections != null ? new HashSet<EditPart>(connections)
+			: new HashSet<EditPart>();
+	}
+
+	/**
+	 * Resolves the edges of the diagram that have a connection edit part.
+	 *
+	 * @return the connection, source and target edit parts of each edge
+	 */
+	private List<EditPart[]> getEdges(Diagram diagram) {
+		List<EditPart[]> resolved = edges.get(diagram);
+		if (resolved == null) {
+			resolved = new ArrayList<EditPart[]>();
+			Map registry = viewer.getEditPartRegistry();
+			for (Iterator i = diagram.getEdges().iterator(); i.hasNext();) {
+				Edge edge = (Edge) i.next();
+				EditPart connection = (EditPart) registry.get(edge);
+				if (connection != null) {
+					resolved.add(new EditPart[] {connection,
+						(EditPart) registry.get(edge.getSource()),
+						(EditPart) registry.get(edge.getTarget())});
+				}
+			}
+			edges.put(diagram, resolved);
+		}
+		return resolved;
+	}
+
+	/**
+	 * Walks the edges of the diagram once, filing each connection under
+	 * every shape compartment enclosing one of its ends.
+	 */
+	private Map<EditPart, Set<EditPart>> buildIndex(Diagram diagram) {
+		Map<EditPart, Set<EditPart>> index = new HashMap<EditPart, Set<EditPart>>();
+		List<EditPart[]> resolved = getEdges(diagram);
+		for (int i = 0; i < resolved.size(); i++) {
+			EditPart[] edge = resolved.get(i);
+			file(index, edge[1], edge[0]);
+			file(index, edge[2], edge[0]);
+		}
+		return index;
+	}
+
+	private static void file(Map<EditPart, Set<EditPart>> index, EditPart end,
+			EditPart connection) {
+		for (EditPart walker = end; walker != null; walker = walker
+			.getParent()) {
+			if (walker instanceof ShapeCompartmentEditPart) {
+				Set<EditPart> connections = index.get(walker);
+				if (connections == null) {
+					connections = new HashSet<EditPart>();
+					index.put(walker, connections);
+				}
+				connections.add(connection);
+			}
+		}
+	}
+}
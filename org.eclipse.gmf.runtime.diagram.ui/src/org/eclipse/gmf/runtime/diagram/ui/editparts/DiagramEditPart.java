@@ -64,6 +64,18 @@ import org.eclipse.swt.widgets.Scrollable;
 public class DiagramEditPart
 	extends GraphicalEditPart
 	implements LayerConstants, ISurfaceEditPart {
+
+	/**
+	 * Viewer property that, when set to {@link Boolean#TRUE} before the
+	 * contents of the viewer are set, makes the diagram and its shape
+	 * compartments create the edit parts of their children only as they
+	 * come into view when they have a large number of children. Edit parts
+	 * that were left out can be created with {@link #materialize(View)} and
+	 * {@link #materializeAll()}. The freeform extent of the diagram, and thus
+	 * its scroll bars, still covers the children that were left out.
+	 */
+	public static final String VIRTUALIZE_CHILDREN = "org.eclipse.gmf.runtime.diagram.ui.virtualizeChildren"; //$NON-NLS-1$
+
 	private boolean shouldUpdatePageBreakLocation = false;
 	private boolean isSupportingViewActions = true;
     private boolean isActivatingDiagram = false;
@@ -235,7 +247,12 @@ public class DiagramEditPart
 		return connections;
 	}
 
-	/* (non-Javadoc)
+	/**
+	 * Returns the primary edit parts of the diagram. When the viewer
+	 * virtualizes its edit parts, only the edit parts created so far are
+	 * returned; clients that need the whole diagram call
+	 * {@link #materializeAll()} first.
+	 * 
 	 * @see org.eclipse.gmf.runtime.diagram.ui.internal.editparts.ISurfaceEditPart#getPrimaryEditParts()
 	 */
 	public List getPrimaryEditParts() {
@@ -351,5 +368,85 @@ public class DiagramEditPart
 	    }finally{
         	isActivatingDiagram = false;
         }
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        if (virtualizer != null) {
+            virtualizer.flush();
+        }
+    }
+
+    public void addNotify() {
+        ViewportVirtualizer.install(getViewer());
+        super.addNotify();
+    }
+
+    public void removeNotify() {
+        super.removeNotify();
+        ViewportVirtualizer.uninstall(getViewer());
+    }
+
+    /**
+     * Leaves out the children far from the visible part of the viewer when
+     * the viewer virtualizes its edit parts.
+     * 
+     * @see #VIRTUALIZE_CHILDREN
+     */
+    protected List getModelChildren() {
+        List children = super.getModelChildren();
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        return virtualizer != null ? virtualizer.filterChildren(this, children) : children;
+    }
+
+    /**
+     * Finds the edit part of a view, creating it and the edit parts of its
+     * containers if they were left out because they were not in view.
+     * 
+     * @param view
+     *            a view of this diagram
+     * @return the edit part of the view, or <code>null</code> if the view is
+     *         not shown
+     * @see #VIRTUALIZE_CHILDREN
+     */
+    public EditPart materialize(View view) {
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        Object editPart = virtualizer != null ? virtualizer.materialize(view)
+            : getViewer().getEditPartRegistry().get(view);
+        return editPart instanceof EditPart ? (EditPart) editPart : null;
+    }
+
+    /**
+     * Creates the edit parts of all of the views that were left out because
+     * they were not in view. Does nothing if the viewer does not virtualize
+     * its edit parts.
+     * <p>
+     * Virtualization resumes the next time the viewer is scrolled or
+     * resized: the edit parts created here that are then out of view and not
+     * selected are discarded. Clients that need the whole diagram, such as
+     * image export, call this each time before they walk the diagram.
+     * 
+     * @see #VIRTUALIZE_CHILDREN
+     */
+    public void materializeAll() {
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        if (virtualizer != null) {
+            virtualizer.materializeAll();
+        }
+    }
+
+    /**
+     * Creates the edit parts of the views of a semantic element that were
+     * left out because they were not in view, and the edit parts of their
+     * containers. Does nothing if the viewer does not virtualize its edit
+     * parts.
+     * 
+     * @param elementIdStr
+     *            the proxy ID of the semantic element, as passed to
+     *            {@link org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramGraphicalViewer#findEditPartsForElement(String, Class)}
+     * @see #VIRTUALIZE_CHILDREN
+     */
+    public void materializeElement(String elementIdStr) {
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        if (virtualizer != null) {
+            virtualizer.materializeElement(elementIdStr);
+        }
     }
 }
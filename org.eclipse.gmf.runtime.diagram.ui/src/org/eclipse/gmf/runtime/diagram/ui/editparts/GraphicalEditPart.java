@@ -702,6 +702,14 @@ public abstract class GraphicalEditPart
         }
         return Collections.EMPTY_LIST;
     }
+
+    /**
+     * Refreshes my children after the viewport virtualizer let more of my
+     * model children in, or left out some that it had let in.
+     */
+    void refreshVirtualizedChildren() {
+        refreshChildren();
+    }
     
     /**
      * Convenience method to retreive the value for the supplied value from the
@@ -16,9 +16,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.emf.common.notify.Notification;
@@ -56,6 +59,9 @@ public abstract class ListCompartmentEditPart
 	/** State of listening */
 	protected boolean listening;
 
+	/** the model children by semantic element, while the model children are computed */
+	private Map modelChildrenByElement;
+
 	/**
 	 * @param view The IResizableCompartmentView compartment view
 	 */
@@ -98,9 +104,30 @@ public abstract class ListCompartmentEditPart
 	 * @see org.eclipse.gef.editparts.AbstractEditPart#getModelChildren()
 	 */
 	protected List getModelChildren() {
-		List sortedFilteredChildren = new ArrayList(getSortedChildren());
-		sortedFilteredChildren.removeAll(getFilteredChildren());
-		return sortedFilteredChildren;
+		boolean indexing = modelChildrenByElement == null;
+		if (indexing) {
+			modelChildrenByElement = new HashMap();
+		}
+		try {
+			List sortedChildren = getSortedChildren();
+			List filteredChildren = getFilteredChildren();
+			if (filteredChildren.isEmpty()) {
+				return new ArrayList(sortedChildren);
+			}
+			Set filtered = new HashSet(filteredChildren);
+			List sortedFilteredChildren = new ArrayList(sortedChildren.size());
+			for (int i = 0; i < sortedChildren.size(); i++) {
+				Object child = sortedChildren.get(i);
+				if (!filtered.contains(child)) {
+					sortedFilteredChildren.add(child);
+				}
+			}
+			return sortedFilteredChildren;
+		} finally {
+			if (indexing) {
+				modelChildrenByElement = null;
+			}
+		}
 	}
 	
 	/**
@@ -185,20 +212,21 @@ public abstract class ListCompartmentEditPart
 					: Collections.EMPTY_LIST;
 	
 				List sorted = new ArrayList();
+				Set sortedSet = new HashSet();
 				
 				// Get the corresponding views...
 				Iterator i = sortedChildren.iterator();
 				while(i.hasNext()) {
 					EObject eObject = (EObject) i.next();
 					View view = getModelChildByID(eObject);
-					if (view != null)
+					if (view != null && sortedSet.add(view))
 						sorted.add(view);
 				}	
 				
 				// Add any remaining model children to the end
 				for (int j = 0; j < allChildren.size(); j++) {
 					View view = (View) allChildren.get(j);
-					if (!sorted.contains(view))
+					if (sortedSet.add(view))
 						sorted.add(view);
 				}
 				
@@ -322,6 +350,20 @@ public abstract class ListCompartmentEditPart
 	 * @return the view or null if not found
 	 */
 	protected View getModelChildByID(EObject eObject) {
+        if (modelChildrenByElement != null) {
+            // the model children are being computed: look the view up in
+            // an index built once for all the lookups
+            if (modelChildrenByElement.isEmpty()) {
+                List modelChildren = super.getModelChildren();
+                for (int i = modelChildren.size() - 1; i >= 0; i--) {
+                    View view = (View) modelChildren.get(i);
+                    EObject e = ViewUtil.resolveSemanticElement(view);
+                    if (e != null)
+                        modelChildrenByElement.put(e, view);
+                }
+            }
+            return (View) modelChildrenByElement.get(eObject);
+        }
         List modelChildren = super.getModelChildren();
         for (int i = 0; i < modelChildren.size(); i++) {
             View view = (View) modelChildren.get(i);
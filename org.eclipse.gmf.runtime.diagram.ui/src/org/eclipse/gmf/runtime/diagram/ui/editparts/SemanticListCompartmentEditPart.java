@@ -17,9 +17,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
@@ -322,19 +324,21 @@ abstract public class SemanticListCompartmentEditPart
 					: Collections.EMPTY_LIST;
 	
 				List sorted = new ArrayList();
+				Set children = new HashSet(allChildren);
+				Set sortedSet = new HashSet();
 				
 				// Get the corresponding views...
 				Iterator i = sortedChildren.iterator();
 				while(i.hasNext()) {
 					EObject eObject = (EObject) i.next();
-					if (allChildren.contains(eObject))
+					if (children.contains(eObject) && sortedSet.add(eObject))
 						sorted.add(eObject);
 				}	
 				
 				// Add any remaining model children to the end
 				for (int j = 0; j < allChildren.size(); j++) {
 					EObject element = (EObject) allChildren.get(j);
-					if (!sorted.contains(element))
+					if (sortedSet.add(element))
 						sorted.add(element);
 				}
 				
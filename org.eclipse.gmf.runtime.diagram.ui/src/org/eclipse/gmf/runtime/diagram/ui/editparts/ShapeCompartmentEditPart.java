@@ -79,6 +79,9 @@ public abstract class ShapeCompartmentEditPart
 	/** private connection refresh manager. */
 	private ConnectionRefreshMgr _crMgr;
 
+	/** The stateless connection refresh manager of the shape compartments. */
+	private static final ConnectionRefreshMgr DEFAULT_CONNECTION_REFRESH_MGR = new ConnectionRefreshMgr();
+
 	private boolean _refreshQueued = false;
 
 	private boolean isSupportingViewActions = false;
@@ -125,10 +128,18 @@ public abstract class ShapeCompartmentEditPart
 		 *            edit part to consider
 		 */
 		protected void refreshConnections(ShapeCompartmentEditPart scep) {
+			ConnectionRefreshBatch batch = ConnectionRefreshBatch
+				.getFlushing(scep.getViewer());
+			IFigure stopFigure = null;
+			boolean stopFigureFound = false;
 			Iterator connectionNodes = getConnectionNodes(scep).iterator();
 			while (connectionNodes.hasNext()) {
 				ConnectionNodeEditPart cep = (ConnectionNodeEditPart) connectionNodes
 					.next();
+				if (batch != null && !batch.markRefreshed(this, cep)) {
+					// already tested for another compartment of the batch
+					continue;
+				}
 				Connection connection = (Connection) cep.getFigure();
 				View connectionView = cep.getNotationView();
 				if (connectionView != null && !connectionView.isVisible()) {
@@ -180,12 +191,15 @@ public abstract class ShapeCompartmentEditPart
                 Point sLoc = sc.getLocation(sRefPoint);
                 Point tLoc = tc.getLocation(tRefPoint);
                
-				Diagram diagram = ((View) scep.getModel()).getDiagram();
-				Map registry = scep.getViewer().getEditPartRegistry();
-				IGraphicalEditPart dep = (IGraphicalEditPart) registry
-					.get(diagram);
-				IFigure stopFigure = dep == null ? null
-					: dep.getContentPane();
+				if (!stopFigureFound) {
+					Diagram diagram = ((View) scep.getModel()).getDiagram();
+					Map registry = scep.getViewer().getEditPartRegistry();
+					IGraphicalEditPart dep = (IGraphicalEditPart) registry
+						.get(diagram);
+					stopFigure = dep == null ? null
+						: dep.getContentPane();
+					stopFigureFound = true;
+				}
                 boolean noSource = false;
                 boolean noTarget = false;
 
@@ -274,6 +288,11 @@ public abstract class ShapeCompartmentEditPart
 				return endPoints;
 
 			Diagram diagram = ((View) modelObject).getDiagram();
+			ConnectionRefreshBatch batch = ConnectionRefreshBatch
+				.getFlushing(scep.getViewer());
+			if (batch != null) {
+				return batch.getConnectionNodes(scep, diagram, this);
+			}
 			Map registry = scep.getViewer().getEditPartRegistry();
 			List edges = diagram.getEdges();
 			Iterator edgesIterator = edges.iterator();
@@ -465,12 +484,14 @@ public abstract class ShapeCompartmentEditPart
 
 	/**
 	 * Factory method to create a refresh connection. This implementation
-	 * returns a {@link ShapeCompartmentEditPart.ConnectionRefreshMgr} instance.
+	 * returns a {@link ShapeCompartmentEditPart.ConnectionRefreshMgr} instance
+	 * shared by the shape compartments, so that a connection refreshed for one
+	 * of them is not tested again for another in the same batch.
 	 * 
 	 * @return <code>ConnectionRefreshMgr</code>
 	 */
 	protected ConnectionRefreshMgr createConnectionRefreshMgr() {
-		return new ConnectionRefreshMgr();
+		return DEFAULT_CONNECTION_REFRESH_MGR;
 	}
 
 	/**
@@ -559,12 +580,32 @@ public abstract class ShapeCompartmentEditPart
 	 */
 	protected void handlePropertyChangeEvent(PropertyChangeEvent event) {
 		String pName = event.getPropertyName();
+		if (RangeModel.PROPERTY_VALUE.equals(pName)
+			&& isViewerRangeModel(event.getSource())) {
+			// scrolling the viewer moves everything alike, which does not
+			// change what the shape compartments clip
+			return;
+		}
 		if (RangeModel.PROPERTY_EXTENT.equals(pName)
 			|| RangeModel.PROPERTY_VALUE.equals(pName)) {
 			refreshConnections();
 		}
 	}
 
+	/**
+	 * Answers whether the source of a property change event is a range model
+	 * of the viewer's canvas, as opposed to one of this compartment.
+	 */
+	private boolean isViewerRangeModel(Object source) {
+		EditPartViewer viewer = getViewer();
+		if (viewer == null || !(viewer.getControl() instanceof FigureCanvas)) {
+			return false;
+		}
+		FigureCanvas figureCanvas = (FigureCanvas) viewer.getControl();
+		return source == figureCanvas.getViewport().getVerticalRangeModel()
+			|| source == figureCanvas.getViewport().getHorizontalRangeModel();
+	}
+
 	/**
 	 * Refreshes the connections inside the shape compartment if the supplied
 	 * event is for an element inserted or removed from the editpart.
@@ -589,16 +630,20 @@ public abstract class ShapeCompartmentEditPart
 
 	/**
 	 * Refresh the connections associated the the children of this shape
-	 * compartment.
+	 * compartment. The refresh happens at the next display tick, together
+	 * with the refreshes requested by the other shape compartments of the
+	 * viewer in the meantime.
 	 */
 	protected void refreshConnections() {
 		if (!_refreshQueued) {
 			_refreshQueued = true;
-			DisplayUtils.getDisplay().asyncExec(new Runnable() {
-				public void run() {
-					forceRefreshConnections();
-				}
-			});
+			if (!ConnectionRefreshBatch.schedule(this)) {
+				DisplayUtils.getDisplay().asyncExec(new Runnable() {
+					public void run() {
+						forceRefreshConnections();
+					}
+				});
+			}
 		}
 	}
     
@@ -786,9 +831,25 @@ public abstract class ShapeCompartmentEditPart
 
     public void removeNotify() {
         removeEditPartListener(editpartListener);
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        if (virtualizer != null) {
+            virtualizer.removeContainer(this);
+        }
         super.removeNotify();
     }
 
+    /**
+     * Leaves out the children far from the visible part of the viewer when
+     * the viewer virtualizes its edit parts.
+     * 
+     * @see DiagramEditPart#VIRTUALIZE_CHILDREN
+     */
+    protected List getModelChildren() {
+        List children = super.getModelChildren();
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        return virtualizer != null ? virtualizer.filterChildren(this, children) : children;
+    }
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.gmf.runtime.diagram.ui.editparts.ResizableCompartmentEditPart#setCollapsed(boolean, boolean)
 	 */
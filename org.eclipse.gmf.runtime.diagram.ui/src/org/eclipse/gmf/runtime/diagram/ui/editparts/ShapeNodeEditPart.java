@@ -62,11 +62,32 @@ public abstract class ShapeNodeEditPart
 	}
 
 	protected List getModelSourceConnections() {
-        return ViewUtil.getSourceConnectionsConnectingVisibleViews((View)getModel());
+        List connections = ViewUtil.getSourceConnectionsConnectingVisibleViews((View)getModel());
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        return virtualizer != null ? virtualizer.filterConnections(connections, true) : connections;
 	}
 
 	protected List getModelTargetConnections() {
-        return ViewUtil.getTargetConnectionsConnectingVisibleViews((View)getModel());
+        List connections = ViewUtil.getTargetConnectionsConnectingVisibleViews((View)getModel());
+        ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+        return virtualizer != null ? virtualizer.filterConnections(connections, false) : connections;
+	}
+
+	public void addNotify() {
+		super.addNotify();
+		ViewportVirtualizer virtualizer = ViewportVirtualizer.get(getViewer());
+		if (virtualizer != null) {
+			virtualizer.nodeAdded(this);
+		}
+	}
+
+	/**
+	 * Creates the connections that the viewport virtualizer left out while
+	 * the edit part of their opposite end did not exist.
+	 */
+	void refreshVirtualizedConnections() {
+		refreshSourceConnections();
+		refreshTargetConnections();
 	}
 
 	protected void createDefaultEditPolicies() {
@@ -0,0 +1,739 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.editparts;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.RangeModel;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gef.RootEditPart;
+import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.gmf.runtime.emf.core.util.EMFCoreUtil;
+import org.eclipse.gmf.runtime.notation.Bounds;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.Edge;
+import org.eclipse.gmf.runtime.notation.LayoutConstraint;
+import org.eclipse.gmf.runtime.notation.Location;
+import org.eclipse.gmf.runtime.notation.Node;
+import org.eclipse.gmf.runtime.notation.View;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Creates the edit parts of the children of large diagrams and shape
+ * compartments only when they come into view. Installed on a viewer whose
+ * {@link DiagramEditPart#VIRTUALIZE_CHILDREN} property is set.
+ * <p>
+ * A container with at least {@link #THRESHOLD} visible children only gets
+ * edit parts for the children whose bounds are near the visible part of the
+ * viewer; the others are created as the viewer is scrolled or resized, or
+ * when they are explicitly requested through {@link #materialize(View)}.
+ * Connections are only created once the edit parts of both of their ends
+ * exist.
+ * <p>
+ * The content pane of a virtualized container holds a placeholder figure,
+ * last among its children, that covers the bounds of the children that were
+ * left out. Its freeform extent, and thus the scroll bars of the viewer,
+ * therefore span the whole diagram, so that the children far from view can
+ * be scrolled to. The placeholder is neither painted nor hit.
+ * <p>
+ * Edit parts created as the viewer is scrolled or explicitly requested are
+ * kept. Those created by {@link #materializeAll()} for clients that need the
+ * whole diagram, such as image export or select all, are only kept until
+ * the viewer is next scrolled or resized: virtualization then resumes and
+ * the edit parts that are out of view and not selected are discarded.
+ * <p>
+ * The virtualizer is only accessed from the UI thread.
+ */
+final class ViewportVirtualizer
+	implements PropertyChangeListener, Runnable {
+
+	/**
+	 * The number of visible children from which a container is virtualized.
+	 */
+	static final int THRESHOLD = 500;
+
+	private static final String KEY = ViewportVirtualizer.class.getName();
+
+	private final EditPartViewer viewer;
+
+	/**
+	 * The containers that left out some of their children.
+	 */
+	private final Set<GraphicalEditPart> containers = new LinkedHashSet<GraphicalEditPart>();
+
+	/**
+	 * The views whose edit parts were created while virtualizing.
+	 */
+	private final Set<View> kept = Collections
+		.newSetFromMap(new WeakHashMap<View, Boolean>());
+
+	/**
+	 * The placeholders covering the children left out of each container.
+	 */
+	private final Map<GraphicalEditPart, IFigure> placeholders = new HashMap<GraphicalEditPart, IFigure>();
+
+	/**
+	 * The views that were explicitly requested.
+	 */
+	private final Set<View> forced = Collections
+		.newSetFromMap(new WeakHashMap<View, Boolean>());
+
+	/**
+	 * The node edit parts whose connections have not been refreshed since
+	 * they were created.
+	 */
+	private final Set<ShapeNodeEditPart> pending = new LinkedHashSet<ShapeNodeEditPart>();
+
+	private final Map<RangeModel, Object> rangeModels = new IdentityHashMap<RangeModel, Object>();
+
+	/**
+	 * The views without edit parts by the proxy ID of their element, built
+	 * when an element is looked up and discarded when the children of a
+	 * container are filtered again.
+	 */
+	private Map<String, List<View>> elementIndex;
+
+	private boolean materializingElement;
+
+	private boolean allMaterialized;
+
+	/**
+	 * Whether the viewer was scrolled or resized since all of the children
+	 * were materialized.
+	 */
+	private boolean resumeRequested;
+
+	private boolean refreshPosted;
+
+	private boolean flushPosted;
+
+	private boolean disposed;
+
+	private final Runnable flushRunnable = new Runnable() {
+
+		public void run() {
+			flushPosted = false;
+			flush();
+		}
+	};
+
+	private ViewportVirtualizer(EditPartViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Installs a virtualizer on the viewer if its
+	 * {@link DiagramEditPart#VIRTUALIZE_CHILDREN} property is set.
+	 */
+	static void install(EditPartViewer viewer) {
+		if (viewer != null
+			&& Boolean.TRUE.equals(viewer
+				.getProperty(DiagramEditPart.VIRTUALIZE_CHILDREN))
+			&& get(viewer) == null) {
+			viewer.setProperty(KEY, new ViewportVirtualizer(viewer));
+		}
+	}
+
+	/**
+	 * Removes the virtualizer of the viewer, if any.
+	 */
+	static void uninstall(EditPartViewer viewer) {
+		ViewportVirtualizer virtualizer = get(viewer);
+		if (virtualizer != null) {
+			viewer.setProperty(KEY, null);
+			virtualizer.dispose();
+		}
+	}
+
+	/**
+	 * @return the virtualizer of the viewer, or <code>null</code> if the
+	 *         viewer creates all of its edit parts up front
+	 */
+	static ViewportVirtualizer get(EditPartViewer viewer) {
+		return viewer != null ? (ViewportVirtualizer) viewer.getProperty(KEY)
+			: null;
+	}
+
+	/**
+	 * Filters the model children of a container, keeping those near the
+	 * visible part of the viewer.
+	 *
+	 * @param container
+	 *            the diagram or shape compartment
+	 * @param children
+	 *            all of its visible model children
+	 * @return the model children to create edit parts for
+	 */
+	List filterChildren(GraphicalEditPart container, List children) {
+		if (disposed || children.size() < THRESHOLD) {
+			removeContainer(container);
+			return children;
+		}
+		Rectangle region = getVisibleRegion(container);
+		if (region == null) {
+			return children;
+		}
+		Map registry = viewer.getEditPartRegistry();
+		if (containers.add(container)) {
+			// the edit parts created before the container grew are kept
+			for (Iterator i = children.iterator(); i.hasNext();) {
+				Object child = i.next();
+				if (registry.containsKey(child)) {
+					kept.add((View) child);
+				}
+			}
+		}
+		listenToViewports(container.getContentPane());
+		elementIndex = null;
+		if (allMaterialized) {
+			updatePlaceholder(container, null);
+			return children;
+		}
+
+		List result = new ArrayList(children.size());
+		Rectangle leftOut = null;
+		for (Iterator i = children.iterator(); i.hasNext();) {
+			Object child = i.next();
+			if (kept.contains(child) || forced.contains(child)) {
+				result.add(child);
+			} else if (isNear(child, region)) {
+				kept.add((View) child);
+				result.add(child);
+			} else if (isSelected(registry.get(child))) {
+				result.add(child);
+			} else {
+				Object editPart = registry.get(child);
+				if (editPart != null) {
+					// discarded; the connections to it go away with it
+					addNeighbours((View) child, registry);
+				}
+				Rectangle bounds = getBounds(child);
+				if (bounds != null) {
+					leftOut = leftOut == null ? bounds : leftOut.union(bounds);
+				}
+			}
+		}
+		updatePlaceholder(container, leftOut);
+		if (!pending.isEmpty()) {
+			postFlush();
+		}
+		return result;
+	}
+
+	/**
+	 * Forgets a container whose edit part is going away.
+	 */
+	void removeContainer(GraphicalEditPart container) {
+		containers.remove(container);
+		updatePlaceholder(container, null);
+	}
+
+	private static boolean isSelected(Object editPart) {
+		return editPart instanceof EditPart
+			&& ((EditPart) editPart).getSelected() != EditPart.SELECTED_NONE;
+	}
+
+	/**
+	 * Records the nodes connected to a view, or to the views nested in it,
+	 * so that their connections are refreshed once its edit part is gone.
+	 */
+	private void addNeighbours(View view, Map registry) {
+		for (Iterator i = view.getSourceEdges().iterator(); i.hasNext();) {
+			addNode(pending, registry.get(((Edge) i.next()).getTarget()));
+		}
+		for (Iterator i = view.getTargetEdges().iterator(); i.hasNext();) {
+			addNode(pending, registry.get(((Edge) i.next()).getSource()));
+		}
+		for (Iterator i = view.getChildren().iterator(); i.hasNext();) {
+			Object child = i.next();
+			if (child instanceof View) {
+				addNeighbours((View) child, registry);
+			}
+		}
+	}
+
+	/**
+	 * Sets the bounds of the placeholder of a container, adding it to the
+	 * content pane after the figures of the children or removing it.
+	 *
+	 * @param container
+	 *            the container
+	 * @param bounds
+	 *            the bounds of the children left out, or <code>null</code>
+	 *            if none was left out
+	 */
+	private void updatePlaceholder(GraphicalEditPart container,
+			Rectangle bounds) {
+		IFigure placeholder = placeholders.get(container);
+		if (bounds == null) {
+			if (placeholder != null) {
+				placeholders.remove(container);
+				if (placeholder.getParent() != null) {
+					placeholder.getParent().remove(placeholder);
+				}
+			}
+			return;
+		}
+		if (placeholder == null) {
+			placeholder = new Placeholder();
+			placeholders.put(container, placeholder);
+		}
+		IFigure contentPane = container.getContentPane();
+		List figures = contentPane.getChildren();
+		if (figures.isEmpty() || figures.get(figures.size() - 1) != placeholder) {
+			if (placeholder.getParent() != null) {
+				placeholder.getParent().remove(placeholder);
+			}
+			contentPane.add(placeholder);
+		}
+		placeholder.setBounds(bounds);
+	}
+
+	/**
+	 * Filters the connections of a node, keeping those whose opposite end
+	 * already has an edit part.
+	 *
+	 * @param edges
+	 *            the visible edges of the node
+	 * @param source
+	 *            <code>true</code> for the source connections,
+	 *            <code>false</code> for the target connections
+	 * @return the edges to create connection edit parts for
+	 */
+	List filterConnections(List edges, boolean source) {
+		if (edges.isEmpty()) {
+			return edges;
+		}
+		Map registry = viewer.getEditPartRegistry();
+		List result = new ArrayList(edges.size());
+		for (Iterator i = edges.iterator(); i.hasNext();) {
+			Edge edge = (Edge) i.next();
+			if (registry.get(source ? edge.getTarget()
+				: edge.getSource()) != null) {
+				result.add(edge);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Records a new node edit part whose connections need to be created once
+	 * the edit parts around it exist.
+	 */
+	void nodeAdded(ShapeNodeEditPart node) {
+		pending.add(node);
+		postFlush();
+	}
+
+	private void postFlush() {
+		if (!flushPosted) {
+			Display display = DisplayUtils.getDisplay();
+			if (display != null && !display.isDisposed()) {
+				flushPosted = true;
+				display.asyncExec(flushRunnable);
+			}
+		}
+	}
+
+	/**
+	 * Creates the connections of the nodes added since the last flush, now
+	 * that the edit parts of their opposite ends may exist.
+	 */
+	void flush() {
+		if (disposed || pending.isEmpty()) {
+			return;
+		}
+		Map registry = viewer.getEditPartRegistry();
+		Set<ShapeNodeEditPart> nodes = new LinkedHashSet<ShapeNodeEditPart>();
+		for (Iterator<ShapeNodeEditPart> i = pending.iterator(); i.hasNext();) {
+			ShapeNodeEditPart node = i.next();
+			if (!node.isActive()) {
+				continue;
+			}
+			nodes.add(node);
+			View view = node.getNotationView();
+			if (view == null) {
+				continue;
+			}
+			for (Iterator j = view.getSourceEdges().iterator(); j.hasNext();) {
+				addNode(nodes, registry.get(((Edge) j.next()).getTarget()));
+			}
+			for (Iterator j = view.getTargetEdges().iterator(); j.hasNext();) {
+				addNode(nodes, registry.get(((Edge) j.next()).getSource()));
+			}
+		}
+		pending.clear();
+
+		for (Iterator<ShapeNodeEditPart> i = nodes.iterator(); i.hasNext();) {
+			i.next().refreshVirtualizedConnections();
+		}
+	}
+
+	private static void addNode(Set<ShapeNodeEditPart> nodes, Object editPart) {
+		if (editPart instanceof ShapeNodeEditPart
+			&& ((ShapeNodeEditPart) editPart).isActive()) {
+			nodes.add((ShapeNodeEditPart) editPart);
+		}
+	}
+
+	/**
+	 * Creates the edit part of a view and of its containers if they were
+	 * left out.
+	 *
+	 * @param view
+	 *            the view
+	 * @return the edit part of the view, or <code>null</code> if the viewer
+	 *         does not show it
+	 */
+	Object materialize(View view) {
+		Map registry = viewer.getEditPartRegistry();
+		List<View> missing = new ArrayList<View>();
+		EObject next = view;
+		while (next instanceof View && !registry.containsKey(next)) {
+			missing.add(0, (View) next);
+			next = next.eContainer();
+		}
+		if (missing.isEmpty()) {
+			return registry.get(view);
+		}
+		forced.addAll(missing);
+
+		for (Iterator<View> i = missing.iterator(); i.hasNext();) {
+			Object parent = registry.get(i.next().eContainer());
+			if (parent instanceof GraphicalEditPart) {
+				((GraphicalEditPart) parent).refreshVirtualizedChildren();
+			}
+		}
+		flush();
+		return registry.get(view);
+	}
+
+	/**
+	 * Creates the edit parts of the views of a semantic element that were
+	 * left out, and of their containers. The connections of the element are
+	 * created by creating the edit parts of both of their ends.
+	 *
+	 * @param elementIdStr
+	 *            the proxy ID of the element
+	 */
+	void materializeElement(String elementIdStr) {
+		if (disposed || allMaterialized || materializingElement
+			|| elementIdStr == null || containers.isEmpty()) {
+			return;
+		}
+		if (elementIndex == null) {
+			elementIndex = buildElementIndex();
+		}
+		List<View> views = elementIndex.get(elementIdStr);
+		if (views == null) {
+			return;
+		}
+		materializingElement = true;
+		try {
+			Map registry = viewer.getEditPartRegistry();
+			for (Iterator<View> i = new ArrayList<View>(views).iterator(); i
+				.hasNext();) {
+				View view = i.next();
+				if (registry.containsKey(view)) {
+					continue;
+				}
+				if (view instanceof Edge) {
+					materializeEnd(((Edge) view).getSource());
+					materializeEnd(((Edge) view).getTarget());
+					flush();
+				} else {
+					materialize(view);
+				}
+			}
+		} finally {
+			materializingElement = false;
+		}
+	}
+
+	private void materializeEnd(View end) {
+		if (end instanceof Edge) {
+			// a connection to a connection; its own ends are not followed
+			return;
+		}
+		if (end != null) {
+			materialize(end);
+		}
+	}
+
+	/**
+	 * Indexes the views left out of the virtualized containers, with the
+	 * views nested in them, and the edges of the diagram without edit parts.
+	 */
+	private Map<String, List<View>> buildElementIndex() {
+		Map<String, List<View>> index = new HashMap<String, List<View>>();
+		Map registry = viewer.getEditPartRegistry();
+		for (Iterator<GraphicalEditPart> i = containers.iterator(); i.hasNext();) {
+			View container = i.next().getNotationView();
+			if (container == null) {
+				continue;
+			}
+			for (Iterator j = container.getChildren().iterator(); j.hasNext();) {
+				Object child = j.next();
+				if (child instanceof View && !registry.containsKey(child)) {
+					indexViews((View) child, index);
+				}
+			}
+		}
+		Object contents = viewer.getContents() != null ? viewer.getContents()
+			.getModel() : null;
+		if (contents instanceof Diagram) {
+			for (Iterator i = ((Diagram) contents).getEdges().iterator(); i
+				.hasNext();) {
+				Edge edge = (Edge) i.next();
+				if (!registry.containsKey(edge)) {
+					indexView(edge, index);
+				}
+			}
+		}
+		return index;
+	}
+
+	private static void indexViews(View view, Map<String, List<View>> index) {
+		if (!view.isVisible()) {
+			return;
+		}
+		indexView(view, index);
+		for (Iterator i = view.getChildren().iterator(); i.hasNext();) {
+			Object child = i.next();
+			if (child instanceof View) {
+				indexViews((View) child, index);
+			}
+		}
+	}
+
+	private static void indexView(View view, Map<String, List<View>> index) {
+		EObject element = view.getElement();
+		if (element == null) {
+			return;
+		}
+		String id = EMFCoreUtil.getProxyID(element);
+		List<View> views = index.get(id);
+		if (views == null) {
+			views = new ArrayList<View>(1);
+			index.put(id, views);
+		}
+		views.add(view);
+	}
+
+	/**
+	 * Creates the edit parts of all of the children that were left out and
+	 * stops virtualizing until the viewer is next scrolled or resized.
+	 */
+	void materializeAll() {
+		resumeRequested = false;
+		if (allMaterialized) {
+			return;
+		}
+		allMaterialized = true;
+		elementIndex = null;
+
+		// refreshing a container may create nested virtualized containers
+		Set<GraphicalEditPart> refreshed = new LinkedHashSet<GraphicalEditPart>();
+		while (!refreshed.containsAll(containers)) {
+			List<GraphicalEditPart> batch = new ArrayList<GraphicalEditPart>(
+				containers);
+			batch.removeAll(refreshed);
+			refreshed.addAll(batch);
+			for (Iterator<GraphicalEditPart> i = batch.iterator(); i.hasNext();) {
+				GraphicalEditPart container = i.next();
+				if (container.isActive()) {
+					container.refreshVirtualizedChildren();
+				}
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * The viewer was scrolled or resized, or the extent of its contents
+	 * changed.
+	 */
+	public void propertyChange(PropertyChangeEvent evt) {
+		String property = evt.getPropertyName();
+		if (allMaterialized
+			&& (RangeModel.PROPERTY_VALUE.equals(property) || RangeModel.PROPERTY_EXTENT
+				.equals(property))) {
+			resumeRequested = true;
+		}
+		if (refreshPosted || disposed || containers.isEmpty()) {
+			return;
+		}
+		Display display = DisplayUtils.getDisplay();
+		if (display != null && !display.isDisposed()) {
+			refreshPosted = true;
+			display.asyncExec(this);
+		}
+	}
+
+	/**
+	 * Brings the children that came into view into the virtualized
+	 * containers, and resumes virtualizing if the viewer was scrolled or
+	 * resized after all of the children were materialized.
+	 */
+	public void run() {
+		refreshPosted = false;
+		Control control = viewer.getControl();
+		if (disposed || control == null || control.isDisposed()) {
+			return;
+		}
+		if (allMaterialized) {
+			if (!resumeRequested) {
+				return;
+			}
+			allMaterialized = false;
+			resumeRequested = false;
+		}
+		List<GraphicalEditPart> batch = new ArrayList<GraphicalEditPart>(
+			containers);
+		for (Iterator<GraphicalEditPart> i = batch.iterator(); i.hasNext();) {
+			GraphicalEditPart container = i.next();
+			if (container.isActive()) {
+				container.refreshVirtualizedChildren();
+			}
+		}
+		flush();
+	}
+
+	private void dispose() {
+		disposed = true;
+		removeViewportListeners();
+		for (Iterator<GraphicalEditPart> i = new ArrayList<GraphicalEditPart>(
+			placeholders.keySet()).iterator(); i.hasNext();) {
+			updatePlaceholder(i.next(), null);
+		}
+		containers.clear();
+		kept.clear();
+		pending.clear();
+		forced.clear();
+		elementIndex = null;
+	}
+
+	/**
+	 * Computes the region of a container's content pane that is visible in
+	 * the viewer, extended by half a screen on each side.
+	 */
+	private Rectangle getVisibleRegion(GraphicalEditPart container) {
+		RootEditPart root = viewer.getRootEditPart();
+		if (!(root instanceof org.eclipse.gef.GraphicalEditPart)) {
+			return null;
+		}
+		IFigure viewport = ((org.eclipse.gef.GraphicalEditPart) root)
+			.getFigure();
+		if (!(viewport instanceof Viewport)) {
+			return null;
+		}
+		Rectangle region = viewport.getBounds().getCopy();
+		viewport.translateToAbsolute(region);
+		container.getContentPane().translateToRelative(region);
+		return region.expand(region.width / 2, region.height / 2);
+	}
+
+	private static boolean isNear(Object child, Rectangle region) {
+		Rectangle bounds = getBounds(child);
+		// no position to go by
+		return bounds == null || region.intersects(bounds);
+	}
+
+	/**
+	 * @return the bounds of a node as recorded in its layout constraint, at
+	 *         least one pixel wide and high, or <code>null</code> if the
+	 *         child has no position
+	 */
+	private static Rectangle getBounds(Object child) {
+		if (!(child instanceof Node)) {
+			return null;
+		}
+		LayoutConstraint constraint = ((Node) child).getLayoutConstraint();
+		if (constraint instanceof Bounds) {
+			Bounds bounds = (Bounds) constraint;
+			return new Rectangle(bounds.getX(), bounds.getY(), Math.max(
+				bounds.getWidth(), 1), Math.max(bounds.getHeight(), 1));
+		}
+		if (constraint instanceof Location) {
+			Location location = (Location) constraint;
+			return new Rectangle(location.getX(), location.getY(), 1, 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Listens to the scroll bars of the viewer and of any scrolling figure
+	 * around the content pane.
+	 */
+	private void listenToViewports(IFigure contentPane) {
+		for (IFigure figure = contentPane; figure != null; figure = figure
+			.getParent()) {
+			if (figure instanceof Viewport) {
+				Viewport viewport = (Viewport) figure;
+				listenTo(viewport.getHorizontalRangeModel());
+				listenTo(viewport.getVerticalRangeModel());
+			}
+		}
+	}
+
+	private void listenTo(RangeModel model) {
+		if (model != null && !rangeModels.containsKey(model)) {
+			rangeModels.put(model, null);
+			model.addPropertyChangeListener(this);
+		}
+	}
+
+	private void removeViewportListeners() {
+		for (Iterator<RangeModel> i = rangeModels.keySet().iterator(); i
+			.hasNext();) {
+			i.next().removePropertyChangeListener(this);
+		}
+		rangeModels.clear();
+	}
+
+	/**
+	 * A figure that only takes up room in the freeform extent of a content
+	 * pane. It has no layout constraint, so the layout leaves its bounds
+	 * alone.
+	 */
+	private static final class Placeholder
+		extends Figure {
+
+		public boolean containsPoint(int x, int y) {
+			return false;
+		}
+
+		protected void paintFigure(Graphics graphics) {
+			// nothing to paint
+		}
+	}
+}
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.UniqueEList;
@@ -164,6 +165,89 @@ implements NotificationListener {
 		}
 	}
 	
+	/**
+	 * Computes the views to delete and the views to create in a read-only
+	 * transaction off the UI thread, and hands the result over to
+	 * {@link CanonicalEditPolicy#applyBackgroundRefresh(SemanticRefreshJob)}
+	 * on the UI thread.
+	 */
+	private class SemanticRefreshJob extends Job {
+		/** views whose semantic element is no longer a semantic child. */
+		List<View> orphaned = Collections.emptyList();
+		
+		/** semantic children without a view. */
+		List<EObject> semanticChildren = Collections.emptyList();
+		
+		/** a view descriptor for each of the semantic children without a view. */
+		List<ViewDescriptor> descriptors = Collections.emptyList();
+		
+		/** constructor */
+		SemanticRefreshJob() {
+			super(DiagramUIMessages.CanonicalEditPolicy_refresh_job_name);
+		}
+		
+		protected IStatus run(final IProgressMonitor monitor) {
+			TransactionalEditingDomain domain = host().getEditingDomain();
+			if (domain == null) {
+				return Status.CANCEL_STATUS;
+			}
+			try {
+				domain.runExclusive(new Runnable() {
+					public void run() {
+						compute(monitor);
+					}
+				});
+			} catch (InterruptedException e) {
+				return Status.CANCEL_STATUS;
+			} catch (RuntimeException e) {
+				Log.error(DiagramUIPlugin.getInstance(), IStatus.WARNING,
+					DiagramUIMessages.CanonicalEditPolicy_refresh_failed_ERROR_, e);
+				return Status.OK_STATUS;
+			} finally {
+				monitor.done();
+			}
+			
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			DisplayUtils.getDisplay().asyncExec(new Runnable() {
+				public void run() {
+					applyBackgroundRefresh(SemanticRefreshJob.this);
+				}
+			});
+			return Status.OK_STATUS;
+		}
+		
+		/** Compares the views with the semantic children. */
+		private void compute(IProgressMonitor monitor) {
+			if (resolveSemanticElement() == null) {
+				return;
+			}
+			List<EObject> children = new ArrayList<EObject>(getSemanticChildrenList());
+			monitor.beginTask(getName(), children.size() + 1);
+			
+			List<View> orphans = cleanCanonicalSemanticChildren(getViewChildren(), children);
+			monitor.worked(1);
+			
+			List<EObject> elements = new ArrayList<EObject>(children.size());
+			List<ViewDescriptor> result = new ArrayList<ViewDescriptor>(children.size());
+			for (EObject element : children) {
+				if (monitor.isCanceled()) {
+					return;
+				}
+				if (element != null) {
+					elements.add(element);
+					result.add(getViewDescriptor(element));
+				}
+				monitor.worked(1);
+			}
+			
+			orphaned = orphans;
+			semanticChildren = elements;
+			descriptors = result;
+		}
+	}
+	
 	/** [semantic element, canonical editpolicy] registry map. */
 	static Map<EObject, Set<CanonicalEditPolicy>> _registry = new WeakHashMap<EObject, Set<CanonicalEditPolicy>>();
 	
@@ -178,6 +262,9 @@ implements NotificationListener {
 	
 	/** semantic listener. */
 	private Map<String, Object[]> _listenerFilters;
+	
+	/** the background refresh whose result is still to be applied. */
+	private SemanticRefreshJob _refreshJob;
 		
 	/** Adds <code>String.class</tt> adaptablity to return a factory hint. */
 	protected static final class CanonicalElementAdapter extends EObjectAdapter {
@@ -306,6 +393,9 @@ implements NotificationListener {
 
 	/**
 	 * Return the host's semantic children. <BR>
+	 * If {@link #shouldRefreshInBackground()}, this method is called on a
+	 * worker thread in a read-only transaction, and must neither modify the
+	 * model nor access the host's figures or widgets.
 	 * @return a list of semantic children.
 	 */
 	/*
@@ -437,7 +527,16 @@ implements NotificationListener {
 				descriptors.add(getViewDescriptor(element));
 			}
 		}
-		
+		return createViewsFor(descriptors);
+	}
+	
+	/**
+	 * Creates a <code>View</code> element for each of the supplied view
+	 * descriptors, in a single command.
+	 * @param descriptors list of view descriptors
+	 * @return a list of {@link IAdaptable} that adapt to {@link View}.
+	 */
+	private List<IAdaptable> createViewsFor(List<ViewDescriptor> descriptors) {
 		if ( !descriptors.isEmpty() ) {
 			// create the request
 			CreateViewRequest request = getCreateViewRequest(descriptors);
@@ -561,6 +660,7 @@ implements NotificationListener {
 	 * @param hint factory hint
 	 * @param index index
 	 * @return a create <i>non-persisted</i> view descriptor
+	 * @see #getViewDescriptor(EObject)
 	 */
 	protected CreateViewRequest.ViewDescriptor getViewDescriptor(
 		IAdaptable elementAdapter,
@@ -580,6 +680,10 @@ implements NotificationListener {
 	/**
 	 * Convenience method to create a view descriptor.  Will call
 	 * {@link #getViewDescriptor(IAdaptable, Class, String, int)}
+	 * <P>
+	 * If {@link #shouldRefreshInBackground()}, this method is called on a
+	 * worker thread in a read-only transaction, and must neither modify the
+	 * model nor access the host's figures or widgets.
 	 * @param element semantic element.
 	 * @return view descriptor
 	 */
@@ -718,6 +822,10 @@ implements NotificationListener {
 	 * @see #activate()
 	 */
     public void deactivate() {
+    	if (_refreshJob != null) {
+    		_refreshJob.cancel();
+    		_refreshJob = null;
+    	}
     	if (_listenerFilters != null) {
     		Map<String, Object[]> listeners = new HashMap<String, Object[]>(_listenerFilters);
     		
@@ -974,13 +1082,108 @@ implements NotificationListener {
 	}
 
 	/**
-	 * Redirects the call to {@link #refreshSemanticChildren()}.
+	 * Redirects the call to {@link #refreshSemanticChildren()}, or schedules
+	 * a background refresh if {@link #shouldRefreshInBackground()}.
 	 */
 	protected void refreshSemantic() {
+		if (shouldRefreshInBackground()) {
+			scheduleBackgroundRefresh();
+			return;
+		}
 		List<IAdaptable> createdViews = refreshSemanticChildren();
 		makeViewsImmutable(createdViews);
 	}
 
+	/**
+	 * Return <tt>true</tt> if {@link #refreshSemantic()} should compare the
+	 * views with the semantic children in a background job; otherwise
+	 * <tt>false</tt>.
+	 * <P>
+	 * The comparison and the view descriptors are then computed in a
+	 * read-only transaction off the UI thread, with progress reporting and
+	 * cancellation, and only the deletion and creation of the views runs in
+	 * a write transaction on the UI thread. The views therefore do not exist
+	 * yet when {@link #refresh()} returns. Subclasses synchronizing large
+	 * models whose views nothing depends on immediately may override this
+	 * method; the default implementation returns <tt>false</tt>.
+	 * <P>
+	 * Subclasses returning <tt>true</tt> must make
+	 * {@link #getSemanticChildrenList()}, {@link #isOrphaned(Collection, View)},
+	 * {@link #getViewDescriptor(EObject)} and the methods they call safe to
+	 * run on a worker thread: they may read the model, but must neither
+	 * modify it nor access figures or widgets.
+	 * @return <tt>true</tt> or <tt>false</tt>
+	 */
+	protected boolean shouldRefreshInBackground() {
+		return false;
+	}
+
+	/**
+	 * Schedules a background refresh, cancelling the one in progress.
+	 */
+	private void scheduleBackgroundRefresh() {
+		if (_refreshJob != null) {
+			_refreshJob.cancel();
+		}
+		_refreshJob = new SemanticRefreshJob();
+		_refreshJob.schedule();
+	}
+
+	/**
+	 * Deletes and creates the views computed by a background refresh, unless
+	 * a later refresh superseded it. The model may have changed since the
+	 * views were computed, so views that are already gone are not deleted
+	 * and elements that have meanwhile got a view are skipped.
+	 * @param job the background refresh
+	 */
+	private void applyBackgroundRefresh(SemanticRefreshJob job) {
+		if (job != _refreshJob) {
+			return;
+		}
+		_refreshJob = null;
+		if (!isHostStillValid()) {
+			return;
+		}
+		if (!isEnabled()) {
+			_deferredRefresh = true;
+			return;
+		}
+		
+		try {
+			Set<EObject> represented = new HashSet<EObject>();
+			for (View view : getViewChildren()) {
+				represented.add(view.getElement());
+			}
+			
+			List<View> orphaned = new ArrayList<View>(job.orphaned.size());
+			for (View view : job.orphaned) {
+				if (view.eContainer() != null) {
+					orphaned.add(view);
+				}
+			}
+			
+			List<EObject> semanticChildren = new ArrayList<EObject>(job.semanticChildren.size());
+			List<ViewDescriptor> descriptors = new ArrayList<ViewDescriptor>(job.descriptors.size());
+			for (int i = 0; i < job.semanticChildren.size(); i++) {
+				EObject element = job.semanticChildren.get(i);
+				if (!represented.contains(element)) {
+					semanticChildren.add(element);
+					descriptors.add(job.descriptors.get(i));
+				}
+			}
+			
+			boolean changed = !orphaned.isEmpty() && deleteViews(orphaned.iterator());
+			List<IAdaptable> createdViews = createViewsFor(descriptors);
+			completeRefresh(changed, createdViews, semanticChildren);
+			makeViewsImmutable(createdViews);
+		}
+		catch ( Throwable t ) {
+			String eMsg = DiagramUIMessages.CanonicalEditPolicy_refresh_failed_ERROR_;
+			Log.error(DiagramUIPlugin.getInstance(), IStatus.WARNING,
+					eMsg, t);
+		}
+	}
+
 	/**
 	 * Sets state on views to allow for modification without changing their
 	 * non-persisted status.
@@ -1100,7 +1303,21 @@ implements NotificationListener {
 		List<IAdaptable> createdViews = Collections.emptyList();
 		if ( !semanticChildren.isEmpty() ) {
 			createdViews = createViews( semanticChildren );
-			
+		}
+		
+		return completeRefresh(changed, createdViews, semanticChildren);
+	}
+
+	/**
+	 * Checks that a view was created for each of the semantic children and
+	 * post processes the refresh if anything changed.
+	 * @param changed <tt>true</tt> if views were deleted
+	 * @param createdViews the created views
+	 * @param semanticChildren the semantic children the views were created for
+	 * @return the created views
+	 */
+	private List<IAdaptable> completeRefresh(boolean changed, List<IAdaptable> createdViews, List<EObject> semanticChildren) {
+		if ( !createdViews.isEmpty() ) {
 			for ( int i = 0; i < createdViews.size(); i++ ) {
 				View createdView = (View)((IAdaptable)createdViews.get(i)).getAdapter(View.class);
 				if (createdView == null) {
@@ -1169,6 +1386,10 @@ implements NotificationListener {
 
     /**
      * Decide if the passed view is orphaned or not
+     * <P>
+     * If {@link #shouldRefreshInBackground()}, this method is called on a
+     * worker thread in a read-only transaction, and must neither modify the
+     * model nor access the host's figures or widgets.
      * 
      * @param semanticChildren
      *            semantic children to check against
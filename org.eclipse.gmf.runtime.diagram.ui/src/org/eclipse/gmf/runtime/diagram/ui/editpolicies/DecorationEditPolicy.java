@@ -23,6 +23,7 @@ import org.eclipse.draw2d.Locator;
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.gef.GraphicalEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramRootEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator.DecorationRefreshScheduler;
 import org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator.DecoratorService;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.Decoration;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecoration;
@@ -171,6 +172,9 @@ public class DecorationEditPolicy
 	/** the decorators */
 	protected Map decorators;
 
+	/** the decorator target passed to the service */
+	private DecoratorTarget decoratorTarget;
+
 	/**
 	 * Updates all the decorations for the host editpart by calling refresh() on
 	 * each of the decorators installed on this editpart. If this is the first
@@ -181,16 +185,62 @@ public class DecorationEditPolicy
 	 */
 	public void refresh() {
 		if (decorators == null) {
-			decorators = new HashMap();
-			DecoratorService.getInstance().createDecorators(
-				new DecoratorTarget());
+			createDecorators();
 		}
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
 		for (Iterator iter = decorators.values().iterator(); iter.hasNext();) {
 			IDecorator decorator = (IDecorator) iter.next();
+			// a pending refresh is superseded by this one
+			scheduler.cancel(decorator);
 			decorator.refresh();
 		}
 	}
 
+	/**
+	 * Updates all the decorations for the host editpart at the next display
+	 * tick, rather than right away like {@link #refresh()}. The decorators of
+	 * all the editparts scheduled before that tick are refreshed together, in
+	 * one read-only transaction per editing domain, and each of them only
+	 * once however many times it was scheduled. If the decorators have not
+	 * been created yet, then the <code>DecorationService</code> is first
+	 * called to create them.
+	 * <P>
+	 * May be called from any thread; the decorators are refreshed on the UI
+	 * thread.
+	 */
+	public void scheduleRefresh() {
+		if (decorators == null) {
+			createDecorators();
+		}
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+		for (Iterator iter = decorators.values().iterator(); iter.hasNext();) {
+			IDecorator decorator = (IDecorator) iter.next();
+			scheduler.schedule(decorator, getDecoratorTarget());
+		}
+	}
+
+	/**
+	 * Calls the <code>DecorationService</code> to create the decorators.
+	 */
+	private void createDecorators() {
+		decorators = new HashMap();
+		DecoratorService.getInstance().createDecorators(getDecoratorTarget());
+	}
+
+	/**
+	 * Returns the decorator target wrapping this editpolicy.
+	 * 
+	 * @return the decorator target
+	 */
+	private DecoratorTarget getDecoratorTarget() {
+		if (decoratorTarget == null) {
+			decoratorTarget = new DecoratorTarget();
+		}
+		return decoratorTarget;
+	}
+
 	/**
 	 * Activates all the decorators.
 	 * 
@@ -198,9 +248,7 @@ public class DecorationEditPolicy
 	 */
 	public void activate() {
 		if (decorators == null) {
-			decorators = new HashMap();
-			DecoratorService.getInstance().createDecorators(
-				new DecoratorTarget());
+			createDecorators();
 		}	
 		if (decorators != null) {
 			for (Iterator iter = decorators.values().iterator(); iter.hasNext();) {
@@ -219,6 +267,7 @@ public class DecorationEditPolicy
 		if (decorators != null) {
 			for (Iterator iter = decorators.values().iterator(); iter.hasNext();) {
 				IDecorator decorator = (IDecorator) iter.next();
+				DecorationRefreshScheduler.getInstance().cancel(decorator);
 				decorator.deactivate();
 			}
 		}
@@ -0,0 +1,283 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.gmf.runtime.diagram.ui.internal.DiagramUIDebugOptions;
+import org.eclipse.gmf.runtime.diagram.ui.internal.DiagramUIPlugin;
+import org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecorator;
+import org.eclipse.gmf.runtime.diagram.ui.services.decorator.IDecoratorTarget;
+import org.eclipse.gmf.runtime.notation.View;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Coalesces the refresh requests of decorators. A decorator scheduled for
+ * refresh is refreshed once at the next display tick, no matter how many
+ * times it was scheduled in between. The pending decorators are refreshed
+ * together, in one read-only transaction per editing domain, instead of one
+ * transaction and one display runnable per decorator. Decorators are
+ * scheduled by {@link org.eclipse.gmf.runtime.diagram.ui.editpolicies.DecorationEditPolicy#scheduleRefresh()}
+ * and by decorators reacting to changes outside of the diagram;
+ * {@link org.eclipse.gmf.runtime.diagram.ui.editpolicies.DecorationEditPolicy#refresh()}
+ * still refreshes its decorators right away.
+ * <P>
+ * Decorators can share the results of expensive lookups, such as the markers
+ * of a resource, through {@link #getSharedResult(Object)} and
+ * {@link #putSharedResult(Object, Object)}. A shared result lives until the
+ * next display tick, so that the decorators of all the edit parts created
+ * while a diagram is opened, or refreshed in one batch, compute it once.
+ * <P>
+ * Decorators may be scheduled from any thread; they are always refreshed on
+ * the UI thread.
+ */
+public final class DecorationRefreshScheduler {
+
+	/**
+	 * The singleton instance.
+	 */
+	private static final DecorationRefreshScheduler INSTANCE = new DecorationRefreshScheduler();
+
+	/**
+	 * The decorators waiting to be refreshed, in the order they were
+	 * scheduled, mapped to their decorator targets.
+	 */
+	private final Map<IDecorator, IDecoratorTarget> pending = new LinkedHashMap<IDecorator, IDecoratorTarget>();
+
+	/**
+	 * Whether a flush has been posted to the display.
+	 */
+	private boolean flushPosted = false;
+
+	/**
+	 * The results shared until the next display tick.
+	 */
+	private final Map<Object, Object> sharedResults = new HashMap<Object, Object>();
+
+	/**
+	 * Whether the shared results are to be discarded at the next display
+	 * tick.
+	 */
+	private boolean clearPosted = false;
+
+	private final Runnable flushRunnable = new Runnable() {
+
+		public void run() {
+			flush();
+		}
+	};
+
+	private final Runnable clearRunnable = new Runnable() {
+
+		public void run() {
+			clearSharedResults();
+		}
+	};
+
+	/**
+	 * Retrieves the singleton instance.
+	 *
+	 * @return the decoration refresh scheduler
+	 */
+	public static DecorationRefreshScheduler getInstance() {
+		return INSTANCE;
+	}
+
+	private DecorationRefreshScheduler() {
+		super();
+	}
+
+	/**
+	 * Schedules a refresh of the decorator for the next display tick.
+	 *
+	 * @param decorator
+	 *            the decorator to refresh
+	 * @param decoratorTarget
+	 *            the target the decorator is installed on
+	 */
+	public void schedule(IDecorator decorator, IDecoratorTarget decoratorTarget) {
+		synchronized (pending) {
+			pending.put(decorator, decoratorTarget);
+			if (flushPosted) {
+				return;
+			}
+			flushPosted = true;
+		}
+		if (!post(flushRunnable)) {
+			synchronized (pending) {
+				pending.clear();
+				flushPosted = false;
+			}
+		}
+	}
+
+	/**
+	 * Removes the decorator from the pending decorators. Called when the
+	 * decorator is deactivated.
+	 *
+	 * @param decorator
+	 *            the decorator
+	 */
+	public void cancel(IDecorator decorator) {
+		synchronized (pending) {
+			pending.remove(decorator);
+		}
+	}
+
+	/**
+	 * Answers whether the decorator is waiting to be refreshed.
+	 *
+	 * @param decorator
+	 *            the decorator
+	 * @return <code>true</code> if a refresh is pending, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean isScheduled(IDecorator decorator) {
+		synchronized (pending) {
+			return pending.containsKey(decorator);
+		}
+	}
+
+	/**
+	 * Refreshes all pending decorators. Must be called on the UI thread.
+	 */
+	public void flush() {
+		Map<IDecorator, IDecoratorTarget> batch;
+		synchronized (pending) {
+			flushPosted = false;
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = new LinkedHashMap<IDecorator, IDecoratorTarget>(pending);
+			pending.clear();
+		}
+
+		// group the decorators by editing domain, keeping their order
+		Map<TransactionalEditingDomain, List<IDecorator>> groups = new LinkedHashMap<TransactionalEditingDomain, List<IDecorator>>();
+		List<IDecorator> detached = new ArrayList<IDecorator>();
+		for (Iterator<Map.Entry<IDecorator, IDecoratorTarget>> i = batch
+			.entrySet().iterator(); i.hasNext();) {
+			Map.Entry<IDecorator, IDecoratorTarget> entry = i.next();
+			TransactionalEditingDomain domain = TransactionUtil
+				.getEditingDomain(entry.getValue().getAdapter(View.class));
+			if (domain == null) {
+				detached.add(entry.getKey());
+				continue;
+			}
+			List<IDecorator> group = groups.get(domain);
+			if (group == null) {
+				group = new ArrayList<IDecorator>();
+				groups.put(domain, group);
+			}
+			group.add(entry.getKey());
+		}
+
+		for (Iterator<Map.Entry<TransactionalEditingDomain, List<IDecorator>>> i = groups
+			.entrySet().iterator(); i.hasNext();) {
+			Map.Entry<TransactionalEditingDomain, List<IDecorator>> entry = i
+				.next();
+			final List<IDecorator> group = entry.getValue();
+			try {
+				entry.getKey().runExclusive(new Runnable() {
+
+					public void run() {
+						refresh(group);
+					}
+				});
+			} catch (InterruptedException e) {
+				Trace.catching(DiagramUIPlugin.getInstance(),
+					DiagramUIDebugOptions.EXCEPTIONS_CATCHING, getClass(),
+					"flush", e); //$NON-NLS-1$
+			}
+		}
+		refresh(detached);
+	}
+
+	/**
+	 * Retrieves a result shared by another decorator since the last display
+	 * tick.
+	 *
+	 * @param key
+	 *            identifies the result
+	 * @return the shared result, or <code>null</code> if there is none
+	 */
+	public Object getSharedResult(Object key) {
+		synchronized (sharedResults) {
+			return sharedResults.get(key);
+		}
+	}
+
+	/**
+	 * Shares a result with the other decorators until the next display tick.
+	 *
+	 * @param key
+	 *            identifies the result
+	 * @param result
+	 *            the result
+	 */
+	public void putSharedResult(Object key, Object result) {
+		synchronized (sharedResults) {
+			sharedResults.put(key, result);
+			if (clearPosted) {
+				return;
+			}
+			clearPosted = true;
+		}
+		if (!post(clearRunnable)) {
+			clearSharedResults();
+		}
+	}
+
+	/**
+	 * Discards the shared results, typically because what they were computed
+	 * from has changed.
+	 */
+	public void clearSharedResults() {
+		synchronized (sharedResults) {
+			sharedResults.clear();
+			clearPosted = false;
+		}
+	}
+
+	private static boolean post(Runnable runnable) {
+		Display display = DisplayUtils.getDisplay();
+		if (display == null || display.isDisposed()) {
+			return false;
+		}
+		display.asyncExec(runnable);
+		return true;
+	}
+
+	private void refresh(List<IDecorator> decorators) {
+		for (Iterator<IDecorator> i = decorators.iterator(); i.hasNext();) {
+			IDecorator decorator = i.next();
+			try {
+				decorator.refresh();
+			} catch (RuntimeException e) {
+				// do not let one decorator prevent the others from refreshing
+				Trace.catching(DiagramUIPlugin.getInstance(),
+					DiagramUIDebugOptions.EXCEPTIONS_CATCHING, getClass(),
+					"refresh", e); //$NON-NLS-1$
+			}
+		}
+	}
+}
@@ -227,6 +227,7 @@ public final class DiagramUIMessages extends NLS {
 	public static String CreateConnectionCommand_Label;
 	public static String DeleteCommand_Label;
 	public static String AddCommand_Label;
+	public static String CanonicalEditPolicy_refresh_job_name;
 	public static String Command_CreateDiagramLink;
 	public static String CreateCommand_Label;
 	public static String SetLocationCommand_Label_Resize;
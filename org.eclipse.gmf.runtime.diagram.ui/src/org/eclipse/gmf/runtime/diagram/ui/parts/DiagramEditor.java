@@ -108,6 +108,7 @@ import org.eclipse.gmf.runtime.diagram.ui.providers.DiagramContextMenuProvider;
 import org.eclipse.gmf.runtime.diagram.ui.services.editpart.EditPartService;
 import org.eclipse.gmf.runtime.draw2d.ui.internal.parts.ScrollableThumbnailEx;
 import org.eclipse.gmf.runtime.draw2d.ui.internal.parts.ThumbnailEx;
+import org.eclipse.gmf.runtime.emf.commands.core.command.EditingDomainHistoryCap;
 import org.eclipse.gmf.runtime.emf.commands.core.command.EditingDomainUndoContext;
 import org.eclipse.gmf.runtime.notation.Diagram;
 import org.eclipse.gmf.runtime.notation.GuideStyle;
@@ -433,6 +434,12 @@ public abstract class DiagramEditor
      */
     private IOperationHistoryListener disableUpdateHistoryListener;
 
+    /**
+     * The cap on the undo history of my editing domain, while I am listening
+     * and a cap is configured.
+     */
+    private EditingDomainHistoryCap historyCap;
+
     /**
      * Returns this editor's outline-page default display mode.
      * 
@@ -995,6 +1002,14 @@ public abstract class DiagramEditor
                 getOperationHistory().addOperationHistoryListener(
                     disableUpdateHistoryListener);
             }
+
+            if (historyCap == null
+                && getUndoContext() instanceof EditingDomainUndoContext
+                && EditingDomainHistoryCap.getConfiguredCap() > 0) {
+                historyCap = EditingDomainHistoryCap.connect(
+                    getOperationHistory(),
+                    (EditingDomainUndoContext) getUndoContext());
+            }
             
             DiagramEventBroker eventBroker = DiagramEventBroker
                 .getInstance(domain);
@@ -1023,6 +1038,11 @@ public abstract class DiagramEditor
             getOperationHistory().removeOperationHistoryListener(
                 disableUpdateHistoryListener);
         }
+
+        if (historyCap != null) {
+            historyCap.disconnect();
+            historyCap = null;
+        }
     }
 
     /**
@@ -19,6 +19,7 @@ import org.eclipse.draw2d.LightweightSystem;
 import org.eclipse.gef.EditPart;
 import org.eclipse.gef.ui.parts.ScrollingGraphicalViewer;
 import org.eclipse.gmf.runtime.common.ui.util.DisplayUtils;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.internal.parts.ElementToEditPartsMap;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.TransferDragSourceListener;
@@ -286,6 +287,11 @@ public class DiagramGraphicalViewer
      *      java.lang.Class)
      */
     public List findEditPartsForElement(String elementIdStr, Class editPartClass) {
+        // the views of the element may not have edit parts yet
+        EditPart contents = getContents();
+        if (contents instanceof DiagramEditPart) {
+            ((DiagramEditPart) contents).materializeElement(elementIdStr);
+        }
         return elementToEditPartsMap.findEditPartsForElement(elementIdStr,
             editPartClass);
     }
@@ -12,15 +12,29 @@
 
 package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -125,6 +139,8 @@ public class ImageExporter {
 		try {
 			if (imageFormat == PNG_FILE) {
 				ImageIO.write(image, PNG_FILE, stream);
+			} else if (imageFormat == JPEG_FILE) {
+				writeJPEG(stream, image, quality);
 			} else {
 				throw new IllegalArgumentException();
 			}
@@ -137,6 +153,88 @@ public class ImageExporter {
 		monitor.worked(1);
     }
     
+    /**
+     * Writes an image as a JPEG image of a quality. JPEG has no alpha channel,
+     * so an opaque image is written through a view of its color bands, and
+     * an image with transparent pixels is drawn on a white background first.
+     */
+    private static void writeJPEG(OutputStream stream, BufferedImage image,
+            float quality) throws IOException {
+        BufferedImage rgbImage = image;
+        if (image.getColorModel().hasAlpha()) {
+            rgbImage = getOpaqueView(image);
+        }
+        if (rgbImage == null) {
+            rgbImage = new BufferedImage(image.getWidth(), image.getHeight(),
+                BufferedImage.TYPE_3BYTE_BGR);
+            Graphics2D g2d = rgbImage.createGraphics();
+            g2d.drawImage(image, 0, 0, Color.white, null);
+            g2d.dispose();
+        }
+        Iterator writers = ImageIO.getImageWritersByFormatName(JPEG_FILE);
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer"); //$NON-NLS-1$
+        }
+        ImageWriter writer = (ImageWriter) writers.next();
+        ImageOutputStream output = ImageIO.createImageOutputStream(stream);
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(rgbImage, null, null), param);
+        } finally {
+            writer.dispose();
+            output.close();
+        }
+    }
+
+    /**
+     * Returns an image without an alpha channel sharing the raster of an
+     * interleaved 4-byte ABGR image all of whose pixels are opaque, as the
+     * diagram images filled with white before they are painted. The color
+     * of an opaque premultiplied pixel is its straight color.
+     * 
+     * @param image the image
+     * @return the view of the color bands of the image, or <code>null</code>
+     * if the image has another layout or transparent pixels
+     */
+    private static BufferedImage getOpaqueView(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR
+            && image.getType() != BufferedImage.TYPE_4BYTE_ABGR_PRE) {
+            return null;
+        }
+        WritableRaster raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferByte)
+            || !(raster.getSampleModel() instanceof ComponentSampleModel)
+            || raster.getSampleModelTranslateX() != 0
+            || raster.getSampleModelTranslateY() != 0) {
+            return null;
+        }
+        DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+        ComponentSampleModel sampleModel = (ComponentSampleModel) raster
+            .getSampleModel();
+        byte[] data = buffer.getData();
+        int pixelStride = sampleModel.getPixelStride();
+        int scanlineStride = sampleModel.getScanlineStride();
+        int alphaOffset = buffer.getOffset() + sampleModel.getBandOffsets()[3];
+        for (int y = 0; y < image.getHeight(); y++) {
+            int offset = alphaOffset + y * scanlineStride;
+            for (int x = 0; x < image.getWidth(); x++, offset += pixelStride) {
+                if (data[offset] != (byte) 0xFF) {
+                    return null;
+                }
+            }
+        }
+
+        WritableRaster colorRaster = raster.createWritableChild(0, 0, image
+            .getWidth(), image.getHeight(), 0, 0, new int[] {0, 1, 2});
+        ComponentColorModel colorModel = new ComponentColorModel(ColorSpace
+            .getInstance(ColorSpace.CS_sRGB), false, false,
+            Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+        return new BufferedImage(colorModel, colorRaster, false, null);
+    }
+
     /**
 	 * create a file in the workspace if the destination is in a project in the
 	 * workspace.
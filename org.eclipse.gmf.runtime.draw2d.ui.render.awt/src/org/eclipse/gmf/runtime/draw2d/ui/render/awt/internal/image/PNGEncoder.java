@@ -0,0 +1,773 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes a <code>BufferedImage</code> as an 8 bit per channel PNG image,
+ * reading the pixels from the raster of the image without converting the
+ * image first.
+ * <p>
+ * The compression level and the filter applied to the rows before they are
+ * compressed can be configured. Opaque images are written without an alpha
+ * channel. Large images can be compressed by several threads: the rows are
+ * split in bands that are filtered and compressed concurrently, each band
+ * ending on a byte boundary of the compressed stream so that the bands can be
+ * concatenated into a single zlib stream.
+ */
+public class PNGEncoder {
+
+	/**
+	 * The rows are not filtered.
+	 */
+	public static final int FILTER_NONE = 0;
+
+	/**
+	 * Each byte is replaced by its difference with the byte of the pixel on
+	 * its left.
+	 */
+	public static final int FILTER_SUB = 1;
+
+	/**
+	 * Each byte is replaced by its difference with the byte of the pixel
+	 * above.
+	 */
+	public static final int FILTER_UP = 2;
+
+	/**
+	 * Each byte is replaced by its difference with the average of the bytes of
+	 * the pixels on its left and above.
+	 */
+	public static final int FILTER_AVERAGE = 3;
+
+	/**
+	 * Each byte is replaced by its difference with the Paeth predictor of the
+	 * pixels on its left, above and above on the left.
+	 */
+	public static final int FILTER_PAETH = 4;
+
+	/**
+	 * Each row is filtered with the filter giving the smallest sum of absolute
+	 * differences, the heuristic recommended by the PNG specification.
+	 */
+	public static final int FILTER_ADAPTIVE = 5;
+
+	/**
+	 * The smallest number of bytes of filtered rows compressed by a thread;
+	 * smaller bands compress worse without being faster.
+	 */
+	private static final int MIN_BAND_SIZE = 256 * 1024;
+
+	/**
+	 * The largest IDAT chunk written.
+	 */
+	private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+	private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10,
+		26, 10};
+
+	private static final int COLOR_TYPE_RGB = 2;
+
+	private static final int COLOR_TYPE_RGBA = 6;
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "PNG encoder"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	private int filter = FILTER_ADAPTIVE;
+
+	private int threadCount = 1;
+
+	/**
+	 * Gets the compression level.
+	 *
+	 * @return the compression level, from 0 to 9, or
+	 *         <code>Deflater.DEFAULT_COMPRESSION</code>
+	 */
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * Sets the compression level: 1 is the fastest, 9 compresses the most and
+	 * 0 does not compress.
+	 *
+	 * @param level
+	 *            the compression level, from 0 to 9, or
+	 *            <code>Deflater.DEFAULT_COMPRESSION</code>
+	 */
+	public void setCompressionLevel(int level) {
+		if (level < Deflater.DEFAULT_COMPRESSION
+			|| level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException();
+		}
+		this.compressionLevel = level;
+	}
+
+	/**
+	 * Gets the filter applied to the rows.
+	 *
+	 * @return one of the <code>FILTER_*</code> constants
+	 */
+	public int getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Sets the filter applied to the rows before they are compressed.
+	 * {@link #FILTER_ADAPTIVE} usually compresses the most,
+	 * {@link #FILTER_NONE} is the fastest.
+	 *
+	 * @param filter
+	 *            one of the <code>FILTER_*</code> constants
+	 */
+	public void setFilter(int filter) {
+		if (filter < FILTER_NONE || filter > FILTER_ADAPTIVE) {
+			throw new IllegalArgumentException();
+		}
+		this.filter = filter;
+	}
+
+	/**
+	 * Gets the number of threads compressing an image.
+	 *
+	 * @return the number of threads
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Sets the number of threads compressing an image. Images too small to be
+	 * split in bands are compressed by the calling thread.
+	 *
+	 * @param threadCount
+	 *            the number of threads, 1 to compress on the calling thread
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Encodes an image.
+	 *
+	 * @param image
+	 *            the image
+	 * @param stream
+	 *            the stream to write the PNG image to; it is not closed
+	 * @throws IOException
+	 *             if the image cannot be written
+	 */
+	public void encode(BufferedImage image, OutputStream stream)
+		throws IOException {
+		PixelReader reader = new PixelReader(image);
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int rowSize = width * reader.bytesPerPixel + 1;
+
+		stream.write(SIGNATURE);
+		ChunkOutputStream header = new ChunkOutputStream(stream, "IHDR"); //$NON-NLS-1$
+		writeInt(header, width);
+		writeInt(header, height);
+		header.write(8);
+		header.write(reader.bytesPerPixel == 4 ? COLOR_TYPE_RGBA
+			: COLOR_TYPE_RGB);
+		header.write(0); // deflate
+		header.write(0); // adaptive filtering
+		header.write(0); // no interlace
+		header.close();
+
+		ChunkOutputStream data = new ChunkOutputStream(stream, "IDAT"); //$NON-NLS-1$
+		data.write(0x78);
+		data.write(getZlibFlags());
+
+		long bandSize = Math.max(MIN_BAND_SIZE, (long) rowSize * height
+			/ (threadCount * 2L));
+		int rowsPerBand = (int) Math.min(height, Math.max(1, bandSize
+			/ rowSize));
+		int bandCount = height == 0 ? 1
+			: (height + rowsPerBand - 1) / rowsPerBand;
+
+		long adler;
+		if (threadCount == 1 || bandCount == 1) {
+			Band band = new Band(reader, 0, height, true);
+			band.compress(data);
+			adler = band.adler;
+		} else {
+			adler = compressBands(reader, rowsPerBand, bandCount, data);
+		}
+		writeInt(data, (int) adler);
+		data.close();
+
+		new ChunkOutputStream(stream, "IEND").close(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Compresses the bands concurrently, writing them in order as they
+	 * complete.
+	 *
+	 * @return the Adler-32 checksum of all the filtered rows
+	 */
+	private long compressBands(PixelReader reader, int rowsPerBand,
+			int bandCount, OutputStream out)
+		throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+			threadCount, bandCount), THREAD_FACTORY);
+		try {
+			List<Future<Band>> futures = new ArrayList<Future<Band>>(bandCount);
+			int height = reader.height;
+			for (int first = 0; first < height; first += rowsPerBand) {
+				int last = Math.min(height, first + rowsPerBand);
+				final Band band = new Band(reader, first, last, last == height);
+				band.buffer = new ByteArrayOutputStream();
+				futures.add(executor.submit(new Callable<Band>() {
+
+					public Band call()
+						throws IOException {
+						band.compress(band.buffer);
+						return band;
+					}
+				}));
+			}
+
+			long adler = 1;
+			for (int i = 0; i < futures.size(); i++) {
+				Band band = getBand(futures.get(i));
+				band.buffer.writeTo(out);
+				adler = i == 0 ? band.adler
+					: combineAdler32(adler, band.adler, band.length);
+				band.buffer = null;
+			}
+			return adler;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Band getBand(Future<Band> future)
+		throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Computes the second byte of the zlib header, which reports the
+	 * compression level.
+	 */
+	private int getZlibFlags() {
+		int level = compressionLevel == Deflater.DEFAULT_COMPRESSION ? 6
+			: compressionLevel;
+		int flags = (level < 2 ? 0
+			: level < 6 ? 1
+				: level == 6 ? 2
+					: 3) << 6;
+		int remainder = (0x78 * 256 + flags) % 31;
+		return remainder == 0 ? flags
+			: flags + 31 - remainder;
+	}
+
+	/**
+	 * Combines the Adler-32 checksums of two consecutive sequences of bytes
+	 * into the checksum of their concatenation, as zlib does.
+	 *
+	 * @param adler1
+	 *            the checksum of the first sequence
+	 * @param adler2
+	 *            the checksum of the second sequence
+	 * @param length2
+	 *            the length of the second sequence
+	 * @return the checksum of the concatenation
+	 */
+	static long combineAdler32(long adler1, long adler2, long length2) {
+		final long base = 65521;
+		long remainder = length2 % base;
+		long sum1 = adler1 & 0xffff;
+		long sum2 = (remainder * sum1) % base;
+		sum1 += (adler2 & 0xffff) + base - 1;
+		sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base
+			- remainder;
+		if (sum1 >= base) {
+			sum1 -= base;
+		}
+		if (sum1 >= base) {
+			sum1 -= base;
+		}
+		if (sum2 >= base << 1) {
+			sum2 -= base << 1;
+		}
+		if (sum2 >= base) {
+			sum2 -= base;
+		}
+		return sum1 | (sum2 << 16);
+	}
+
+	private static void writeInt(OutputStream out, int value)
+		throws IOException {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	/**
+	 * A band of consecutive rows, filtered and compressed as a raw deflate
+	 * stream. A band other than the last ends with a sync flush, so that the
+	 * next band can be appended to its compressed bytes.
+	 */
+	private final class Band {
+
+		private final PixelReader reader;
+
+		private final int firstRow;
+
+		private final int lastRow;
+
+		private final boolean finish;
+
+		/**
+		 * The compressed bytes of a band compressed by another thread.
+		 */
+		ByteArrayOutputStream buffer;
+
+		/**
+		 * The checksum of the filtered rows of the band.
+		 */
+		long adler;
+
+		/**
+		 * The number of bytes of the filtered rows of the band.
+		 */
+		long length;
+
+		Band(PixelReader reader, int firstRow, int lastRow, boolean finish) {
+			this.reader = reader;
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+			this.finish = finish;
+		}
+
+		void compress(OutputStream out)
+			throws IOException {
+			int rowSize = reader.width * reader.bytesPerPixel;
+			byte[] previous = new byte[rowSize];
+			byte[] current = new byte[rowSize];
+			if (firstRow > 0) {
+				reader.readRow(firstRow - 1, previous);
+			}
+			Filter filters = new Filter(rowSize, reader.bytesPerPixel);
+			Adler32 checksum = new Adler32();
+			Deflater deflater = new Deflater(compressionLevel, true);
+			deflater.setStrategy(filter == FILTER_NONE ? Deflater.DEFAULT_STRATEGY
+				: Deflater.FILTERED);
+			byte[] output = new byte[MAX_CHUNK_SIZE];
+			try {
+				for (int y = firstRow; y < lastRow; y++) {
+					reader.readRow(y, current);
+					byte[] filtered = filters.filter(filter, current, previous);
+					checksum.update(filtered);
+					deflater.setInput(filtered);
+					while (!deflater.needsInput()) {
+						out.write(output, 0, deflater.deflate(output));
+					}
+					byte[] swap = previous;
+					previous = current;
+					current = swap;
+				}
+				if (finish) {
+					deflater.finish();
+					while (!deflater.finished()) {
+						out.write(output, 0, deflater.deflate(output));
+					}
+				} else {
+					int count;
+					do {
+						count = deflater.deflate(output, 0, output.length,
+							Deflater.SYNC_FLUSH);
+						out.write(output, 0, count);
+					} while (count == output.length);
+				}
+			} finally {
+				deflater.end();
+			}
+			adler = checksum.getValue();
+			length = (long) (lastRow - firstRow) * (rowSize + 1);
+		}
+	}
+
+	/**
+	 * Applies the PNG filters to a row.
+	 */
+	private static final class Filter {
+
+		private final int bytesPerPixel;
+
+		/**
+		 * The row filtered with each filter, the filter type first.
+		 */
+		private final byte[][] rows;
+
+		Filter(int rowSize, int bytesPerPixel) {
+			this.bytesPerPixel = bytesPerPixel;
+			this.rows = new byte[FILTER_ADAPTIVE][rowSize + 1];
+			for (int i = 0; i < rows.length; i++) {
+				rows[i][0] = (byte) i;
+			}
+		}
+
+		byte[] filter(int type, byte[] row, byte[] previous) {
+			if (type != FILTER_ADAPTIVE) {
+				return apply(type, row, previous);
+			}
+			byte[] best = null;
+			long bestSum = Long.MAX_VALUE;
+			for (int i = FILTER_NONE; i < FILTER_ADAPTIVE; i++) {
+				byte[] filtered = apply(i, row, previous);
+				long sum = 0;
+				for (int j = 1; j < filtered.length && sum < bestSum; j++) {
+					sum += Math.abs(filtered[j]);
+				}
+				if (sum < bestSum) {
+					best = filtered;
+					bestSum = sum;
+				}
+			}
+			return best;
+		}
+
+		private byte[] apply(int type, byte[] row, byte[] previous) {
+			byte[] out = rows[type];
+			int bpp = bytesPerPixel;
+			int length = row.length;
+			switch (type) {
+				case FILTER_NONE:
+					System.arraycopy(row, 0, out, 1, length);
+					break;
+				case FILTER_SUB:
+					for (int i = 0; i < bpp; i++) {
+						out[i + 1] = row[i];
+					}
+					for (int i = bpp; i < length; i++) {
+						out[i + 1] = (byte) (row[i] - row[i - bpp]);
+					}
+					break;
+				case FILTER_UP:
+					for (int i = 0; i < length; i++) {
+						out[i + 1] = (byte) (row[i] - previous[i]);
+					}
+					break;
+				case FILTER_AVERAGE:
+					for (int i = 0; i < bpp; i++) {
+						out[i + 1] = (byte) (row[i] - ((previous[i] & 0xff) >>> 1));
+					}
+					for (int i = bpp; i < length; i++) {
+						out[i + 1] = (byte) (row[i] - (((row[i - bpp] & 0xff) + (previous[i] & 0xff)) >>> 1));
+					}
+					break;
+				default:
+					for (int i = 0; i < bpp; i++) {
+						out[i + 1] = (byte) (row[i] - previous[i]);
+					}
+					for (int i = bpp; i < length; i++) {
+						int a = row[i - bpp] & 0xff;
+						int b = previous[i] & 0xff;
+						int c = previous[i - bpp] & 0xff;
+						int pa = Math.abs(b - c);
+						int pb = Math.abs(a - c);
+						int pc = Math.abs(a + b - 2 * c);
+						int predictor = pa <= pb && pa <= pc ? a
+							: pb <= pc ? b
+								: c;
+						out[i + 1] = (byte) (row[i] - predictor);
+					}
+					break;
+			}
+			return out;
+		}
+	}
+
+	/**
+	 * Reads the rows of an image as RGB or RGBA bytes, not premultiplied.
+	 * Interleaved byte rasters in the sRGB color space, such as those of
+	 * <code>TYPE_4BYTE_ABGR</code>, <code>TYPE_4BYTE_ABGR_PRE</code> and
+	 * <code>TYPE_3BYTE_BGR</code> images, are read directly; other images
+	 * are read through their color model.
+	 */
+	private static final class PixelReader {
+
+		private final BufferedImage image;
+
+		final int width;
+
+		final int height;
+
+		/**
+		 * 3 for an opaque image, 4 otherwise.
+		 */
+		final int bytesPerPixel;
+
+		/**
+		 * The bytes of the raster, <code>null</code> if the image is read
+		 * through its color model.
+		 */
+		private final byte[] bytes;
+
+		private int offset;
+
+		private int scanlineStride;
+
+		private int pixelStride;
+
+		/**
+		 * The offsets of the red, green, blue and alpha bytes in a pixel; the
+		 * offset of the alpha byte is -1 if the raster has none.
+		 */
+		private final int[] bandOffsets = {0, 0, 0, -1};
+
+		private boolean premultiplied;
+
+		PixelReader(BufferedImage image) {
+			this.image = image;
+			this.width = image.getWidth();
+			this.height = image.getHeight();
+
+			Raster raster = image.getRaster();
+			ColorModel colorModel = image.getColorModel();
+			byte[] data = null;
+			if (raster.getDataBuffer() instanceof DataBufferByte
+				&& raster.getDataBuffer().getNumBanks() == 1
+				&& raster.getSampleModel() instanceof ComponentSampleModel
+				&& colorModel instanceof ComponentColorModel
+				&& colorModel.getColorSpace().isCS_sRGB()
+				&& colorModel.getComponentSize(0) == 8
+				&& (raster.getNumBands() == 3 || (raster.getNumBands() == 4 && colorModel
+					.hasAlpha()))) {
+				ComponentSampleModel sampleModel = (ComponentSampleModel) raster
+					.getSampleModel();
+				int[] offsets = sampleModel.getBandOffsets();
+				for (int i = 0; i < offsets.length; i++) {
+					bandOffsets[i] = offsets[i];
+				}
+				scanlineStride = sampleModel.getScanlineStride();
+				pixelStride = sampleModel.getPixelStride();
+				offset = raster.getDataBuffer().getOffset()
+					- raster.getSampleModelTranslateY() * scanlineStride
+					- raster.getSampleModelTranslateX() * pixelStride;
+				premultiplied = colorModel.isAlphaPremultiplied();
+				data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			}
+			this.bytes = data;
+			this.bytesPerPixel = colorModel.hasAlpha() && !isOpaque() ? 4
+				: 3;
+		}
+
+		private boolean isOpaque() {
+			if (bytes != null) {
+				if (bandOffsets[3] < 0) {
+					return true;
+				}
+				for (int y = 0; y < height; y++) {
+					int index = offset + y * scanlineStride + bandOffsets[3];
+					for (int x = 0; x < width; x++, index += pixelStride) {
+						if (bytes[index] != (byte) 0xff) {
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+			int[] argb = new int[width];
+			for (int y = 0; y < height; y++) {
+				image.getRGB(0, y, width, 1, argb, 0, width);
+				for (int x = 0; x < width; x++) {
+					if ((argb[x] >>> 24) != 0xff) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Reads a row of pixels.
+		 */
+		void readRow(int y, byte[] row) {
+			if (bytes == null) {
+				readRowFromColorModel(y, row);
+				return;
+			}
+			int index = offset + y * scanlineStride;
+			int red = bandOffsets[0];
+			int green = bandOffsets[1];
+			int blue = bandOffsets[2];
+			if (bytesPerPixel == 3) {
+				for (int x = 0, i = 0; x < width; x++, index += pixelStride) {
+					row[i++] = bytes[index + red];
+					row[i++] = bytes[index + green];
+					row[i++] = bytes[index + blue];
+				}
+				return;
+			}
+			int alpha = bandOffsets[3];
+			for (int x = 0, i = 0; x < width; x++, index += pixelStride) {
+				int a = bytes[index + alpha] & 0xff;
+				if (!premultiplied || a == 0xff || a == 0) {
+					row[i++] = bytes[index + red];
+					row[i++] = bytes[index + green];
+					row[i++] = bytes[index + blue];
+				} else {
+					row[i++] = unpremultiply(bytes[index + red], a);
+					row[i++] = unpremultiply(bytes[index + green], a);
+					row[i++] = unpremultiply(bytes[index + blue], a);
+				}
+				row[i++] = (byte) a;
+			}
+		}
+
+		private void readRowFromColorModel(int y, byte[] row) {
+			int[] argb = new int[width];
+			image.getRGB(0, y, width, 1, argb, 0, width);
+			for (int x = 0, i = 0; x < width; x++) {
+				int pixel = argb[x];
+				row[i++] = (byte) (pixel >> 16);
+				row[i++] = (byte) (pixel >> 8);
+				row[i++] = (byte) pixel;
+				if (bytesPerPixel == 4) {
+					row[i++] = (byte) (pixel >>> 24);
+				}
+			}
+		}
+
+		private static byte unpremultiply(byte component, int alpha) {
+			return (byte) Math.min(255, ((component & 0xff) * 255 + alpha / 2)
+				/ alpha);
+		}
+	}
+
+	/**
+	 * Writes the bytes written to it as PNG chunks of a type, at most
+	 * {@link PNGEncoder#MAX_CHUNK_SIZE} bytes long.
+	 */
+	private static final class ChunkOutputStream
+		extends OutputStream {
+
+		private final OutputStream out;
+
+		private final byte[] type;
+
+		private final byte[] buffer;
+
+		private int count;
+
+		private boolean written;
+
+		ChunkOutputStream(OutputStream out, String type) {
+			this.out = out;
+			this.type = new byte[] {(byte) type.charAt(0),
+				(byte) type.charAt(1), (byte) type.charAt(2),
+				(byte) type.charAt(3)};
+			this.buffer = new byte[MAX_CHUNK_SIZE];
+		}
+
+		public void write(int b)
+			throws IOException {
+			if (count == buffer.length) {
+				writeChunk();
+			}
+			buffer[count++] = (byte) b;
+		}
+
+		public void write(byte[] b, int off, int len)
+			throws IOException {
+			while (len > 0) {
+				if (count == buffer.length) {
+					writeChunk();
+				}
+				int n = Math.min(len, buffer.length - count);
+				System.arraycopy(b, off, buffer, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		/**
+		 * Writes the remaining bytes; the underlying stream is not closed.
+		 */
+		public void close()
+			throws IOException {
+			if (count > 0 || !written) {
+				writeChunk();
+			}
+		}
+
+		private void writeChunk()
+			throws IOException {
+			CRC32 crc = new CRC32();
+			crc.update(type);
+			crc.update(buffer, 0, count);
+			writeInt(out, count);
+			out.write(type);
+			out.write(buffer, 0, count);
+			writeInt(out, (int) crc.getValue());
+			count = 0;
+			written = true;
+		}
+	}
+}
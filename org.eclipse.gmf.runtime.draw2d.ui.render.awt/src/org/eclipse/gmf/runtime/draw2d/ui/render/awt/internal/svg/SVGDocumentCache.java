@@ -0,0 +1,242 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.dom.util.DOMUtilities;
+import org.apache.batik.util.XMLResourceDescriptor;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+
+/**
+ * Parses SVG documents once per content. The images of an SVG document at
+ * every size and with every color are rendered from the same parsed document,
+ * so that creating the image for another zoom level or color only renders it
+ * again.
+ * <p>
+ * The documents are shared and must not be modified: they are copied with
+ * {@link #copyDocument(Document)} before they are rendered, since rendering
+ * attaches a style engine to the document and may replace its colors. The
+ * DOM of a document is not safe to read from several threads at once, so the
+ * copies of a document are made one at a time.
+ * <p>
+ * The size of the cache is bounded by the memory its documents are estimated
+ * to take. A parsed document takes several times the memory of its SVG
+ * source; it is estimated at {@value #DOCUMENT_SIZE_FACTOR} times the size of
+ * the source, so the default bound of 16 MB holds the documents parsed from
+ * about 2 MB of SVG. The least recently used documents are discarded first.
+ * This cache is independent of the cache of the rendered images.
+ */
+public class SVGDocumentCache {
+
+	/**
+	 * The ratio of the memory taken by a parsed document to the size of its
+	 * SVG source.
+	 */
+	public static final int DOCUMENT_SIZE_FACTOR = 8;
+
+	private static final int DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	private static final SVGDocumentCache INSTANCE = new SVGDocumentCache(
+		DEFAULT_MAX_SIZE);
+
+	/**
+	 * Identifies the content of an SVG document.
+	 */
+	private static final class Key {
+
+		private final int length;
+
+		private final long crc;
+
+		private final String url;
+
+		Key(int length, long crc, String url) {
+			this.length = length;
+			this.crc = crc;
+			this.url = url;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return length == other.length && crc == other.crc
+				&& (url == null ? other.url == null
+					: url.equals(other.url));
+		}
+
+		public int hashCode() {
+			return (int) crc ^ length ^ (url == null ? 0
+				: url.hashCode());
+		}
+	}
+
+	private final Map documents = new LinkedHashMap(16, 0.75f, true);
+
+	/**
+	 * The checksums of the buffers seen recently, since the images of a
+	 * document at other sizes are created from the same buffer.
+	 */
+	private final Map checksums = new WeakHashMap();
+
+	private long maxSize;
+
+	private long size;
+
+	/**
+	 * Gets the cache shared by the SVG images.
+	 *
+	 * @return the shared cache
+	 */
+	public static SVGDocumentCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maxSize
+	 *            the largest estimated memory taken by the documents kept, in
+	 *            bytes
+	 */
+	public SVGDocumentCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Parses an SVG document, or retrieves the document it was parsed to.
+	 *
+	 * @param buffer
+	 *            the SVG source
+	 * @param url
+	 *            the URL of the document, used to resolve relative references
+	 * @return the document, which must not be modified
+	 * @throws IOException
+	 *             if the buffer is not an SVG document
+	 */
+	public Document getDocument(byte[] buffer, String url)
+		throws IOException {
+		Key key = getKey(buffer, url);
+		Document document;
+		synchronized (this) {
+			document = (Document) documents.get(key);
+		}
+		if (document == null) {
+			String parser = XMLResourceDescriptor.getXMLParserClassName();
+			SAXSVGDocumentFactory factory = new SAXSVGDocumentFactory(parser);
+			document = factory.createDocument(url, new ByteArrayInputStream(
+				buffer));
+			put(key, document, buffer.length);
+		}
+		return document;
+	}
+
+	/**
+	 * Copies a shared document, to be rendered or modified. The document is
+	 * locked while it is copied, so that it is only read by one thread at a
+	 * time.
+	 *
+	 * @param document
+	 *            the shared document
+	 * @return the copy
+	 */
+	public static Document copyDocument(Document document) {
+		synchronized (document) {
+			return (Document) document.cloneNode(true);
+		}
+	}
+
+	/**
+	 * Copies a shared document into a document of the given DOM
+	 * implementation, to be rendered or modified. The document is locked
+	 * while it is copied, so that it is only read by one thread at a time.
+	 *
+	 * @param document
+	 *            the shared document
+	 * @param impl
+	 *            the DOM implementation of the copy
+	 * @return the copy
+	 */
+	public static Document copyDocument(Document document,
+			DOMImplementation impl) {
+		synchronized (document) {
+			return DOMUtilities.deepCloneDocument(document, impl);
+		}
+	}
+
+	/**
+	 * Sets the largest estimated memory taken by the documents kept,
+	 * discarding the least recently used documents if the cache holds more.
+	 *
+	 * @param maxSize
+	 *            the size in bytes
+	 */
+	public synchronized void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		trim();
+	}
+
+	/**
+	 * Discards all the documents.
+	 */
+	public synchronized void clear() {
+		documents.clear();
+		size = 0;
+	}
+
+	private Key getKey(byte[] buffer, String url) {
+		Long crc;
+		synchronized (this) {
+			crc = (Long) checksums.get(buffer);
+		}
+		if (crc == null) {
+			CRC32 checksum = new CRC32();
+			checksum.update(buffer);
+			crc = Long.valueOf(checksum.getValue());
+			synchronized (this) {
+				checksums.put(buffer, crc);
+			}
+		}
+		return new Key(buffer.length, crc.longValue(), url);
+	}
+
+	private synchronized void put(Key key, Document document, int length) {
+		Object old = documents.put(key, document);
+		if (old == null) {
+			size += getEstimatedSize(length);
+		}
+		trim();
+	}
+
+	private void trim() {
+		for (Iterator i = documents.keySet().iterator(); size > maxSize
+			&& i.hasNext();) {
+			size -= getEstimatedSize(((Key) i.next()).length);
+			i.remove();
+		}
+	}
+
+	private static long getEstimatedSize(int length) {
+		return (long) length * DOCUMENT_SIZE_FACTOR;
+	}
+}
@@ -14,12 +14,8 @@
 package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
-import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
-import org.apache.batik.util.XMLResourceDescriptor;
 import org.eclipse.gmf.runtime.common.core.util.Log;
 import org.eclipse.gmf.runtime.common.core.util.Trace;
 import org.eclipse.gmf.runtime.draw2d.ui.graphics.GCUtilities;
@@ -61,8 +57,8 @@ public final class SVGImage extends AbstractRenderedImage {
 	 */
 	protected Image renderImage() {
 		// otherwise render the image.
-		Document doc = getDocument();
-		Document clone = (Document) doc.cloneNode(true);
+		// the document is shared, render a copy of it
+		Document clone = SVGDocumentCache.copyDocument(getDocument());
 		try {
 			if (GCUtilities.supportsAdvancedGraphics()) {
 				SVGImageConverter converter = new SVGImageConverter();
@@ -107,14 +103,11 @@ public final class SVGImage extends AbstractRenderedImage {
 			return (Document)getKey().getExtraData();
 		}
 
-		// Otherwise Parse the buffer can create the document
-		String parser = XMLResourceDescriptor.getXMLParserClassName();
-		SAXSVGDocumentFactory f = new SAXSVGDocumentFactory(parser);
-		InputStream in = new ByteArrayInputStream(getBuffer());
-
+		// Otherwise get the document parsed from the buffer, which is shared
+		// by the images of the buffer at every size and color
 		try {
-			document =
-				f.createDocument(getKey().getURLString(), in);
+			document = SVGDocumentCache.getInstance().getDocument(getBuffer(),
+				getKey().getURLString());
 
 		} catch (IOException e) {
 			// Log the exception to the Error Log
@@ -137,8 +130,10 @@ public final class SVGImage extends AbstractRenderedImage {
 			
 			// otherwise render the image.
 			try {
+				// the document is shared, render a copy of it
+				Document clone = SVGDocumentCache.copyDocument(getDocument());
 				SVGImageConverter converter = new SVGImageConverter();
-				buffImg = converter.renderSVGToAWTImage(getDocument(), getRenderInfo());
+				buffImg = converter.renderSVGToAWTImage(clone, getRenderInfo());
 			} catch (Exception e) {
 				Trace.catching(Draw2dRenderPlugin.getInstance(), Draw2dRenderDebugOptions.EXCEPTIONS_THROWING, getClass(), "getSWTImage()", //$NON-NLS-1$
 				e);
@@ -12,14 +12,7 @@
 
 package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-
-import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
-import org.apache.batik.util.XMLResourceDescriptor;
 import org.eclipse.gmf.runtime.draw2d.ui.render.RenderedImage;
-import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.metafile.EMFTranscoder;
-import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.metafile.WMFTranscoder;
 import org.eclipse.gmf.runtime.draw2d.ui.render.factory.RenderedImageType;
 import org.eclipse.gmf.runtime.draw2d.ui.render.internal.factory.RenderedImageKey;
 
@@ -28,42 +21,30 @@ public class SVGImageType
 	implements RenderedImageType {
 
 	public RenderedImage autoDetect(byte[] buffer, RenderedImageKey key) {
-		RenderedImage image = null;
+		TranscodedMetafileCache cache = TranscodedMetafileCache.getInstance();
+		if (cache.isTranscoded(buffer)) {
+			// a metafile image created again at another size or color
+			return new SVGImage(buffer, key);
+		}
+
+		int format = TranscodedMetafileCache.getFormat(buffer);
+		if (format == TranscodedMetafileCache.UNKNOWN && isSVG(buffer, key)) {
+			return new SVGImage(buffer, key);
+		}
 
-		if (isSVG(buffer))
-			image = new SVGImage(buffer, key);
-		else {
-			// not a recognizable image format so assume it's an EMF file
-			try {
-				WMFTranscoder imageTransformer = new WMFTranscoder();
-				ByteArrayInputStream input = new ByteArrayInputStream(buffer);
-				ByteArrayOutputStream output = new ByteArrayOutputStream();
-				imageTransformer.transcode(input, output, key.getURLString());
-				image = new SVGImage(output.toByteArray(), key);
-			} catch (Exception e2) {
-				try {
-					EMFTranscoder imageTransformer = new EMFTranscoder();
-					ByteArrayInputStream input = new ByteArrayInputStream(
-						buffer);
-					ByteArrayOutputStream output = new ByteArrayOutputStream();
-					imageTransformer.transcode(input, output, key.getURLString());
-					image = new SVGImage(output.toByteArray(), key);
-				} catch (Exception e3) {
-					return null;
-				}
-			}
+		// not a recognizable image format so assume it's a metafile
+		byte[] document = cache.transcode(buffer, key.getURLString());
+		if (document == null) {
+			return null;
 		}
-		
-		return image;
+		return new SVGImage(document, key);
 	}
 	
-	private static boolean isSVG(byte[] buffer) {
-		ByteArrayInputStream bIS = new ByteArrayInputStream(buffer);
-		String parserName = XMLResourceDescriptor.getXMLParserClassName();
-		SAXSVGDocumentFactory svgFactory = new SAXSVGDocumentFactory(parserName);
-		
+	private static boolean isSVG(byte[] buffer, RenderedImageKey key) {
 		try {
-			svgFactory.createDocument(null,bIS);
+			// the document is parsed once for the image that is created next
+			SVGDocumentCache.getInstance().getDocument(buffer,
+				key.getURLString());
 		} catch (Exception e) {
 			return false;
 		}
@@ -0,0 +1,298 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.metafile.AbstractTranscoder;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.metafile.EMFTranscoder;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.metafile.WMFTranscoder;
+
+/**
+ * Transcodes metafiles to SVG once per content. A metafile image is
+ * transcoded to an SVG document that is rendered at every size and with every
+ * color it is displayed with; the document is remembered, keyed by the content
+ * of the metafile, so that creating the image again for another size, color or
+ * figure does not parse the metafile again.
+ * <p>
+ * The format of a buffer is detected from its signature, so that enhanced
+ * metafiles are not first parsed as Windows metafiles, and raster images are
+ * not parsed as metafiles at all. Buffers that cannot be transcoded are
+ * remembered too.
+ * <p>
+ * The size of the cache is bounded by the total size of the SVG documents it
+ * holds; the least recently used documents are discarded first.
+ */
+public class TranscodedMetafileCache {
+
+	/**
+	 * The format of a buffer that has no known signature.
+	 */
+	public static final int UNKNOWN = 0;
+
+	/**
+	 * The format of a Windows metafile, placeable or not.
+	 */
+	public static final int WMF = 1;
+
+	/**
+	 * The format of an enhanced metafile.
+	 */
+	public static final int EMF = 2;
+
+	/**
+	 * The format of a PNG, GIF, JPEG or BMP image.
+	 */
+	public static final int RASTER = 3;
+
+	private static final int DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * The size accounted for an entry besides its document, so that the
+	 * buffers that cannot be transcoded are bounded too.
+	 */
+	private static final int ENTRY_SIZE = 64;
+
+	/**
+	 * The document of a buffer that cannot be transcoded.
+	 */
+	private static final byte[] NOT_TRANSCODED = new byte[0];
+
+	private static final TranscodedMetafileCache INSTANCE = new TranscodedMetafileCache(
+		DEFAULT_MAX_SIZE);
+
+	/**
+	 * Identifies the content of a metafile.
+	 */
+	private static final class Key {
+
+		private final int length;
+
+		private final long crc;
+
+		private final String url;
+
+		Key(byte[] buffer, String url) {
+			CRC32 checksum = new CRC32();
+			checksum.update(buffer);
+			this.length = buffer.length;
+			this.crc = checksum.getValue();
+			this.url = url;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return length == other.length && crc == other.crc
+				&& (url == null ? other.url == null
+					: url.equals(other.url));
+		}
+
+		public int hashCode() {
+			return (int) crc ^ length ^ (url == null ? 0
+				: url.hashCode());
+		}
+	}
+
+	private final Map documents = new LinkedHashMap(16, 0.75f, true);
+
+	/**
+	 * The documents produced by this cache, to recognize them when an image
+	 * is created again from the buffer of an image at another size.
+	 */
+	private final Map transcoded = new WeakHashMap();
+
+	private long maxSize;
+
+	private long size;
+
+	/**
+	 * Gets the cache shared by the metafile images.
+	 *
+	 * @return the shared cache
+	 */
+	public static TranscodedMetafileCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maxSize
+	 *            the largest total size of the documents kept, in bytes
+	 */
+	public TranscodedMetafileCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Detects the format of a buffer from its signature.
+	 *
+	 * @param buffer
+	 *            the content of an image
+	 * @return {@link #WMF}, {@link #EMF}, {@link #RASTER} or
+	 *         {@link #UNKNOWN}
+	 */
+	public static int getFormat(byte[] buffer) {
+		if (buffer.length >= 44 && getInt(buffer, 0) == 1
+			&& getInt(buffer, 40) == 0x464D4520) {
+			// EMR_HEADER record with the " EMF" signature
+			return EMF;
+		}
+		if (buffer.length >= 4 && getInt(buffer, 0) == 0x9AC6CDD7) {
+			// placeable metafile
+			return WMF;
+		}
+		if (buffer.length >= 18 && (getShort(buffer, 0) == 1 || getShort(buffer, 0) == 2)
+			&& getShort(buffer, 2) == 9
+			&& (getShort(buffer, 4) == 0x0100 || getShort(buffer, 4) == 0x0300)) {
+			// standard metafile header
+			return WMF;
+		}
+		if (startsWith(buffer, new int[] {0x89, 'P', 'N', 'G'})
+			|| startsWith(buffer, new int[] {'G', 'I', 'F', '8'})
+			|| startsWith(buffer, new int[] {0xFF, 0xD8, 0xFF})
+			|| startsWith(buffer, new int[] {'B', 'M'})) {
+			return RASTER;
+		}
+		return UNKNOWN;
+	}
+
+	/**
+	 * Determines if a buffer is an SVG document produced by this cache.
+	 *
+	 * @param buffer
+	 *            the content of an image
+	 * @return <code>true</code> if the buffer is a transcoded metafile
+	 */
+	public synchronized boolean isTranscoded(byte[] buffer) {
+		return transcoded.containsKey(buffer);
+	}
+
+	/**
+	 * Transcodes a metafile to SVG, or retrieves the document it was
+	 * transcoded to.
+	 *
+	 * @param buffer
+	 *            the content of a metafile
+	 * @param url
+	 *            the namespace of the document
+	 * @return the SVG document, or <code>null</code> if the buffer is not a
+	 *         metafile that can be transcoded; the document must not be
+	 *         modified
+	 */
+	public byte[] transcode(byte[] buffer, String url) {
+		int format = getFormat(buffer);
+		if (format == RASTER) {
+			return null;
+		}
+		Key key = new Key(buffer, url);
+		byte[] document;
+		synchronized (this) {
+			document = (byte[]) documents.get(key);
+		}
+		if (document == null) {
+			document = NOT_TRANSCODED;
+			if (format != EMF) {
+				document = transcode(new WMFTranscoder(), buffer, url);
+			}
+			if (document == NOT_TRANSCODED && format != WMF) {
+				document = transcode(new EMFTranscoder(), buffer, url);
+			}
+			put(key, document);
+		}
+		return document == NOT_TRANSCODED ? null
+			: document;
+	}
+
+	/**
+	 * Sets the largest total size of the documents kept, discarding the least
+	 * recently used documents if the cache holds more.
+	 *
+	 * @param maxSize
+	 *            the size in bytes
+	 */
+	public synchronized void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		trim();
+	}
+
+	/**
+	 * Discards all the documents.
+	 */
+	public synchronized void clear() {
+		documents.clear();
+		size = 0;
+	}
+
+	private static byte[] transcode(AbstractTranscoder transcoder,
+			byte[] buffer, String url) {
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			transcoder.transcode(new ByteArrayInputStream(buffer), output, url);
+			return output.toByteArray();
+		} catch (Exception e) {
+			return NOT_TRANSCODED;
+		}
+	}
+
+	private synchronized void put(Key key, byte[] document) {
+		byte[] old = (byte[]) documents.put(key, document);
+		if (old != null) {
+			size -= old.length + ENTRY_SIZE;
+		}
+		size += document.length + ENTRY_SIZE;
+		if (document != NOT_TRANSCODED) {
+			transcoded.put(document, Boolean.TRUE);
+		}
+		trim();
+	}
+
+	private void trim() {
+		for (Iterator i = documents.values().iterator(); size > maxSize
+			&& i.hasNext();) {
+			size -= ((byte[]) i.next()).length + ENTRY_SIZE;
+			i.remove();
+		}
+	}
+
+	private static int getInt(byte[] buffer, int offset) {
+		return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8
+			| (buffer[offset + 2] & 0xff) << 16
+			| (buffer[offset + 3] & 0xff) << 24;
+	}
+
+	private static int getShort(byte[] buffer, int offset) {
+		return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8;
+	}
+
+	private static boolean startsWith(byte[] buffer, int[] signature) {
+		if (buffer.length < signature.length) {
+			return false;
+		}
+		for (int i = 0; i < signature.length; i++) {
+			if ((buffer[i] & 0xff) != signature[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
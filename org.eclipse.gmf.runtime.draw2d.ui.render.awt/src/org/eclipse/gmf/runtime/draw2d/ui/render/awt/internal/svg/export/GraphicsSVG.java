@@ -18,7 +18,6 @@ import java.awt.Dimension;
 
 import org.apache.batik.anim.dom.SVGDOMImplementation;
 import org.apache.batik.anim.dom.SVGOMDocument;
-import org.apache.batik.dom.util.DOMUtilities;
 import org.apache.batik.svggen.DOMTreeManager;
 import org.apache.batik.svggen.SVGGraphics2D;
 import org.apache.batik.util.SVGConstants;
@@ -28,6 +27,7 @@ import org.eclipse.gmf.runtime.draw2d.ui.render.RenderInfo;
 import org.eclipse.gmf.runtime.draw2d.ui.render.RenderedImage;
 import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.graphics.GraphicsToGraphics2DAdaptor;
 import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGColorConverter;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGDocumentCache;
 import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGImage;
 import org.eclipse.gmf.runtime.draw2d.ui.render.internal.DrawableRenderedImage;
 import org.eclipse.gmf.runtime.draw2d.ui.render.internal.RenderingListener;
@@ -141,7 +141,7 @@ public class GraphicsSVG extends GraphicsToGraphics2DAdaptor implements Drawable
 	    	Document document = ((SVGImage)srcImage).getDocument();
             
           DOMImplementation impl = SVGDOMImplementation.getDOMImplementation();
-          document = DOMUtilities.deepCloneDocument(document, impl);
+          document = SVGDocumentCache.copyDocument(document, impl);
             
 	    	if (document instanceof SVGOMDocument) {
 	    		RenderInfo info = srcImage.getRenderInfo();
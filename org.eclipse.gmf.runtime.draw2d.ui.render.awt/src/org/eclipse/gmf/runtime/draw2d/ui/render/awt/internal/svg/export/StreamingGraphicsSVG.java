@@ -0,0 +1,461 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+
+package org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.export;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.dom.util.DOMUtilities;
+import org.apache.batik.svggen.CachedImageHandlerBase64Encoder;
+import org.apache.batik.svggen.SVGGeneratorContext;
+import org.apache.batik.svggen.SVGGraphics2D;
+import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLConstants;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gmf.runtime.draw2d.ui.render.RenderInfo;
+import org.eclipse.gmf.runtime.draw2d.ui.render.RenderedImage;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.graphics.GraphicsToGraphics2DAdaptor;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGColorConverter;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGDocumentCache;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGImage;
+import org.eclipse.gmf.runtime.draw2d.ui.render.internal.DrawableRenderedImage;
+import org.eclipse.gmf.runtime.draw2d.ui.render.internal.RenderingListener;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+
+/**
+ * Objects of this class can be used with draw2d to write an SVG document
+ * directly to an <code>OutputStream</code>.
+ * <p>
+ * Unlike {@link GraphicsSVG}, the painted elements are not kept in a DOM for
+ * the lifetime of the graphics. Every few states the top level group of the
+ * underlying <code>SVGGraphics2D</code> is detached, written to the stream and
+ * discarded, so the heap needed for an export no longer grows with the size
+ * of the diagram. Gradients, clip paths and fonts are collected once by the
+ * <code>SVGGraphics2D</code> converters, raster images are cached by content
+ * and nested SVG images are written once and referenced through
+ * <code>&lt;use&gt;</code> elements. All shared definitions end up in
+ * <code>&lt;defs&gt;</code> elements.
+ * </p>
+ * <p>
+ * {@link #finish()} must be called once painting is complete in order to
+ * write the definitions and close the document.
+ * </p>
+ */
+public class StreamingGraphicsSVG extends GraphicsToGraphics2DAdaptor implements DrawableRenderedImage {
+
+	/**
+	 * Number of popped states after which the painted content is written to
+	 * the stream.
+	 */
+	public static final int DEFAULT_FLUSH_INTERVAL = 64;
+
+	private static final String SVG_IMAGE_ID_PREFIX = "svgImage"; //$NON-NLS-1$
+
+	private Document doc;
+
+	private Writer writer;
+
+	private Element rootTemplate;
+
+	private Rectangle viewBox;
+
+	private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+	private int pendingStates = 0;
+
+	private boolean headerWritten = false;
+
+	private boolean finished = false;
+
+	private IOException failure = null;
+
+	/**
+	 * Maps the key of an SVG image that was already written to the stream
+	 * onto the id of its definition.
+	 */
+	private Map<String, String> svgImageIds = new HashMap<String, String>();
+
+	/**
+	 * Static initializer that will return an instance of
+	 * <code>StreamingGraphicsSVG</code>
+	 *
+	 * @param viewPort
+	 *            the <code>Rectangle</code> area that is to be rendered.
+	 * @param outputStream
+	 *            the <code>OutputStream</code> the SVG document is written
+	 *            to. It is not closed by this object.
+	 * @return a new <code>StreamingGraphicsSVG</code> object.
+	 */
+	public static StreamingGraphicsSVG getInstance(Rectangle viewPort,
+			OutputStream outputStream) {
+		// Get the DOM implementation and create the document
+		DOMImplementation impl = SVGDOMImplementation.getDOMImplementation();
+		String svgNameSpace = SVGDOMImplementation.SVG_NAMESPACE_URI;
+		Document doc = impl.createDocument(svgNameSpace, "svg", null); //$NON-NLS-1$
+
+		SVGGeneratorContext ctx = SVGGeneratorContext.createDefault(doc);
+
+		// Set the precision level to avoid NPEs (issue with Batik 1.5)
+		ctx.setPrecision(3);
+
+		// Identical raster images are only encoded once
+		ctx.setGenericImageHandler(new CachedImageHandlerBase64Encoder());
+
+		SVGGraphics2D svgGraphics = new SVGGraphics2D(ctx, false);
+
+		// Set the Width and Height Attributes on the Root Element
+		svgGraphics.setSVGCanvasSize(new Dimension(viewPort.width,
+			viewPort.height));
+
+		// Nothing is painted yet, so the root only carries the attributes
+		// that the root of GraphicsSVG would have.
+		Element rootTemplate = svgGraphics.getRoot();
+
+		Writer writer;
+		try {
+			writer = new BufferedWriter(new OutputStreamWriter(outputStream,
+				"UTF-8")); //$NON-NLS-1$
+		} catch (IOException e) {
+			// UTF-8 is always supported
+			throw new IllegalStateException(e);
+		}
+
+		return new StreamingGraphicsSVG(svgGraphics, doc, rootTemplate,
+			writer, viewPort);
+	}
+
+	/**
+	 * @param graphics
+	 * @param doc
+	 * @param rootTemplate
+	 * @param writer
+	 * @param viewPort
+	 */
+	private StreamingGraphicsSVG(SVGGraphics2D graphics, Document doc,
+			Element rootTemplate, Writer writer, Rectangle viewPort) {
+
+		super(graphics, new org.eclipse.swt.graphics.Rectangle(viewPort.x,
+			viewPort.y, viewPort.width, viewPort.height));
+		this.doc = doc;
+		this.rootTemplate = rootTemplate;
+		this.writer = writer;
+		this.viewBox = viewPort.getCopy();
+		paintNotCompatibleStringsAsBitmaps = false;
+	}
+
+	/**
+	 * @return <code>SVGGraphics2D</code> object
+	 */
+	public SVGGraphics2D getSVGGraphics2D() {
+		return (SVGGraphics2D) getGraphics2D();
+	}
+
+	/**
+	 * Sets the number of popped states after which the painted content is
+	 * written to the stream.
+	 *
+	 * @param flushInterval
+	 *            a positive number of states
+	 */
+	public void setFlushInterval(int flushInterval) {
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.graphics.GraphicsToGraphics2DAdaptor#popState()
+	 */
+	public void popState() {
+		super.popState();
+
+		if (++pendingStates >= flushInterval) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes everything painted since the last flush to the stream and
+	 * releases the corresponding DOM nodes.
+	 */
+	public void flush() {
+		pendingStates = 0;
+		if (finished || failure != null) {
+			return;
+		}
+
+		try {
+			writeHeader();
+			writeChildren(getSVGGraphics2D().getTopLevelGroup(false));
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Writes the remaining content and the shared definitions and closes the
+	 * SVG document. The underlying <code>OutputStream</code> is flushed but
+	 * not closed.
+	 *
+	 * @throws IOException
+	 *             if the document could not be written
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		flush();
+		finished = true;
+
+		if (failure != null) {
+			throw failure;
+		}
+
+		SVGGraphics2D svgGraphics = getSVGGraphics2D();
+
+		// Images and other generic definitions
+		Element genericDefs = svgGraphics.getDOMTreeManager()
+			.getGenericDefinitions();
+		if (genericDefs.hasChildNodes()) {
+			DOMUtilities.writeNode(genericDefs, writer);
+		}
+
+		// The last group carries the gradients, clips and fonts collected
+		// by the converters in its leading defs element.
+		writeChildren(svgGraphics.getTopLevelGroup(true));
+
+		writer.write("</svg>"); //$NON-NLS-1$
+		writer.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.graphics.GraphicsToGraphics2DAdaptor#drawRenderedImage(org.eclipse.gmf.runtime.draw2d.ui.render.RenderedImage, org.eclipse.draw2d.geometry.Rectangle, org.eclipse.gmf.runtime.draw2d.ui.render.RenderingListener)
+	 */
+	public RenderedImage drawRenderedImage(RenderedImage srcImage,
+			Rectangle rect, RenderingListener listener) {
+
+		if (!(srcImage instanceof SVGImage)) {
+			return super.drawRenderedImage(srcImage, rect, listener);
+		}
+
+		// Check for a change in the state
+		checkState();
+
+		SVGImage svgImage = (SVGImage) srcImage;
+		RenderInfo info = svgImage.getRenderInfo();
+		String key = getSVGImageKey(svgImage, info);
+		String id = svgImageIds.get(key);
+		if (id == null) {
+			id = SVG_IMAGE_ID_PREFIX + svgImageIds.size();
+			if (!writeSVGImageDefinition(svgImage, info, id, rect)) {
+				return srcImage;
+			}
+			svgImageIds.put(key, id);
+		}
+
+		Point trans = getTranslationOffset();
+		Element use = doc.createElementNS(
+			SVGDOMImplementation.SVG_NAMESPACE_URI, SVGConstants.SVG_USE_TAG);
+		use.setAttributeNS(XMLConstants.XLINK_NAMESPACE_URI,
+			XMLConstants.XLINK_PREFIX + ":" + SVGConstants.SVG_HREF_ATTRIBUTE, //$NON-NLS-1$
+			"#" + id); //$NON-NLS-1$
+		use.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, String
+			.valueOf(rect.x + trans.x));
+		use.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, String
+			.valueOf(rect.y + trans.y));
+		use.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, String
+			.valueOf(rect.width));
+		use.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, String
+			.valueOf(rect.height));
+
+		getSVGGraphics2D().getDOMTreeManager().appendGroup(use, null);
+		return srcImage;
+	}
+
+	/**
+	 * Writes the recolored document of the given image into a
+	 * <code>&lt;defs&gt;</code> element so that it can be referenced
+	 * afterwards.
+	 *
+	 * @return <code>true</code> if the definition was written
+	 */
+	private boolean writeSVGImageDefinition(SVGImage svgImage,
+			RenderInfo info, String id, Rectangle rect) {
+		Document document = svgImage.getDocument();
+		if (document == null || failure != null) {
+			return false;
+		}
+
+		DOMImplementation impl = SVGDOMImplementation.getDOMImplementation();
+		document = SVGDocumentCache.copyDocument(document, impl);
+
+		if (document instanceof SVGOMDocument && info != null
+			&& info.getBackgroundColor() != null
+			&& info.getForegroundColor() != null) {
+			SVGColorConverter.getInstance().replaceDocumentColors(
+				(SVGOMDocument) document,
+				new Color(info.getBackgroundColor().red, info
+					.getBackgroundColor().green, info.getBackgroundColor().blue),
+				new Color(info.getForegroundColor().red, info
+					.getForegroundColor().green, info.getForegroundColor().blue));
+		}
+
+		Element definition = (Element) doc.importNode(document
+			.getDocumentElement(), true);
+		definition.setAttributeNS(null, SVGConstants.SVG_ID_ATTRIBUTE, id);
+
+		// The referencing use element supplies the location and size
+		definition.removeAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE);
+		definition.removeAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE);
+		definition.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE,
+			String.valueOf(rect.width));
+		definition.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE,
+			String.valueOf(rect.height));
+
+		Element defs = doc.createElementNS(
+			SVGDOMImplementation.SVG_NAMESPACE_URI, SVGConstants.SVG_DEFS_TAG);
+		defs.appendChild(definition);
+
+		try {
+			// keep the paint order of the content painted so far
+			flush();
+			writeHeader();
+			DOMUtilities.writeNode(defs, writer);
+		} catch (IOException e) {
+			failure = e;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Builds the key under which the definition of an SVG image is shared.
+	 * Images with the same content and colors share the same definition.
+	 */
+	private String getSVGImageKey(SVGImage svgImage, RenderInfo info) {
+		StringBuffer key = new StringBuffer();
+		key.append(svgImage.getKey().getChecksum());
+		if (info != null) {
+			key.append(':').append(info.getBackgroundColor());
+			key.append(':').append(info.getForegroundColor());
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Writes the XML declaration and the opening <code>svg</code> tag unless
+	 * they have already been written.
+	 */
+	private void writeHeader() throws IOException {
+		if (headerWritten) {
+			return;
+		}
+		headerWritten = true;
+
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+		writer.write("<svg"); //$NON-NLS-1$
+
+		if (!rootTemplate.hasAttribute(XMLConstants.XMLNS_PREFIX)) {
+			writeAttribute(XMLConstants.XMLNS_PREFIX,
+				SVGDOMImplementation.SVG_NAMESPACE_URI);
+		}
+		String xlinkNS = XMLConstants.XMLNS_PREFIX + ":" //$NON-NLS-1$
+			+ XMLConstants.XLINK_PREFIX;
+		if (!rootTemplate.hasAttribute(xlinkNS)) {
+			writeAttribute(xlinkNS, XMLConstants.XLINK_NAMESPACE_URI);
+		}
+
+		NamedNodeMap attributes = rootTemplate.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Node attribute = attributes.item(i);
+			if (!SVGConstants.SVG_VIEW_BOX_ATTRIBUTE.equals(attribute
+				.getNodeName())) {
+				writeAttribute(attribute.getNodeName(), attribute
+					.getNodeValue());
+			}
+		}
+
+		// Define the view box
+		writeAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE, String
+			.valueOf(viewBox.x)
+			+ " " + //$NON-NLS-1$
+			String.valueOf(viewBox.y) + " " + //$NON-NLS-1$
+			String.valueOf(viewBox.width) + " " + //$NON-NLS-1$
+			String.valueOf(viewBox.height));
+
+		writer.write(">\n"); //$NON-NLS-1$
+
+		// the template is not needed anymore
+		rootTemplate = null;
+	}
+
+	private void writeAttribute(String name, String value) throws IOException {
+		writer.write(' ');
+		writer.write(name);
+		writer.write("=\""); //$NON-NLS-1$
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '<':
+					writer.write("&lt;"); //$NON-NLS-1$
+					break;
+				case '>':
+					writer.write("&gt;"); //$NON-NLS-1$
+					break;
+				case '&':
+					writer.write("&amp;"); //$NON-NLS-1$
+					break;
+				case '"':
+					writer.write("&quot;"); //$NON-NLS-1$
+					break;
+				default:
+					writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+	/**
+	 * Writes the children of a detached group. The group element itself
+	 * only carries the defaults that are already written on the root.
+	 */
+	private void writeChildren(Element group) throws IOException {
+		for (Node child = group.getFirstChild(); child != null; child = child
+			.getNextSibling()) {
+			DOMUtilities.writeNode(child, writer);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.graphics.GraphicsToGraphics2DAdaptor#dispose()
+	 */
+	public void dispose() {
+		super.dispose();
+		svgImageIds.clear();
+	}
+
+}
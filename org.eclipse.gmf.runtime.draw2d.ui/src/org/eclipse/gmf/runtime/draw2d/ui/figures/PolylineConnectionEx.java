@@ -36,6 +36,7 @@ import org.eclipse.draw2d.geometry.PrecisionPoint;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.gmf.runtime.draw2d.ui.geometry.LineSeg;
 import org.eclipse.gmf.runtime.draw2d.ui.geometry.PointListUtilities;
+import org.eclipse.gmf.runtime.draw2d.ui.internal.figures.ConnectionBoundsIndex;
 import org.eclipse.gmf.runtime.draw2d.ui.internal.figures.ConnectionLayerEx;
 import org.eclipse.gmf.runtime.draw2d.ui.internal.figures.DelegatingLayout;
 import org.eclipse.gmf.runtime.draw2d.ui.internal.routers.OrthogonalRouter;
@@ -879,13 +880,25 @@ public class PolylineConnectionEx extends PolylineConnection implements IPolygon
 
             // only check intersections with connect views which are below this one.
             List children = pParent.getChildren();
-            int nIndex = children.indexOf(connect);
+            int nIndex = -1;
+            int nStart;
+            if (pParent instanceof ConnectionLayerEx) {
+                // only the connections whose bounds overlap this one can intersect it
+                ConnectionBoundsIndex index = ((ConnectionLayerEx) pParent).getConnectionIndex();
+                nIndex = index.getZOrder(connect);
+                if (nIndex >= 0)
+                    children = index.getIntersecting(connect.getBounds());
+            }
+            if (nIndex >= 0)
+                nStart = countBelow(children, nIndex, (ConnectionLayerEx) pParent);
+            else
+                nStart = nIndex = children.indexOf(connect);
 
             ListIterator childIter = children.listIterator();
             boolean bForwards = true;
             if (jumpType != JUMPLINK_FLAG_ALL)
             {
-                childIter = children.listIterator(nIndex);
+                childIter = children.listIterator(nStart);
                 if (jumpType == JUMPLINK_FLAG_BELOW)
                     bForwards = false;
             }
@@ -933,6 +946,24 @@ public class PolylineConnectionEx extends PolylineConnection implements IPolygon
             combineCloseLinks(tmpLine);
         }
 
+        /**
+         * Counts the connections of a z-ordered candidate list that lie below
+         * the given position in the connection layer.
+         * 
+         * @param candidates the candidate connections, ordered by their position in the layer
+         * @param nIndex the position of the connection in the layer
+         * @param layer the connection layer
+         * @return the number of candidates below <code>nIndex</code>
+         */
+        private int countBelow(List candidates, int nIndex, ConnectionLayerEx layer) {
+            ConnectionBoundsIndex index = layer.getConnectionIndex();
+            int nBelow = 0;
+            while (nBelow < candidates.size()
+                    && index.getZOrder((IFigure) candidates.get(nBelow)) < nIndex)
+                nBelow++;
+            return nBelow;
+        }
+
         /**
          * Add a new jump with the given intersection point and distance along the polyline
          * connection line.
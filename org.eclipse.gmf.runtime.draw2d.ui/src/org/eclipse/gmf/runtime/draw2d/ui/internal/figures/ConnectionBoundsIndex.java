@@ -0,0 +1,354 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.draw2d.ui.internal.figures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Spatial index of the bounds of the connections in a connection layer. The
+ * layer is divided into a grid of square cells and each connection is
+ * registered in the cells that its bounds overlap, so that the connections
+ * crossing a region can be found without visiting every connection of the
+ * layer.
+ * <p>
+ * The index is updated incrementally: after {@link #invalidate()} the next
+ * query compares the bounds of each connection with the bounds it was
+ * indexed with, and only the connections that moved, appeared or disappeared
+ * are re-registered.
+ *
+ * The index is only accessed from the UI thread.
+ */
+public class ConnectionBoundsIndex {
+
+	/**
+	 * Connections whose bounds overlap more cells than this are kept in a
+	 * separate list that every query visits.
+	 */
+	private static final int MAX_CELLS_PER_ENTRY = 64;
+
+	/**
+	 * Orders entries by their position in the layer.
+	 */
+	private static final Comparator<Entry> Z_ORDER = new Comparator<Entry>() {
+
+		public int compare(Entry e1, Entry e2) {
+			return e1.zOrder < e2.zOrder ? -1
+				: (e1.zOrder == e2.zOrder ? 0
+					: 1);
+		}
+	};
+
+	/**
+	 * Registration of one connection.
+	 */
+	private static final class Entry {
+
+		final IFigure figure;
+
+		final Rectangle bounds = new Rectangle();
+
+		int zOrder;
+
+		int minColumn, minRow, maxColumn, maxRow;
+
+		boolean registered;
+
+		boolean oversized;
+
+		int validation;
+
+		int query;
+
+		Entry(IFigure figure) {
+			this.figure = figure;
+		}
+	}
+
+	private final IFigure layer;
+
+	private final Map<IFigure, Entry> entries = new HashMap<IFigure, Entry>();
+
+	private final Map<Long, List<Entry>> cells = new HashMap<Long, List<Entry>>();
+
+	private final List<Entry> oversized = new ArrayList<Entry>();
+
+	private int cellSize;
+
+	/**
+	 * The number of connections the cell size was chosen for.
+	 */
+	private int sizedFor;
+
+	private boolean stale = true;
+
+	private int validation;
+
+	private int query;
+
+	/**
+	 * Creates an index of the connections of a layer.
+	 *
+	 * @param layer
+	 *            the connection layer
+	 */
+	public ConnectionBoundsIndex(IFigure layer) {
+		this.layer = layer;
+	}
+
+	/**
+	 * Marks the index as out of date. Called whenever connections are added,
+	 * removed or moved; the index is brought up to date by the next query.
+	 */
+	public void invalidate() {
+		stale = true;
+	}
+
+	/**
+	 * Obtains the position of a connection in the layer, as of the last time
+	 * the index was brought up to date.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @return the index of the connection among the children of the layer,
+	 *         or <code>-1</code> if it is not indexed
+	 */
+	public int getZOrder(IFigure connection) {
+		validate();
+		Entry entry = entries.get(connection);
+		return entry != null ? entry.zOrder
+			: -1;
+	}
+
+	/**
+	 * Finds the connections whose bounds intersect a region.
+	 *
+	 * @param region
+	 *            the region, in the coordinates of the layer
+	 * @return the connections, ordered by their position in the layer
+	 */
+	public List<IFigure> getIntersecting(Rectangle region) {
+		validate();
+
+		if (region.isEmpty() || entries.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<Entry> found = new ArrayList<Entry>();
+		int minColumn = cell(region.x);
+		int minRow = cell(region.y);
+		int maxColumn = cell(region.right() - 1);
+		int maxRow = cell(region.bottom() - 1);
+
+		if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) > entries
+			.size()) {
+			// visiting the cells would cost more than visiting the entries
+			for (Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+				Entry entry = i.next();
+				if (entry.registered && entry.bounds.intersects(region)) {
+					found.add(entry);
+				}
+			}
+		} else {
+			query++;
+			for (int column = minColumn; column <= maxColumn; column++) {
+				for (int row = minRow; row <= maxRow; row++) {
+					List<Entry> cell = cells.get(key(column, row));
+					if (cell != null) {
+						collect(cell, region, found);
+					}
+				}
+			}
+			collect(oversized, region, found);
+		}
+
+		Collections.sort(found, Z_ORDER);
+		List<IFigure> result = new ArrayList<IFigure>(found.size());
+		for (int i = 0; i < found.size(); i++) {
+			result.add(found.get(i).figure);
+		}
+		return result;
+	}
+
+	private void collect(List<Entry> candidates, Rectangle region,
+			List<Entry> found) {
+		for (int i = 0; i < candidates.size(); i++) {
+			Entry entry = candidates.get(i);
+			if (entry.query != query && entry.bounds.intersects(region)) {
+				entry.query = query;
+				found.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Brings the index up to date with the children of the layer.
+	 */
+	private void validate() {
+		if (!stale) {
+			return;
+		}
+		stale = false;
+
+		List children = layer.getChildren();
+		int connections = 0;
+		for (int i = 0; i < children.size(); i++) {
+			if (children.get(i) instanceof Connection) {
+				connections++;
+			}
+		}
+
+		if (cellSize == 0 || connections > 2 * sizedFor + 16) {
+			// the diagram grew since the cells were sized, start over
+			rebuild(children, connections);
+			return;
+		}
+
+		validation++;
+		for (int i = 0; i < children.size(); i++) {
+			IFigure child = (IFigure) children.get(i);
+			if (!(child instanceof Connection)) {
+				continue;
+			}
+			Entry entry = entries.get(child);
+			Rectangle bounds = child.getBounds();
+			if (entry == null) {
+				entry = new Entry(child);
+				entries.put(child, entry);
+				register(entry, bounds);
+			} else if (!entry.bounds.equals(bounds)) {
+				unregister(entry);
+				register(entry, bounds);
+			}
+			entry.zOrder = i;
+			entry.validation = validation;
+		}
+
+		if (entries.size() > connections) {
+			for (Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+				Entry entry = i.next();
+				if (entry.validation != validation) {
+					unregister(entry);
+					i.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the whole index, sizing the cells after the average size of
+	 * the connections.
+	 */
+	private void rebuild(List children, int connections) {
+		entries.clear();
+		cells.clear();
+		oversized.clear();
+
+		long extent = 0;
+		for (int i = 0; i < children.size(); i++) {
+			IFigure child = (IFigure) children.get(i);
+			if (child instanceof Connection) {
+				Rectangle bounds = child.getBounds();
+				extent += Math.max(bounds.width, bounds.height);
+			}
+		}
+		cellSize = connections > 0 ? (int) Math.max(1, extent / connections)
+			: 0;
+		sizedFor = connections;
+		if (cellSize == 0) {
+			stale = true;
+			return;
+		}
+
+		for (int i = 0; i < children.size(); i++) {
+			IFigure child = (IFigure) children.get(i);
+			if (child instanceof Connection) {
+				Entry entry = new Entry(child);
+				entry.zOrder = i;
+				entries.put(child, entry);
+				register(entry, child.getBounds());
+			}
+		}
+	}
+
+	private void register(Entry entry, Rectangle bounds) {
+		entry.bounds.setBounds(bounds);
+		if (bounds.isEmpty()) {
+			return;
+		}
+		entry.registered = true;
+		entry.minColumn = cell(bounds.x);
+		entry.minRow = cell(bounds.y);
+		entry.maxColumn = cell(bounds.right() - 1);
+		entry.maxRow = cell(bounds.bottom() - 1);
+		entry.oversized = (long) (entry.maxColumn - entry.minColumn + 1)
+			* (entry.maxRow - entry.minRow + 1) > MAX_CELLS_PER_ENTRY;
+
+		if (entry.oversized) {
+			oversized.add(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = key(column, row);
+				List<Entry> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Entry>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	private void unregister(Entry entry) {
+		if (!entry.registered) {
+			return;
+		}
+		entry.registered = false;
+
+		if (entry.oversized) {
+			oversized.remove(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = key(column, row);
+				List<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	private int cell(int coordinate) {
+		return Math.floorDiv(coordinate, cellSize);
+	}
+
+	private static Long key(int column, int row) {
+		return Long.valueOf(((long) column << 32) | (row & 0xFFFFFFFFL));
+	}
+}
@@ -12,8 +12,8 @@
 
 package org.eclipse.gmf.runtime.draw2d.ui.internal.figures;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 
 import org.eclipse.draw2d.AutomaticRouter;
 import org.eclipse.draw2d.ConnectionLayer;
@@ -38,6 +38,7 @@ public class ConnectionLayerEx extends ConnectionLayer {
 
 	private boolean dirtied = false;
 	static private boolean allowJumpLinks = true;
+	private final ConnectionBoundsIndex connectionIndex = new ConnectionBoundsIndex(this);
 	
 	/**
 	 * Adds the given figure with the given contraint at the given index.
@@ -110,20 +111,33 @@ public class ConnectionLayerEx extends ConnectionLayer {
 	 * which the jump links calculations should be regenerated.
 	 */
 	public void dirtyJumpLinks(Rectangle region) {
+		// connections are added, removed or moved before their jump links
+		// are dirtied
+		connectionIndex.invalidate();
 		
 		if (!dirtied && shouldJumpLinks()) {
-			List children = getChildren();
-			ListIterator childIter = children.listIterator();
+			List children = connectionIndex.getIntersecting(region);
+			Iterator childIter = children.iterator();
 			while (childIter.hasNext()) {
 				IFigure poly = (IFigure) childIter.next();
 				if (poly instanceof PolylineConnectionEx)
-					if (poly.getBounds().intersects(region))
-						((PolylineConnectionEx) poly).refreshLine();
+					((PolylineConnectionEx) poly).refreshLine();
 			}
 			dirtied = true;
 		}
 	}
 
+	/**
+	 * Returns the spatial index of the connections in this layer, used to
+	 * find the connections that may intersect a given connection without
+	 * visiting every connection of the layer.
+	 * 
+	 * @return the <code>ConnectionBoundsIndex</code> of this layer
+	 */
+	public ConnectionBoundsIndex getConnectionIndex() {
+		return connectionIndex;
+	}
+
 	/**
 	 * Returns the connection router being used by this layer.
 	 *
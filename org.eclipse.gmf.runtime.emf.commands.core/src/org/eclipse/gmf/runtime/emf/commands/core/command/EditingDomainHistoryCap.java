@@ -0,0 +1,381 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.emf.commands.core.command;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.core.commands.operations.IOperationHistory;
+import org.eclipse.core.commands.operations.IOperationHistoryListener;
+import org.eclipse.core.commands.operations.IUndoableOperation;
+import org.eclipse.core.commands.operations.OperationHistoryEvent;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListener;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gmf.runtime.common.core.util.Trace;
+import org.eclipse.gmf.runtime.emf.commands.core.internal.MSLCommandsDebugOptions;
+import org.eclipse.gmf.runtime.emf.commands.core.internal.MSLCommandsPlugin;
+
+/**
+ * An opt-in cap on the estimated size of the undo history of an editing
+ * domain. Once the undo history of the {@link EditingDomainUndoContext}
+ * exceeds the cap, its oldest entries are discarded: they can no longer be
+ * undone. This trades undo depth for memory; the entries are not kept in a
+ * more compact form.
+ * <P>
+ * The size of an entry is estimated from the number of model changes that
+ * the operation made, at a fixed number of bytes per change. It is not
+ * measured, so the actual memory held by the history may be larger or
+ * smaller than the cap.
+ * <P>
+ * Only the undo history is capped. The limit of the context and its redo
+ * history are left alone; an entry that is undone and later redone is
+ * accounted for again.
+ * <P>
+ * The cap is off unless it is set with the {@link #CAP_PROPERTY} system
+ * property, in megabytes, or with {@link #setCap(long)}. There is one cap
+ * per editing domain. Clients that show the undo history of an editing
+ * domain {@link #connect(IOperationHistory, EditingDomainUndoContext)} to
+ * its cap and {@link #disconnect()} from it when they no longer need it.
+ */
+public final class EditingDomainHistoryCap
+    implements IOperationHistoryListener {
+
+    /**
+     * The system property that sets the cap on the estimated size of the
+     * undo history of the editing domains, in megabytes. The undo history is
+     * not capped if the property is not set or is not greater than zero.
+     */
+    public static final String CAP_PROPERTY = "org.eclipse.gmf.runtime.emf.commands.core.historyCap"; //$NON-NLS-1$
+
+    /**
+     * The estimated number of bytes needed to record one model change: the
+     * feature change, its entry in the change description and the old value.
+     */
+    private static final int ESTIMATED_BYTES_PER_CHANGE = 160;
+
+    /**
+     * The caps, per editing domain.
+     */
+    private static final Map<TransactionalEditingDomain, EditingDomainHistoryCap> caps = new HashMap<TransactionalEditingDomain, EditingDomainHistoryCap>();
+
+    private final IOperationHistory history;
+
+    private final EditingDomainUndoContext context;
+
+    private final TransactionalEditingDomain domain;
+
+    private int connections;
+
+    private long cap = getConfiguredCap();
+
+    /**
+     * The estimated size of the undo history entries of my context, in
+     * bytes.
+     */
+    private final Map<IUndoableOperation, Long> sizes = new IdentityHashMap<IUndoableOperation, Long>();
+
+    private long totalSize;
+
+    /**
+     * The number of model changes committed since the outermost operation of
+     * my context started to execute.
+     */
+    private int pendingChanges;
+
+    /**
+     * The nesting depth of the operations of my context being executed.
+     */
+    private int depth;
+
+    private final ResourceSetListener changeCounter = new ResourceSetListenerImpl() {
+
+        public boolean isPostcommitOnly() {
+            return true;
+        }
+
+        public void resourceSetChanged(ResourceSetChangeEvent event) {
+            Transaction transaction = event.getTransaction();
+
+            if (transaction != null
+                && Boolean.TRUE.equals(transaction.getOptions().get(
+                    Transaction.OPTION_IS_UNDO_REDO_TRANSACTION))) {
+                // undo and redo reuse the changes that were recorded
+                return;
+            }
+            synchronized (EditingDomainHistoryCap.this) {
+                if (depth > 0) {
+                    pendingChanges += event.getNotifications().size();
+                }
+            }
+        }
+    };
+
+    private EditingDomainHistoryCap(IOperationHistory history,
+            EditingDomainUndoContext context, TransactionalEditingDomain domain) {
+        this.history = history;
+        this.context = context;
+        this.domain = domain;
+    }
+
+    /**
+     * Obtains the cap set with the {@link #CAP_PROPERTY} system property.
+     *
+     * @return the cap, in bytes, or <code>0</code> if the undo history is
+     *         not to be capped
+     */
+    public static long getConfiguredCap() {
+        Long megabytes = Long.getLong(CAP_PROPERTY);
+        return megabytes != null && megabytes.longValue() > 0 ? megabytes
+            .longValue() * 1024 * 1024
+            : 0;
+    }
+
+    /**
+     * Connects to the cap of the editing domain of <code>context</code>,
+     * creating it if this is the first connection.
+     *
+     * @param history
+     *            the operation history
+     * @param context
+     *            the undo context of a transactional editing domain
+     * @return the cap, or <code>null</code> if the editing domain is not
+     *         transactional
+     */
+    public static EditingDomainHistoryCap connect(IOperationHistory history,
+            EditingDomainUndoContext context) {
+
+        if (!(context.getEditingDomain() instanceof TransactionalEditingDomain)) {
+            return null;
+        }
+        TransactionalEditingDomain domain = (TransactionalEditingDomain) context
+            .getEditingDomain();
+
+        EditingDomainHistoryCap result;
+        synchronized (caps) {
+            result = caps.get(domain);
+
+            if (result == null) {
+                result = new EditingDomainHistoryCap(history, context, domain);
+                caps.put(domain, result);
+                domain.addResourceSetListener(result.changeCounter);
+                history.addOperationHistoryListener(result);
+            }
+            result.connections++;
+        }
+        return result;
+    }
+
+    /**
+     * Disconnects from this cap. The cap stops watching the history once its
+     * last client has disconnected.
+     */
+    public void disconnect() {
+        synchronized (caps) {
+            if (connections == 0 || --connections > 0) {
+                return;
+            }
+            caps.remove(domain);
+        }
+        history.removeOperationHistoryListener(this);
+        domain.removeResourceSetListener(changeCounter);
+
+        synchronized (this) {
+            sizes.clear();
+            totalSize = 0;
+        }
+    }
+
+    /**
+     * Obtains my cap.
+     *
+     * @return the cap, in bytes, or <code>0</code> if the undo history is
+     *         not capped
+     */
+    public synchronized long getCap() {
+        return cap;
+    }
+
+    /**
+     * Sets my cap, discarding the oldest undo history entries if they no
+     * longer fit.
+     *
+     * @param cap
+     *            the cap, in bytes, or a value less than or equal to zero to
+     *            stop capping the undo history
+     */
+    public void setCap(long cap) {
+        synchronized (this) {
+            this.cap = cap;
+        }
+        apply();
+    }
+
+    /**
+     * Obtains the estimated size of an undo history entry.
+     *
+     * @param operation
+     *            an operation in the undo history
+     * @return the estimated size, in bytes, or <code>0</code> if the operation
+     *         did not change my editing domain
+     */
+    public synchronized long getEstimatedSize(IUndoableOperation operation) {
+        Long size = sizes.get(operation);
+        return size != null ? size.longValue()
+            : 0;
+    }
+
+    /**
+     * Obtains the estimated size of all of the undo history entries that
+     * changed my editing domain.
+     *
+     * @return the estimated size, in bytes
+     */
+    public synchronized long getEstimatedTotalSize() {
+        return totalSize;
+    }
+
+    public void historyNotification(OperationHistoryEvent event) {
+        IUndoableOperation operation = event.getOperation();
+
+        if (operation == null || !operation.hasContext(context)) {
+            // the operations of the other contexts are not accounted for
+            return;
+        }
+
+        switch (event.getEventType()) {
+            case OperationHistoryEvent.ABOUT_TO_EXECUTE:
+                synchronized (this) {
+                    if (depth++ == 0) {
+                        pendingChanges = 0;
+                    }
+                }
+                break;
+            case OperationHistoryEvent.DONE:
+                synchronized (this) {
+                    if (depth > 0 && --depth > 0) {
+                        // nested operations are accounted for by the
+                        // outermost one
+                        break;
+                    }
+                    if (pendingChanges > 0) {
+                        record(operation, (long) pendingChanges
+                            * ESTIMATED_BYTES_PER_CHANGE);
+                    }
+                    pendingChanges = 0;
+                }
+                apply();
+                break;
+            case OperationHistoryEvent.OPERATION_NOT_OK:
+                synchronized (this) {
+                    if (depth > 0) {
+                        depth--;
+                    }
+                    pendingChanges = 0;
+                }
+                break;
+            case OperationHistoryEvent.OPERATION_REMOVED:
+                synchronized (this) {
+                    forget(operation);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Records the estimated size of a new undo history entry.
+     */
+    private void record(IUndoableOperation operation, long size) {
+        forget(operation);
+        sizes.put(operation, Long.valueOf(size));
+        totalSize += size;
+
+        if (Trace.shouldTrace(MSLCommandsPlugin.getDefault(),
+            MSLCommandsDebugOptions.HISTORY_CAP)) {
+            Trace.trace(MSLCommandsPlugin.getDefault(),
+                MSLCommandsDebugOptions.HISTORY_CAP, "History entry '" //$NON-NLS-1$
+                    + operation.getLabel() + "': ~" + size / 1024 //$NON-NLS-1$
+                    + " KB, history: ~" + totalSize / 1024 + " KB"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Forgets the estimated size of an undo history entry that has been
+     * removed.
+     */
+    private void forget(IUndoableOperation operation) {
+        Long size = sizes.remove(operation);
+
+        if (size != null) {
+            totalSize -= size.longValue();
+        }
+    }
+
+    /**
+     * Discards the oldest entries of the undo history of my context that do
+     * not fit in my cap. The most recent entry is always kept.
+     */
+    private void apply() {
+        IUndoableOperation[] discarded;
+
+        synchronized (this) {
+            if (cap <= 0 || totalSize <= cap) {
+                return;
+            }
+            // oldest first
+            IUndoableOperation[] undoHistory = history.getUndoHistory(context);
+            long size = 0;
+            int fit = 0;
+
+            for (int i = undoHistory.length - 1; i >= 0; i--) {
+                size += getEstimatedSize(undoHistory[i]);
+
+                if (fit > 0 && size > cap) {
+                    break;
+                }
+                fit++;
+            }
+            discarded = new IUndoableOperation[undoHistory.length - fit];
+            System.arraycopy(undoHistory, 0, discarded, 0, discarded.length);
+        }
+
+        if (discarded.length == 0) {
+            return;
+        }
+        if (Trace.shouldTrace(MSLCommandsPlugin.getDefault(),
+            MSLCommandsDebugOptions.HISTORY_CAP)) {
+            Trace.trace(MSLCommandsPlugin.getDefault(),
+                MSLCommandsDebugOptions.HISTORY_CAP, "Discarding " //$NON-NLS-1$
+                    + discarded.length + " undo history entries"); //$NON-NLS-1$
+        }
+
+        for (int i = 0; i < discarded.length; i++) {
+            IUndoableOperation operation = discarded[i];
+
+            if (operation.getContexts().length > 1) {
+                // still undoable in its other contexts
+                operation.removeContext(context);
+            } else {
+                // notifies OPERATION_REMOVED
+                history.replaceOperation(operation, new IUndoableOperation[0]);
+                operation.dispose();
+            }
+            synchronized (this) {
+                forget(operation);
+            }
+        }
+    }
+}
@@ -43,4 +43,7 @@ public final class MSLCommandsDebugOptions {
 	
 	/** Debug option to trace execution of model operations. */
 	public static final String MODEL_OPERATIONS = DEBUG + "/model/operations"; //$NON-NLS-1$
+
+	/** Debug option to trace the estimated size of the undo history. */
+	public static final String HISTORY_CAP = DEBUG + "/history/cap"; //$NON-NLS-1$
 }
\ No newline at end of file
@@ -18,12 +18,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jface.viewers.CellEditor;
 import org.eclipse.jface.viewers.ICellEditorListener;
 import org.eclipse.jface.viewers.ILabelProvider;
@@ -82,6 +86,15 @@ public class PropertySheetEntry implements IPropertySheetEntry,
 
     private ListenerList listeners = new ListenerList();
 
+    /**
+     * The merged property descriptors of a multiple selection, kept as long
+     * as the selection holds the same types of objects.
+     */
+    private List mergedDescriptors = null;
+
+    /** The distinct types of the values the descriptors were merged for. */
+    private Set mergedTypes = null;
+
 
     /*
      * (non-Javadoc) ICellEditorListener interface methods
@@ -151,8 +164,9 @@ public class PropertySheetEntry implements IPropertySheetEntry,
         if (values.length == 0)
             return new ArrayList(0);
 
-        // get all descriptors from each object
-        Map[] propertyDescriptorMaps = new Map[values.length];
+        // group the objects by type: objects of the same type are assumed
+        // to have the same property descriptors
+        Map sourcesByType = new LinkedHashMap();
         for (int i = 0; i < values.length; i++) {
             Object object = values[i];
             IPropertySource source = getPropertySource(object);
@@ -161,8 +175,26 @@ public class PropertySheetEntry implements IPropertySheetEntry,
                 // then we show no properties
                 return new ArrayList(0);
             }
+            Object type = getPropertySourceType(object, source);
+            if (!sourcesByType.containsKey(type))
+                sourcesByType.put(type, source);
+        }
+
+        // a new selection of the same types of objects has the same
+        // descriptors
+        Set types = sourcesByType.keySet();
+        if (values.length > 1 && mergedDescriptors != null
+                && types.equals(mergedTypes))
+            return new ArrayList(mergedDescriptors);
+
+        // get all descriptors from one object of each type, starting with
+        // the type of the first object
+        List sources = new ArrayList(sourcesByType.values());
+        Map[] propertyDescriptorMaps = new Map[sources.size()];
+        for (int i = 0; i < sources.size(); i++) {
             // get the property descriptors keyed by id
-            propertyDescriptorMaps[i] = computePropertyDescriptorsFor(source);
+            propertyDescriptorMaps[i] = computePropertyDescriptorsFor((IPropertySource) sources
+                    .get(i));
         }
 
         // intersect
@@ -198,9 +230,40 @@ public class PropertySheetEntry implements IPropertySheetEntry,
             }
         });
 
+        if (values.length > 1) {
+            mergedDescriptors = new ArrayList(descriptors);
+            mergedTypes = new HashSet(types);
+        }
         return descriptors;
     }
 
+    /**
+     * Returns the type of an object, as far as its property descriptors are
+     * concerned. The property descriptors of a multiple selection are merged
+     * once per type. This implementation distinguishes the objects by the
+     * class of their property source, their own class and the
+     * <code>EClass</code> of the model element they stand for.
+     * <p>
+     * Subclasses whose objects of the same type may have different
+     * property descriptors can override this method to return the object
+     * itself.
+     * </p>
+     * 
+     * @param object an object of the selection
+     * @param source the property source of the object
+     * @return the type of the object
+     */
+    protected Object getPropertySourceType(Object object, IPropertySource source) {
+        Object element = object instanceof IAdaptable ? ((IAdaptable) object)
+                .getAdapter(EObject.class) : null;
+        if (element == null && object instanceof EObject)
+            element = object;
+        return Arrays.asList(new Object[] {source.getClass(),
+                object.getClass(),
+                element instanceof EObject ? ((EObject) element).eClass()
+                        : null});
+    }
+
     /**
      * Returns an map of property descritptors (keyed on id) for the given
      * property source.
@@ -573,6 +636,8 @@ public class PropertySheetEntry implements IPropertySheetEntry,
      * Refresh the entry tree from the root down
      */
     void refreshFromRoot() {
+        // a value has been edited: the descriptors may depend on it
+        mergedDescriptors = null;
         if (parent == null)
             refreshChildEntries();
         else
@@ -0,0 +1,58 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.emf.ui.internal;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.gmf.runtime.common.core.util.Proxy;
+import org.eclipse.gmf.runtime.common.ui.services.internal.IHintTypeResolver;
+import org.eclipse.gmf.runtime.emf.type.core.IElementType;
+
+/**
+ * Determines the types of the elements of service hints by their metaclasses
+ * and element types, so that the services that cache their providers by hint
+ * tell dynamic model elements and specialization types apart.
+ */
+public class HintTypeResolver
+	implements IHintTypeResolver {
+
+	private static final Object[] NO_TYPES = new Object[0];
+
+	public Object[] getTypes(IAdaptable hint) {
+		Object element = hint instanceof Proxy ? ((Proxy) hint)
+			.getRealObject()
+			: null;
+		if (element == null) {
+			element = hint.getAdapter(EObject.class);
+		}
+		Object elementType = hint.getAdapter(IElementType.class);
+
+		Object type;
+		if (element == null || element == elementType) {
+			type = null;
+		} else if (element instanceof EObject) {
+			type = ((EObject) element).eClass();
+		} else if (element instanceof IElementType) {
+			type = element;
+		} else {
+			return null;
+		}
+
+		if (type == null && !(elementType instanceof IElementType)) {
+			return NO_TYPES;
+		}
+		return new Object[] {type,
+			elementType instanceof IElementType ? elementType
+				: null};
+	}
+}
@@ -12,10 +12,12 @@
 
 package org.eclipse.gmf.runtime.emf.ui.internal;
 
+import org.eclipse.gmf.runtime.common.ui.services.internal.HintCachingKey;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.osgi.framework.BundleContext;
 
 /**
  * The MSL UI plug-in.
@@ -48,6 +50,27 @@ public class MslUIPlugin
 		INSTANCE = this;
 	}
 
+	/**
+	 * Installs the resolver of the types of the elements of service hints, so
+	 * that the services keyed by hint cache their providers.
+	 * 
+	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#start(org.osgi.framework.BundleContext)
+	 */
+	public void start(BundleContext context)
+		throws Exception {
+		super.start(context);
+		HintCachingKey.setTypeResolver(new HintTypeResolver());
+	}
+
+	/**
+	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
+	 */
+	public void stop(BundleContext context)
+		throws Exception {
+		HintCachingKey.setTypeResolver(null);
+		super.stop(context);
+	}
+
 	/**
 	 * Retrieves this plug-in's shared instance.
 	 * 
@@ -0,0 +1,303 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.runtime.emf.ui.services.modelingassistant;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.gmf.runtime.common.core.util.Proxy;
+
+/**
+ * Remembers the results of the modeling assistant queries made on the
+ * elements of one editing domain, so that repeating a query while the user
+ * hovers over the same elements does not consult the providers again.
+ * <p>
+ * A query is identified by the operation and by its arguments: edit parts are
+ * compared by identity, and proxies such as <code>EObjectAdapter</code> by
+ * the object they stand for. The arguments are only weakly referenced, so
+ * that the cache does not keep the edit parts and views of closed editors
+ * alive; a query whose argument has been collected never matches again and
+ * its result is evicted as newer queries are cached. The cache is cleared
+ * whenever a transaction changes the editing domain, and all caches are
+ * cleared when a modeling assistant provider changes. The cache is attached
+ * to the resource set of the editing domain and goes away with it.
+ */
+final class ModelingAssistantQueryCache
+	extends AdapterImpl {
+
+	/**
+	 * The maximum number of query results kept per editing domain.
+	 */
+	static final int CAPACITY = 256;
+
+	/**
+	 * Incremented whenever a provider changes; caches created under an older
+	 * generation are stale.
+	 */
+	private static int generation;
+
+	/**
+	 * Identifies one argument of a query, without keeping it alive.
+	 */
+	private static final class Argument {
+
+		private final WeakReference<Class<?>> argumentClass;
+
+		private final WeakReference<Object> object;
+
+		private final int hashCode;
+
+		Argument(Object argument) {
+			Object real = argument instanceof Proxy ? ((Proxy) argument)
+				.getRealObject()
+				: argument;
+			argumentClass = new WeakReference<Class<?>>(argument.getClass());
+			object = new WeakReference<Object>(real);
+			hashCode = 31 * argument.getClass().hashCode()
+				+ System.identityHashCode(real);
+		}
+
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Argument)) {
+				return false;
+			}
+			Argument other = (Argument) obj;
+			Object real = object.get();
+			return hashCode == other.hashCode && real != null
+				&& real == other.object.get()
+				&& argumentClass.get() == other.argumentClass.get();
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * Identifies one query.
+	 */
+	private static final class Key {
+
+		private final String operationId;
+
+		private final Argument first;
+
+		private final Argument second;
+
+		private final Object qualifier;
+
+		Key(String operationId, Argument first, Argument second,
+				Object qualifier) {
+			this.operationId = operationId;
+			this.first = first;
+			this.second = second;
+			this.qualifier = qualifier;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return operationId.equals(other.operationId)
+				&& equal(first, other.first) && equal(second, other.second)
+				&& equal(qualifier, other.qualifier);
+		}
+
+		public int hashCode() {
+			int result = operationId.hashCode();
+			result = 31 * result + (first != null ? first.hashCode()
+				: 0);
+			result = 31 * result + (second != null ? second.hashCode()
+				: 0);
+			return 31 * result + (qualifier != null ? qualifier.hashCode()
+				: 0);
+		}
+
+		private static boolean equal(Object o1, Object o2) {
+			return o1 == null ? o2 == null
+				: o1.equals(o2);
+		}
+	}
+
+	private final Map<Key, List> results = new LinkedHashMap<Key, List>(16,
+		0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<Key, List> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private int cachedGeneration;
+
+	/**
+	 * Incremented whenever the cache is cleared.
+	 */
+	private int clearCount;
+
+	private final ResourceSetListenerImpl flusher = new ResourceSetListenerImpl() {
+
+		public boolean isPostcommitOnly() {
+			return true;
+		}
+
+		public void resourceSetChanged(ResourceSetChangeEvent event) {
+			clear();
+		}
+	};
+
+	private ModelingAssistantQueryCache(int generation) {
+		this.cachedGeneration = generation;
+	}
+
+	/**
+	 * Clears the caches of all editing domains. Called when a provider
+	 * changes.
+	 */
+	static synchronized void clearAll() {
+		generation++;
+	}
+
+	private static synchronized int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Creates the key of a query.
+	 *
+	 * @param operation
+	 *            the query
+	 * @param first
+	 *            the first adaptable argument
+	 * @param second
+	 *            the second adaptable argument, or <code>null</code>
+	 * @param qualifier
+	 *            any other argument, or <code>null</code>
+	 * @return the key
+	 */
+	static Object createKey(IModelingAssistantOperation operation,
+			IAdaptable first, IAdaptable second, Object qualifier) {
+		return new Key(operation.getId(), first != null ? new Argument(first)
+			: null, second != null ? new Argument(second)
+			: null, qualifier);
+	}
+
+	/**
+	 * Finds the cache of the editing domain of an argument, creating it if
+	 * needed.
+	 *
+	 * @param argument
+	 *            an argument of the query
+	 * @return the cache, or <code>null</code> if the argument does not adapt
+	 *         to an element of a transactional editing domain
+	 */
+	static ModelingAssistantQueryCache getCache(IAdaptable argument) {
+		if (argument == null) {
+			return null;
+		}
+		Object element = argument.getAdapter(EObject.class);
+		if (!(element instanceof EObject)) {
+			return null;
+		}
+		TransactionalEditingDomain domain = TransactionUtil
+			.getEditingDomain((EObject) element);
+		ResourceSet resourceSet = domain != null ? domain.getResourceSet()
+			: null;
+		if (resourceSet == null) {
+			return null;
+		}
+
+		synchronized (resourceSet) {
+			ModelingAssistantQueryCache cache = (ModelingAssistantQueryCache) EcoreUtil
+				.getExistingAdapter(resourceSet,
+					ModelingAssistantQueryCache.class);
+			if (cache == null) {
+				cache = new ModelingAssistantQueryCache(getGeneration());
+				resourceSet.eAdapters().add(cache);
+				domain.addResourceSetListener(cache.flusher);
+			}
+			return cache;
+		}
+	}
+
+	public boolean isAdapterForType(Object type) {
+		return type == ModelingAssistantQueryCache.class;
+	}
+
+	/**
+	 * @param key
+	 *            the key of a query
+	 * @return a copy of the cached result, or <code>null</code> if the query
+	 *         has not been made since the last change
+	 */
+	synchronized List get(Object key) {
+		int current = getGeneration();
+		if (cachedGeneration != current) {
+			clear();
+			cachedGeneration = current;
+			return null;
+		}
+		List result = results.get(key);
+		return result != null ? new ArrayList(result)
+			: null;
+	}
+
+	/**
+	 * Obtains a stamp to pass to {@link #put(Object, List, int)} when the
+	 * result of a query is known.
+	 *
+	 * @return the stamp
+	 */
+	synchronized int getStamp() {
+		return clearCount;
+	}
+
+	/**
+	 * Caches the result of a query, unless the cache was cleared while the
+	 * query was made.
+	 *
+	 * @param key
+	 *            the key of a query
+	 * @param result
+	 *            the result of the query
+	 * @param stamp
+	 *            the stamp obtained before the query was made
+	 */
+	synchronized void put(Object key, List result, int stamp) {
+		if (stamp == clearCount && cachedGeneration == getGeneration()) {
+			results.put((Key) key, new ArrayList(result));
+		}
+	}
+
+	synchronized void clear() {
+		clearCount++;
+		results.clear();
+	}
+}
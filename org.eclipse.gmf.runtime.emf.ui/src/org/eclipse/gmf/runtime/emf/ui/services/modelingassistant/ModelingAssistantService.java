@@ -21,6 +21,8 @@ import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gmf.runtime.common.core.service.ExecutionStrategy;
 import org.eclipse.gmf.runtime.common.core.service.IOperation;
+import org.eclipse.gmf.runtime.common.core.service.IProviderChangeListener;
+import org.eclipse.gmf.runtime.common.core.service.ProviderChangeEvent;
 import org.eclipse.gmf.runtime.common.core.service.Service;
 import org.eclipse.gmf.runtime.common.ui.services.util.ActivityFilterProviderDescriptor;
 import org.eclipse.gmf.runtime.emf.type.core.IElementType;
@@ -28,6 +30,11 @@ import org.eclipse.gmf.runtime.emf.ui.internal.MslUIPlugin;
 
 /**
  * This service is used to assist the user with modeling gestures.
+ * <P>
+ * The results of the queries on relationship types and popup bar types are
+ * cached per editing domain until the next transaction or provider change,
+ * as these queries are repeated while the user hovers over the same
+ * elements.
  * 
  * @author cmahoney
  */
@@ -98,6 +105,12 @@ public class ModelingAssistantService
 
 	static {
 		service.configureProviders(MslUIPlugin.getPluginId(), "modelingAssistantProviders"); //$NON-NLS-1$
+		service.addProviderChangeListener(new IProviderChangeListener() {
+
+			public void providerChanged(ProviderChangeEvent event) {
+				ModelingAssistantQueryCache.clearAll();
+			}
+		});
 	}
 
 	protected Service.ProviderDescriptor newProviderDescriptor(
@@ -140,6 +153,42 @@ public class ModelingAssistantService
 		return collapsedList;
 	}
 
+	/**
+	 * Executes a query using the <code>FORWARD</code> execution strategy,
+	 * reusing the result of the same query if the editing domain of its
+	 * arguments has not changed since.
+	 * 
+	 * @param operation
+	 *            the query
+	 * @param first
+	 *            the first adaptable argument of the query
+	 * @param second
+	 *            the second adaptable argument of the query, or
+	 *            <code>null</code>
+	 * @param qualifier
+	 *            any other argument of the query, or <code>null</code>
+	 * @return the collapsed list of results
+	 */
+	private List executeCached(IModelingAssistantOperation operation,
+			IAdaptable first, IAdaptable second, Object qualifier) {
+		ModelingAssistantQueryCache cache = ModelingAssistantQueryCache
+			.getCache(first != null ? first
+				: second);
+		if (cache == null) {
+			return collapseList(execute(ExecutionStrategy.FORWARD, operation));
+		}
+
+		Object key = ModelingAssistantQueryCache.createKey(operation, first,
+			second, qualifier);
+		List result = cache.get(key);
+		if (result == null) {
+			int stamp = cache.getStamp();
+			result = collapseList(execute(ExecutionStrategy.FORWARD, operation));
+			cache.put(key, result, stamp);
+		}
+		return result;
+	}
+
 	/**
 	 * Executes the <code>GetTypesOperation</code> using the 
 	 * <code>FORWARD</code> execution strategy.
@@ -155,9 +204,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getRelTypesOnSource(IAdaptable source) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetRelTypesOnSourceOperation(source));
-		return collapseList(results);
+		return executeCached(new GetRelTypesOnSourceOperation(source),
+			source, null, null);
 	}
 
 	/**
@@ -165,9 +213,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getRelTypesOnTarget(IAdaptable target) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetRelTypesOnTargetOperation(target));
-		return collapseList(results);
+		return executeCached(new GetRelTypesOnTargetOperation(target),
+			target, null, null);
 	}
 
 	/**
@@ -175,9 +222,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getRelTypesOnSourceAndTarget(IAdaptable source, IAdaptable target) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetRelTypesOnSourceAndTargetOperation(source, target));
-		return collapseList(results);
+		return executeCached(new GetRelTypesOnSourceAndTargetOperation(source, target),
+			source, target, null);
 	}
 
 	/**
@@ -185,9 +231,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getRelTypesForSREOnSource(IAdaptable source) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetRelTypesForSREOnSourceOperation(source));
-		return collapseList(results);
+		return executeCached(new GetRelTypesForSREOnSourceOperation(source),
+			source, null, null);
 	}
 
 	/**
@@ -195,9 +240,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getRelTypesForSREOnTarget(IAdaptable target) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetRelTypesForSREOnTargetOperation(target));
-		return collapseList(results);
+		return executeCached(new GetRelTypesForSREOnTargetOperation(target),
+			target, null, null);
 	}
 
 	/**
@@ -206,9 +250,8 @@ public class ModelingAssistantService
 	 */
 	public List getTypesForSource(IAdaptable target,
 		IElementType relationshipType) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetTypesForSourceOperation(target, relationshipType));
-		return collapseList(results);
+		return executeCached(new GetTypesForSourceOperation(target,
+			relationshipType), target, null, relationshipType);
 	}
 
 	/**
@@ -217,9 +260,8 @@ public class ModelingAssistantService
 	 */
 	public List getTypesForTarget(IAdaptable source,
 		IElementType relationshipType) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetTypesForTargetOperation(source, relationshipType));
-		return collapseList(results);
+		return executeCached(new GetTypesForTargetOperation(source,
+			relationshipType), source, null, relationshipType);
 	}
 
 	/**
@@ -251,9 +293,8 @@ public class ModelingAssistantService
 	 * <code>FORWARD</code> execution strategy.
 	 */
 	public List getTypesForPopupBar(IAdaptable host) {
-		List results = execute(ExecutionStrategy.FORWARD,
-			new GetTypesForPopupBarOperation(host));
-		return collapseList(results);
+		return executeCached(new GetTypesForPopupBarOperation(host),
+			host, null, null);
 	}
 
 	/**
@@ -22,6 +22,7 @@ import org.eclipse.gmf.tests.runtime.common.core.internal.service.ProviderPriori
 import org.eclipse.gmf.tests.runtime.common.core.internal.service.ServiceTest;
 import org.eclipse.gmf.tests.runtime.common.core.internal.util.HashUtilTest;
 import org.eclipse.gmf.tests.runtime.common.core.internal.util.ProxyTest;
+import org.eclipse.gmf.tests.runtime.common.core.internal.util.StringMatcherTest;
 import org.eclipse.gmf.tests.runtime.common.core.internal.util.StringUtilTest;
 
 import junit.framework.Test;
@@ -46,6 +47,7 @@ public class AllTests extends TestCase {
         suite.addTest(OneTimeCommandTest.suite());
         suite.addTest(ProviderPriorityTest.suite());
         suite.addTest(ProxyTest.suite());
+        suite.addTest(StringMatcherTest.suite());
         suite.addTest(StringUtilTest.suite());
         suite.addTest(ServiceTest.suite());
         return suite;
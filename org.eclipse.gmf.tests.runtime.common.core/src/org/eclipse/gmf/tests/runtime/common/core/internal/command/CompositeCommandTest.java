@@ -12,9 +12,11 @@
 
 package org.eclipse.gmf.tests.runtime.common.core.internal.command;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 
@@ -27,6 +29,7 @@ import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.AbstractOperation;
 import org.eclipse.core.commands.operations.IOperationHistory;
 import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.commands.operations.IUndoableOperation;
 import org.eclipse.core.commands.operations.OperationHistoryFactory;
 import org.eclipse.core.commands.operations.UndoContext;
 import org.eclipse.core.runtime.IAdaptable;
@@ -38,6 +41,8 @@ import org.eclipse.gmf.runtime.common.core.command.AbstractCommand;
 import org.eclipse.gmf.runtime.common.core.command.CommandResult;
 import org.eclipse.gmf.runtime.common.core.command.CompositeCommand;
 import org.eclipse.gmf.runtime.common.core.command.ICommand;
+import org.eclipse.gmf.runtime.common.core.internal.command.CommandMergers;
+import org.eclipse.gmf.runtime.common.core.internal.command.ICommandMerger;
 
 /**
  * Tests the {@link AbstractCommand}.
@@ -848,6 +853,182 @@ public class CompositeCommandTest
         assertEquals(IStatus.CANCEL, status.getSeverity());
     }
 
+    /**
+     * Tests that compacting a composite replaces nested composites by their
+     * children, in order, without changing the undo contexts.
+     */
+    public void test_compact_flattensNestedComposites() {
+        IUndoContext ctx1 = new UndoContext();
+        IUndoContext ctx2 = new UndoContext();
+
+        CompositeCommand composite = new CompositeCommand("Composite"); //$NON-NLS-1$
+        CompositeCommand nested = new CompositeCommand("Nested"); //$NON-NLS-1$
+        CompositeCommand nested2 = new CompositeCommand("Nested2"); //$NON-NLS-1$
+
+        TestCommand child1 = new TestCommand();
+        TestCommand child2 = new TestCommand();
+        TestCommand child3 = new TestCommand();
+        TestCommand child4 = new TestCommand();
+
+        child1.addContext(ctx1);
+        child3.addContext(ctx2);
+
+        nested2.add(child3);
+        nested.add(child2);
+        nested.add(nested2);
+
+        composite.add(child1);
+        composite.add(nested);
+        composite.add(child4);
+
+        composite.compact();
+
+        assertEquals(Arrays.asList(new ICommand[] {child1, child2, child3,
+            child4}), children(composite));
+        assertEquals(Arrays.asList(new IUndoContext[] {ctx1, ctx2}), Arrays
+            .asList(composite.getContexts()));
+
+        try {
+            history.execute(composite, new NullProgressMonitor(), null);
+            child1.assertExecuted();
+            child2.assertExecuted();
+            child3.assertExecuted();
+            child4.assertExecuted();
+
+            history.undo(ctx2, new NullProgressMonitor(), null);
+            child1.assertUndone();
+            child2.assertUndone();
+            child3.assertUndone();
+            child4.assertUndone();
+        } catch (ExecutionException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Tests that compacting a composite merges consecutive mergeable children.
+     */
+    public void test_compact_mergesChildren() {
+        CompositeCommand composite = new CompositeCommand("Composite"); //$NON-NLS-1$
+
+        MergeableCommand mergeable1 = new MergeableCommand();
+        MergeableCommand mergeable2 = new MergeableCommand();
+        TestCommand plain = new TestCommand();
+        MergeableCommand mergeable3 = new MergeableCommand();
+
+        composite.add(mergeable1);
+        composite.add(mergeable2);
+        composite.add(plain);
+        composite.add(mergeable3);
+
+        composite.compact();
+
+        assertEquals(Arrays.asList(new ICommand[] {mergeable1, plain,
+            mergeable3}), children(composite));
+        assertEquals(1, mergeable1.merged);
+        assertEquals(0, mergeable3.merged);
+    }
+
+    /**
+     * Tests that a composite is not compacted if it would execute a shared
+     * child more than once.
+     */
+    public void test_compact_sharedChild() {
+        CompositeCommand composite = new CompositeCommand("Composite"); //$NON-NLS-1$
+        CompositeCommand nested = new CompositeCommand("Nested"); //$NON-NLS-1$
+
+        TestCommand shared = new TestCommand();
+        nested.add(shared);
+
+        composite.add(shared);
+        composite.add(nested);
+
+        composite.compact();
+
+        assertEquals(Arrays.asList(new ICommand[] {shared, nested}),
+            children(composite));
+    }
+
+    /**
+     * Tests that the undo contexts are still maintained when children are
+     * removed from a compacted composite.
+     */
+    public void test_compact_contexts() {
+        IUndoContext ctx1 = new UndoContext();
+        IUndoContext ctx2 = new UndoContext();
+
+        CompositeCommand composite = new CompositeCommand("Composite"); //$NON-NLS-1$
+        CompositeCommand nested = new CompositeCommand("Nested"); //$NON-NLS-1$
+
+        TestCommand child1 = new TestCommand();
+        TestCommand child2 = new TestCommand();
+        TestCommand child3 = new TestCommand();
+
+        child1.addContext(ctx1);
+        child2.addContext(ctx1);
+        child2.addContext(ctx2);
+        child3.addContext(ctx2);
+
+        nested.add(child2);
+        nested.add(child3);
+        composite.add(child1);
+        composite.add(nested);
+
+        composite.compact();
+
+        composite.remove(child2);
+        assertEquals(Arrays.asList(new IUndoContext[] {ctx1, ctx2}), Arrays
+            .asList(composite.getContexts()));
+
+        composite.remove(child3);
+        assertEquals(Arrays.asList(new IUndoContext[] {ctx1}), Arrays
+            .asList(composite.getContexts()));
+
+        composite.remove(child1);
+        assertEquals(Collections.EMPTY_LIST, Arrays.asList(composite
+            .getContexts()));
+    }
+
+    /**
+     * Tests that a composite with few children is compacted when it is
+     * executed if its nested composites hold many operations.
+     */
+    public void test_execute_compactsNestedChildren() {
+        CompositeCommand composite = new CompositeCommand("Composite"); //$NON-NLS-1$
+        List leaves = new ArrayList();
+
+        for (int i = 0; i < 2; i++) {
+            CompositeCommand nested = new CompositeCommand("Nested"); //$NON-NLS-1$
+
+            for (int j = 0; j < 20; j++) {
+                TestCommand leaf = new TestCommand();
+                nested.add(leaf);
+                leaves.add(leaf);
+            }
+            composite.add(nested);
+        }
+
+        try {
+            history.execute(composite, new NullProgressMonitor(), null);
+        } catch (ExecutionException e) {
+            fail(e);
+        }
+
+        assertEquals(leaves, children(composite));
+        for (Iterator iter = leaves.iterator(); iter.hasNext();) {
+            ((TestCommand) iter.next()).assertExecuted();
+        }
+    }
+
+    private static List children(CompositeCommand composite) {
+        List result = new ArrayList();
+
+        for (Iterator iter = composite.iterator(); iter.hasNext();) {
+            result.add(iter.next());
+        }
+        return result;
+    }
+
     //
     // TEST FIXTURES
     //
@@ -1020,6 +1201,27 @@ public class CompositeCommandTest
         }
     }
 
+    protected static class MergeableCommand
+        extends TestCommand {
+
+        static {
+            CommandMergers.register(MergeableCommand.class,
+                new ICommandMerger() {
+
+                    public boolean merge(IUndoableOperation previous,
+                            IUndoableOperation next) {
+                        if (next instanceof MergeableCommand) {
+                            ((MergeableCommand) previous).merged++;
+                            return true;
+                        }
+                        return false;
+                    }
+                });
+        }
+
+        int merged;
+    }
+
     static class MarkerOperation
         extends AbstractOperation {
 
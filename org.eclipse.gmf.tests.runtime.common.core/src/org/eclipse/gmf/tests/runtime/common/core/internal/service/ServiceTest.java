@@ -58,6 +58,10 @@ public class ServiceTest extends TestCase {
             super(true);
         }
 
+        protected Fixture(boolean optimistic) {
+            super(true, optimistic);
+        }
+
         protected List getFixtureProviders(
             ExecutionStrategy strategy,
             ProviderPriority priority,
@@ -188,4 +192,97 @@ public class ServiceTest extends TestCase {
         assertTrue(!getFixture().provides(operation));
     }
 
+    public void test_cacheStatistics() {
+        ExecutionStrategy strategy = new ExecutionStrategy("Dummy") {//$NON-NLS-1$
+
+            private static final long serialVersionUID = 1L;
+
+            public List execute(Service service, IOperation operation) {
+                return Collections.EMPTY_LIST;
+            }
+        };
+
+        IOperation operation = new IOperation() {
+            public Object execute(IProvider provider) {
+                return null;
+            }
+        };
+        IProvider trueProvider = new AbstractProvider() {
+            public boolean provides(IOperation op) {
+                return true;
+            }
+        };
+        getFixture().addFixtureProvider(ProviderPriority.MEDIUM,
+            new Fixture.ProviderDescriptor(trueProvider));
+        assertEquals(0, getFixture().getCacheHits());
+        assertEquals(0, getFixture().getCacheMisses());
+
+        for (int i = 0; i < 10; i++) {
+            getFixture().getFixtureProviders(strategy,
+                ProviderPriority.MEDIUM, operation);
+        }
+        assertEquals(9, getFixture().getCacheHits());
+        assertEquals(1, getFixture().getCacheMisses());
+
+        // adding a provider clears the cache
+        getFixture().addFixtureProvider(ProviderPriority.MEDIUM,
+            new Fixture.ProviderDescriptor(trueProvider));
+        getFixture().getFixtureProviders(strategy, ProviderPriority.MEDIUM,
+            operation);
+        assertEquals(9, getFixture().getCacheHits());
+        assertEquals(2, getFixture().getCacheMisses());
+    }
+
+    public void test_emptyResultCached() {
+        ExecutionStrategy strategy = new ExecutionStrategy("Dummy") {//$NON-NLS-1$
+
+            private static final long serialVersionUID = 1L;
+
+            public List execute(Service service, IOperation operation) {
+                return Collections.EMPTY_LIST;
+            }
+        };
+
+        IOperation operation = new IOperation() {
+            public Object execute(IProvider provider) {
+                return null;
+            }
+        };
+        final int[] count = new int[1];
+        IProvider falseProvider = new AbstractProvider() {
+            public boolean provides(IOperation op) {
+                count[0]++;
+                return false;
+            }
+        };
+
+        // by default, an empty result is looked up again
+        Fixture fixture = new Fixture(false);
+        fixture.addFixtureProvider(ProviderPriority.MEDIUM,
+            new Fixture.ProviderDescriptor(falseProvider));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(fixture.getFixtureProviders(strategy,
+                ProviderPriority.MEDIUM, operation).isEmpty());
+        }
+        assertEquals(3, count[0]);
+        assertEquals(0, fixture.getCacheHits());
+        assertEquals(3, fixture.getCacheMisses());
+
+        count[0] = 0;
+        fixture = new Fixture(false) {
+            protected boolean isEmptyResultCached() {
+                return true;
+            }
+        };
+        fixture.addFixtureProvider(ProviderPriority.MEDIUM,
+            new Fixture.ProviderDescriptor(falseProvider));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(fixture.getFixtureProviders(strategy,
+                ProviderPriority.MEDIUM, operation).isEmpty());
+        }
+        assertEquals(1, count[0]);
+        assertEquals(2, fixture.getCacheHits());
+        assertEquals(1, fixture.getCacheMisses());
+    }
+
 }
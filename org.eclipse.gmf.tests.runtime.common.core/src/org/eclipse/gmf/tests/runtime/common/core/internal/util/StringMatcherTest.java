@@ -0,0 +1,106 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.common.core.internal.util;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.gmf.runtime.common.core.util.StringMatcher;
+
+/**
+ * Tests org.eclipse.gmf.runtime.common.core.util.StringMatcher
+ */
+public class StringMatcherTest extends TestCase {
+
+    public static void main(String[] args) {
+        TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(StringMatcherTest.class);
+    }
+
+    public StringMatcherTest(String name) {
+        super(name);
+    }
+
+    public void test_exact() {
+        StringMatcher matcher = new StringMatcher("Foo", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("foo")); //$NON-NLS-1$
+        assertTrue(matcher.match("FOO")); //$NON-NLS-1$
+        assertFalse(matcher.match("fo")); //$NON-NLS-1$
+        assertFalse(matcher.match("food")); //$NON-NLS-1$
+
+        matcher = new StringMatcher("Foo", false, false); //$NON-NLS-1$
+        assertTrue(matcher.match("Foo")); //$NON-NLS-1$
+        assertFalse(matcher.match("foo")); //$NON-NLS-1$
+
+        matcher = new StringMatcher("F?o", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("fxo")); //$NON-NLS-1$
+        assertFalse(matcher.match("fxoo")); //$NON-NLS-1$
+    }
+
+    public void test_prefix() {
+        StringMatcher matcher = new StringMatcher("foo*", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("foo")); //$NON-NLS-1$
+        assertTrue(matcher.match("FooBar")); //$NON-NLS-1$
+        assertFalse(matcher.match("fo")); //$NON-NLS-1$
+        assertFalse(matcher.match("barfoo")); //$NON-NLS-1$
+
+        matcher = new StringMatcher("foo\\*", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("foo*")); //$NON-NLS-1$
+        assertFalse(matcher.match("foobar")); //$NON-NLS-1$
+    }
+
+    public void test_segments() {
+        StringMatcher matcher = new StringMatcher("*ab*c?d", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("xxABxxcxd")); //$NON-NLS-1$
+        assertTrue(matcher.match("abcxd")); //$NON-NLS-1$
+        assertFalse(matcher.match("abcxdx")); //$NON-NLS-1$
+        assertFalse(matcher.match("acxd")); //$NON-NLS-1$
+
+        matcher = new StringMatcher("*", true, false); //$NON-NLS-1$
+        assertTrue(matcher.match("")); //$NON-NLS-1$
+        assertTrue(matcher.match("anything")); //$NON-NLS-1$
+    }
+
+    public void test_ignoreWildCards() {
+        StringMatcher matcher = new StringMatcher("a*b", true, true); //$NON-NLS-1$
+        assertTrue(matcher.match("A*B")); //$NON-NLS-1$
+        assertFalse(matcher.match("axb")); //$NON-NLS-1$
+    }
+
+    public void test_charSequence() {
+        StringMatcher matcher = new StringMatcher("*bar", true, false); //$NON-NLS-1$
+        StringBuffer buffer = new StringBuffer("foo"); //$NON-NLS-1$
+        assertFalse(matcher.match(buffer));
+        buffer.append("BAR"); //$NON-NLS-1$
+        assertTrue(matcher.match(buffer));
+        assertTrue(matcher.match(buffer, 2, 6));
+        assertFalse(matcher.match(buffer, 0, 5));
+    }
+
+    public void test_batch() {
+        StringMatcher matcher = new StringMatcher("b?r*", true, false); //$NON-NLS-1$
+        String[] texts = new String[] {"bar", "Beer", "BORING", null, "abr"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        boolean[] results = new boolean[texts.length];
+        assertEquals(2, matcher.match(texts, results));
+        assertTrue(results[0]);
+        assertFalse(results[1]);
+        assertTrue(results[2]);
+        assertFalse(results[3]);
+        assertFalse(results[4]);
+    }
+}
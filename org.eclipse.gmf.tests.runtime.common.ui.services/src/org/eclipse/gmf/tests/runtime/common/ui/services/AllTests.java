@@ -12,6 +12,7 @@
 package org.eclipse.gmf.tests.runtime.common.ui.services;
 
 import org.eclipse.gmf.tests.runtime.common.ui.services.elementselection.ElementSelectionFilterTest;
+import org.eclipse.gmf.tests.runtime.common.ui.services.elementselection.ElementSelectionNameIndexTest;
 import org.eclipse.gmf.tests.runtime.common.ui.services.elementselection.ElementSelectionScopeTest;
 import org.eclipse.gmf.tests.runtime.common.ui.services.elementselection.ElementSelectionUserInputTest;
 
@@ -36,6 +37,7 @@ public class AllTests extends TestCase {
         suite.addTest(ElementSelectionScopeTest.suite());
         suite.addTest(ElementSelectionFilterTest.suite());
         suite.addTest(ElementSelectionUserInputTest.suite());
+        suite.addTest(ElementSelectionNameIndexTest.suite());
         return suite;
     }
 
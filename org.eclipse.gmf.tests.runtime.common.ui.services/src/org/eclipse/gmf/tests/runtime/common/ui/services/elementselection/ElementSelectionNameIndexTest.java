@@ -0,0 +1,127 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+package org.eclipse.gmf.tests.runtime.common.ui.services.elementselection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.gmf.runtime.common.ui.services.elementselection.AbstractMatchingObject;
+import org.eclipse.gmf.runtime.common.ui.services.elementselection.ElementSelectionNameIndex;
+import org.eclipse.gmf.runtime.common.ui.services.elementselection.IMatchingObject;
+
+/**
+ * Test cases for the name index of the element selection service.
+ */
+public class ElementSelectionNameIndexTest
+    extends TestCase {
+
+    private static final String RESOURCE1 = "resource1"; //$NON-NLS-1$
+
+    private static final String RESOURCE2 = "resource2"; //$NON-NLS-1$
+
+    private ElementSelectionNameIndex index;
+
+    protected void setUp()
+        throws Exception {
+        super.setUp();
+        index = new ElementSelectionNameIndex();
+        put(RESOURCE1, "FooBar"); //$NON-NLS-1$
+        put(RESOURCE1, "FooBarBaz"); //$NON-NLS-1$
+        put(RESOURCE1, "foundation"); //$NON-NLS-1$
+        put(RESOURCE2, "Bar"); //$NON-NLS-1$
+        put(RESOURCE2, "FieldBox"); //$NON-NLS-1$
+    }
+
+    protected void tearDown()
+        throws Exception {
+        super.tearDown();
+        index = null;
+    }
+
+    public static void main(String[] args) {
+        TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(ElementSelectionNameIndexTest.class);
+    }
+
+    private void put(Object owner, String name) {
+        index.put(owner, name, new AbstractMatchingObject(name, name, null,
+            null));
+    }
+
+    private List search(String pattern) {
+        return names(index.search(pattern, null, null));
+    }
+
+    private static List names(ElementSelectionNameIndex.Result result) {
+        List names = new ArrayList();
+        List matchingObjects = result.getMatchingObjects();
+        for (int i = 0; i < matchingObjects.size(); i++) {
+            names.add(((IMatchingObject) matchingObjects.get(i)).getName());
+        }
+        return names;
+    }
+
+    public void test_prefix() {
+        List names = search("foo"); //$NON-NLS-1$
+        assertEquals(2, names.size());
+        assertTrue(names.contains("FooBar")); //$NON-NLS-1$
+        assertTrue(names.contains("FooBarBaz")); //$NON-NLS-1$
+        assertEquals(3, search("fo").size()); //$NON-NLS-1$
+        assertTrue(search("x").isEmpty()); //$NON-NLS-1$
+    }
+
+    public void test_wildcards() {
+        List names = search("*bar"); //$NON-NLS-1$
+        assertEquals(3, names.size());
+        assertTrue(names.contains("Bar")); //$NON-NLS-1$
+        assertEquals(1, search("f??n").size()); //$NON-NLS-1$
+    }
+
+    public void test_camelCase() {
+        List names = search("FB"); //$NON-NLS-1$
+        assertEquals(3, names.size());
+        assertTrue(names.contains("FieldBox")); //$NON-NLS-1$
+        names = search("FBa"); //$NON-NLS-1$
+        assertEquals(2, names.size());
+        assertFalse(names.contains("FieldBox")); //$NON-NLS-1$
+        assertEquals(1, search("FBB").size()); //$NON-NLS-1$
+    }
+
+    public void test_refine() {
+        ElementSelectionNameIndex.Result result = index.search("f", null, //$NON-NLS-1$
+            null);
+        assertEquals(4, names(result).size());
+        result = index.search("foo", result, null); //$NON-NLS-1$
+        assertEquals(2, names(result).size());
+
+        // the index was modified, the previous result cannot be refined
+        put(RESOURCE2, "FoodChain"); //$NON-NLS-1$
+        result = index.search("food", result, null); //$NON-NLS-1$
+        assertEquals(1, names(result).size());
+    }
+
+    public void test_remove() {
+        index.remove("FooBar"); //$NON-NLS-1$
+        assertEquals(1, search("FooB").size()); //$NON-NLS-1$
+        index.removeAll(RESOURCE1);
+        assertEquals(2, index.size());
+        assertEquals(1, search("F").size()); //$NON-NLS-1$
+    }
+}
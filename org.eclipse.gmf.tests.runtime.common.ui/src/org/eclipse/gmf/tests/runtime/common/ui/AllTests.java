@@ -17,6 +17,7 @@ import org.eclipse.gmf.tests.runtime.common.ui.action.actions.global.GlobalUndoA
 import org.eclipse.gmf.tests.runtime.common.ui.internal.action.AbstractActionDelegateTest;
 import org.eclipse.gmf.tests.runtime.common.ui.internal.action.AbstractActionHandlerTest;
 import org.eclipse.gmf.tests.runtime.common.ui.internal.action.ActionManagerTest;
+import org.eclipse.gmf.tests.runtime.common.ui.internal.action.ActionRefreshSchedulerTest;
 import org.eclipse.gmf.tests.runtime.common.ui.internal.action.RemoveMnemonicTests;
 import org.eclipse.gmf.tests.runtime.common.ui.internal.dialogs.SelectableElementTest;
 import org.eclipse.gmf.tests.runtime.common.ui.internal.resources.FileChangeEventTest;
@@ -41,6 +42,7 @@ public class AllTests extends TestCase {
         suite.addTest(AbstractActionDelegateTest.suite());
         suite.addTest(AbstractActionHandlerTest.suite());
         suite.addTest(ActionManagerTest.suite());
+        suite.addTest(ActionRefreshSchedulerTest.suite());
         suite.addTest(RemoveMnemonicTests.suite());
         // suite.addTest(ExtendedPropertyDescriptorTest.suite());
         // suite.addTest(ExtendedTextPropertyDescriptorTest.suite());
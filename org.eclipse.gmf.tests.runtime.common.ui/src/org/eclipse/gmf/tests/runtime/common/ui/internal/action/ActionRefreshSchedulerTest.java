@@ -0,0 +1,193 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+package org.eclipse.gmf.tests.runtime.common.ui.internal.action;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.gmf.runtime.common.ui.action.AbstractActionHandler;
+import org.eclipse.gmf.runtime.common.ui.action.ActionRefreshScheduler;
+import org.eclipse.gmf.runtime.common.ui.util.IPartSelector;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Tests the {@link ActionRefreshScheduler}.
+ */
+public class ActionRefreshSchedulerTest extends TestCase {
+
+	private ActionRefreshScheduler scheduler;
+
+	private IWorkbenchPart part;
+
+	public ActionRefreshSchedulerTest(String name) {
+		super(name);
+	}
+
+	public static void main(String[] args) {
+		TestRunner.run(suite());
+	}
+
+	public static Test suite() {
+		return new TestSuite(ActionRefreshSchedulerTest.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		scheduler = ActionRefreshScheduler.getInstance();
+		part = PlatformUI.getWorkbench().getActiveWorkbenchWindow()
+			.getActivePage().getActivePart();
+		assertNotNull(part);
+	}
+
+	/**
+	 * Tests that several refresh requests before a tick result in a single
+	 * refresh.
+	 */
+	public void test_refreshesCoalesced() {
+		CountingActionHandler handler = new CountingActionHandler(part);
+		try {
+			scheduler.schedule(handler);
+			scheduler.schedule(handler);
+			scheduler.schedule(handler);
+			assertTrue(scheduler.isScheduled(handler));
+
+			scheduler.flush();
+
+			assertEquals(1, handler.refreshCount);
+			assertFalse(scheduler.isScheduled(handler));
+		} finally {
+			handler.dispose();
+		}
+	}
+
+	/**
+	 * Tests that querying the enablement performs a pending refresh.
+	 */
+	public void test_isEnabledRefreshesPending() {
+		CountingActionHandler handler = new CountingActionHandler(part);
+		try {
+			scheduler.schedule(handler);
+			handler.isEnabled();
+
+			assertEquals(1, handler.refreshCount);
+			assertFalse(scheduler.isScheduled(handler));
+
+			scheduler.flush();
+			assertEquals(1, handler.refreshCount);
+		} finally {
+			handler.dispose();
+		}
+	}
+
+	/**
+	 * Tests that a handler that is not contributed to its part is left
+	 * pending by a flush, and is refreshed when its enablement is queried.
+	 */
+	public void test_notContributedHandlerDeferred() {
+		CountingActionHandler handler = new CountingActionHandler(part);
+		CountingActionHandler other = new CountingActionHandler(part);
+		try {
+			handler.setPartSelector(new IPartSelector() {
+
+				public boolean selects(IWorkbenchPart p) {
+					return false;
+				}
+			});
+			scheduler.schedule(handler);
+			scheduler.schedule(other);
+
+			scheduler.flush();
+
+			assertEquals(0, handler.refreshCount);
+			assertTrue(scheduler.isScheduled(handler));
+			assertEquals(1, other.refreshCount);
+
+			handler.isEnabled();
+			assertEquals(1, handler.refreshCount);
+			assertFalse(scheduler.isScheduled(handler));
+		} finally {
+			handler.dispose();
+			other.dispose();
+		}
+	}
+
+	/**
+	 * Tests that a disposed handler is not refreshed and no longer pending.
+	 */
+	public void test_disposedHandlerNotRefreshed() {
+		CountingActionHandler handler = new CountingActionHandler(part);
+		scheduler.schedule(handler);
+		handler.dispose();
+
+		assertFalse(scheduler.isScheduled(handler));
+		scheduler.flush();
+		assertEquals(0, handler.refreshCount);
+	}
+
+	/**
+	 * Tests that the handlers of a batch see the same selection instance, and
+	 * that shared results are discarded at the end of the batch.
+	 */
+	public void test_selectionSharedInBatch() {
+		CountingActionHandler first = new CountingActionHandler(part);
+		CountingActionHandler second = new CountingActionHandler(part);
+		try {
+			scheduler.schedule(first);
+			scheduler.schedule(second);
+
+			scheduler.flush();
+
+			assertNotNull(first.selection);
+			assertSame(first.selection, second.selection);
+			assertFalse(scheduler.isFlushing());
+
+			Object key = new Object();
+			scheduler.putSharedResult(key, Boolean.TRUE);
+			assertNull(scheduler.getSharedResult(key));
+		} finally {
+			first.dispose();
+			second.dispose();
+		}
+	}
+
+	//
+	// TEST FIXTURES
+	//
+
+	/**
+	 * Counts its refreshes and records the selection it saw.
+	 */
+	private static class CountingActionHandler extends AbstractActionHandler {
+
+		int refreshCount;
+
+		ISelection selection;
+
+		CountingActionHandler(IWorkbenchPart part) {
+			super(part);
+		}
+
+		protected void doRun(IProgressMonitor progressMonitor) {
+			// do nothing
+		}
+
+		public void refresh() {
+			refreshCount++;
+			selection = getSelection();
+		}
+	}
+}
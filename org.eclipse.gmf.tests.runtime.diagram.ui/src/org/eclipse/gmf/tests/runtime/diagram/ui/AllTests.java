@@ -17,6 +17,7 @@ import org.eclipse.gmf.tests.runtime.diagram.ui.commands.CommandTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.commands.CommandUtilitiesTest;
 import org.eclipse.gmf.tests.runtime.diagram.ui.commands.SemanticCreateCommandTest;
 import org.eclipse.gmf.tests.runtime.diagram.ui.label.LabelTests;
+import org.eclipse.gmf.tests.runtime.diagram.ui.logic.ConnectionRefreshTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.logic.DiagramAssistantTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.logic.DiagramGraphicalViewerTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.logic.GroupTests;
@@ -32,7 +33,9 @@ import org.eclipse.gmf.tests.runtime.diagram.ui.parts.ConnectionHandleLocatorTes
 import org.eclipse.gmf.tests.runtime.diagram.ui.parts.ConnectionHandleTest;
 import org.eclipse.gmf.tests.runtime.diagram.ui.parts.DiagramCommandStackTest;
 import org.eclipse.gmf.tests.runtime.diagram.ui.parts.GraphicalNodeEditPolicyTests;
+import org.eclipse.gmf.tests.runtime.diagram.ui.parts.ListCompartmentEditPartTest;
 import org.eclipse.gmf.tests.runtime.diagram.ui.render.util.CopyToImageUtilTests;
+import org.eclipse.gmf.tests.runtime.diagram.ui.render.util.DiagramExportCacheTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.requests.RequestTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.services.DiagramEventBrokerServiceTests;
 import org.eclipse.gmf.tests.runtime.diagram.ui.services.PaletteServiceTests;
@@ -72,13 +75,18 @@ public class AllTests extends TestCase {
         suite.addTest(SemanticCreateCommandTest.suite());
         suite.addTest(PaletteTests.suite());
         suite.addTest(GraphicalNodeEditPolicyTests.suite());
+        suite.addTest(ListCompartmentEditPartTest.suite());
         // temporarily removed to check if it's causing problems on a build server
         // suite.addTest(DiagramEventBrokerTests.suite());
         suite.addTest(LogicTransientViewsTests.suite());
+        suite.addTest(ConnectionRefreshTests.suite());
         suite.addTest(RequestTests.suite());
         suite.addTest(ConnectionToolTests.suite());
         suite.addTest(CopyToImageUtilTests.suite());
+        suite.addTest(DiagramExportCacheTests.suite());
         suite.addTest(DiagramEditingDomainTestCase.suite());
+        suite.addTest(DiagramIOUtilTests.suite());
+        suite.addTest(PreviewPageCacheTests.suite());
         suite.addTest(CommandUtilitiesTest.suite());
         suite.addTest(DiagramEventBrokerServiceTests.suite());
         suite.addTest(LabelTests.suite());
@@ -0,0 +1,261 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.diagram.ui;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gmf.runtime.diagram.ui.resources.editor.internal.util.DiagramIOUtil;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.Node;
+import org.eclipse.gmf.runtime.notation.NotationFactory;
+
+/**
+ * Tests the loading of diagrams by {@link DiagramIOUtil}, and the prefetching
+ * of the resources they reference.
+ */
+public class DiagramIOUtilTests
+	extends TestCase {
+
+	private static final String PARALLELISM_PROPERTY = "org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchThreads"; //$NON-NLS-1$
+
+	private static final String DEPTH_PROPERTY = "org.eclipse.gmf.runtime.diagram.ui.resources.editor.prefetchDepth"; //$NON-NLS-1$
+
+	private static final String PROJECT_NAME = "DiagramIOUtilTests"; //$NON-NLS-1$
+
+	private IProject project;
+
+	public static Test suite() {
+		return new TestSuite(DiagramIOUtilTests.class);
+	}
+
+	public DiagramIOUtilTests(String name) {
+		super(name);
+	}
+
+	protected void setUp()
+		throws Exception {
+		super.setUp();
+		System.getProperties().remove(PARALLELISM_PROPERTY);
+		System.getProperties().remove(DEPTH_PROPERTY);
+
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(
+			PROJECT_NAME);
+		if (!project.exists()) {
+			project.create(null);
+		}
+		project.open(null);
+		createModel();
+	}
+
+	protected void tearDown()
+		throws Exception {
+		System.getProperties().remove(PARALLELISM_PROPERTY);
+		System.getProperties().remove(DEPTH_PROPERTY);
+		project.delete(true, true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that nothing but the diagram is loaded when prefetching is not
+	 * configured.
+	 */
+	public void testNoPrefetchByDefault()
+		throws Exception {
+		Set loaded = load();
+
+		assertEquals(1, loaded.size());
+		assertTrue(loaded.contains("diagram.xmi")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that, once enabled, prefetching only loads the resources that the
+	 * diagram references directly, and that an unresolvable reference does
+	 * not prevent the diagram from opening.
+	 */
+	public void testPrefetchDirectReferences()
+		throws Exception {
+		System.setProperty(PARALLELISM_PROPERTY, "2"); //$NON-NLS-1$
+
+		Set loaded = load();
+
+		assertTrue(loaded.contains("diagram.xmi")); //$NON-NLS-1$
+		assertTrue(loaded.contains("a.xmi")); //$NON-NLS-1$
+		assertFalse(loaded.contains("b.xmi")); //$NON-NLS-1$
+		assertFalse(loaded.contains("c.xmi")); //$NON-NLS-1$
+		assertFalse(loaded.contains("missing.xmi")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that prefetching follows as many levels of references as
+	 * configured.
+	 */
+	public void testPrefetchDepth()
+		throws Exception {
+		System.setProperty(PARALLELISM_PROPERTY, "2"); //$NON-NLS-1$
+		System.setProperty(DEPTH_PROPERTY, "2"); //$NON-NLS-1$
+
+		Set loaded = load();
+
+		assertTrue(loaded.contains("a.xmi")); //$NON-NLS-1$
+		assertTrue(loaded.contains("b.xmi")); //$NON-NLS-1$
+		assertFalse(loaded.contains("c.xmi")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the references of the diagram resolve to the prefetched
+	 * resources, rather than to resources loaded again on demand.
+	 */
+	public void testProxiesResolveToPrefetchedResources()
+		throws Exception {
+		System.setProperty(PARALLELISM_PROPERTY, "2"); //$NON-NLS-1$
+
+		TransactionalEditingDomain domain = TransactionalEditingDomain.Factory.INSTANCE
+			.createEditingDomain();
+		try {
+			Diagram diagram = DiagramIOUtil.load(domain, project
+				.getFile("diagram.xmi"), false, new NullProgressMonitor()); //$NON-NLS-1$
+			ResourceSet resourceSet = domain.getResourceSet();
+			Resource prefetched = resourceSet.getResource(getURI("a.xmi"), //$NON-NLS-1$
+				false);
+			assertNotNull(prefetched);
+			assertTrue(prefetched.isLoaded());
+			int count = resourceSet.getResources().size();
+
+			EObject element = diagram.getElement();
+
+			assertFalse(element.eIsProxy());
+			assertSame(prefetched, element.eResource());
+			assertSame(prefetched.getContents().get(0), element);
+			assertEquals(count, resourceSet.getResources().size());
+		} finally {
+			domain.dispose();
+		}
+	}
+
+	/**
+	 * Tests that prefetching reports the resources it loads on the progress
+	 * monitor.
+	 */
+	public void testPrefetchProgressReported()
+		throws Exception {
+		System.setProperty(PARALLELISM_PROPERTY, "2"); //$NON-NLS-1$
+
+		final List subTasks = new ArrayList();
+		TransactionalEditingDomain domain = TransactionalEditingDomain.Factory.INSTANCE
+			.createEditingDomain();
+		try {
+			DiagramIOUtil.load(domain, project.getFile("diagram.xmi"), //$NON-NLS-1$
+				false, new NullProgressMonitor() {
+
+					public void subTask(String name) {
+						subTasks.add(name);
+					}
+				});
+		} finally {
+			domain.dispose();
+		}
+
+		boolean reported = false;
+		for (Iterator i = subTasks.iterator(); i.hasNext();) {
+			reported |= ((String) i.next()).indexOf("a.xmi") >= 0; //$NON-NLS-1$
+		}
+		assertTrue("No progress reported for a.xmi: " + subTasks, reported); //$NON-NLS-1$
+	}
+
+	/**
+	 * Loads the diagram into a new editing domain.
+	 *
+	 * @return the names of the files of the resources loaded
+	 */
+	private Set load()
+		throws Exception {
+		TransactionalEditingDomain domain = TransactionalEditingDomain.Factory.INSTANCE
+			.createEditingDomain();
+		Diagram diagram = DiagramIOUtil.load(domain, project
+			.getFile("diagram.xmi"), false, new NullProgressMonitor()); //$NON-NLS-1$
+		assertNotNull(diagram);
+
+		Set result = new HashSet();
+		for (Iterator i = domain.getResourceSet().getResources().iterator(); i
+			.hasNext();) {
+			Resource resource = (Resource) i.next();
+			if (resource.isLoaded()) {
+				result.add(resource.getURI().lastSegment());
+			}
+		}
+		domain.dispose();
+		return result;
+	}
+
+	/**
+	 * Creates a diagram referencing a.xmi, which references b.xmi, which
+	 * references c.xmi, and a missing resource.
+	 */
+	private void createModel()
+		throws Exception {
+		ResourceSet resourceSet = new ResourceSetImpl();
+
+		EAnnotation c = createAnnotation(resourceSet, "c.xmi"); //$NON-NLS-1$
+		EAnnotation b = createAnnotation(resourceSet, "b.xmi"); //$NON-NLS-1$
+		b.getReferences().add(c);
+		EAnnotation a = createAnnotation(resourceSet, "a.xmi"); //$NON-NLS-1$
+		a.getReferences().add(b);
+
+		EAnnotation missing = EcoreFactory.eINSTANCE.createEAnnotation();
+		((InternalEObject) missing).eSetProxyURI(getURI("missing.xmi") //$NON-NLS-1$
+			.appendFragment("/0")); //$NON-NLS-1$
+
+		Diagram diagram = NotationFactory.eINSTANCE.createDiagram();
+		diagram.setElement(a);
+		Node node = NotationFactory.eINSTANCE.createNode();
+		node.setElement(missing);
+		diagram.getPersistedChildren().add(node);
+		resourceSet.createResource(getURI("diagram.xmi")).getContents().add( //$NON-NLS-1$
+			diagram);
+
+		for (Iterator i = resourceSet.getResources().iterator(); i.hasNext();) {
+			((Resource) i.next()).save(null);
+		}
+	}
+
+	private EAnnotation createAnnotation(ResourceSet resourceSet, String name) {
+		EAnnotation annotation = EcoreFactory.eINSTANCE.createEAnnotation();
+		annotation.setSource(name);
+		resourceSet.createResource(getURI(name)).getContents().add(annotation);
+		return annotation;
+	}
+
+	private URI getURI(String name) {
+		return URI.createPlatformResourceURI(PROJECT_NAME + '/' + name, true);
+	}
+}
@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.diagram.ui;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.gmf.runtime.diagram.ui.internal.pagesetup.PageInfoHelper.PageMargins;
+import org.eclipse.gmf.runtime.diagram.ui.printing.internal.printpreview.PreviewPageCache;
+import org.eclipse.gmf.runtime.diagram.ui.printing.internal.printpreview.PreviewPageCache.PageKey;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests the cache of the rendered print preview pages.
+ */
+public class PreviewPageCacheTests
+	extends TestCase {
+
+	private final List images = new ArrayList();
+
+	public static Test suite() {
+		return new TestSuite(PreviewPageCacheTests.class);
+	}
+
+	public PreviewPageCacheTests(String name) {
+		super(name);
+	}
+
+	protected void tearDown()
+		throws Exception {
+		for (Iterator i = images.iterator(); i.hasNext();) {
+			Image image = (Image) i.next();
+			if (!image.isDisposed()) {
+				image.dispose();
+			}
+		}
+		images.clear();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that a page is found under an equal key.
+	 */
+	public void testGet() {
+		PreviewPageCache cache = new PreviewPageCache(4);
+		Image image = createImage();
+		cache.put(createKey(0, 0), image);
+
+		assertSame(image, cache.get(createKey(0, 0)));
+		assertNull(cache.get(createKey(0, 1)));
+	}
+
+	/**
+	 * Tests that pages drawn with other margins are not shared.
+	 */
+	public void testMarginsDistinguished() {
+		PreviewPageCache cache = new PreviewPageCache(4);
+		cache.put(createKey(0, 0), createImage());
+
+		PageMargins margins = createMargins();
+		margins.top++;
+		assertNull(cache.get(new PageKey(0, 0, 100, 150, 0.5f, 1.0,
+			margins, false, 1, 1)));
+		margins = createMargins();
+		margins.left++;
+		assertNull(cache.get(new PageKey(0, 0, 100, 150, 0.5f, 1.0,
+			margins, false, 1, 1)));
+	}
+
+	/**
+	 * Tests that pages drawn to fit the diagram to some number of pages are
+	 * not shared with pages fit to another number of pages, nor with pages
+	 * that are not fit.
+	 */
+	public void testFitToPageDistinguished() {
+		PreviewPageCache cache = new PreviewPageCache(4);
+		Image image = createImage();
+		cache.put(new PageKey(0, 0, 100, 150, 0.5f, 1.0, createMargins(),
+			true, 1, 1), image);
+
+		assertNull(cache.get(createKey(0, 0)));
+		assertNull(cache.get(new PageKey(0, 0, 100, 150, 0.5f, 1.0,
+			createMargins(), true, 2, 1)));
+		assertSame(image, cache.get(new PageKey(0, 0, 100, 150, 0.5f, 1.0,
+			createMargins(), true, 1, 1)));
+
+		// the page counts only matter when fitting to pages
+		Image other = createImage();
+		cache.put(new PageKey(0, 1, 100, 150, 0.5f, 1.0, createMargins(),
+			false, 2, 3), other);
+		assertSame(other, cache.get(createKey(0, 1)));
+	}
+
+	/**
+	 * Tests that the least recently used page is disposed once the cache is
+	 * full.
+	 */
+	public void testLeastRecentlyUsedDisposed() {
+		PreviewPageCache cache = new PreviewPageCache(2);
+		Image first = createImage();
+		Image second = createImage();
+		Image third = createImage();
+		cache.put(createKey(0, 0), first);
+		cache.put(createKey(0, 1), second);
+
+		// using the first page makes the second the least recently used
+		assertSame(first, cache.get(createKey(0, 0)));
+		cache.put(createKey(0, 2), third);
+
+		assertTrue(second.isDisposed());
+		assertNull(cache.get(createKey(0, 1)));
+		assertFalse(first.isDisposed());
+		assertSame(first, cache.get(createKey(0, 0)));
+		assertSame(third, cache.get(createKey(0, 2)));
+	}
+
+	/**
+	 * Tests that the cache grows to keep twice the visible pages.
+	 */
+	public void testEnsureCapacity() {
+		PreviewPageCache cache = new PreviewPageCache(1);
+		cache.ensureCapacity(2);
+
+		Image[] pages = new Image[4];
+		for (int i = 0; i < pages.length; i++) {
+			pages[i] = createImage();
+			cache.put(createKey(0, i), pages[i]);
+		}
+		for (int i = 0; i < pages.length; i++) {
+			assertFalse(pages[i].isDisposed());
+			assertSame(pages[i], cache.get(createKey(0, i)));
+		}
+	}
+
+	/**
+	 * Tests that replacing a page disposes its previous image, and that
+	 * clearing the cache disposes all of them.
+	 */
+	public void testReplaceAndClearDispose() {
+		PreviewPageCache cache = new PreviewPageCache(4);
+		Image first = createImage();
+		Image replacement = createImage();
+		cache.put(createKey(0, 0), first);
+		cache.put(createKey(0, 0), replacement);
+
+		assertTrue(first.isDisposed());
+		assertSame(replacement, cache.get(createKey(0, 0)));
+
+		cache.clear();
+		assertTrue(replacement.isDisposed());
+		assertNull(cache.get(createKey(0, 0)));
+	}
+
+	/**
+	 * Tests that an image disposed by someone else is no longer returned.
+	 */
+	public void testDisposedImageDropped() {
+		PreviewPageCache cache = new PreviewPageCache(4);
+		Image image = createImage();
+		cache.put(createKey(0, 0), image);
+		image.dispose();
+
+		assertNull(cache.get(createKey(0, 0)));
+	}
+
+	private PageKey createKey(int row, int column) {
+		return new PageKey(row, column, 100, 150, 0.5f, 1.0, createMargins(),
+			false, 1, 1);
+	}
+
+	private PageMargins createMargins() {
+		PageMargins margins = new PageMargins();
+		margins.left = 10;
+		margins.right = 10;
+		margins.top = 20;
+		margins.bottom = 20;
+		return margins;
+	}
+
+	private Image createImage() {
+		Image image = new Image(Display.getDefault(), 10, 10);
+		images.add(image);
+		return image;
+	}
+}
@@ -0,0 +1,226 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.diagram.ui.logic;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gmf.examples.runtime.diagram.logic.internal.providers.LogicConstants;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.IGraphicalEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.ShapeCompartmentEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.ShapeCompartmentEditPart.ConnectionRefreshMgr;
+import org.eclipse.gmf.runtime.emf.type.core.ElementTypeRegistry;
+import org.eclipse.gmf.runtime.emf.type.core.IElementType;
+import org.eclipse.gmf.tests.runtime.diagram.ui.AbstractTestBase;
+import org.eclipse.gmf.tests.runtime.diagram.ui.util.AbstractPresentationTestFixture;
+
+/**
+ * Tests the connection refreshes of the shape compartments refreshed
+ * together at a display tick.
+ */
+public class ConnectionRefreshTests
+	extends AbstractTestBase {
+
+	/**
+	 * Records the connections it finds and tests, and optionally decides by
+	 * itself which edit parts are inside a compartment.
+	 */
+	private static class RecordingConnectionRefreshMgr
+		extends ConnectionRefreshMgr {
+
+		/** <code>null</code> to use the default containment test. */
+		private final Boolean childOf;
+
+		int childOfCount;
+
+		final Set found = new HashSet();
+
+		final List tested = new ArrayList();
+
+		RecordingConnectionRefreshMgr(Boolean childOf) {
+			this.childOf = childOf;
+		}
+
+		protected Set getConnectionNodes(ShapeCompartmentEditPart scep) {
+			Set result = super.getConnectionNodes(scep);
+			found.addAll(result);
+			return result;
+		}
+
+		protected boolean isChildOf(EditPart parent, EditPart child) {
+			childOfCount++;
+			return childOf != null ? childOf.booleanValue()
+				: super.isChildOf(parent, child);
+		}
+
+		protected EditPart getSourceEditPart(
+				ConnectionEditPart connectionEditPart) {
+			tested.add(connectionEditPart);
+			return super.getSourceEditPart(connectionEditPart);
+		}
+	}
+
+	public ConnectionRefreshTests(String name) {
+		super(name);
+	}
+
+	public static void main(String[] args) {
+		TestRunner.run(suite());
+	}
+
+	public static Test suite() {
+		return new TestSuite(ConnectionRefreshTests.class);
+	}
+
+	protected void setTestFixture() {
+		testFixture = new LogicTestFixture();
+	}
+
+	protected AbstractPresentationTestFixture getLogicTestFixture() {
+		return (AbstractPresentationTestFixture) getTestFixture();
+	}
+
+	/**
+	 * Tests that a batch of connection refreshes asks a connection refresh
+	 * manager that overrides <code>isChildOf()</code> which connections
+	 * belong to its compartment.
+	 */
+	public void test_isChildOfOverrideHonored()
+		throws Exception {
+		ShapeCompartmentEditPart first = createHalfAdder(new Point(700, 50));
+		ShapeCompartmentEditPart second = createHalfAdder(new Point(700, 400));
+
+		RecordingConnectionRefreshMgr none = new RecordingConnectionRefreshMgr(
+			Boolean.FALSE);
+		RecordingConnectionRefreshMgr inside = new RecordingConnectionRefreshMgr(
+			null);
+		setConnectionRefreshMgr(first, none);
+		setConnectionRefreshMgr(second, inside);
+
+		refreshConnections(new ShapeCompartmentEditPart[] {first, second});
+
+		assertTrue(none.childOfCount > 0);
+		assertTrue(none.found.isEmpty());
+		assertTrue(none.tested.isEmpty());
+
+		assertTrue(inside.childOfCount > 0);
+		assertFalse(inside.found.isEmpty());
+		for (Object connection : inside.found) {
+			assertTrue(isInside(second,
+				((ConnectionEditPart) connection).getSource()));
+		}
+	}
+
+	/**
+	 * Tests that a connection tested by the manager of a compartment is
+	 * still tested by the different manager of another compartment of the
+	 * same batch.
+	 */
+	public void test_differentManagersNotDeduplicated()
+		throws Exception {
+		ShapeCompartmentEditPart first = createHalfAdder(new Point(700, 50));
+		ShapeCompartmentEditPart second = createHalfAdder(new Point(700, 400));
+
+		RecordingConnectionRefreshMgr firstMgr = new RecordingConnectionRefreshMgr(
+			Boolean.TRUE);
+		RecordingConnectionRefreshMgr secondMgr = new RecordingConnectionRefreshMgr(
+			Boolean.TRUE);
+		setConnectionRefreshMgr(first, firstMgr);
+		setConnectionRefreshMgr(second, secondMgr);
+
+		refreshConnections(new ShapeCompartmentEditPart[] {first, second});
+
+		Set all = new HashSet(getDiagramEditPart().getConnections());
+		assertFalse(all.isEmpty());
+		assertEquals(all, new HashSet(firstMgr.tested));
+		assertEquals(all, new HashSet(secondMgr.tested));
+	}
+
+	/**
+	 * Tests that a manager shared by several compartments of a batch tests
+	 * each connection once.
+	 */
+	public void test_sharedManagerTestsOnce()
+		throws Exception {
+		ShapeCompartmentEditPart first = createHalfAdder(new Point(700, 50));
+		ShapeCompartmentEditPart second = createHalfAdder(new Point(700, 400));
+
+		RecordingConnectionRefreshMgr manager = new RecordingConnectionRefreshMgr(
+			Boolean.TRUE);
+		setConnectionRefreshMgr(first, manager);
+		setConnectionRefreshMgr(second, manager);
+
+		refreshConnections(new ShapeCompartmentEditPart[] {first, second});
+
+		Set all = new HashSet(getDiagramEditPart().getConnections());
+		assertFalse(all.isEmpty());
+		assertEquals(all.size(), manager.tested.size());
+		assertEquals(all, new HashSet(manager.tested));
+	}
+
+	private ShapeCompartmentEditPart createHalfAdder(Point location) {
+		IElementType typeHalfAdder = ElementTypeRegistry.getInstance().getType(
+			"logic.halfAdder"); //$NON-NLS-1$
+		IGraphicalEditPart circuitEP = getLogicTestFixture()
+			.createShapeUsingTool(typeHalfAdder, location, getDiagramEditPart());
+		ShapeCompartmentEditPart compartment = (ShapeCompartmentEditPart) circuitEP
+			.getChildBySemanticHint(LogicConstants.LOGIC_SHAPE_COMPARTMENT);
+		assertNotNull(compartment);
+		return compartment;
+	}
+
+	/**
+	 * Requests the connection refresh of the compartments, which refresh
+	 * them together at the next display tick.
+	 */
+	private void refreshConnections(ShapeCompartmentEditPart[] compartments) {
+		getLogicTestFixture().flushEventQueue();
+		for (int i = 0; i < compartments.length; i++) {
+			compartments[i].refresh();
+		}
+		getLogicTestFixture().flushEventQueue();
+	}
+
+	private static boolean isInside(EditPart parent, EditPart child) {
+		for (EditPart walker = child; walker != null; walker = walker
+			.getParent()) {
+			if (walker == parent) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replaces the connection refresh manager the compartment created, since
+	 * the compartments are made by the logic edit part provider.
+	 */
+	private static void setConnectionRefreshMgr(
+			ShapeCompartmentEditPart compartment, ConnectionRefreshMgr manager)
+		throws Exception {
+		Field field = ShapeCompartmentEditPart.class
+			.getDeclaredField("_crMgr"); //$NON-NLS-1$
+		field.setAccessible(true);
+		field.set(compartment, manager);
+	}
+}
@@ -12,26 +12,49 @@
 
 package org.eclipse.gmf.tests.runtime.diagram.ui.logic;
 
+import java.util.List;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.draw2d.Viewport;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.workspace.AbstractEMFOperation;
 import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gef.GraphicalEditPart;
 import org.eclipse.gmf.examples.runtime.diagram.logic.internal.editparts.LEDEditPart;
 import org.eclipse.gmf.examples.runtime.diagram.logic.internal.editparts.TerminalEditPart;
 import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.LED;
 import org.eclipse.gmf.runtime.diagram.core.commands.DeleteCommand;
+import org.eclipse.gmf.runtime.diagram.core.preferences.PreferencesHint;
+import org.eclipse.gmf.runtime.diagram.core.services.ViewService;
+import org.eclipse.gmf.runtime.diagram.core.util.ViewType;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
+import org.eclipse.gmf.runtime.diagram.ui.actions.internal.SelectAllAction;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.ShapeEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
 import org.eclipse.gmf.runtime.diagram.ui.parts.IDiagramGraphicalViewer;
+import org.eclipse.gmf.runtime.diagram.ui.render.util.CopyToImageUtil;
 import org.eclipse.gmf.runtime.emf.type.core.ElementTypeRegistry;
 import org.eclipse.gmf.runtime.emf.type.core.IElementType;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.LayoutConstraint;
+import org.eclipse.gmf.runtime.notation.Location;
+import org.eclipse.gmf.runtime.notation.Node;
 import org.eclipse.gmf.runtime.notation.View;
 import org.eclipse.gmf.tests.runtime.diagram.ui.AbstractTestBase;
 import org.eclipse.gmf.tests.runtime.diagram.ui.util.ITestCommandCallback;
+import org.eclipse.jface.viewers.StructuredSelection;
 
 /**
  * Tests the
@@ -43,6 +66,11 @@ import org.eclipse.gmf.tests.runtime.diagram.ui.util.ITestCommandCallback;
 public class DiagramGraphicalViewerTests
 	extends AbstractTestBase {
 
+	/**
+	 * The number of notes added to the diagram to virtualize its edit parts.
+	 */
+	private static final int NOTE_COUNT = 600;
+
 	public static Test suite() {
 		TestSuite s = new TestSuite(DiagramGraphicalViewerTests.class);
 		return s;
@@ -161,4 +189,209 @@ public class DiagramGraphicalViewerTests
 		//		.size());
 	}
 
+	/**
+	 * Tests that the views of an element that were left out of a virtualized
+	 * diagram are found.
+	 * 
+	 * @throws Exception
+	 */
+	public void testFindEditPartsForElementVirtualized()
+		throws Exception {
+
+		getLogicTestFixture().openDiagram();
+
+		IElementType typeLED = ElementTypeRegistry.getInstance().getType(
+			"logic.led");//$NON-NLS-1$
+		LEDEditPart ledEP = (LEDEditPart) getLogicTestFixture()
+			.createShapeUsingTool(typeLED, new Point(100, 100),
+				getDiagramEditPart());
+		View ledView = ledEP.getNotationView();
+		EObject led = ledView.getElement();
+		String ledID = ((XMLResource) led.eResource()).getID(led);
+
+		EditPartViewer viewer = getDiagramEditPart().getViewer();
+		try {
+			showVirtualized(viewer, ledView);
+			assertNull("The LED is not in view", viewer.getEditPartRegistry()//$NON-NLS-1$
+				.get(ledView));
+
+			List found = ((IDiagramGraphicalViewer) viewer)
+				.findEditPartsForElement(ledID, LEDEditPart.class);
+			assertEquals("Number of LEDEditParts for ledID incorrect", 1,//$NON-NLS-1$
+				found.size());
+			assertSame(ledView, ((LEDEditPart) found.get(0)).getNotationView());
+		} finally {
+			showAll(viewer);
+		}
+	}
+
+	/**
+	 * Tests that select all selects the edit parts that were left out of a
+	 * virtualized diagram.
+	 * 
+	 * @throws Exception
+	 */
+	public void testSelectAllVirtualized()
+		throws Exception {
+
+		getLogicTestFixture().openDiagram();
+
+		EditPartViewer viewer = getDiagramEditPart().getViewer();
+		try {
+			DiagramEditPart diagramEP = showVirtualized(viewer, null);
+			viewer.setSelection(new StructuredSelection(diagramEP));
+
+			testAction(SelectAllAction.createSelectAllAction(getWorkbenchPage()),
+				null);
+			assertTrue("The notes out of view are not selected", viewer//$NON-NLS-1$
+				.getSelectedEditParts().size() >= NOTE_COUNT);
+		} finally {
+			showAll(viewer);
+		}
+	}
+
+	/**
+	 * Tests that the scroll bars of a virtualized diagram cover the views
+	 * that were left out, and that scrolling to one of them creates its edit
+	 * part.
+	 * 
+	 * @throws Exception
+	 */
+	public void testScrollToVirtualizedRegion()
+		throws Exception {
+
+		getLogicTestFixture().openDiagram();
+
+		IElementType typeLED = ElementTypeRegistry.getInstance().getType(
+			"logic.led");//$NON-NLS-1$
+		LEDEditPart ledEP = (LEDEditPart) getLogicTestFixture()
+			.createShapeUsingTool(typeLED, new Point(100, 100),
+				getDiagramEditPart());
+		View ledView = ledEP.getNotationView();
+
+		EditPartViewer viewer = getDiagramEditPart().getViewer();
+		try {
+			DiagramEditPart diagramEP = showVirtualized(viewer, ledView);
+			assertNull("The LED is not in view", viewer.getEditPartRegistry()//$NON-NLS-1$
+				.get(ledView));
+
+			Viewport viewport = getViewport(viewer);
+			viewport.getUpdateManager().performUpdate();
+			Rectangle far = new Rectangle(300000, 300000, 1, 1);
+			diagramEP.getContentPane().translateToAbsolute(far);
+			far.translate(viewport.getViewLocation());
+			assertTrue("The horizontal scroll bar does not reach the LED",//$NON-NLS-1$
+				viewport.getHorizontalRangeModel().getMaximum() > far.x);
+			assertTrue("The vertical scroll bar does not reach the LED",//$NON-NLS-1$
+				viewport.getVerticalRangeModel().getMaximum() > far.y);
+
+			viewport.setViewLocation(far.x - 10, far.y - 10);
+			flushEventQueue();
+			assertNotNull("The LED did not come into view", viewer//$NON-NLS-1$
+				.getEditPartRegistry().get(ledView));
+		} finally {
+			showAll(viewer);
+		}
+	}
+
+	/**
+	 * Tests that the edit parts created to export a virtualized diagram are
+	 * discarded once the viewer is scrolled again.
+	 * 
+	 * @throws Exception
+	 */
+	public void testVirtualizationResumesAfterExport()
+		throws Exception {
+
+		getLogicTestFixture().openDiagram();
+
+		EditPartViewer viewer = getDiagramEditPart().getViewer();
+		try {
+			DiagramEditPart diagramEP = showVirtualized(viewer, null);
+
+			new CopyToImageUtil().copyToImageByteArray(diagramEP, null, 100,
+				100, ImageFileFormat.PNG, new NullProgressMonitor(), false);
+			assertTrue("The notes out of view were not exported", diagramEP//$NON-NLS-1$
+				.getPrimaryEditParts().size() >= NOTE_COUNT);
+
+			Viewport viewport = getViewport(viewer);
+			Point location = viewport.getViewLocation();
+			viewport.setViewLocation(location.x + 10, location.y + 10);
+			flushEventQueue();
+			assertTrue("The diagram is not virtualized again", diagramEP//$NON-NLS-1$
+				.getPrimaryEditParts().size() < NOTE_COUNT);
+		} finally {
+			showAll(viewer);
+		}
+	}
+
+	private static Viewport getViewport(EditPartViewer viewer) {
+		return (Viewport) ((GraphicalEditPart) viewer.getRootEditPart())
+			.getFigure();
+	}
+
+	/**
+	 * Shows the diagram in a viewer that virtualizes its edit parts, then
+	 * fills it with notes far from each other.
+	 * 
+	 * @param viewer
+	 *            the viewer of the diagram
+	 * @param farView
+	 *            a view to move out of view, or <code>null</code>
+	 * @return the new diagram edit part
+	 */
+	private DiagramEditPart showVirtualized(EditPartViewer viewer,
+			final View farView)
+		throws Exception {
+		final Diagram diagram = getDiagram();
+		final PreferencesHint hint = getDiagramEditPart()
+			.getDiagramPreferencesHint();
+
+		viewer.setProperty(DiagramEditPart.VIRTUALIZE_CHILDREN, Boolean.TRUE);
+		viewer.setContents(diagram);
+		getLogicTestFixture().setDiagramEditPart(
+			(DiagramEditPart) viewer.getContents());
+
+		new AbstractEMFOperation(getLogicTestFixture().getEditingDomain(),
+			"") { //$NON-NLS-1$
+
+			protected IStatus doExecute(IProgressMonitor monitor,
+					IAdaptable info) {
+				for (int i = 0; i < NOTE_COUNT; i++) {
+					Node note = ViewService.createNode(diagram, ViewType.NOTE,
+						hint);
+					setLocation(note, (i % 25) * 10000, (i / 25) * 10000);
+				}
+				if (farView != null) {
+					setLocation((Node) farView, 300000, 300000);
+				}
+				return Status.OK_STATUS;
+			}
+		}.execute(new NullProgressMonitor(), null);
+		flushEventQueue();
+
+		DiagramEditPart diagramEP = (DiagramEditPart) viewer.getContents();
+		assertTrue("The diagram is not virtualized", diagramEP//$NON-NLS-1$
+			.getPrimaryEditParts().size() < NOTE_COUNT);
+		return diagramEP;
+	}
+
+	/**
+	 * Shows the diagram again with all of its edit parts.
+	 */
+	private void showAll(EditPartViewer viewer) {
+		viewer.setProperty(DiagramEditPart.VIRTUALIZE_CHILDREN, null);
+		viewer.setContents(getDiagram());
+		getLogicTestFixture().setDiagramEditPart(
+			(DiagramEditPart) viewer.getContents());
+		flushEventQueue();
+	}
+
+	private static void setLocation(Node node, int x, int y) {
+		LayoutConstraint constraint = node.getLayoutConstraint();
+		if (constraint instanceof Location) {
+			((Location) constraint).setX(x);
+			((Location) constraint).setY(y);
+		}
+	}
 }
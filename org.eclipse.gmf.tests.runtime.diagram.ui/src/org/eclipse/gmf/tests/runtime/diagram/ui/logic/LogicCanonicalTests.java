@@ -13,8 +13,13 @@ package org.eclipse.gmf.tests.runtime.diagram.ui.logic;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -22,9 +27,11 @@ import junit.framework.TestSuite;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.EditPolicy;
 import org.eclipse.gmf.examples.runtime.diagram.logic.internal.editparts.LEDEditPart;
 import org.eclipse.gmf.examples.runtime.diagram.logic.internal.editparts.TerminalEditPart;
 import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.Circuit;
+import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.Element;
 import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.LED;
 import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.Terminal;
 import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.Wire;
@@ -32,12 +39,16 @@ import org.eclipse.gmf.runtime.common.core.command.ICommand;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewUtil;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.IGraphicalEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.IResizableCompartmentEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editpolicies.CanonicalEditPolicy;
+import org.eclipse.gmf.runtime.diagram.ui.editpolicies.EditPolicyRoles;
+import org.eclipse.gmf.runtime.diagram.ui.requests.CreateViewRequest.ViewDescriptor;
 import org.eclipse.gmf.runtime.emf.type.core.ElementTypeRegistry;
 import org.eclipse.gmf.runtime.emf.type.core.IElementType;
 import org.eclipse.gmf.runtime.emf.type.core.requests.CreateRelationshipRequest;
 import org.eclipse.gmf.runtime.emf.type.core.requests.MoveRequest;
 import org.eclipse.gmf.runtime.notation.View;
 import org.eclipse.gmf.tests.runtime.diagram.ui.AbstractTestBase;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * Tests the canonical editpolicies installed on the class attribute and 
@@ -324,5 +335,105 @@ public class LogicCanonicalTests extends AbstractTestBase {
 		}
 	}
 
-}
+	/**
+	 * Tests that a canonical editpolicy refreshing in the background computes
+	 * the views off the UI thread, and creates and deletes them on the UI
+	 * thread.
+	 */
+	public void test_BackgroundRefresh() {
+		try {
+			println("test_BackgroundRefresh() starting ...");//$NON-NLS-1$
+			CanonicalTestFixture _testFixture = getCanonicalTestFixture();
+			IGraphicalEditPart logicCompartment = _testFixture.getCanonicalCompartment(0);
+			EditPolicy original = logicCompartment.getEditPolicy(EditPolicyRoles.CANONICAL_ROLE);
+			BackgroundCanonicalEditPolicy policy = new BackgroundCanonicalEditPolicy();
+			logicCompartment.installEditPolicy(EditPolicyRoles.CANONICAL_ROLE, policy);
+			try {
+				waitForChildren(logicCompartment, 0);
+				
+				LED led = _testFixture.createLED(ViewUtil.resolveSemanticElement(logicCompartment.getNotationView()));
+				waitForChildren(logicCompartment, 1);
+				assertEquals( "Unexpected LED count.", 1, logicCompartment.getChildren().size() );//$NON-NLS-1$
+				assertTrue( "Views not computed.", policy.descriptorThreads.size() > 0 );//$NON-NLS-1$
+				
+				_testFixture.destroy(led);
+				waitForChildren(logicCompartment, 0);
+				assertEquals( "Unexpected LED count.", 0, logicCompartment.getChildren().size() );//$NON-NLS-1$
+				assertTrue( "Orphans not computed.", policy.orphanThreads.size() > 0 );//$NON-NLS-1$
+				
+				Thread uiThread = Display.getCurrent().getThread();
+				assertFalse( "Children computed on the UI thread.", policy.childrenThreads.contains(uiThread) );//$NON-NLS-1$
+				assertFalse( "Orphans computed on the UI thread.", policy.orphanThreads.contains(uiThread) );//$NON-NLS-1$
+				assertFalse( "Views computed on the UI thread.", policy.descriptorThreads.contains(uiThread) );//$NON-NLS-1$
+			}
+			finally {
+				logicCompartment.installEditPolicy(EditPolicyRoles.CANONICAL_ROLE, original);
+			}
+		}
+		finally {
+			println("test_BackgroundRefresh() complete.");//$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Processes the UI events until the background refreshes have given the
+	 * supplied editpart the expected number of children, or a timeout.
+	 */
+	private void waitForChildren(IGraphicalEditPart editPart, int count) {
+		for (int i = 0; i < 100; i++) {
+			flushEventQueue();
+			if (editPart.getChildren().size() == count) {
+				return;
+			}
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
 
+	/**
+	 * Synchronizes the LEDs of a circuit in the background, and records the
+	 * threads its overridable methods are called on.
+	 */
+	private static class BackgroundCanonicalEditPolicy extends CanonicalEditPolicy {
+		
+		final Set childrenThreads = Collections.synchronizedSet(new HashSet());
+		
+		final Set orphanThreads = Collections.synchronizedSet(new HashSet());
+		
+		final Set descriptorThreads = Collections.synchronizedSet(new HashSet());
+		
+		protected boolean shouldRefreshInBackground() {
+			return true;
+		}
+		
+		protected List getSemanticChildrenList() {
+			childrenThreads.add(Thread.currentThread());
+			Circuit circuit = (Circuit) resolveSemanticElement();
+			if (circuit == null) {
+				return Collections.EMPTY_LIST;
+			}
+			List result = new ArrayList();
+			for (Iterator i = circuit.getChildren().iterator(); i.hasNext();) {
+				Object child = i.next();
+				if (child instanceof Element && !(child instanceof Wire)) {
+					result.add(child);
+				}
+			}
+			return result;
+		}
+		
+		protected boolean isOrphaned(Collection<EObject> semanticChildren, View view) {
+			orphanThreads.add(Thread.currentThread());
+			return super.isOrphaned(semanticChildren, view);
+		}
+		
+		protected ViewDescriptor getViewDescriptor(EObject element) {
+			descriptorThreads.add(Thread.currentThread());
+			return super.getViewDescriptor(element);
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.diagram.ui.parts;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.gmf.runtime.diagram.ui.editparts.ListCompartmentEditPart;
+import org.eclipse.gmf.runtime.notation.BasicCompartment;
+import org.eclipse.gmf.runtime.notation.Node;
+import org.eclipse.gmf.runtime.notation.NotationFactory;
+import org.eclipse.gmf.runtime.notation.Sorting;
+import org.eclipse.gmf.runtime.notation.SortingDirection;
+import org.eclipse.gmf.runtime.notation.SortingStyle;
+import org.eclipse.gmf.runtime.notation.View;
+
+/**
+ * Tests the automatic sorting of the children of a
+ * {@link ListCompartmentEditPart}.
+ */
+public class ListCompartmentEditPartTest
+	extends TestCase {
+
+	private static final String RANK = "rank"; //$NON-NLS-1$
+
+	private BasicCompartment compartment;
+
+	private TestListCompartmentEditPart editPart;
+
+	public ListCompartmentEditPartTest(String name) {
+		super(name);
+	}
+
+	public static void main(String[] args) {
+		TestRunner.run(suite());
+	}
+
+	public static Test suite() {
+		return new TestSuite(ListCompartmentEditPartTest.class);
+	}
+
+	protected void setUp()
+		throws Exception {
+		super.setUp();
+		compartment = NotationFactory.eINSTANCE.createBasicCompartment();
+		SortingStyle style = NotationFactory.eINSTANCE.createSortingStyle();
+		style.setSorting(Sorting.AUTOMATIC_LITERAL);
+		Map sortingKeys = new HashMap();
+		sortingKeys.put(RANK, SortingDirection.ASCENDING_LITERAL);
+		style.setSortingKeys(sortingKeys);
+		compartment.getStyles().add(style);
+
+		addChild("A", 0); //$NON-NLS-1$
+		addChild("C", 1); //$NON-NLS-1$
+		addChild("D", 2); //$NON-NLS-1$
+		addChild("B", 3); //$NON-NLS-1$
+		addChild("E", 4); //$NON-NLS-1$
+		addChild("F", 5); //$NON-NLS-1$
+
+		editPart = new TestListCompartmentEditPart(compartment);
+		editPart.comparator = new RankComparator(false);
+	}
+
+	/**
+	 * Tests that the children are sorted after the ranks of several of them
+	 * changed at once.
+	 */
+	public void test_severalChildrenChanged() {
+		assertEquals("ACDBEF", names(editPart.getSortedModelChildren())); //$NON-NLS-1$
+
+		setRank("B", 10); //$NON-NLS-1$
+		setRank("A", 4.5); //$NON-NLS-1$
+
+		assertEquals("CDEAFB", names(editPart.getSortedModelChildren())); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the children are sorted again when the comparator is
+	 * replaced by another instance of the same class that sorts differently.
+	 */
+	public void test_comparatorChanged() {
+		assertEquals("ACDBEF", names(editPart.getSortedModelChildren())); //$NON-NLS-1$
+
+		editPart.comparator = new RankComparator(true);
+
+		assertEquals("FEBDCA", names(editPart.getSortedModelChildren())); //$NON-NLS-1$
+	}
+
+	private void addChild(String name, double rank) {
+		EAnnotation element = EcoreFactory.eINSTANCE.createEAnnotation();
+		element.setSource(name);
+		element.getDetails().put(RANK, String.valueOf(rank));
+		Node child = NotationFactory.eINSTANCE.createNode();
+		child.setElement(element);
+		compartment.getPersistedChildren().add(child);
+	}
+
+	private void setRank(String name, double rank) {
+		for (Iterator i = compartment.getChildren().iterator(); i.hasNext();) {
+			EAnnotation element = (EAnnotation) ((View) i.next()).getElement();
+			if (name.equals(element.getSource())) {
+				element.getDetails().put(RANK, String.valueOf(rank));
+			}
+		}
+	}
+
+	private static String names(List children) {
+		StringBuffer result = new StringBuffer();
+		for (Iterator i = children.iterator(); i.hasNext();) {
+			result.append(((EAnnotation) ((View) i.next()).getElement())
+				.getSource());
+		}
+		return result.toString();
+	}
+
+	private static double rank(Object child) {
+		return Double.parseDouble((String) ((EAnnotation) ((View) child)
+			.getElement()).getDetails().get(RANK));
+	}
+
+	private static class RankComparator
+		implements Comparator {
+
+		private final boolean descending;
+
+		RankComparator(boolean descending) {
+			this.descending = descending;
+		}
+
+		public int compare(Object o1, Object o2) {
+			int result = Double.compare(rank(o1), rank(o2));
+			return descending ? -result : result;
+		}
+	}
+
+	private static class TestListCompartmentEditPart
+		extends ListCompartmentEditPart {
+
+		Comparator comparator;
+
+		TestListCompartmentEditPart(View view) {
+			super(view);
+		}
+
+		List getSortedModelChildren() {
+			return new ArrayList(getModelChildren());
+		}
+
+		protected boolean hasModelChildrenChanged(Notification evt) {
+			return false;
+		}
+
+		protected Comparator getComparator(String name,
+				SortingDirection direction) {
+			return comparator;
+		}
+	}
+}
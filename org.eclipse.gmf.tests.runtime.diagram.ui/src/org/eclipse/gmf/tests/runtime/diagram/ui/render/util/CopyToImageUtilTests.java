@@ -12,8 +12,22 @@
 
 package org.eclipse.gmf.tests.runtime.diagram.ui.render.util;
 
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -25,6 +39,8 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.EditPartViewer;
 import org.eclipse.gmf.runtime.diagram.core.preferences.PreferencesHint;
 import org.eclipse.gmf.runtime.diagram.core.util.ViewType;
 import org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory;
@@ -32,7 +48,13 @@ import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.IGraphicalEditPart;
 import org.eclipse.gmf.runtime.diagram.ui.geoshapes.internal.providers.GeoshapeConstants;
 import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
+import org.eclipse.gmf.runtime.diagram.ui.image.PartPositionInfo;
+import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramImageGenerator;
+import org.eclipse.gmf.runtime.diagram.ui.render.clipboard.DiagramSVGGenerator;
 import org.eclipse.gmf.runtime.diagram.ui.render.util.CopyToImageUtil;
+import org.eclipse.gmf.runtime.diagram.ui.render.util.DiagramExportCache;
+import org.eclipse.gmf.runtime.diagram.ui.render.util.DiagramExportSession;
+import org.eclipse.gmf.runtime.diagram.ui.render.util.ImageEncoder;
 import org.eclipse.gmf.runtime.diagram.ui.requests.ChangePropertyValueRequest;
 import org.eclipse.gmf.runtime.diagram.ui.requests.CreateViewRequest;
 import org.eclipse.gmf.runtime.diagram.ui.requests.CreateViewRequest.ViewDescriptor;
@@ -46,7 +68,12 @@ import org.eclipse.gmf.runtime.notation.NotationPackage;
 import org.eclipse.gmf.runtime.notation.datatype.GradientData;
 import org.eclipse.gmf.tests.runtime.diagram.ui.AbstractTestBase;
 import org.eclipse.gmf.tests.runtime.diagram.ui.logic.LogicTestFixture;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Shell;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 public class CopyToImageUtilTests
     extends AbstractTestBase {
@@ -154,6 +181,397 @@ public class CopyToImageUtilTests
        copyToImageTestForFormat(".svg", ImageFileFormat.SVG);//$NON-NLS-1$
     }
 
+    public void testRepaintAWTImageForParts()
+        throws Exception {
+        DiagramEditPart dgmEP = getDiagramEditPart();
+
+        // a note with nested children far from the origin of the image
+        CreateViewRequest shapeRequest = new CreateViewRequest(
+            new ViewDescriptor(null, Node.class, ViewType.NOTE, dgmEP
+                .getDiagramPreferencesHint()));
+        shapeRequest.setLocation(new Point(700, 600));
+        getCommandStack().execute(dgmEP.getCommand(shapeRequest));
+        flushEventQueue();
+
+        DiagramImageGenerator generator = new DiagramImageGenerator(dgmEP);
+        List parts = dgmEP.getPrimaryEditParts();
+        org.eclipse.swt.graphics.Rectangle sourceRect = generator
+            .calculateImageRectangle(parts);
+        BufferedImage full = (BufferedImage) generator
+            .createAWTImageForParts(parts, sourceRect);
+
+        IGraphicalEditPart noteEP = (IGraphicalEditPart) parts.get(parts
+            .size() - 1);
+        Rectangle bounds = generator.getPaintedBounds(noteEP.getFigure());
+        org.eclipse.swt.graphics.Rectangle region = new org.eclipse.swt.graphics.Rectangle(
+            bounds.x, bounds.y, bounds.width, bounds.height);
+
+        // erase the whole image, then repaint the region of the note only
+        BufferedImage image = (BufferedImage) generator
+            .createAWTImageForParts(parts, sourceRect);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(java.awt.Color.magenta);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.dispose();
+        generator.repaintAWTImageForParts(image, parts, sourceRect, region);
+
+        int minX = image.getWidth();
+        int minY = image.getHeight();
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (image.getRGB(x, y) != java.awt.Color.magenta.getRGB()) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    assertEquals("Pixel " + x + "," + y, full.getRGB(x, y), //$NON-NLS-1$ //$NON-NLS-2$
+                        image.getRGB(x, y));
+                }
+            }
+        }
+        // the note and its children have been repainted, away from the
+        // origin of the image
+        assertTrue(minX > 0 && minX < image.getWidth());
+        assertTrue(minY > 0 && minY < image.getHeight());
+    }
+
+    public void testCopyToImageWithEncoder_PNG()
+        throws Exception {
+        File expected = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        File actual = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            new CopyToImageUtil().copyToImage(getDiagramEditPart(), new Path(
+                expected.getPath()), ImageFileFormat.PNG,
+                new NullProgressMonitor());
+
+            CountingImageEncoder encoder = new CountingImageEncoder();
+            CopyToImageUtil util = new CopyToImageUtil();
+            util.setImageEncoder(encoder);
+            util.copyToImage(getDiagramEditPart(), new Path(actual.getPath()),
+                ImageFileFormat.PNG, new NullProgressMonitor());
+            assertEquals(1, encoder.count);
+
+            // both are lossless encodings of the same rendering
+            BufferedImage expectedImage = ImageIO.read(expected);
+            BufferedImage actualImage = ImageIO.read(actual);
+            assertEquals(expectedImage.getWidth(), actualImage.getWidth());
+            assertEquals(expectedImage.getHeight(), actualImage.getHeight());
+            for (int y = 0; y < expectedImage.getHeight(); y++) {
+                for (int x = 0; x < expectedImage.getWidth(); x++) {
+                    assertEquals("Pixel " + x + "," + y, //$NON-NLS-1$ //$NON-NLS-2$
+                        expectedImage.getRGB(x, y), actualImage.getRGB(x, y));
+                }
+            }
+        } finally {
+            expected.delete();
+            actual.delete();
+        }
+    }
+
+    public void testCopyToImageWithEncoder_JPEG()
+        throws Exception {
+        File reference = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        File file = File.createTempFile("test", ".jpeg"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            new CopyToImageUtil().copyToImage(getDiagramEditPart(), new Path(
+                reference.getPath()), ImageFileFormat.PNG,
+                new NullProgressMonitor());
+
+            CountingImageEncoder encoder = new CountingImageEncoder();
+            CopyToImageUtil util = new CopyToImageUtil();
+            util.setImageEncoder(encoder);
+            util.copyToImage(getDiagramEditPart(), new Path(file.getPath()),
+                ImageFileFormat.JPEG, new NullProgressMonitor());
+            assertEquals(1, encoder.count);
+
+            BufferedImage referenceImage = ImageIO.read(reference);
+            BufferedImage image = ImageIO.read(file);
+            assertNotNull("The JPEG image cannot be read", image); //$NON-NLS-1$
+            assertEquals(referenceImage.getWidth(), image.getWidth());
+            assertEquals(referenceImage.getHeight(), image.getHeight());
+            assertTrue("The JPEG image differs from the diagram", //$NON-NLS-1$
+                getMeanDifference(referenceImage, image) < 8);
+
+            // the best quality, as ImageFileFormat.DEFAULT_QUALITY, makes a
+            // much larger file
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            encoder.setJPEGQuality(ImageFileFormat.DEFAULT_QUALITY);
+            util.copyToImage(getDiagramEditPart(), stream,
+                ImageFileFormat.JPG, new NullProgressMonitor());
+            assertEquals(2, encoder.count);
+            BufferedImage best = ImageIO.read(new ByteArrayInputStream(stream
+                .toByteArray()));
+            assertEquals(image.getWidth(), best.getWidth());
+            assertEquals(image.getHeight(), best.getHeight());
+            assertTrue("The default quality is not smaller", //$NON-NLS-1$
+                file.length() < stream.size());
+        } finally {
+            reference.delete();
+            file.delete();
+        }
+    }
+
+    public void testEncodeTranslucentImageToJPEG()
+        throws Exception {
+        BufferedImage image = new BufferedImage(32, 16,
+            BufferedImage.TYPE_4BYTE_ABGR_PRE);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(java.awt.Color.black);
+        g2d.fillRect(16, 0, 16, 16);
+        g2d.dispose();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new ImageEncoder().encode(image, ImageFileFormat.JPEG, stream);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(stream
+            .toByteArray()));
+
+        // transparent pixels are written white
+        assertEquals(0xFF, decoded.getRGB(4, 8) & 0xFF);
+        assertTrue((decoded.getRGB(28, 8) & 0xFF) < 0x10);
+    }
+
+    public void testStreamSVGMatchesDOM()
+        throws Exception {
+        DiagramEditPart dgmEP = getDiagramEditPart();
+
+        // enough shapes for the streamed content to be flushed several times
+        for (int i = 0; i < 20; i++) {
+            CreateViewRequest shapeRequest = new CreateViewRequest(
+                new ViewDescriptor(null, Node.class, ViewType.NOTE, dgmEP
+                    .getDiagramPreferencesHint()));
+            shapeRequest.setLocation(new Point(50 + 60 * (i % 5),
+                500 + 60 * (i / 5)));
+            getCommandStack().execute(dgmEP.getCommand(shapeRequest));
+        }
+        flushEventQueue();
+        List parts = dgmEP.getPrimaryEditParts();
+
+        DiagramSVGGenerator domGenerator = new DiagramSVGGenerator(dgmEP);
+        org.eclipse.swt.graphics.Rectangle sourceRect = domGenerator
+            .calculateImageRectangle(parts);
+        domGenerator.createSWTImageDescriptorForParts(parts, sourceRect);
+        ByteArrayOutputStream domOutput = new ByteArrayOutputStream();
+        domGenerator.stream(domOutput);
+
+        ByteArrayOutputStream streamedOutput = new ByteArrayOutputStream();
+        new DiagramSVGGenerator(dgmEP).streamSVGForParts(parts, sourceRect,
+            streamedOutput);
+
+        // the streamed document is well-formed
+        Element domRoot = parseXML(domOutput.toByteArray())
+            .getDocumentElement();
+        Element streamedRoot = parseXML(streamedOutput.toByteArray())
+            .getDocumentElement();
+
+        // it has the size and the painted elements of the DOM document
+        assertEquals("svg", streamedRoot.getLocalName()); //$NON-NLS-1$
+        assertEquals(domRoot.getAttribute("width"), //$NON-NLS-1$
+            streamedRoot.getAttribute("width")); //$NON-NLS-1$
+        assertEquals(domRoot.getAttribute("height"), //$NON-NLS-1$
+            streamedRoot.getAttribute("height")); //$NON-NLS-1$
+        assertEquals(domRoot.getAttribute("viewBox"), //$NON-NLS-1$
+            streamedRoot.getAttribute("viewBox")); //$NON-NLS-1$
+        List domElements = getPaintedElements(domRoot);
+        assertTrue(domElements.size() > 20);
+        assertEquals(domElements, getPaintedElements(streamedRoot));
+
+        // and renders the same
+        ImageData domImage = RenderedImageFactory.getInstance(
+            domOutput.toByteArray()).getSWTImage().getImageData();
+        ImageData streamedImage = RenderedImageFactory.getInstance(
+            streamedOutput.toByteArray()).getSWTImage().getImageData();
+        assertEquals(domImage.width, streamedImage.width);
+        assertEquals(domImage.height, streamedImage.height);
+        long difference = 0;
+        for (int y = 0; y < domImage.height; y++) {
+            for (int x = 0; x < domImage.width; x++) {
+                RGB expected = domImage.palette.getRGB(domImage.getPixel(x, y));
+                RGB actual = streamedImage.palette.getRGB(streamedImage
+                    .getPixel(x, y));
+                difference += Math.abs(expected.red - actual.red)
+                    + Math.abs(expected.green - actual.green)
+                    + Math.abs(expected.blue - actual.blue);
+            }
+        }
+        assertTrue("The streamed document renders differently", //$NON-NLS-1$
+            difference < 2L * 3 * domImage.width * domImage.height);
+    }
+
+    public void testStreamSVGForPartsToFailingStream()
+        throws Exception {
+        DiagramEditPart dgmEP = getDiagramEditPart();
+        DiagramSVGGenerator generator = new DiagramSVGGenerator(dgmEP);
+        List parts = dgmEP.getPrimaryEditParts();
+
+        try {
+            generator.streamSVGForParts(parts, generator
+                .calculateImageRectangle(parts), new FailingOutputStream());
+            fail("The failure of the output stream is not reported"); //$NON-NLS-1$
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testStreamSVGToFileDeletesPartialFile()
+        throws Exception {
+        File file = File.createTempFile("test", ".svg");//$NON-NLS-1$ //$NON-NLS-2$
+        IPath tmpDest = new Path(file.getPath());
+        DiagramEditPart dgmEP = getDiagramEditPart();
+        List parts = dgmEP.getPrimaryEditParts();
+
+        // writes the start of the document, then fails
+        DiagramSVGGenerator generator = new DiagramSVGGenerator(dgmEP) {
+
+            public void streamSVGForParts(List editparts,
+                    org.eclipse.swt.graphics.Rectangle sourceRect,
+                    OutputStream outputStream)
+                throws IOException {
+                outputStream.write("<svg".getBytes()); //$NON-NLS-1$
+                throw new IOException("disk full"); //$NON-NLS-1$
+            }
+        };
+
+        try {
+            new StreamingCopyToImageUtil().streamSVGToFile(tmpDest, generator,
+                parts, generator.calculateImageRectangle(parts),
+                new NullProgressMonitor());
+            fail("The failure of the export is not reported"); //$NON-NLS-1$
+        } catch (CoreException e) {
+            // expected
+        } finally {
+            assertFalse("The partial file is left behind", file.exists()); //$NON-NLS-1$
+            file.delete();
+        }
+    }
+
+    public void testCopyToImageRestoredFromCache()
+        throws Exception {
+        File directory = File.createTempFile("exportCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        directory.delete();
+        DiagramExportCache cache = new DiagramExportCache(directory,
+            1024 * 1024);
+        CopyToImageUtil util = new CopyToImageUtil();
+        util.setExportCache(cache);
+
+        File first = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        File second = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        Diagram diagram = getDiagram();
+        PreferencesHint hint = getDiagramEditPart().getDiagramPreferencesHint();
+        try {
+            List exported = util.copyToImage(diagram, new Path(first
+                .getPath()), ImageFileFormat.PNG, new NullProgressMonitor(),
+                hint);
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+
+            List restored = util.copyToImage(diagram, new Path(second
+                .getPath()), ImageFileFormat.PNG, new NullProgressMonitor(),
+                hint);
+            assertEquals(1, cache.getHitCount());
+
+            assertTrue("The restored image differs", Arrays.equals( //$NON-NLS-1$
+                readFile(first), readFile(second)));
+            assertEquals(exported.size(), restored.size());
+            for (int i = 0; i < exported.size(); i++) {
+                PartPositionInfo expected = (PartPositionInfo) exported.get(i);
+                PartPositionInfo actual = (PartPositionInfo) restored.get(i);
+                assertSame(expected.getView(), actual.getView());
+                assertEquals(expected.getPartX(), actual.getPartX());
+                assertEquals(expected.getPartY(), actual.getPartY());
+                assertEquals(expected.getPartWidth(), actual.getPartWidth());
+                assertEquals(expected.getPartHeight(), actual.getPartHeight());
+            }
+        } finally {
+            first.delete();
+            second.delete();
+            cache.clear();
+            directory.delete();
+        }
+    }
+
+    public void testExportSessionReusesViewer()
+        throws Exception {
+        DiagramExportSession session = new DiagramExportSession();
+        RecordingCopyToImageUtil util = new RecordingCopyToImageUtil(false);
+        util.setExportSession(session);
+        File file = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            exportTwice(util, file);
+
+            // the diagrams are shown through the override, in the same viewer
+            assertEquals(2, util.created.size());
+            DiagramEditPart first = util.created.get(0);
+            DiagramEditPart second = util.created.get(1);
+            assertNotSame(first, second);
+            assertSame(util.viewers.get(0), util.viewers.get(1));
+            assertSame(util.shells.get(0), util.shells.get(1));
+            assertFalse(util.controls.get(0).isDisposed());
+            assertEquals(2, session.getDiagramCount());
+        } finally {
+            session.dispose();
+            file.delete();
+        }
+        assertTrue(util.shells.get(0).isDisposed());
+    }
+
+    public void testExportSessionClearsDiagram()
+        throws Exception {
+        DiagramExportSession session = new DiagramExportSession();
+        RecordingCopyToImageUtil util = new RecordingCopyToImageUtil(false);
+        util.setExportSession(session);
+        File file = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            exportTwice(util, file);
+
+            // the pooled viewer no longer shows the diagrams it exported
+            for (int i = 0; i < util.created.size(); i++) {
+                DiagramEditPart diagramEP = util.created.get(i);
+                EditPartViewer viewer = util.viewers.get(i);
+                assertFalse(diagramEP.isActive());
+                assertNull(diagramEP.getParent());
+                assertNull(viewer.getContents());
+                assertFalse(viewer.getEditPartRegistry().containsValue(
+                    diagramEP));
+                assertFalse(viewer.getEditDomain().getCommandStack()
+                    .isDirty());
+            }
+        } finally {
+            session.dispose();
+            file.delete();
+        }
+    }
+
+    public void testExportSessionWithOwnViewer()
+        throws Exception {
+        DiagramExportSession session = new DiagramExportSession();
+        RecordingCopyToImageUtil util = new RecordingCopyToImageUtil(true);
+        util.setExportSession(session);
+        File file = File.createTempFile("test", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            exportTwice(util, file);
+
+            // the viewers of the override are disposed, its shell is reused
+            assertEquals(2, util.created.size());
+            assertSame(util.shells.get(0), util.shells.get(1));
+            assertTrue(util.controls.get(0).isDisposed());
+            assertTrue(util.controls.get(1).isDisposed());
+            assertFalse(util.shells.get(0).isDisposed());
+            assertFalse(util.created.get(0).isActive());
+        } finally {
+            session.dispose();
+            file.delete();
+        }
+    }
+
+    private void exportTwice(CopyToImageUtil util, File file)
+        throws CoreException {
+        Diagram diagram = getDiagram();
+        PreferencesHint hint = getDiagramEditPart().getDiagramPreferencesHint();
+        for (int i = 0; i < 2; i++) {
+            util.copyToImage(diagram, new Path(file.getPath()),
+                ImageFileFormat.PNG, new NullProgressMonitor(), hint);
+            assertTrue(file.length() > 0);
+        }
+    }
+
     private void copyToImageTestForFormat(String suffix, ImageFileFormat type)
         throws IOException, CoreException {
         IProgressMonitor monitor = new NullProgressMonitor();
@@ -208,4 +626,162 @@ public class CopyToImageUtilTests
 		}
 	}
 
+    private static Document parseXML(byte[] bytes)
+        throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(
+            new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Returns the sorted list of the elements that paint, with the text of
+     * the text elements. The grouping elements, and the references through
+     * which the streamed document shares its definitions, are left out.
+     */
+    private static List getPaintedElements(Element root) {
+        List result = new ArrayList();
+        collectPaintedElements(root, result);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static void collectPaintedElements(Element element, List result) {
+        String name = element.getLocalName();
+        if ("text".equals(name)) { //$NON-NLS-1$
+            result.add(name + ':' + element.getTextContent().trim());
+            return;
+        }
+        if (!"svg".equals(name) && !"g".equals(name) //$NON-NLS-1$ //$NON-NLS-2$
+            && !"defs".equals(name) && !"use".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$
+            result.add(name);
+        }
+        for (org.w3c.dom.Node child = element.getFirstChild(); child != null; child = child
+            .getNextSibling()) {
+            if (child.getNodeType() == org.w3c.dom.Node.ELEMENT_NODE) {
+                collectPaintedElements((Element) child, result);
+            }
+        }
+    }
+
+    /**
+     * Returns the mean difference of the color components of two images of
+     * the same size.
+     */
+    private static double getMeanDifference(BufferedImage first,
+            BufferedImage second) {
+        long difference = 0;
+        for (int y = 0; y < first.getHeight(); y++) {
+            for (int x = 0; x < first.getWidth(); x++) {
+                int rgb1 = first.getRGB(x, y);
+                int rgb2 = second.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    difference += Math.abs(((rgb1 >> shift) & 0xFF)
+                        - ((rgb2 >> shift) & 0xFF));
+                }
+            }
+        }
+        return difference / (3.0 * first.getWidth() * first.getHeight());
+    }
+
+    private static byte[] readFile(File file)
+        throws IOException {
+        byte[] result = new byte[(int) file.length()];
+        InputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < result.length
+                && (read = in.read(result, offset, result.length - offset)) > 0) {
+                offset += read;
+            }
+        } finally {
+            in.close();
+        }
+        return result;
+    }
+
+    /**
+     * An output stream that fails to write.
+     */
+    private static class FailingOutputStream
+        extends OutputStream {
+
+        public void write(int b)
+            throws IOException {
+            throw new IOException("disk full"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Records the diagram editparts it creates, and the shells and controls
+     * they are created in.
+     */
+    private static class RecordingCopyToImageUtil
+        extends CopyToImageUtil {
+
+        private final boolean ownViewer;
+
+        final List<DiagramEditPart> created = new ArrayList<DiagramEditPart>();
+
+        final List<Shell> shells = new ArrayList<Shell>();
+
+        final List<EditPartViewer> viewers = new ArrayList<EditPartViewer>();
+
+        final List<Control> controls = new ArrayList<Control>();
+
+        /**
+         * @param ownViewer
+         *            <code>true</code> to create a new viewer for each
+         *            diagram instead of using the pooled one
+         */
+        RecordingCopyToImageUtil(boolean ownViewer) {
+            this.ownViewer = ownViewer;
+        }
+
+        public DiagramEditPart createDiagramEditPart(Diagram diagram,
+                Shell shell, PreferencesHint preferencesHint) {
+            DiagramEditPart diagramEP = ownViewer ? OffscreenEditPartFactory
+                .getInstance().createDiagramEditPart(diagram, shell,
+                    preferencesHint)
+                : super.createDiagramEditPart(diagram, shell, preferencesHint);
+            created.add(diagramEP);
+            shells.add(shell);
+            viewers.add(diagramEP.getViewer());
+            controls.add(diagramEP.getViewer().getControl());
+            return diagramEP;
+        }
+    }
+
+    /**
+     * Counts the images it encodes.
+     */
+    private static class CountingImageEncoder
+        extends ImageEncoder {
+
+        int count;
+
+        public void encode(BufferedImage image, ImageFileFormat format,
+                OutputStream stream)
+            throws CoreException {
+            count++;
+            super.encode(image, format, stream);
+        }
+    }
+
+    /**
+     * Exposes the streaming of SVG documents to files.
+     */
+    private static class StreamingCopyToImageUtil
+        extends CopyToImageUtil {
+
+        public void streamSVGToFile(IPath destination,
+                DiagramSVGGenerator generator, List editParts,
+                org.eclipse.swt.graphics.Rectangle imageRect,
+                IProgressMonitor monitor)
+            throws CoreException {
+            super.streamSVGToFile(destination, generator, editParts,
+                imageRect, monitor);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.diagram.ui.render.util;
+
+import java.io.File;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.gmf.runtime.diagram.ui.image.ImageFileFormat;
+import org.eclipse.gmf.runtime.diagram.ui.render.util.DiagramExportCache;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.Node;
+import org.eclipse.gmf.runtime.notation.NotationFactory;
+
+/**
+ * Tests the fingerprints and the size limit of the {@link DiagramExportCache}.
+ */
+public class DiagramExportCacheTests
+	extends TestCase {
+
+	private File directory;
+
+	private DiagramExportCache cache;
+
+	private Diagram diagram;
+
+	private EAnnotation annotation;
+
+	private EClass referenced;
+
+	public static Test suite() {
+		return new TestSuite(DiagramExportCacheTests.class);
+	}
+
+	public DiagramExportCacheTests(String name) {
+		super(name);
+	}
+
+	protected void setUp()
+		throws Exception {
+		super.setUp();
+		directory = File.createTempFile("exportCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		directory.delete();
+		cache = new DiagramExportCache(directory, 1024 * 1024);
+
+		// a view of an annotation that references a class; the URI of the
+		// class does not depend on its name
+		referenced = EcoreFactory.eINSTANCE.createEClass();
+		referenced.setName("Customer"); //$NON-NLS-1$
+
+		annotation = EcoreFactory.eINSTANCE.createEAnnotation();
+		annotation.setSource("Order"); //$NON-NLS-1$
+		annotation.getReferences().add(referenced);
+
+		diagram = NotationFactory.eINSTANCE.createDiagram();
+		Node node = NotationFactory.eINSTANCE.createNode();
+		node.setElement(annotation);
+		diagram.getPersistedChildren().add(node);
+
+		Resource resource = new ResourceSetImpl().createResource(URI
+			.createURI("null:/DiagramExportCacheTests.xmi")); //$NON-NLS-1$
+		resource.getContents().add(referenced);
+		resource.getContents().add(annotation);
+		resource.getContents().add(diagram);
+	}
+
+	protected void tearDown()
+		throws Exception {
+		cache.clear();
+		directory.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that an unchanged diagram keeps its fingerprint.
+	 */
+	public void testSameFingerprint() {
+		assertEquals(fingerprint(), fingerprint());
+	}
+
+	/**
+	 * Tests that renaming an element referenced by the semantic element of a
+	 * view, which a label may show, changes the fingerprint.
+	 */
+	public void testReferencedElementChanged() {
+		String fingerprint = fingerprint();
+		cache.put(fingerprint, new byte[] {1});
+
+		referenced.setName("Client"); //$NON-NLS-1$
+
+		String changed = fingerprint();
+		assertFalse(fingerprint.equals(changed));
+		assertNull(cache.get(changed));
+		assertNotNull(cache.get(fingerprint));
+	}
+
+	/**
+	 * Tests that changing the semantic element of a view changes the
+	 * fingerprint.
+	 */
+	public void testSemanticElementChanged() {
+		String fingerprint = fingerprint();
+
+		annotation.setSource("PurchaseOrder"); //$NON-NLS-1$
+
+		assertFalse(fingerprint.equals(fingerprint()));
+	}
+
+	/**
+	 * Tests that an element referenced only by a referenced element does not
+	 * take part in the fingerprint.
+	 */
+	public void testIndirectReferenceIgnored() {
+		EClass base = EcoreFactory.eINSTANCE.createEClass();
+		base.setName("Party"); //$NON-NLS-1$
+		referenced.eResource().getContents().add(base);
+		referenced.getESuperTypes().add(base);
+		String fingerprint = fingerprint();
+
+		base.setName("Person"); //$NON-NLS-1$
+
+		assertEquals(fingerprint, fingerprint());
+	}
+
+	/**
+	 * Tests that the images used least recently are removed when the stored
+	 * images exceed the size limit.
+	 */
+	public void testTrimLeastRecentlyUsed() {
+		DiagramExportCache small = new DiagramExportCache(directory, 10);
+		long now = System.currentTimeMillis();
+
+		small.put("a", new byte[4]); //$NON-NLS-1$
+		setLastModified("a", now - 3000); //$NON-NLS-1$
+		small.put("b", new byte[4]); //$NON-NLS-1$
+		setLastModified("b", now - 2000); //$NON-NLS-1$
+
+		// makes a the most recently used
+		assertNotNull(small.get("a")); //$NON-NLS-1$
+		small.put("c", new byte[4]); //$NON-NLS-1$
+
+		assertNull(small.get("b")); //$NON-NLS-1$
+		assertNotNull(small.get("a")); //$NON-NLS-1$
+		assertNotNull(small.get("c")); //$NON-NLS-1$
+	}
+
+	private void setLastModified(String fingerprint, long time) {
+		File[] files = directory.listFiles();
+		for (int i = 0; i < files.length; i++) {
+			if (files[i].getName().startsWith(fingerprint + '.')) {
+				files[i].setLastModified(time);
+			}
+		}
+	}
+
+	private String fingerprint() {
+		return cache.fingerprint(diagram, ImageFileFormat.PNG, null, null);
+	}
+}
@@ -22,6 +22,9 @@ import org.eclipse.gef.requests.GroupRequest;
 import org.eclipse.gmf.runtime.common.core.service.AbstractProvider;
 import org.eclipse.gmf.runtime.common.core.service.IOperation;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.NoteEditPart;
+import org.eclipse.gmf.runtime.diagram.ui.editpolicies.DecorationEditPolicy;
+import org.eclipse.gmf.runtime.diagram.ui.editpolicies.EditPolicyRoles;
+import org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator.DecorationRefreshScheduler;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.AbstractDecorator;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.CreateDecoratorsOperation;
 import org.eclipse.gmf.runtime.diagram.ui.services.decorator.Decoration;
@@ -146,6 +149,11 @@ public class DecoratorServiceTests
 		 */
 		static boolean ignoreParentVisibility = false;
 
+		/**
+		 * The number of times the decorators were refreshed.
+		 */
+		static int refreshCount = 0;
+
 		/**
 		 * Creates a new instance.
 		 * 
@@ -170,6 +178,7 @@ public class DecoratorServiceTests
 		 * @see org.eclipse.gmf.runtime.diagram.ui.internal.services.decorator.IDecoratorBase#refresh()
 		 */
 		public void refresh() {
+			refreshCount++;
 			removeDecoration();
 			NoteEditPart noteEP = (NoteEditPart) getDecoratorTarget()
 				.getAdapter(NoteEditPart.class);
@@ -294,4 +303,111 @@ public class DecoratorServiceTests
 
 	}
 
+	/**
+	 * Tests that refreshing the decoration edit policy refreshes the
+	 * decorators right away, superseding a scheduled refresh.
+	 * 
+	 * @throws Exception
+	 */
+	public void testRefreshSynchronous()
+		throws Exception {
+
+		getFixture().createNote();
+		NoteDecorator myDecorator = TestDecoratorProvider.getMyNoteDecorator();
+		DecorationEditPolicy policy = getDecorationEditPolicy();
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+
+		int count = NoteDecorator.refreshCount;
+		policy.refresh();
+		assertEquals(count + 1, NoteDecorator.refreshCount);
+
+		policy.scheduleRefresh();
+		assertTrue(scheduler.isScheduled(myDecorator));
+		policy.refresh();
+		assertEquals(count + 2, NoteDecorator.refreshCount);
+		assertFalse(scheduler.isScheduled(myDecorator));
+
+		scheduler.flush();
+		assertEquals(count + 2, NoteDecorator.refreshCount);
+	}
+
+	/**
+	 * Tests that scheduled refreshes are coalesced into a single refresh at
+	 * the next flush.
+	 * 
+	 * @throws Exception
+	 */
+	public void testScheduledRefreshesCoalesced()
+		throws Exception {
+
+		getFixture().createNote();
+		NoteDecorator myDecorator = TestDecoratorProvider.getMyNoteDecorator();
+		DecorationEditPolicy policy = getDecorationEditPolicy();
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+
+		Decoration decoration = myDecorator.getDecoration();
+		int count = NoteDecorator.refreshCount;
+		policy.scheduleRefresh();
+		policy.scheduleRefresh();
+		policy.scheduleRefresh();
+		assertEquals(count, NoteDecorator.refreshCount);
+		assertSame(decoration, myDecorator.getDecoration());
+		assertTrue(scheduler.isScheduled(myDecorator));
+
+		scheduler.flush();
+		assertEquals(count + 1, NoteDecorator.refreshCount);
+		assertNotSame(decoration, myDecorator.getDecoration());
+		assertFalse(scheduler.isScheduled(myDecorator));
+	}
+
+	/**
+	 * Tests that deactivating the decorators cancels their scheduled
+	 * refresh.
+	 * 
+	 * @throws Exception
+	 */
+	public void testDeactivateCancelsScheduledRefresh()
+		throws Exception {
+
+		getFixture().createNote();
+		NoteDecorator myDecorator = TestDecoratorProvider.getMyNoteDecorator();
+		DecorationEditPolicy policy = getDecorationEditPolicy();
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+
+		policy.scheduleRefresh();
+		policy.deactivate();
+		assertFalse(scheduler.isScheduled(myDecorator));
+
+		int count = NoteDecorator.refreshCount;
+		scheduler.flush();
+		assertEquals(count, NoteDecorator.refreshCount);
+		policy.activate();
+	}
+
+	/**
+	 * Tests that the shared results are available until they are cleared.
+	 */
+	public void testSharedResults() {
+		DecorationRefreshScheduler scheduler = DecorationRefreshScheduler
+			.getInstance();
+		Object key = new Object();
+		Object result = new Object();
+
+		scheduler.putSharedResult(key, result);
+		assertSame(result, scheduler.getSharedResult(key));
+
+		scheduler.clearSharedResults();
+		assertNull(scheduler.getSharedResult(key));
+	}
+
+	private DecorationEditPolicy getDecorationEditPolicy() {
+		NoteEditPart noteEP = (NoteEditPart) getDiagramEditPart()
+			.getPrimaryEditParts().get(0);
+		return (DecorationEditPolicy) noteEP
+			.getEditPolicy(EditPolicyRoles.DECORATION_ROLE);
+	}
+
 }
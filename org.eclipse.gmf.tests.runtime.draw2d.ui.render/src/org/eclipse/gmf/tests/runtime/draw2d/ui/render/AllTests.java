@@ -12,7 +12,10 @@
 
 package org.eclipse.gmf.tests.runtime.draw2d.ui.render;
 
+import org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.image.PNGEncoderTest;
+import org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.svg.SVGDocumentCacheTest;
 import org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.svg.SVGTranscoderTest;
+import org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.svg.TranscodedMetafileCacheTest;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -32,6 +35,9 @@ public class AllTests extends TestCase {
         // suite.addTestSuite( SVGImageTest.class );
         // suite.addTestSuite( Metafile2SvgTest.class );
         suite.addTestSuite(SVGTranscoderTest.class);
+        suite.addTestSuite(PNGEncoderTest.class);
+        suite.addTestSuite(TranscodedMetafileCacheTest.class);
+        suite.addTestSuite(SVGDocumentCacheTest.class);
         return suite;
     }
 
@@ -0,0 +1,113 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.image.PNGEncoder;
+
+/**
+ * Test case for the PNG encoder: the images it writes are read back with
+ * <code>ImageIO</code>.
+ */
+public class PNGEncoderTest extends TestCase {
+
+	private static BufferedImage createImage(int type, boolean opaque) {
+		BufferedImage image = new BufferedImage(300, 900, type);
+		Graphics2D g2d = image.createGraphics();
+		if (opaque) {
+			g2d.setColor(Color.white);
+			g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+		}
+		for (int i = 0; i < 50; i++) {
+			g2d.setColor(new Color(i * 5, 255 - i * 5, i * 3, opaque ? 255
+				: 100 + i * 3));
+			g2d.fillOval(i * 6, i * 18, 80, 120);
+		}
+		g2d.dispose();
+		return image;
+	}
+
+	private static void assertRoundTrip(BufferedImage image, PNGEncoder encoder)
+		throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		encoder.encode(image, stream);
+		BufferedImage read = ImageIO.read(new ByteArrayInputStream(stream
+			.toByteArray()));
+		assertNotNull(read);
+		assertEquals(image.getWidth(), read.getWidth());
+		assertEquals(image.getHeight(), read.getHeight());
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				int expected = image.getRGB(x, y);
+				int actual = read.getRGB(x, y);
+				if ((expected >>> 24) == 0 && (actual >>> 24) == 0) {
+					continue;
+				}
+				for (int shift = 0; shift < 32; shift += 8) {
+					// premultiplied components may be rounded differently
+					assertTrue(Math.abs(((expected >> shift) & 0xff)
+						- ((actual >> shift) & 0xff)) <= 1);
+				}
+			}
+		}
+	}
+
+	public void testFilters()
+		throws IOException {
+		BufferedImage image = createImage(BufferedImage.TYPE_4BYTE_ABGR_PRE,
+			true);
+		PNGEncoder encoder = new PNGEncoder();
+		for (int filter = PNGEncoder.FILTER_NONE; filter <= PNGEncoder.FILTER_ADAPTIVE; filter++) {
+			encoder.setFilter(filter);
+			assertRoundTrip(image, encoder);
+		}
+	}
+
+	public void testImageTypes()
+		throws IOException {
+		int[] types = {BufferedImage.TYPE_4BYTE_ABGR_PRE,
+			BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_3BYTE_BGR,
+			BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_RGB};
+		PNGEncoder encoder = new PNGEncoder();
+		encoder.setCompressionLevel(1);
+		for (int i = 0; i < types.length; i++) {
+			assertRoundTrip(createImage(types[i], true), encoder);
+			assertRoundTrip(createImage(types[i], false), encoder);
+		}
+	}
+
+	public void testThreads()
+		throws IOException {
+		// large enough to be split in several bands
+		BufferedImage image = new BufferedImage(1000, 1000,
+			BufferedImage.TYPE_4BYTE_ABGR_PRE);
+		Graphics2D g2d = image.createGraphics();
+		g2d.setColor(Color.blue);
+		g2d.fillRect(100, 100, 800, 800);
+		g2d.dispose();
+
+		PNGEncoder encoder = new PNGEncoder();
+		encoder.setThreadCount(4);
+		assertRoundTrip(image, encoder);
+	}
+}
@@ -0,0 +1,142 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.svg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URL;
+
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.SVGDocumentCache;
+import org.w3c.dom.Document;
+
+/**
+ * Test case for the cache of the parsed SVG documents.
+ */
+public class SVGDocumentCacheTest extends TestCase {
+
+	private static final String SVG_FILE = "resources/svg/shapes.svg"; //$NON-NLS-1$
+
+	private static byte[] read(String path) throws IOException {
+		URL url = FileLocator.find(Platform
+			.getBundle("org.eclipse.gmf.tests.runtime.draw2d.ui.render"), //$NON-NLS-1$
+			new Path(path), null);
+		InputStream input = url.openStream();
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				output.write(buffer, 0, read);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	public void testGetDocument() throws IOException {
+		SVGDocumentCache cache = new SVGDocumentCache(1024 * 1024);
+		byte[] buffer = read(SVG_FILE);
+		Document document = cache.getDocument(buffer, null);
+		assertNotNull(document);
+		assertSame(document, cache.getDocument(buffer, null));
+		// the same content in another buffer
+		assertSame(document, cache.getDocument(read(SVG_FILE), null));
+		assertNotSame(document, cache.getDocument(buffer, "file:/shapes.svg")); //$NON-NLS-1$
+
+		cache.setMaxSize(0);
+		assertNotSame(document, cache.getDocument(buffer, null));
+	}
+
+	public void testNotSVG() {
+		SVGDocumentCache cache = new SVGDocumentCache(1024 * 1024);
+		try {
+			cache.getDocument(new byte[] {1, 0, 9, 0, 0, 3}, null);
+			fail("The buffer is not an SVG document"); //$NON-NLS-1$
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testSizeBoundCountsDocuments() throws IOException {
+		byte[] buffer = read(SVG_FILE);
+		long documentSize = (long) buffer.length
+			* SVGDocumentCache.DOCUMENT_SIZE_FACTOR;
+
+		SVGDocumentCache cache = new SVGDocumentCache(documentSize);
+		Document document = cache.getDocument(buffer, null);
+		assertSame(document, cache.getDocument(buffer, null));
+
+		// the source would fit, but not the parsed document
+		cache = new SVGDocumentCache(documentSize - 1);
+		document = cache.getDocument(buffer, null);
+		assertNotSame(document, cache.getDocument(buffer, null));
+	}
+
+	public void testConcurrentCopies() throws Exception {
+		final Document document = new SVGDocumentCache(1024 * 1024)
+			.getDocument(read(SVG_FILE), null);
+		final String expected = write(SVGDocumentCache.copyDocument(document));
+
+		final String[] results = new String[8];
+		final Throwable[] failures = new Throwable[results.length];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+
+				public void run() {
+					try {
+						String result = null;
+						for (int j = 0; j < 20; j++) {
+							result = write(SVGDocumentCache
+								.copyDocument(document));
+							if (!expected.equals(result)) {
+								break;
+							}
+						}
+						results[index] = result;
+					} catch (Throwable t) {
+						failures[index] = t;
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (int i = 0; i < threads.length; i++) {
+			threads[i].join();
+			assertNull(failures[i]);
+			assertEquals(expected, results[i]);
+		}
+	}
+
+	private static String write(Document document)
+			throws TransformerException {
+		StringWriter writer = new StringWriter();
+		TransformerFactory.newInstance().newTransformer().transform(
+			new DOMSource(document), new StreamResult(writer));
+		return writer.toString();
+	}
+}
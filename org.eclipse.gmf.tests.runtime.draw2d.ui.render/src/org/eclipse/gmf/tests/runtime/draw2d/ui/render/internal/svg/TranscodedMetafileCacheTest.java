@@ -0,0 +1,89 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.draw2d.ui.render.internal.svg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.gmf.runtime.draw2d.ui.render.awt.internal.svg.TranscodedMetafileCache;
+
+/**
+ * Test case for the cache of the metafiles transcoded to SVG.
+ */
+public class TranscodedMetafileCacheTest extends TestCase {
+
+	private static final String WMF_FILE = "resources/metafiles/Activite.wmf"; //$NON-NLS-1$
+
+	private static final String EMF_FILE = "resources/metafiles/BB3ValueObject.emf"; //$NON-NLS-1$
+
+	private static byte[] read(String path) throws IOException {
+		URL url = FileLocator.find(Platform
+			.getBundle("org.eclipse.gmf.tests.runtime.draw2d.ui.render"), //$NON-NLS-1$
+			new Path(path), null);
+		InputStream input = url.openStream();
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				output.write(buffer, 0, read);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	public void testGetFormat() throws IOException {
+		assertEquals(TranscodedMetafileCache.WMF, TranscodedMetafileCache
+			.getFormat(read(WMF_FILE)));
+		assertEquals(TranscodedMetafileCache.EMF, TranscodedMetafileCache
+			.getFormat(read(EMF_FILE)));
+		assertEquals(TranscodedMetafileCache.RASTER, TranscodedMetafileCache
+			.getFormat(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n'}));
+		assertEquals(TranscodedMetafileCache.RASTER, TranscodedMetafileCache
+			.getFormat(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}));
+		assertEquals(TranscodedMetafileCache.UNKNOWN, TranscodedMetafileCache
+			.getFormat("<svg/>".getBytes())); //$NON-NLS-1$
+		assertEquals(TranscodedMetafileCache.UNKNOWN, TranscodedMetafileCache
+			.getFormat(new byte[0]));
+	}
+
+	public void testTranscode() throws IOException {
+		TranscodedMetafileCache cache = new TranscodedMetafileCache(
+			1024 * 1024);
+		String url = "file:/test.svg"; //$NON-NLS-1$
+		byte[] document = cache.transcode(read(WMF_FILE), url);
+		assertNotNull(document);
+		assertTrue(cache.isTranscoded(document));
+		assertSame(document, cache.transcode(read(WMF_FILE), url));
+
+		byte[] emfDocument = cache.transcode(read(EMF_FILE), url);
+		assertNotNull(emfDocument);
+		assertNotSame(document, emfDocument);
+
+		assertNull(cache.transcode(new byte[] {'G', 'I', 'F', '8', '9', 'a'},
+			url));
+		assertFalse(cache.isTranscoded(read(WMF_FILE)));
+
+		cache.setMaxSize(0);
+		assertNotSame(document, cache.transcode(read(WMF_FILE), url));
+	}
+}
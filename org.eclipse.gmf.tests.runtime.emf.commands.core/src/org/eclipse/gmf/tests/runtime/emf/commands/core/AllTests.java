@@ -14,6 +14,7 @@ package org.eclipse.gmf.tests.runtime.emf.commands.core;
 
 import org.eclipse.gmf.tests.runtime.emf.commands.core.command.AbstractTransactionalCommandTest;
 import org.eclipse.gmf.tests.runtime.emf.commands.core.command.CompositeTransactionalCommandTest;
+import org.eclipse.gmf.tests.runtime.emf.commands.core.command.EditingDomainHistoryCapTest;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -35,6 +36,7 @@ public class AllTests extends TestCase {
 
         suite.addTest(AbstractTransactionalCommandTest.suite());
         suite.addTest(CompositeTransactionalCommandTest.suite());
+        suite.addTest(EditingDomainHistoryCapTest.suite());
 
         return suite;
     }
@@ -0,0 +1,224 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.emf.commands.core.command;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.IOperationHistory;
+import org.eclipse.core.commands.operations.OperationHistoryFactory;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gmf.examples.runtime.diagram.logic.semantic.SemanticPackage;
+import org.eclipse.gmf.runtime.common.core.command.CommandResult;
+import org.eclipse.gmf.runtime.emf.commands.core.command.AbstractTransactionalCommand;
+import org.eclipse.gmf.runtime.emf.commands.core.command.EditingDomainHistoryCap;
+import org.eclipse.gmf.runtime.emf.commands.core.command.EditingDomainUndoContext;
+
+/**
+ * Tests the {@link EditingDomainHistoryCap}.
+ */
+public class EditingDomainHistoryCapTest
+    extends TestCase {
+
+    private static final int LIMIT = 100;
+
+    private static final int COMMAND_COUNT = 30;
+
+    private static final int CHANGE_COUNT = 100;
+
+    private IOperationHistory history;
+
+    private TransactionalEditingDomain domain;
+
+    private EditingDomainUndoContext context;
+
+    private Resource resource;
+
+    private String oldCap;
+
+    public static void main(String[] args) {
+        TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(EditingDomainHistoryCapTest.class);
+    }
+
+    public EditingDomainHistoryCapTest(String name) {
+        super(name);
+    }
+
+    protected void setUp()
+        throws Exception {
+        super.setUp();
+        oldCap = System.getProperty(EditingDomainHistoryCap.CAP_PROPERTY);
+        System.getProperties().remove(EditingDomainHistoryCap.CAP_PROPERTY);
+
+        history = OperationHistoryFactory.getOperationHistory();
+        domain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+        context = new EditingDomainUndoContext(domain);
+        history.setLimit(context, LIMIT);
+    }
+
+    protected void tearDown()
+        throws Exception {
+        history.dispose(context, true, true, true);
+        if (oldCap != null) {
+            System.setProperty(EditingDomainHistoryCap.CAP_PROPERTY,
+                oldCap);
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Tests that the undo history is kept when no cap is configured.
+     */
+    public void test_historyKeptWithoutCap() {
+        assertEquals(0, EditingDomainHistoryCap.getConfiguredCap());
+
+        EditingDomainHistoryCap cap = EditingDomainHistoryCap.connect(history,
+            context);
+        try {
+            assertEquals(0, cap.getCap());
+
+            executeCommands();
+
+            assertEquals(COMMAND_COUNT, history.getUndoHistory(context).length);
+            assertEquals(LIMIT, history.getLimit(context));
+            assertTrue(cap.getEstimatedTotalSize() > 0);
+        } finally {
+            cap.disconnect();
+        }
+    }
+
+    /**
+     * Tests that a configured cap discards the oldest entries of the undo
+     * history without changing the limit of its context, and that the
+     * discarded entries are not restored when the cap is removed.
+     */
+    public void test_capTrimsUndoHistory() {
+        EditingDomainHistoryCap cap = EditingDomainHistoryCap.connect(history,
+            context);
+        try {
+            executeCommands();
+
+            long entrySize = cap.getEstimatedSize(history
+                .getUndoOperation(context));
+            assertTrue(entrySize > 0);
+
+            cap.setCap(entrySize * 5);
+
+            assertEquals(5, history.getUndoHistory(context).length);
+            assertEquals(LIMIT, history.getLimit(context));
+
+            cap.setCap(0);
+            assertEquals(5, history.getUndoHistory(context).length);
+        } finally {
+            cap.disconnect();
+        }
+        assertEquals(LIMIT, history.getLimit(context));
+    }
+
+    /**
+     * Tests that the cap leaves the redo history alone.
+     */
+    public void test_capKeepsRedoHistory() {
+        EditingDomainHistoryCap cap = EditingDomainHistoryCap.connect(history,
+            context);
+        try {
+            executeCommands();
+
+            long entrySize = cap.getEstimatedSize(history
+                .getUndoOperation(context));
+            for (int i = 0; i < 3; i++) {
+                try {
+                    history.undo(context, new NullProgressMonitor(), null);
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                    fail("Should not have thrown: " + e.getLocalizedMessage()); //$NON-NLS-1$
+                }
+            }
+            assertEquals(3, history.getRedoHistory(context).length);
+
+            cap.setCap(entrySize * 5);
+
+            assertEquals(5, history.getUndoHistory(context).length);
+            assertEquals(3, history.getRedoHistory(context).length);
+            assertEquals(LIMIT, history.getLimit(context));
+
+            try {
+                history.redo(context, new NullProgressMonitor(), null);
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                fail("Should not have thrown: " + e.getLocalizedMessage()); //$NON-NLS-1$
+            }
+            assertEquals(2, history.getRedoHistory(context).length);
+        } finally {
+            cap.disconnect();
+        }
+    }
+
+    private void executeCommands() {
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            AddCircuitsCommand command = new AddCircuitsCommand();
+            command.addContext(context);
+            try {
+                history.execute(command, new NullProgressMonitor(), null);
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                fail("Should not have thrown: " + e.getLocalizedMessage()); //$NON-NLS-1$
+            }
+        }
+    }
+
+    //
+    // TEST FIXTURES
+    //
+
+    /**
+     * Adds circuits to the resource, one change each.
+     */
+    private class AddCircuitsCommand
+        extends AbstractTransactionalCommand {
+
+        AddCircuitsCommand() {
+            super(domain, "AddCircuitsCommand", null); //$NON-NLS-1$
+        }
+
+        protected CommandResult doExecuteWithResult(
+                IProgressMonitor progressMonitor, IAdaptable info)
+            throws ExecutionException {
+
+            if (resource == null) {
+                resource = getEditingDomain().getResourceSet().createResource(
+                    URI.createURI("null://org.eclipse.gmf.tests.runtime.emf.commands.core")); //$NON-NLS-1$
+            }
+            for (int i = 0; i < CHANGE_COUNT; i++) {
+                EObject circuit = SemanticPackage.eINSTANCE
+                    .getEFactoryInstance().create(
+                        SemanticPackage.eINSTANCE.getCircuit());
+                resource.getContents().add(circuit);
+            }
+            return CommandResult.newOKCommandResult();
+        }
+    }
+}
@@ -12,6 +12,7 @@
 
 package org.eclipse.gmf.tests.runtime.emf.ui.properties;
 
+import org.eclipse.gmf.tests.runtime.emf.ui.properties.sections.PropertySheetEntryTest;
 import org.eclipse.gmf.tests.runtime.emf.ui.properties.sections.UndoableModelPropertySectionTest;
 
 import junit.framework.Test;
@@ -31,6 +32,7 @@ public class AllTests extends TestCase {
     public static Test suite() {
         TestSuite suite = new TestSuite();
         suite.addTestSuite(UndoableModelPropertySectionTest.class);
+        suite.addTestSuite(PropertySheetEntryTest.class);
         return suite;
     }
 
@@ -0,0 +1,177 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.emf.ui.properties.sections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.gmf.runtime.emf.ui.properties.sections.PropertySheetEntry;
+import org.eclipse.ui.views.properties.IPropertyDescriptor;
+import org.eclipse.ui.views.properties.IPropertySource;
+import org.eclipse.ui.views.properties.IPropertySourceProvider;
+import org.eclipse.ui.views.properties.TextPropertyDescriptor;
+
+/**
+ * Tests the caching of the property descriptors merged for a multiple
+ * selection.
+ */
+public class PropertySheetEntryTest extends TestCase {
+
+	private CountingPropertySheetEntry entry;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		entry = new CountingPropertySheetEntry();
+		entry.setPropertySourceProvider(new IPropertySourceProvider() {
+
+			public IPropertySource getPropertySource(Object object) {
+				if (object instanceof String) {
+					return new TestPropertySource(new String[] {"name", "length"}); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				if (object instanceof Integer) {
+					return new TestPropertySource(new String[] {"name", "value"}); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return new OtherPropertySource(new String[] {"name"}); //$NON-NLS-1$
+			}
+		});
+	}
+
+	/**
+	 * Tests that a new selection of the same types of objects, in another
+	 * array and another order, reuses the merged descriptors.
+	 */
+	public void testSameTypesCached() {
+		entry.setValues(new Object[] {"a", "b", Integer.valueOf(1)}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"name"}), entry.getDescriptorIds()); //$NON-NLS-1$
+		assertEquals(2, entry.count);
+
+		entry.setValues(new Object[] {Integer.valueOf(2), "c", Integer.valueOf(3), "d"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"name"}), entry.getDescriptorIds()); //$NON-NLS-1$
+		assertEquals(2, entry.count);
+	}
+
+	/**
+	 * Tests that a selection of other types of objects merges the
+	 * descriptors again.
+	 */
+	public void testOtherTypesRecomputed() {
+		entry.setValues(new Object[] {"a", Integer.valueOf(1)}); //$NON-NLS-1$
+		entry.getDescriptorIds();
+		assertEquals(2, entry.count);
+
+		entry.setValues(new Object[] {"a", "b"}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"length", "name"}), entry.getDescriptorIds()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(3, entry.count);
+
+		entry.setValues(new Object[] {"a", Integer.valueOf(1), Boolean.TRUE}); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new String[] {"name"}), entry.getDescriptorIds()); //$NON-NLS-1$
+		assertEquals(6, entry.count);
+	}
+
+	/**
+	 * Tests that the types of the objects are told apart by
+	 * <code>getPropertySourceType()</code>.
+	 */
+	public void testPropertySourceTypeOverride() {
+		entry.perObject = true;
+		entry.setValues(new Object[] {"a", "b"}); //$NON-NLS-1$ //$NON-NLS-2$
+		entry.getDescriptorIds();
+		assertEquals(2, entry.count);
+
+		entry.setValues(new Object[] {"b", "a"}); //$NON-NLS-1$ //$NON-NLS-2$
+		entry.getDescriptorIds();
+		assertEquals(2, entry.count);
+
+		entry.setValues(new Object[] {"a", "c"}); //$NON-NLS-1$ //$NON-NLS-2$
+		entry.getDescriptorIds();
+		assertEquals(4, entry.count);
+	}
+
+	/**
+	 * Counts the property sources asked for their descriptors.
+	 */
+	private static class CountingPropertySheetEntry extends PropertySheetEntry {
+
+		int count;
+
+		boolean perObject;
+
+		protected Map computePropertyDescriptorsFor(IPropertySource source) {
+			count++;
+			return super.computePropertyDescriptorsFor(source);
+		}
+
+		protected Object getPropertySourceType(Object object,
+				IPropertySource source) {
+			return perObject ? object
+				: super.getPropertySourceType(object, source);
+		}
+
+		List getDescriptorIds() {
+			List result = new ArrayList();
+			List descriptors = computeMergedPropertyDescriptors();
+			for (int i = 0; i < descriptors.size(); i++) {
+				result.add(((IPropertyDescriptor) descriptors.get(i)).getId());
+			}
+			return result;
+		}
+	}
+
+	private static class TestPropertySource implements IPropertySource {
+
+		private final String[] ids;
+
+		TestPropertySource(String[] ids) {
+			this.ids = ids;
+		}
+
+		public Object getEditableValue() {
+			return this;
+		}
+
+		public IPropertyDescriptor[] getPropertyDescriptors() {
+			IPropertyDescriptor[] descriptors = new IPropertyDescriptor[ids.length];
+			for (int i = 0; i < ids.length; i++) {
+				descriptors[i] = new TextPropertyDescriptor(ids[i], ids[i]);
+			}
+			return descriptors;
+		}
+
+		public Object getPropertyValue(Object id) {
+			return null;
+		}
+
+		public boolean isPropertySet(Object id) {
+			return false;
+		}
+
+		public void resetPropertyValue(Object id) {
+			// nothing to reset
+		}
+
+		public void setPropertyValue(Object id, Object value) {
+			// read-only
+		}
+	}
+
+	private static class OtherPropertySource extends TestPropertySource {
+
+		OtherPropertySource(String[] ids) {
+			super(ids);
+		}
+	}
+}
@@ -36,6 +36,8 @@ public class AllTests extends TestCase {
         suite.addTestSuite(AbstractModelActionHandlerTest.class);
         suite.addTestSuite(AbstractModelActionFilterProviderTest.class);
         suite.addTestSuite(ModelingAssistantServiceTests.class);
+        suite.addTestSuite(ModelingAssistantQueryCacheTests.class);
+        suite.addTestSuite(ParserServiceCachingTests.class);
         return suite;
     }
 
@@ -0,0 +1,187 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.emf.ui;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.gmf.runtime.common.core.service.ProviderPriority;
+import org.eclipse.gmf.runtime.emf.ui.services.modelingassistant.ModelingAssistantProvider;
+import org.eclipse.gmf.tests.runtime.emf.ui.ModelingAssistantServiceTests.MyElementType;
+import org.eclipse.gmf.tests.runtime.emf.ui.ModelingAssistantServiceTests.MyModelingAssistantService;
+
+/**
+ * Tests the caching of the modeling assistant query results per editing
+ * domain.
+ */
+public class ModelingAssistantQueryCacheTests
+	extends TestCase {
+
+	/**
+	 * Stands for an edit part: adapts to a model element.
+	 */
+	private static class Host
+		implements IAdaptable {
+
+		private final EObject element;
+
+		Host(EObject element) {
+			this.element = element;
+		}
+
+		public Object getAdapter(Class adapter) {
+			return adapter == EObject.class ? element
+				: null;
+		}
+	}
+
+	/**
+	 * Counts the queries it answers.
+	 */
+	private static class CountingProvider
+		extends ModelingAssistantProvider {
+
+		private final List types;
+
+		int count;
+
+		CountingProvider(List types) {
+			this.types = types;
+		}
+
+		public List getTypesForPopupBar(IAdaptable host) {
+			count++;
+			return types;
+		}
+	}
+
+	private MyModelingAssistantService service;
+
+	private CountingProvider provider;
+
+	private MyElementType type;
+
+	private TransactionalEditingDomain domain;
+
+	private Resource resource;
+
+	public ModelingAssistantQueryCacheTests(String name) {
+		super(name);
+	}
+
+	public static void main(String[] args) {
+		TestRunner.run(suite());
+	}
+
+	public static Test suite() {
+		return new TestSuite(ModelingAssistantQueryCacheTests.class);
+	}
+
+	protected void setUp()
+		throws Exception {
+		super.setUp();
+		type = new MyElementType("TYPE1"); //$NON-NLS-1$
+		provider = new CountingProvider(Collections.singletonList(type));
+		service = new MyModelingAssistantService();
+		service.addModelingAssistantProvider(ProviderPriority.MEDIUM,
+			new MyModelingAssistantService.ProviderDescriptor(provider));
+
+		domain = TransactionalEditingDomain.Factory.INSTANCE
+			.createEditingDomain();
+		resource = domain.getResourceSet().createResource(
+			URI.createURI("null://org.eclipse.gmf.tests.runtime.emf.ui")); //$NON-NLS-1$
+	}
+
+	protected void tearDown()
+		throws Exception {
+		domain.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that repeating a query on the same host reuses the result.
+	 */
+	public void test_repeatedQueryCached() {
+		Host host = new Host(createElement());
+
+		List first = service.getTypesForPopupBar(host);
+		List second = service.getTypesForPopupBar(host);
+
+		assertEquals(1, provider.count);
+		assertEquals(Collections.singletonList(type), first);
+		assertEquals(first, second);
+
+		service.getTypesForPopupBar(new Host(createElement()));
+		assertEquals(2, provider.count);
+	}
+
+	/**
+	 * Tests that a change to the editing domain invalidates the cached
+	 * results.
+	 */
+	public void test_changeInvalidatesCache() {
+		Host host = new Host(createElement());
+
+		service.getTypesForPopupBar(host);
+		createElement();
+		service.getTypesForPopupBar(host);
+
+		assertEquals(2, provider.count);
+	}
+
+	/**
+	 * Tests that the cache does not keep the hosts of its queries alive, as
+	 * would be the case for the edit parts of a closed editor.
+	 */
+	public void test_closedHostNotLeaked() {
+		Host host = new Host(createElement());
+		service.getTypesForPopupBar(host);
+
+		WeakReference ref = new WeakReference(host);
+		host = null;
+
+		for (int i = 0; i < 10 && ref.get() != null; i++) {
+			System.gc();
+		}
+		assertNull("The cache keeps the host alive", ref.get()); //$NON-NLS-1$
+
+		// the editing domain and its cache are still in use
+		service.getTypesForPopupBar(new Host(createElement()));
+		assertEquals(2, provider.count);
+	}
+
+	private EObject createElement() {
+		final EObject[] result = new EObject[1];
+		domain.getCommandStack().execute(new RecordingCommand(domain) {
+
+			protected void doExecute() {
+				result[0] = EcoreFactory.eINSTANCE.createEClass();
+				resource.getContents().add(result[0]);
+			}
+		});
+		return result[0];
+	}
+}
@@ -0,0 +1,330 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ****************************************************************************/
+
+package org.eclipse.gmf.tests.runtime.emf.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.gmf.runtime.common.core.command.ICommand;
+import org.eclipse.gmf.runtime.common.core.service.AbstractProvider;
+import org.eclipse.gmf.runtime.common.core.service.IOperation;
+import org.eclipse.gmf.runtime.common.core.service.IProvider;
+import org.eclipse.gmf.runtime.common.core.service.IProviderPolicy;
+import org.eclipse.gmf.runtime.common.core.service.ProviderPriority;
+import org.eclipse.gmf.runtime.common.core.service.Service;
+import org.eclipse.gmf.runtime.common.ui.services.parser.GetParserOperation;
+import org.eclipse.gmf.runtime.common.ui.services.parser.IParser;
+import org.eclipse.gmf.runtime.common.ui.services.parser.IParserEditStatus;
+import org.eclipse.gmf.runtime.common.ui.services.parser.IParserProvider;
+import org.eclipse.gmf.runtime.common.ui.services.parser.ParserService;
+import org.eclipse.gmf.runtime.emf.type.core.IElementType;
+import org.eclipse.gmf.runtime.emf.ui.services.parser.ParserHintAdapter;
+import org.eclipse.gmf.tests.runtime.common.core.internal.util.TestingConfigurationElement;
+import org.eclipse.gmf.tests.runtime.emf.ui.ModelingAssistantServiceTests.MyElementType;
+import org.eclipse.jface.text.contentassist.IContentAssistProcessor;
+import org.osgi.framework.Bundle;
+
+/**
+ * Tests that the parser service, which caches its providers by the types of
+ * the elements of the hints, finds the same parsers from its cache as a fresh
+ * lookup would.
+ */
+public class ParserServiceCachingTests
+	extends TestCase {
+
+	/**
+	 * A parser service to which the providers are passed in.
+	 */
+	private static class MyParserService
+		extends ParserService {
+
+		private static class ProviderDescriptor
+			extends Service.ProviderDescriptor {
+
+			ProviderDescriptor(IProvider provider) {
+				super(new TestingConfigurationElement());
+				this.provider = provider;
+				provider.addProviderChangeListener(this);
+			}
+
+			public IProvider getProvider() {
+				return provider;
+			}
+
+			protected IProviderPolicy getPolicy() {
+				return null;
+			}
+		}
+
+		void addParserProvider(ProviderPriority priority, IProvider provider) {
+			addProvider(priority, new ProviderDescriptor(provider));
+		}
+	}
+
+	/**
+	 * Provides its parser for hints whose model element has one of its
+	 * metaclasses, or whose element type is one of its types.
+	 */
+	private static class TypeParserProvider
+		extends AbstractProvider
+		implements IParserProvider {
+
+		private final List types;
+
+		private final IParser parser = new StubParser();
+
+		int count;
+
+		TypeParserProvider(Object[] types) {
+			this.types = Arrays.asList(types);
+		}
+
+		public boolean provides(IOperation operation) {
+			count++;
+			if (!(operation instanceof GetParserOperation)) {
+				return false;
+			}
+			IAdaptable hint = ((GetParserOperation) operation).getHint();
+			EObject element = (EObject) hint.getAdapter(EObject.class);
+			return types.contains(hint.getAdapter(IElementType.class))
+				|| (element != null && types.contains(element.eClass()));
+		}
+
+		public IParser getParser(IAdaptable hint) {
+			return parser;
+		}
+	}
+
+	/**
+	 * A parser that does nothing.
+	 */
+	private static class StubParser
+		implements IParser {
+
+		public String getEditString(IAdaptable element, int flags) {
+			return null;
+		}
+
+		public IParserEditStatus isValidEditString(IAdaptable element,
+				String editString) {
+			return null;
+		}
+
+		public ICommand getParseCommand(IAdaptable element, String newString,
+				int flags) {
+			return null;
+		}
+
+		public String getPrintString(IAdaptable element, int flags) {
+			return null;
+		}
+
+		public boolean isAffectingEvent(Object event, int flags) {
+			return false;
+		}
+
+		public IContentAssistProcessor getCompletionProcessor(
+				IAdaptable element) {
+			return null;
+		}
+	}
+
+	/**
+	 * A hint for an element type.
+	 */
+	private static class TypeHint
+		implements IAdaptable {
+
+		private final IElementType type;
+
+		TypeHint(IElementType type) {
+			this.type = type;
+		}
+
+		public Object getAdapter(Class adapter) {
+			if (adapter == IElementType.class) {
+				return type;
+			}
+			if (adapter == String.class) {
+				return SEMANTIC_HINT;
+			}
+			return null;
+		}
+	}
+
+	private static final String SEMANTIC_HINT = "label"; //$NON-NLS-1$
+
+	private final List providers = new ArrayList();
+
+	private final List priorities = new ArrayList();
+
+	public ParserServiceCachingTests(String name) {
+		super(name);
+	}
+
+	public static void main(String[] args) {
+		TestRunner.run(suite());
+	}
+
+	public static Test suite() {
+		return new TestSuite(ParserServiceCachingTests.class);
+	}
+
+	protected void setUp()
+		throws Exception {
+		super.setUp();
+		// the EMF UI plug-in tells the service the types of the elements
+		Platform.getBundle("org.eclipse.gmf.runtime.emf.ui").start( //$NON-NLS-1$
+			Bundle.START_TRANSIENT);
+	}
+
+	/**
+	 * Tests that dynamic model elements of different metaclasses, which share
+	 * their Java class, do not share their providers.
+	 */
+	public void test_dynamicElementsNotShared() {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		EClass eClass1 = createEClass(ePackage, "Class1"); //$NON-NLS-1$
+		EClass eClass2 = createEClass(ePackage, "Class2"); //$NON-NLS-1$
+		EObject element1 = EcoreUtil.create(eClass1);
+		EObject element2 = EcoreUtil.create(eClass2);
+		assertSame(element1.getClass(), element2.getClass());
+
+		TypeParserProvider both = new TypeParserProvider(new Object[] {
+			eClass1, eClass2});
+		TypeParserProvider second = new TypeParserProvider(
+			new Object[] {eClass2});
+		MyParserService service = createService(new IProvider[] {both,
+			second});
+
+		IAdaptable hint1 = new ParserHintAdapter(element1, SEMANTIC_HINT);
+		IAdaptable hint2 = new ParserHintAdapter(element2, SEMANTIC_HINT);
+
+		assertSame(both.getParser(hint1), service.getParser(hint1));
+		assertSame(second.getParser(hint2), service.getParser(hint2));
+		assertSameAsFresh(service, hint1);
+		assertSameAsFresh(service, hint2);
+	}
+
+	/**
+	 * Tests that specialization types, which share their Java class, do not
+	 * share their providers.
+	 */
+	public void test_specializationTypesNotShared() {
+		IElementType type1 = new MyElementType("type1"); //$NON-NLS-1$
+		IElementType type2 = new MyElementType("type2"); //$NON-NLS-1$
+
+		TypeParserProvider both = new TypeParserProvider(new Object[] {
+			type1, type2});
+		TypeParserProvider second = new TypeParserProvider(
+			new Object[] {type2});
+		MyParserService service = createService(new IProvider[] {both,
+			second});
+
+		IAdaptable hint1 = new TypeHint(type1);
+		IAdaptable hint2 = new TypeHint(type2);
+
+		assertSame(both.getParser(hint1), service.getParser(hint1));
+		assertSame(second.getParser(hint2), service.getParser(hint2));
+		assertSameAsFresh(service, hint1);
+		assertSameAsFresh(service, hint2);
+	}
+
+	/**
+	 * Tests that the providers for hints of the same types are found in the
+	 * cache, including the absence of providers.
+	 */
+	public void test_repeatedLookupCached() {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		EClass eClass = createEClass(ePackage, "Class"); //$NON-NLS-1$
+		EClass otherEClass = createEClass(ePackage, "Other"); //$NON-NLS-1$
+
+		TypeParserProvider provider = new TypeParserProvider(
+			new Object[] {eClass});
+		MyParserService service = createService(new IProvider[] {provider});
+
+		IAdaptable hint = new ParserHintAdapter(EcoreUtil.create(eClass),
+			SEMANTIC_HINT);
+		service.getParser(hint);
+		long misses = service.getCacheMisses();
+
+		IAdaptable sameType = new ParserHintAdapter(
+			EcoreUtil.create(eClass), SEMANTIC_HINT);
+		assertSame(provider.getParser(hint), service.getParser(sameType));
+		assertEquals(misses, service.getCacheMisses());
+		assertSameAsFresh(service, sameType);
+
+		// no provider provides for the other metaclass
+		IAdaptable other = new ParserHintAdapter(EcoreUtil
+			.create(otherEClass), SEMANTIC_HINT);
+		assertNull(service.getParser(other));
+		misses = service.getCacheMisses();
+		int count = provider.count;
+		assertNull(service.getParser(other));
+		assertEquals(misses, service.getCacheMisses());
+		assertEquals(count, provider.count);
+	}
+
+	private MyParserService createService(IProvider[] serviceProviders) {
+		providers.clear();
+		priorities.clear();
+		// the later providers have the higher priority
+		ProviderPriority[] order = {ProviderPriority.LOW,
+			ProviderPriority.MEDIUM, ProviderPriority.HIGH};
+		for (int i = 0; i < serviceProviders.length; i++) {
+			providers.add(serviceProviders[i]);
+			priorities.add(order[i]);
+		}
+		return createService();
+	}
+
+	private MyParserService createService() {
+		MyParserService service = new MyParserService();
+		Iterator i = providers.iterator();
+		Iterator j = priorities.iterator();
+		while (i.hasNext()) {
+			service.addParserProvider((ProviderPriority) j.next(),
+				(IProvider) i.next());
+		}
+		return service;
+	}
+
+	private void assertSameAsFresh(MyParserService service, IAdaptable hint) {
+		long hits = service.getCacheHits();
+		IParser cached = service.getParser(hint);
+		assertTrue("The lookup was not cached", //$NON-NLS-1$
+			service.getCacheHits() > hits);
+		assertSame(createService().getParser(hint), cached);
+	}
+
+	private EClass createEClass(EPackage ePackage, String name) {
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName(name);
+		ePackage.getEClassifiers().add(eClass);
+		return eClass;
+	}
+}